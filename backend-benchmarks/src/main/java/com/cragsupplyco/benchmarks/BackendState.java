@@ -0,0 +1,62 @@
+package com.cragsupplyco.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cragsupplyco.backend.BackendApplication;
+import com.cragsupplyco.backend.mappers.InventoryMapper;
+import com.cragsupplyco.backend.mappers.ProductMapper;
+import com.cragsupplyco.backend.services.InventoryService;
+import com.cragsupplyco.backend.utils.TestDataUtil;
+
+// Boots the application (without the web server) against an in-memory H2
+// database seeded with a synthetic catalog of the given size. Every product is
+// stocked in every warehouse, so there are catalogSize * WAREHOUSES inventory
+// items with ids 1..itemCount.
+@State(Scope.Benchmark)
+public class BackendState {
+    public static final int WAREHOUSES = 3;
+    public static final int QUANTITY = 100;
+
+    @Param({ "100", "1000", "5000" })
+    public int catalogSize;
+
+    public ConfigurableApplicationContext context;
+    public InventoryMapper inventoryMapper;
+    public ProductMapper productMapper;
+    public InventoryService inventoryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passed as arguments so they override application.yaml
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks-" + catalogSize + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+
+        context.getBean(TestDataUtil.class).generateSyntheticData(WAREHOUSES, catalogSize, QUANTITY);
+        inventoryMapper = context.getBean(InventoryMapper.class);
+        productMapper = context.getBean(ProductMapper.class);
+        inventoryService = context.getBean(InventoryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public int itemCount() {
+        return catalogSize * WAREHOUSES;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cragsupplyco.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.models.Inventory;
+
+// The inventory write paths (each call is its own transaction) on items picked at
+// random across the catalog. Quantities alternate up and down so they stay
+// stable however long the benchmark runs.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Toggle {
+        private boolean up;
+
+        boolean next() {
+            up = !up;
+            return up;
+        }
+    }
+
+    // save() of an item that already exists adds to its quantity
+    @Benchmark
+    public Inventory saveExisting(BackendState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        InventoryRequestDto dto = new InventoryRequestDto("1", "M", random.nextInt(state.catalogSize) + 1,
+                random.nextInt(BackendState.WAREHOUSES) + 1);
+        return state.inventoryService.save(dto);
+    }
+
+    @Benchmark
+    public Inventory updateInventoryById(BackendState state, Toggle toggle) {
+        // Item ids follow the seeding order: product by product, warehouse by warehouse
+        int id = ThreadLocalRandom.current().nextInt(state.itemCount()) + 1;
+        int product = (id - 1) / BackendState.WAREHOUSES + 1;
+        int warehouse = (id - 1) % BackendState.WAREHOUSES + 1;
+        String quantity = String.valueOf(toggle.next() ? BackendState.QUANTITY + 1 : BackendState.QUANTITY);
+
+        return state.inventoryService.updateInventoryById(id,
+                new InventoryRequestDto(quantity, "M", product, warehouse));
+    }
+
+    @Benchmark
+    public UpdateQuantityResponseDto updateQuantityById(BackendState state, Toggle toggle) {
+        int id = ThreadLocalRandom.current().nextInt(state.itemCount()) + 1;
+        return state.inventoryService.updateQuantityById(id, toggle.next() ? "increment" : "decrement", 1);
+    }
+}
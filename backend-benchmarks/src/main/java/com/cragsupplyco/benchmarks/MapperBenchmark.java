@@ -0,0 +1,42 @@
+package com.cragsupplyco.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.dtos.ProductRequestDto;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+
+// Mapping request DTOs to entities, including the warehouse/product/category
+// lookups by id the mappers make (picked at random across the catalog)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Benchmark
+    public Inventory toInventory(BackendState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        InventoryRequestDto dto = new InventoryRequestDto("1", "M", random.nextInt(state.catalogSize) + 1,
+                random.nextInt(BackendState.WAREHOUSES) + 1);
+        return state.inventoryMapper.toInventory(dto);
+    }
+
+    @Benchmark
+    public Product toProduct(BackendState state) {
+        ProductRequestDto dto = new ProductRequestDto("Brand", "Product", "Description", "19.99",
+                ThreadLocalRandom.current().nextInt(Math.min(state.catalogSize, 10)) + 1);
+        return state.productMapper.toProduct(dto);
+    }
+}
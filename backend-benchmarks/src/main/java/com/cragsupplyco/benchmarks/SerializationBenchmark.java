@@ -0,0 +1,107 @@
+package com.cragsupplyco.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Views;
+import com.cragsupplyco.backend.models.Warehouse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// Serializing the product list as the controllers do, with the public view
+// (products only) and the internal view (products with their inventory). The
+// catalog is built in memory so only Jackson is measured.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "100", "1000", "5000" })
+    public int catalogSize;
+
+    private List<Product> products;
+    private ObjectWriter publicWriter;
+    private ObjectWriter internalWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures (e.g. fields
+        // without a view are excluded when a view is active)
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        publicWriter = objectMapper.writerWithView(Views.Public.class);
+        internalWriter = objectMapper.writerWithView(Views.Internal.class);
+
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int w = 1; w <= BackendState.WAREHOUSES; w++) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.setId(w);
+            warehouse.setName("WH" + w);
+            warehouse.setMaxCapacity(1_000_000);
+            warehouse.setStreetAddress(w + " Synthetic Way");
+            warehouse.setCity("Boulder");
+            warehouse.setState("CO");
+            warehouse.setZipCode("80301");
+            warehouses.add(warehouse);
+        }
+
+        Category category = new Category();
+        category.setId(1);
+        category.setName("Category 1");
+
+        products = new ArrayList<>(catalogSize);
+        int itemId = 1;
+        for (int p = 1; p <= catalogSize; p++) {
+            Product product = new Product();
+            product.setId(p);
+            product.setBrand("Brand " + (p % 25));
+            product.setName("Product " + p);
+            product.setDescription("Synthetic product " + p + " for benchmarks and load tests.");
+            product.setPrice(10 + (p % 200));
+            product.setCategory(category);
+
+            List<Inventory> inventory = new ArrayList<>();
+            for (Warehouse warehouse : warehouses) {
+                Inventory item = new Inventory();
+                item.setId(itemId++);
+                item.setProduct(product);
+                item.setWarehouse(warehouse);
+                item.setSize("M");
+                item.setQuantity(BackendState.QUANTITY);
+                inventory.add(item);
+            }
+            product.setInventory(inventory);
+            products.add(product);
+        }
+    }
+
+    @Benchmark
+    public byte[] publicView() throws JsonProcessingException {
+        return publicWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] internalView() throws JsonProcessingException {
+        return internalWriter.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,310 @@
+package com.cragsupplyco.benchmarks.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cragsupplyco.backend.BackendApplication;
+import com.cragsupplyco.backend.utils.TestDataUtil;
+
+// HTTP load generator for the REST API. Boots the application against an
+// in-memory H2 database seeded with a synthetic catalog (or targets a running
+// instance with --url), then drives a weighted mix of endpoints from a number of
+// closed-loop workers and reports throughput and p50/p99 latency per endpoint.
+//
+// Options (all --name=value): url, warehouses, products, threads, warmup and
+// duration (seconds), seed, hot-items (PATCH only the first N inventory items to
+// provoke contention, 0 for all) and mix (e.g. "inventory-patch=50,product=50").
+public class LoadTest {
+
+    private static final String DEFAULT_MIX = "inventory-page=20,inventory-patch=30,product=10,product-by-id=10,"
+            + "product-detailed=5,warehouse=5,warehouse-by-id=10,category=5,category-by-id=5";
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final int warehouses;
+    private final int products;
+    private final int hotItems;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    LoadTest(Map<String, String> options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.warehouses = intOption("warehouses", 5);
+        this.products = intOption("products", 1000);
+        this.hotItems = intOption("hot-items", 0);
+
+        List<Endpoint> mixEndpoints = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (String entry : options.getOrDefault("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split("=");
+            total += Integer.parseInt(parts[1]);
+            mixEndpoints.add(Endpoint.fromName(parts[0]));
+            weights.add(total);
+        }
+        this.endpoints = mixEndpoints.toArray(new Endpoint[0]);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(parts[0], parts.length > 1 ? parts[1] : "true");
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            context = startApplication(options);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new LoadTest(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(Map<String, String> options) {
+        // Passed as arguments so they override application.yaml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+
+        int warehouses = Integer.parseInt(options.getOrDefault("warehouses", "5"));
+        int products = Integer.parseInt(options.getOrDefault("products", "1000"));
+        context.getBean(TestDataUtil.class).generateSyntheticData(warehouses, products, 1000);
+        System.out.printf("Seeded %d warehouses, %d products, %d inventory items%n", warehouses, products,
+                warehouses * products);
+        return context;
+    }
+
+    void run() throws Exception {
+        int threads = intOption("threads", 8);
+        long warmupNanos = Duration.ofSeconds(intOption("warmup", 10)).toNanos();
+        long durationNanos = Duration.ofSeconds(intOption("duration", 30)).toNanos();
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        System.out.printf("Driving %s with %d threads (%ds warmup, %ds measured)%n", baseUrl, threads,
+                warmupNanos / 1_000_000_000, durationNanos / 1_000_000_000);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(seed + t); // Same seed, same request sequence per worker
+            futures.add(executor.submit(() -> work(random, measureFrom, end)));
+        }
+
+        LatencyRecorder total = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            total.merge(future.get());
+        }
+        executor.shutdown();
+
+        total.report(durationNanos);
+    }
+
+    private LatencyRecorder work(Random random, long measureFrom, long end) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        boolean increment = false;
+
+        for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+            Endpoint endpoint = pick(random);
+            HttpRequest request;
+            if (endpoint == Endpoint.INVENTORY_PATCH) {
+                increment = !increment; // Alternate so quantities stay stable
+                request = endpoint.request(baseUrl, patchItem(random), increment);
+            } else {
+                request = endpoint.request(baseUrl, endpoint.pickId(random, warehouses, products), false);
+            }
+
+            boolean ok;
+            long sent = System.nanoTime();
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long received = System.nanoTime();
+
+            if (sent >= measureFrom) {
+                recorder.record(endpoint, received - sent, ok);
+            }
+        }
+        return recorder;
+    }
+
+    private Endpoint pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private int patchItem(Random random) {
+        int items = warehouses * products;
+        return random.nextInt(hotItems > 0 ? Math.min(hotItems, items) : items) + 1;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    enum Endpoint {
+        INVENTORY_PAGE("inventory-page", "GET /api/inventory"),
+        INVENTORY_PATCH("inventory-patch", "PATCH /api/inventory/{id}"),
+        PRODUCT("product", "GET /api/product"),
+        PRODUCT_BY_ID("product-by-id", "GET /api/product/{id}"),
+        PRODUCT_DETAILED("product-detailed", "GET /api/product/detailed"),
+        WAREHOUSE("warehouse", "GET /api/warehouse"),
+        WAREHOUSE_BY_ID("warehouse-by-id", "GET /api/warehouse/{id}"),
+        CATEGORY("category", "GET /api/category"),
+        CATEGORY_BY_ID("category-by-id", "GET /api/category/{id}");
+
+        private final String name;
+        private final String label;
+
+        Endpoint(String name, String label) {
+            this.name = name;
+            this.label = label;
+        }
+
+        static Endpoint fromName(String name) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.name.equals(name)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in mix: " + name);
+        }
+
+        String label() {
+            return label;
+        }
+
+        int pickId(Random random, int warehouses, int products) {
+            return switch (this) {
+                case INVENTORY_PAGE -> random.nextInt(warehouses * products); // Cursor to start the page after
+                case PRODUCT_BY_ID -> random.nextInt(products) + 1;
+                case WAREHOUSE_BY_ID -> random.nextInt(warehouses) + 1;
+                case CATEGORY_BY_ID -> random.nextInt(Math.min(products, 10)) + 1;
+                default -> 0;
+            };
+        }
+
+        HttpRequest request(String baseUrl, int id, boolean increment) {
+            String path;
+            switch (this) {
+                case INVENTORY_PAGE -> path = "/api/inventory?limit=50&after=" + id;
+                case INVENTORY_PATCH -> {
+                    String body = "{\"operation\":\"" + (increment ? "increment" : "decrement") + "\",\"value\":1}";
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/inventory/" + id))
+                            .header("Content-Type", "application/json")
+                            .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }
+                case PRODUCT -> path = "/api/product";
+                case PRODUCT_BY_ID -> path = "/api/product/" + id;
+                case PRODUCT_DETAILED -> path = "/api/product/detailed";
+                case WAREHOUSE -> path = "/api/warehouse";
+                case WAREHOUSE_BY_ID -> path = "/api/warehouse/" + id;
+                case CATEGORY -> path = "/api/category";
+                default -> path = "/api/category/" + id;
+            }
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+    }
+
+    // Latencies (in nanoseconds) and error counts per endpoint, recorded by one
+    // worker and merged at the end
+    static class LatencyRecorder {
+        private final Map<Endpoint, long[]> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Integer> counts = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Integer> errors = new EnumMap<>(Endpoint.class);
+
+        void record(Endpoint endpoint, long nanos, boolean ok) {
+            int count = counts.getOrDefault(endpoint, 0);
+            long[] values = latencies.computeIfAbsent(endpoint, e -> new long[1024]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(endpoint, values);
+            }
+            values[count] = nanos;
+            counts.put(endpoint, count + 1);
+            if (!ok) {
+                errors.merge(endpoint, 1, Integer::sum);
+            }
+        }
+
+        void merge(LatencyRecorder other) {
+            other.counts.forEach((endpoint, count) -> {
+                long[] values = other.latencies.get(endpoint);
+                for (int i = 0; i < count; i++) {
+                    record(endpoint, values[i], true);
+                }
+            });
+            other.errors.forEach((endpoint, count) -> errors.merge(endpoint, count, Integer::sum));
+        }
+
+        void report(long durationNanos) {
+            double seconds = durationNanos / 1e9;
+            int totalRequests = 0;
+
+            System.out.printf("%n%-28s %9s %7s %10s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "Req/s",
+                    "p50 ms", "p99 ms", "max ms");
+            for (Endpoint endpoint : Endpoint.values()) {
+                int count = counts.getOrDefault(endpoint, 0);
+                if (count == 0) {
+                    continue;
+                }
+                long[] sorted = Arrays.copyOf(latencies.get(endpoint), count);
+                Arrays.sort(sorted);
+                totalRequests += count;
+
+                System.out.printf("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f%n", endpoint.label(), count,
+                        errors.getOrDefault(endpoint, 0), count / seconds, percentile(sorted, 0.50),
+                        percentile(sorted, 0.99), sorted[count - 1] / 1e6);
+            }
+            System.out.printf("%-28s %9d %7s %10.1f%n", "Total", totalRequests, "", totalRequests / seconds);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
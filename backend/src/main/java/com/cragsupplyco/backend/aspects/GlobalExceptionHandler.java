@@ -3,6 +3,8 @@ package com.cragsupplyco.backend.aspects;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,6 +12,11 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.exceptions.PreconditionFailedException;
+
+import jakarta.persistence.OptimisticLockException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -35,6 +42,61 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
 
+    // Return guarded updates that lost to a concurrent change with 409 status and
+    // body with exception message (other IllegalStateExceptions are errors, so
+    // they are left to the 500 handler)
+    @ExceptionHandler(ConcurrentModificationConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleConcurrentModificationConflictException(
+            ConcurrentModificationConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleDataIntegrityViolationException(DataIntegrityViolationException ex) { // Return
+                                                                                                              // constraint
+                                                                                                              // violations
+                                                                                                              // (e.g., a
+                                                                                                              // duplicate
+                                                                                                              // inventory
+                                                                                                              // item)
+                                                                                                              // with 409
+                                                                                                              // status
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The request conflicts with existing data.");
+    }
+
+    // Return updates of a row that was changed since it was read (detected by its
+    // version) with 409 status
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The resource was changed by another request. Please retry.");
+    }
+
+    // The same, when the conflict is detected by Hibernate outside a Spring
+    // repository call (e.g., on flush) and so is not translated
+    @ExceptionHandler(OptimisticLockException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleOptimisticLockException(OptimisticLockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The resource was changed by another request. Please retry.");
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException ex) { // Return
+                                                                                                      // If-Match
+                                                                                                      // mismatches
+                                                                                                      // with 412
+                                                                                                      // status and
+                                                                                                      // body with
+                                                                                                      // exception
+                                                                                                      // message
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<String> handleGeneralException(Exception ex) { // Return all other exceptions as 500 status
@@ -0,0 +1,65 @@
+package com.cragsupplyco.backend.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Times every public InventoryService operation as "inventory.service", tagged
+// with the operation (method name) and its outcome, so e.g. the rate of
+// capacity-exceeded failures can be told apart from successful updates
+@Aspect
+@Component
+public class InventoryMetricsAspect {
+    private MeterRegistry registry;
+
+    public InventoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.cragsupplyco.backend.services.InventoryService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("inventory.service")
+                    .description("Time taken by InventoryService operations")
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    // Classifies the failures the service reports by their exception type
+    static String outcome(RuntimeException e) {
+        if (e instanceof ConcurrentModificationConflictException || e instanceof DataIntegrityViolationException
+                || e instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        } else if (e instanceof CapacityExceededException) {
+            return "capacity-exceeded";
+        } else if (e instanceof InsufficientQuantityException) {
+            return "below-zero";
+        } else if (e instanceof ResourceNotFoundException) {
+            return "not-found";
+        } else if (e instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+}
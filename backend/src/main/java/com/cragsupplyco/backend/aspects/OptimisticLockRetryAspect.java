@@ -0,0 +1,91 @@
+package com.cragsupplyco.backend.aspects;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.OptimisticLockException;
+
+// Runs InventoryService mutators again when their transaction fails because an
+// entity was changed since it was read (its @Version no longer matched), after a
+// random backoff so the requests that collided do not collide again. Each
+// attempt is a new transaction that reads the current state, so under contention
+// updates are neither lost nor serialized by row locks held while they run.
+// Conflicts and retries are counted as "inventory.service.conflicts" and
+// "inventory.service.retries", tagged with the operation.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2) // Outside the cache and transaction advice, so each attempt commits on its own
+public class OptimisticLockRetryAspect {
+    private MeterRegistry registry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticLockRetryAspect(MeterRegistry registry,
+            @Value("${inventory.retry.max-attempts:3}") int maxAttempts,
+            @Value("${inventory.retry.initial-backoff-ms:10}") long initialBackoffMillis,
+            @Value("${inventory.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Retry attempts must be greater than 0.");
+        }
+        this.registry = registry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Around("execution(public * com.cragsupplyco.backend.services.InventoryService.*(..))"
+            + " && @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Called from another transaction (e.g., confirming a reservation), whose
+        // reads are just as stale, so the conflict is left to the caller
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getName();
+        for (int attempt = 1;; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                registry.counter("inventory.service.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    throw e; // Answered with 409 (see GlobalExceptionHandler)
+                }
+
+                registry.counter("inventory.service.retries", "operation", operation).increment();
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Waits a random time up to the backoff of the attempt (doubled each attempt,
+    // up to the maximum); returns false if the thread was interrupted
+    private boolean backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
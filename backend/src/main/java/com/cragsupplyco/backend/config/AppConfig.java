@@ -1,9 +1,36 @@
 package com.cragsupplyco.backend.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 @Configuration
 @EnableTransactionManagement
+// Cache advice runs outside the transaction advice, so a cached lookup does not
+// open a transaction and an eviction only happens once the change has committed
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableScheduling
 public class AppConfig {
+
+    // The dashboard stats (see StatsService) are not evicted on writes, so they
+    // get their own cache with a much shorter TTL than spring.cache.caffeine.spec
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> statsCacheCustomizer(
+            @Value("${inventory.stats.ttl-ms:5000}") long ttlMillis) {
+        return cacheManager -> cacheManager.registerCustomCache("stats", Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(1)
+                .recordStats()
+                .build());
+    }
 }
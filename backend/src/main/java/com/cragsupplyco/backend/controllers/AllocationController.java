@@ -0,0 +1,33 @@
+package com.cragsupplyco.backend.controllers;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cragsupplyco.backend.dtos.AllocationRequestDto;
+import com.cragsupplyco.backend.dtos.AllocationResultDto;
+import com.cragsupplyco.backend.services.FulfillmentAllocator;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/allocations")
+@CrossOrigin(origins = { "http://crag-supply-co-client.s3-website-us-east-1.amazonaws.com", "http://localhost:5173",
+        "http://[::1]:5173/" })
+public class AllocationController {
+    private FulfillmentAllocator allocator;
+
+    public AllocationController(FulfillmentAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    // Choose the warehouses to take an order's lines from (nothing is held or
+    // decremented)
+    @PostMapping
+    public AllocationResultDto allocate(@Valid @RequestBody AllocationRequestDto allocationRequestDto) {
+        return allocator.allocate(allocationRequestDto);
+    }
+
+}
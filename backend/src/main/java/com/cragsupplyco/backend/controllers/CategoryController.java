@@ -2,6 +2,7 @@ package com.cragsupplyco.backend.controllers;
 
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,13 +13,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.cragsupplyco.backend.models.Category;
 import com.cragsupplyco.backend.models.Views;
+import com.cragsupplyco.backend.services.CatalogResponseService;
+import com.cragsupplyco.backend.services.CatalogVersionService;
 import com.cragsupplyco.backend.services.CategoryService;
+import com.cragsupplyco.backend.utils.EntityTags;
 import com.fasterxml.jackson.annotation.JsonView;
 
 import jakarta.validation.Valid;
@@ -29,15 +35,19 @@ import jakarta.validation.Valid;
         "http://[::1]:5173/" })
 public class CategoryController {
     private CategoryService service;
+    private CatalogVersionService versions;
+    private CatalogResponseService responses;
 
-    public CategoryController(CategoryService service) {
+    public CategoryController(CategoryService service, CatalogVersionService versions, CatalogResponseService responses) {
         this.service = service;
+        this.versions = versions;
+        this.responses = responses;
     }
 
-    @GetMapping // Get all product categories
-    @JsonView(Views.Public.class)
-    public Iterable<Category> findAllCategories() {
-        return service.findAll();
+    @GetMapping // Get all product categories, pre-serialized (304 if unchanged since the ETag or Last-Modified
+                // sent; gzipped if accepted)
+    public ResponseEntity<byte[]> findAllCategories(WebRequest request) {
+        return responses.findAllCategories().toResponseEntity(request);
     }
 
     @PostMapping // Create new product category
@@ -58,18 +68,19 @@ public class CategoryController {
 
     @GetMapping("/{id}") // Get product category by id
     @JsonView(Views.Public.class)
-    public ResponseEntity<Category> findCategoryById(@PathVariable int id) {
+    public ResponseEntity<Category> findCategoryById(@PathVariable int id, WebRequest request) {
         Optional<Category> category = service.findById(id);
         if (category.isPresent())
-            return ResponseEntity.ok(category.get());
+            return EntityTags.conditionalGet(request, category::get, versions.forCategory(category.get()));
         else
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    @PutMapping("/{id}") // Update product category by id
+    @PutMapping("/{id}") // Update product category by id (412 if If-Match is sent and no longer matches)
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
-    public void updateCategoryById(@PathVariable int id, @Valid @RequestBody Category category) {
-        service.updateCategoryById(id, category);
+    public void updateCategoryById(@PathVariable int id, @Valid @RequestBody Category category,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.updateCategoryById(id, category, ifMatch);
     }
 
     @DeleteMapping("/{id}") // Delete product category by id
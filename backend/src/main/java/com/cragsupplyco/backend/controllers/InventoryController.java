@@ -1,8 +1,13 @@
 package com.cragsupplyco.backend.controllers;
 
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,14 +17,38 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cragsupplyco.backend.dtos.AvailabilityDto;
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentResultDto;
+import com.cragsupplyco.backend.dtos.InventoryImportResultDto;
+import com.cragsupplyco.backend.dtos.InventoryPageDto;
 import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferResultDto;
+import com.cragsupplyco.backend.dtos.StockBalanceDto;
+import com.cragsupplyco.backend.dtos.StockMovementPageDto;
 import com.cragsupplyco.backend.dtos.UpdateQuantityRequestDto;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
 import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.services.CatalogVersionService;
+import com.cragsupplyco.backend.services.InventoryChangeStream;
+import com.cragsupplyco.backend.services.InventoryExportService;
+import com.cragsupplyco.backend.services.InventoryImportService;
 import com.cragsupplyco.backend.services.InventoryService;
+import com.cragsupplyco.backend.services.InventoryTransferService;
+import com.cragsupplyco.backend.services.StockLedger;
+import com.cragsupplyco.backend.services.StockReservationService;
+import com.cragsupplyco.backend.utils.EntityTags;
+import com.cragsupplyco.backend.utils.InventoryFileFormat;
 
 import jakarta.validation.Valid;
 
@@ -29,14 +58,86 @@ import jakarta.validation.Valid;
         "http://[::1]:5173/" })
 public class InventoryController {
     private InventoryService service;
+    private InventoryImportService importService;
+    private InventoryExportService exportService;
+    private InventoryChangeStream changes;
+    private StockLedger ledger;
+    private StockReservationService reservations;
+    private InventoryTransferService transferService;
+    private CatalogVersionService versions;
 
-    public InventoryController(InventoryService service) {
+    public InventoryController(InventoryService service, InventoryImportService importService,
+            InventoryExportService exportService, InventoryChangeStream changes, StockLedger ledger,
+            StockReservationService reservations, InventoryTransferService transferService,
+            CatalogVersionService versions) {
         this.service = service;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.changes = changes;
+        this.ledger = ledger;
+        this.reservations = reservations;
+        this.transferService = transferService;
+        this.versions = versions;
     }
 
-    @GetMapping
-    public Iterable<Inventory> findAllInventory() {
-        return service.findAll();
+    @GetMapping // Get inventory items a page at a time (pass nextCursor as "after" for the next page), with
+                // optional filters
+    public InventoryPageDto findAllInventory(@RequestParam(defaultValue = "0") int after,
+            @RequestParam(defaultValue = "100") int limit, @RequestParam(required = false) Integer warehouse,
+            @RequestParam(required = false) Integer product, @RequestParam(required = false) Integer category,
+            @RequestParam(required = false) String size) {
+        return service.findPage(after, limit, warehouse, product, category, size);
+    }
+
+    // Export all inventory items as NDJSON (default) or CSV; rows are streamed to
+    // the response as they are read, so the first bytes arrive right away
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventory(@RequestParam(defaultValue = "ndjson") String format) {
+        InventoryFileFormat fileFormat = InventoryFileFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(fileFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventory." + fileFormat.name().toLowerCase() + "\"")
+                .body(output -> exportService.export(output, fileFormat));
+    }
+
+    // Stream committed inventory and warehouse changes as Server-Sent Events,
+    // optionally only those of one warehouse; EventSource sends the id of the last
+    // event it received as Last-Event-ID when it reconnects, and is sent the events
+    // it missed
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInventoryChanges(@RequestParam(required = false) Integer warehouse,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changes.subscribe(warehouse, lastEventId);
+    }
+
+    // Get the stock movement history a page at a time (pass nextCursor as "after"
+    // for the next page), optionally of one item, product or warehouse and within
+    // a time range (ISO-8601 instants, from inclusive and to exclusive)
+    @GetMapping("/movements")
+    public StockMovementPageDto findStockMovements(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit, @RequestParam(required = false) Integer inventory,
+            @RequestParam(required = false) Integer product, @RequestParam(required = false) Integer warehouse,
+            @RequestParam(required = false) Instant from, @RequestParam(required = false) Instant to) {
+        return ledger.findPage(after, limit, inventory, product, warehouse, from, to);
+    }
+
+    @GetMapping("/{id}/balance") // Get the quantity of an inventory item rebuilt from the stock movement ledger
+    public ResponseEntity<StockBalanceDto> findStockBalance(@PathVariable int id) {
+        Optional<StockBalanceDto> balance = ledger.findBalance(id);
+        if (balance.isPresent())
+            return ResponseEntity.ok(balance.get());
+        else
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @GetMapping("/{id}/availability") // Get the quantity of an inventory item not held by reservations
+    public ResponseEntity<AvailabilityDto> findAvailability(@PathVariable int id) {
+        Optional<AvailabilityDto> availability = reservations.findAvailability(id);
+        if (availability.isPresent())
+            return ResponseEntity.ok(availability.get());
+        else
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @PostMapping
@@ -45,26 +146,52 @@ public class InventoryController {
         return service.save(inventoryRequestDto);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Inventory> findInventoryById(@PathVariable int id) {
+    @GetMapping("/{id}") // Get inventory item by id (304 if If-None-Match is sent and still matches)
+    public ResponseEntity<Inventory> findInventoryById(@PathVariable int id, WebRequest request) {
         Optional<Inventory> inventory = service.findById(id);
         if (inventory.isPresent())
-            return ResponseEntity.ok(inventory.get());
+            return EntityTags.conditionalGet(request, inventory::get, versions.forInventory(inventory.get()));
         else
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    @PutMapping("/{id}")
+    @PutMapping("/{id}") // Update inventory item by id (412 if If-Match is sent and no longer matches)
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
-    public void updateInventoryById(@PathVariable int id, @Valid @RequestBody InventoryRequestDto inventoryRequestDto) {
-        service.updateInventoryById(id, inventoryRequestDto);
+    public void updateInventoryById(@PathVariable int id, @Valid @RequestBody InventoryRequestDto inventoryRequestDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.updateInventoryById(id, inventoryRequestDto, ifMatch);
     }
 
+    // Update the quantity of an inventory item by id (412 if If-Match is sent and
+    // no longer matches); returns the new quantity and warehouse capacity, so
+    // clients need not read them again
     @PatchMapping("/{id}")
-    @ResponseStatus(code = HttpStatus.NO_CONTENT)
-    public void updateInventoryQuantityById(@PathVariable int id,
-            @Valid @RequestBody UpdateQuantityRequestDto quantityUpdate) {
-        service.updateQuantityById(id, quantityUpdate.getOperation(), quantityUpdate.getValue());
+    public UpdateQuantityResponseDto updateInventoryQuantityById(@PathVariable int id,
+            @Valid @RequestBody UpdateQuantityRequestDto quantityUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.updateQuantityById(id, quantityUpdate.getOperation(), quantityUpdate.getValue(), ifMatch);
+    }
+
+    @PostMapping("/adjustments:batch") // Apply many quantity adjustments in one request (per-line results)
+    public List<InventoryAdjustmentResultDto> adjustInventoryQuantities(
+            @RequestBody List<InventoryAdjustmentRequestDto> adjustments) {
+        return service.adjustQuantities(adjustments);
+    }
+
+    // Move stock of a product between warehouses; the whole batch is applied or
+    // none of it is
+    @PostMapping("/transfers")
+    public List<InventoryTransferResultDto> transferInventory(
+            @Valid @RequestBody List<InventoryTransferRequestDto> transfers) {
+        return transferService.transfer(transfers);
+    }
+
+    // Import many inventory items from a CSV or NDJSON upload (read as a stream,
+    // with a report of what was imported and which lines were rejected)
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    public InventoryImportResultDto importInventory(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return importService.importInventory(body, InventoryFileFormat.from(contentType));
     }
 
     @DeleteMapping("/{id}")
@@ -2,6 +2,7 @@ package com.cragsupplyco.backend.controllers;
 
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,14 +13,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.cragsupplyco.backend.dtos.ProductRequestDto;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.models.Views;
+import com.cragsupplyco.backend.services.CatalogResponseService;
+import com.cragsupplyco.backend.services.CatalogVersionService;
 import com.cragsupplyco.backend.services.ProductService;
+import com.cragsupplyco.backend.utils.EntityTags;
 import com.fasterxml.jackson.annotation.JsonView;
 
 import jakarta.validation.Valid;
@@ -30,24 +36,31 @@ import jakarta.validation.Valid;
         "http://[::1]:5173/" })
 public class ProductController {
     private ProductService service;
+    private CatalogVersionService versions;
+    private CatalogResponseService responses;
 
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, CatalogVersionService versions, CatalogResponseService responses) {
         this.service = service;
+        this.versions = versions;
+        this.responses = responses;
     }
 
-    @GetMapping // Get all products (without inventory)
-    @JsonView(Views.Public.class)
-    public Iterable<Product> findAllProducts() {
-        return service.findAll();
+    @GetMapping // Get all products (without inventory), pre-serialized (304 if unchanged since the ETag or
+                // Last-Modified sent; gzipped if accepted)
+    public ResponseEntity<byte[]> findAllProducts(WebRequest request) {
+        return responses.findAllProducts().toResponseEntity(request);
     }
 
-    @GetMapping("/detailed") // Get all products (with inventory)
+    @GetMapping("/detailed") // Get all products (with inventory) (304 if unchanged since the ETag or
+                             // Last-Modified sent)
     @JsonView(Views.Internal.class)
-    public Iterable<Product> findAllProducts(@RequestParam(required = false) Integer categoryId) {
+    public ResponseEntity<Iterable<Product>> findAllProducts(@RequestParam(required = false) Integer categoryId,
+            WebRequest request) {
         if (categoryId != null) {
-            return service.findAllByCategoryId(categoryId);
+            return EntityTags.conditionalGet(request, () -> service.findAllByCategoryId(categoryId),
+                    versions.forProductsWithInventory());
         }
-        return service.findAll();
+        return EntityTags.conditionalGet(request, service::findAllWithInventory, versions.forProductsWithInventory());
     }
 
     @PostMapping // Create new product
@@ -68,28 +81,29 @@ public class ProductController {
 
     @GetMapping("/{id}") // Get product by id (without inventory)
     @JsonView(Views.Public.class)
-    public ResponseEntity<Product> findProductById(@PathVariable int id) {
+    public ResponseEntity<Product> findProductById(@PathVariable int id, WebRequest request) {
         Optional<Product> product = service.findById(id);
         if (product.isPresent())
-            return ResponseEntity.ok(product.get());
+            return EntityTags.conditionalGet(request, product::get, versions.forProduct(product.get()));
         else
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @GetMapping("/{id}/detailed") // Get product by id (with inventory)
     @JsonView(Views.Internal.class)
-    public ResponseEntity<Product> findProductByIdDetailed(@PathVariable int id) {
-        Optional<Product> product = service.findById(id);
+    public ResponseEntity<Product> findProductByIdDetailed(@PathVariable int id, WebRequest request) {
+        Optional<Product> product = service.findByIdWithInventory(id);
         if (product.isPresent())
-            return ResponseEntity.ok(product.get());
+            return EntityTags.conditionalGet(request, product::get, versions.forProductWithInventory(product.get()));
         else
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    @PutMapping("/{id}") // Update product by id
+    @PutMapping("/{id}") // Update product by id (412 if If-Match is sent and no longer matches)
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
-    public void updateProductById(@PathVariable int id, @Valid @RequestBody ProductRequestDto productRequestDto) {
-        service.updateProductById(id, productRequestDto);
+    public void updateProductById(@PathVariable int id, @Valid @RequestBody ProductRequestDto productRequestDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.updateProductById(id, productRequestDto, ifMatch);
     }
 
     @DeleteMapping("/{id}") // Delete product by id
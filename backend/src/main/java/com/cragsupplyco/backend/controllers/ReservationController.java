@@ -0,0 +1,59 @@
+package com.cragsupplyco.backend.controllers;
+
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cragsupplyco.backend.dtos.ReservationDto;
+import com.cragsupplyco.backend.dtos.ReservationRequestDto;
+import com.cragsupplyco.backend.services.StockReservationService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = { "http://crag-supply-co-client.s3-website-us-east-1.amazonaws.com", "http://localhost:5173",
+        "http://[::1]:5173/" })
+public class ReservationController {
+    private StockReservationService service;
+
+    public ReservationController(StockReservationService service) {
+        this.service = service;
+    }
+
+    @PostMapping // Hold stock of an inventory item until the reservation is confirmed, released or expires
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public ReservationDto createReservation(@Valid @RequestBody ReservationRequestDto reservationRequestDto) {
+        return service.reserve(reservationRequestDto);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationDto> findReservationById(@PathVariable long id) {
+        Optional<ReservationDto> reservation = service.findById(id);
+        if (reservation.isPresent())
+            return ResponseEntity.ok(reservation.get());
+        else
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/{id}/confirm") // Decrement the item's quantity by the held stock and end the reservation
+    public ResponseEntity<Void> confirmReservation(@PathVariable long id) {
+        return new ResponseEntity<>(service.confirm(id) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+    }
+
+    @DeleteMapping("/{id}") // Release the held stock
+    public ResponseEntity<Void> releaseReservation(@PathVariable long id) {
+        return new ResponseEntity<>(service.release(id) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.cragsupplyco.backend.controllers;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cragsupplyco.backend.dtos.StatsDto;
+import com.cragsupplyco.backend.services.StatsService;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = { "http://crag-supply-co-client.s3-website-us-east-1.amazonaws.com", "http://localhost:5173",
+        "http://[::1]:5173/" })
+public class StatsController {
+    private StatsService service;
+
+    public StatsController(StatsService service) {
+        this.service = service;
+    }
+
+    // Get total and per-warehouse capacity utilization, and units and low-stock
+    // items per product category, for the dashboard (cached for a few seconds)
+    @GetMapping
+    public StatsDto getStats() {
+        return service.getStats();
+    }
+
+}
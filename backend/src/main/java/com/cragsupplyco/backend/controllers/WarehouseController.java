@@ -2,6 +2,7 @@ package com.cragsupplyco.backend.controllers;
 
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,13 +13,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.cragsupplyco.backend.models.Views;
 import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.services.CatalogVersionService;
 import com.cragsupplyco.backend.services.WarehouseService;
+import com.cragsupplyco.backend.utils.EntityTags;
 import com.fasterxml.jackson.annotation.JsonView;
 
 import jakarta.validation.Valid;
@@ -29,15 +34,17 @@ import jakarta.validation.Valid;
         "http://[::1]:5173/" })
 public class WarehouseController {
     private WarehouseService service;
+    private CatalogVersionService versions;
 
-    public WarehouseController(WarehouseService service) {
+    public WarehouseController(WarehouseService service, CatalogVersionService versions) {
         this.service = service;
+        this.versions = versions;
     }
 
-    @GetMapping // Get all warehouses (without inventory)
+    @GetMapping // Get all warehouses (without inventory) (304 if unchanged since the ETag or Last-Modified sent)
     @JsonView(Views.Public.class)
-    public Iterable<Warehouse> findAllWarehouses() {
-        return service.findAll();
+    public ResponseEntity<Iterable<Warehouse>> findAllWarehouses(WebRequest request) {
+        return EntityTags.conditionalGet(request, service::findAll, versions.forWarehouses());
     }
 
     @PostMapping // Create new warehouse
@@ -58,18 +65,19 @@ public class WarehouseController {
 
     @GetMapping("/{id}") // Get warehouse by id (with inventory)
     @JsonView(Views.Internal.class)
-    public ResponseEntity<Warehouse> findWarehouseById(@PathVariable int id) {
-        Optional<Warehouse> warehouse = service.findById(id);
+    public ResponseEntity<Warehouse> findWarehouseById(@PathVariable int id, WebRequest request) {
+        Optional<Warehouse> warehouse = service.findByIdWithInventory(id);
         if (warehouse.isPresent())
-            return ResponseEntity.ok(warehouse.get());
+            return EntityTags.conditionalGet(request, warehouse::get, versions.forWarehouse(warehouse.get()));
         else
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    @PutMapping("/{id}") // Update warehouse by id
+    @PutMapping("/{id}") // Update warehouse by id (412 if If-Match is sent and no longer matches)
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
-    public void updateWarehouseById(@PathVariable int id, @Valid @RequestBody Warehouse warehouse) {
-        service.updateWarehouseById(id, warehouse);
+    public void updateWarehouseById(@PathVariable int id, @Valid @RequestBody Warehouse warehouse,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.updateWarehouseById(id, warehouse, ifMatch);
     }
 
     @DeleteMapping("/{id}") // Delete warehouse by id
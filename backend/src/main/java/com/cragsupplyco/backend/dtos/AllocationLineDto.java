@@ -0,0 +1,49 @@
+package com.cragsupplyco.backend.dtos;
+
+import jakarta.validation.constraints.Min;
+
+// A product and size needed by an order (or, in an allocation result, the part
+// of one that could not be allocated)
+public class AllocationLineDto {
+
+    private int product;
+
+    private String size; // Null for products without sizes
+
+    @Min(value = 1)
+    private int quantity;
+
+    public AllocationLineDto() {
+    }
+
+    public AllocationLineDto(int product, String size, int quantity) {
+        this.product = product;
+        this.size = size;
+        this.quantity = quantity;
+    }
+
+    public int getProduct() {
+        return product;
+    }
+
+    public void setProduct(int product) {
+        this.product = product;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.cragsupplyco.backend.dtos;
+
+// Quantity of one request line to take from an inventory item
+public class AllocationPickDto {
+
+    private int line; // Index of the line in the request
+
+    private int inventory;
+
+    private int warehouse;
+
+    private int quantity;
+
+    public AllocationPickDto() {
+    }
+
+    public AllocationPickDto(int line, int inventory, int warehouse, int quantity) {
+        this.line = line;
+        this.inventory = inventory;
+        this.warehouse = warehouse;
+        this.quantity = quantity;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public int getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(int inventory) {
+        this.inventory = inventory;
+    }
+
+    public int getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(int warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+
+public class AllocationRequestDto {
+
+    @NotEmpty
+    @Valid
+    private List<AllocationLineDto> lines;
+
+    @Pattern(regexp = "^\\d{5}(-\\d{4})?$")
+    private String zipCode; // Optional destination, to prefer nearby warehouses
+
+    @Pattern(regexp = "^[A-Z]{2}$")
+    private String state; // Optional destination, used when no ZIP code is passed
+
+    public AllocationRequestDto() {
+    }
+
+    public AllocationRequestDto(List<AllocationLineDto> lines, String zipCode, String state) {
+        this.lines = lines;
+        this.zipCode = zipCode;
+        this.state = state;
+    }
+
+    public List<AllocationLineDto> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<AllocationLineDto> lines) {
+        this.lines = lines;
+    }
+
+    public String getZipCode() {
+        return zipCode;
+    }
+
+    public void setZipCode(String zipCode) {
+        this.zipCode = zipCode;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+}
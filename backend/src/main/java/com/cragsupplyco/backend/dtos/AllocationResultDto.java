@@ -0,0 +1,50 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.util.List;
+
+// Where to take an order's lines from. Nothing is held; pass the picks to
+// POST /api/reservations to hold them.
+public class AllocationResultDto {
+
+    private List<Integer> warehouses; // Warehouses used, in the order they were chosen (one shipment each)
+
+    private List<AllocationPickDto> picks;
+
+    private List<AllocationLineDto> shortfalls; // Quantities that no warehouse has available (empty if the
+                                               // whole order was allocated)
+
+    public AllocationResultDto() {
+    }
+
+    public AllocationResultDto(List<Integer> warehouses, List<AllocationPickDto> picks,
+            List<AllocationLineDto> shortfalls) {
+        this.warehouses = warehouses;
+        this.picks = picks;
+        this.shortfalls = shortfalls;
+    }
+
+    public List<Integer> getWarehouses() {
+        return warehouses;
+    }
+
+    public void setWarehouses(List<Integer> warehouses) {
+        this.warehouses = warehouses;
+    }
+
+    public List<AllocationPickDto> getPicks() {
+        return picks;
+    }
+
+    public void setPicks(List<AllocationPickDto> picks) {
+        this.picks = picks;
+    }
+
+    public List<AllocationLineDto> getShortfalls() {
+        return shortfalls;
+    }
+
+    public void setShortfalls(List<AllocationLineDto> shortfalls) {
+        this.shortfalls = shortfalls;
+    }
+
+}
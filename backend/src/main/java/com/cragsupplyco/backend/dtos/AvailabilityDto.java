@@ -0,0 +1,57 @@
+package com.cragsupplyco.backend.dtos;
+
+// Available-to-promise quantity of an inventory item: its quantity less the
+// stock held by active reservations
+public class AvailabilityDto {
+
+    private int inventory;
+
+    private int quantity;
+
+    private int reserved;
+
+    private int available; // Never below 0, even if the quantity was decremented below what is reserved
+
+    public AvailabilityDto() {
+    }
+
+    public AvailabilityDto(int inventory, int quantity, int reserved) {
+        this.inventory = inventory;
+        this.quantity = quantity;
+        this.reserved = reserved;
+        this.available = Math.max(quantity - reserved, 0);
+    }
+
+    public int getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(int inventory) {
+        this.inventory = inventory;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+
+}
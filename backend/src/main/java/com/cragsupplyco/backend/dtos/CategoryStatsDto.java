@@ -0,0 +1,56 @@
+package com.cragsupplyco.backend.dtos;
+
+// Units in stock and low-stock count of one product category (see StatsDto)
+public class CategoryStatsDto {
+
+    private int id;
+
+    private String name;
+
+    private long units; // Sum of the quantities of its products' items, in every warehouse
+
+    private long lowStockCount; // Items at or below the low-stock threshold
+
+    public CategoryStatsDto() {
+    }
+
+    public CategoryStatsDto(int id, String name, long units, long lowStockCount) {
+        this.id = id;
+        this.name = name;
+        this.units = units;
+        this.lowStockCount = lowStockCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public long getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public void setLowStockCount(long lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+
+}
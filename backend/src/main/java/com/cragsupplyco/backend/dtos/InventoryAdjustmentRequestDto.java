@@ -0,0 +1,47 @@
+package com.cragsupplyco.backend.dtos;
+
+public class InventoryAdjustmentRequestDto {
+
+    private int id;
+
+    private String operation;
+
+    private int value = 1; // Sets default value to 1 if not passed
+
+    public InventoryAdjustmentRequestDto() {
+    }
+
+    // One line of a batch adjustment, same as UpdateQuantityRequestDto plus the
+    // id of the inventory item (lines are validated individually by the service so
+    // one bad line does not reject the whole batch)
+    public InventoryAdjustmentRequestDto(int id, String operation, int value) {
+        this.id = id;
+        this.operation = operation;
+        this.value = value;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation; // e.g., "increment", "decrement"
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.cragsupplyco.backend.dtos;
+
+public class InventoryAdjustmentResultDto {
+
+    private int id;
+
+    private String operation;
+
+    private int value;
+
+    private boolean success;
+
+    private String message;
+
+    public InventoryAdjustmentResultDto() {
+    }
+
+    public InventoryAdjustmentResultDto(int id, String operation, int value, boolean success, String message) {
+        this.id = id;
+        this.operation = operation;
+        this.value = value;
+        this.success = success;
+        this.message = message;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.cragsupplyco.backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A committed inventory or warehouse change, as sent to the clients of
+// GET /api/inventory/events. Only the fields the change knows are sent; a client
+// that needs more fetches the item or warehouse.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryChangeEventDto {
+
+    public enum Type {
+        INVENTORY_CHANGED, // Created, updated or quantity adjusted
+        INVENTORY_DELETED,
+        INVENTORY_IMPORTED, // Many items of the warehouse changed at once, so refetch its inventory
+        WAREHOUSE_CHANGED, // Created or updated
+        WAREHOUSE_DELETED,
+        RESET // The events since the client's last event id are no longer available, so refetch everything
+    }
+
+    private Type type;
+
+    private Integer warehouse; // Warehouse is passed as id, the same as in the request DTOs
+
+    private Integer previousWarehouse; // Only set when an item moves to another warehouse
+
+    private Integer inventory;
+
+    private Integer product;
+
+    private String size;
+
+    private Integer quantity; // Quantity after the change
+
+    private Integer delta; // Change in quantity, when known (batch adjustments only send this)
+
+    private Integer warehouseCurrentCapacity;
+
+    public InventoryChangeEventDto() {
+    }
+
+    public InventoryChangeEventDto(Type type, Integer warehouse) {
+        this.type = type;
+        this.warehouse = warehouse;
+    }
+
+    // Whether a client following the given warehouse (all warehouses if null)
+    // should receive this event; events without a warehouse go to every client
+    public boolean concerns(Integer warehouseId) {
+        return warehouseId == null || warehouse == null || warehouseId.equals(warehouse)
+                || warehouseId.equals(previousWarehouse);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Integer getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(Integer warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public Integer getPreviousWarehouse() {
+        return previousWarehouse;
+    }
+
+    public void setPreviousWarehouse(Integer previousWarehouse) {
+        this.previousWarehouse = previousWarehouse;
+    }
+
+    public Integer getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(Integer inventory) {
+        this.inventory = inventory;
+    }
+
+    public Integer getProduct() {
+        return product;
+    }
+
+    public void setProduct(Integer product) {
+        this.product = product;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Integer getWarehouseCurrentCapacity() {
+        return warehouseCurrentCapacity;
+    }
+
+    public void setWarehouseCurrentCapacity(Integer warehouseCurrentCapacity) {
+        this.warehouseCurrentCapacity = warehouseCurrentCapacity;
+    }
+}
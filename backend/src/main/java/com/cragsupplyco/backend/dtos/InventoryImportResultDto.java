@@ -0,0 +1,85 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class InventoryImportResultDto {
+
+    private int linesRead; // Data lines read (header and empty lines not counted)
+
+    private int linesRejected;
+
+    private int inserted; // New inventory items
+
+    private int updated; // Existing inventory items whose quantity was incremented
+
+    private int batches; // Batches of up to 500 items written
+
+    // Failure message per line number (only the first errors are kept, see
+    // linesRejected for the total)
+    private Map<Integer, String> errors = new TreeMap<>();
+
+    // Failure message per warehouse id for warehouses whose lines were all rejected
+    // (e.g., because the import would exceed the warehouse capacity)
+    private Map<Integer, String> warehouseErrors = new TreeMap<>();
+
+    public InventoryImportResultDto() {
+    }
+
+    public int getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(int linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public int getLinesRejected() {
+        return linesRejected;
+    }
+
+    public void setLinesRejected(int linesRejected) {
+        this.linesRejected = linesRejected;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public Map<Integer, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<Integer, String> errors) {
+        this.errors = errors;
+    }
+
+    public Map<Integer, String> getWarehouseErrors() {
+        return warehouseErrors;
+    }
+
+    public void setWarehouseErrors(Map<Integer, String> warehouseErrors) {
+        this.warehouseErrors = warehouseErrors;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.util.List;
+
+import com.cragsupplyco.backend.models.Inventory;
+
+public class InventoryPageDto {
+
+    private List<Inventory> items;
+
+    // Id to pass as "after" to fetch the next page (null when this is the last
+    // page)
+    private Integer nextCursor;
+
+    public InventoryPageDto() {
+    }
+
+    public InventoryPageDto(List<Inventory> items, Integer nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Inventory> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Inventory> items) {
+        this.items = items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+}
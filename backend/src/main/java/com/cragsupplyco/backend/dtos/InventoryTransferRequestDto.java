@@ -0,0 +1,71 @@
+package com.cragsupplyco.backend.dtos;
+
+import jakarta.validation.constraints.Min;
+
+public class InventoryTransferRequestDto {
+
+    private int product;
+
+    private String size; // Null for products without sizes
+
+    private int fromWarehouse;
+
+    private int toWarehouse;
+
+    @Min(value = 1)
+    private int quantity;
+
+    public InventoryTransferRequestDto() {
+    }
+
+    // Moves quantity units of a product and size from one warehouse to another;
+    // warehouses are passed as ids, the same as in InventoryRequestDto
+    public InventoryTransferRequestDto(int product, String size, int fromWarehouse, int toWarehouse, int quantity) {
+        this.product = product;
+        this.size = size;
+        this.fromWarehouse = fromWarehouse;
+        this.toWarehouse = toWarehouse;
+        this.quantity = quantity;
+    }
+
+    public int getProduct() {
+        return product;
+    }
+
+    public void setProduct(int product) {
+        this.product = product;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public int getFromWarehouse() {
+        return fromWarehouse;
+    }
+
+    public void setFromWarehouse(int fromWarehouse) {
+        this.fromWarehouse = fromWarehouse;
+    }
+
+    public int getToWarehouse() {
+        return toWarehouse;
+    }
+
+    public void setToWarehouse(int toWarehouse) {
+        this.toWarehouse = toWarehouse;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.cragsupplyco.backend.dtos;
+
+// The inventory items a transfer moved stock between, with their quantities
+// once the whole batch was applied
+public class InventoryTransferResultDto {
+
+    private int fromInventory;
+
+    private int fromQuantity;
+
+    private int toInventory; // Created if the destination warehouse had no item of the product and size
+
+    private int toQuantity;
+
+    private int quantity;
+
+    public InventoryTransferResultDto() {
+    }
+
+    public InventoryTransferResultDto(int fromInventory, int fromQuantity, int toInventory, int toQuantity,
+            int quantity) {
+        this.fromInventory = fromInventory;
+        this.fromQuantity = fromQuantity;
+        this.toInventory = toInventory;
+        this.toQuantity = toQuantity;
+        this.quantity = quantity;
+    }
+
+    public int getFromInventory() {
+        return fromInventory;
+    }
+
+    public void setFromInventory(int fromInventory) {
+        this.fromInventory = fromInventory;
+    }
+
+    public int getFromQuantity() {
+        return fromQuantity;
+    }
+
+    public void setFromQuantity(int fromQuantity) {
+        this.fromQuantity = fromQuantity;
+    }
+
+    public int getToInventory() {
+        return toInventory;
+    }
+
+    public void setToInventory(int toInventory) {
+        this.toInventory = toInventory;
+    }
+
+    public int getToQuantity() {
+        return toQuantity;
+    }
+
+    public void setToQuantity(int toQuantity) {
+        this.toQuantity = toQuantity;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+}
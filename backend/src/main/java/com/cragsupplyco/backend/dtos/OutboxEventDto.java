@@ -0,0 +1,83 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+// A row of the outbox table, as handed to the outbox sink. The payload is the
+// change (an InventoryChangeEventDto) as JSON, and is written out as is.
+public class OutboxEventDto {
+
+    private long id;
+
+    private Integer warehouse; // Null for changes that are not tied to one warehouse
+
+    private long seq; // Commit order of the changes of the same warehouse, starting at 1
+
+    private String type;
+
+    @JsonRawValue
+    private String payload;
+
+    private Instant createdAt;
+
+    public OutboxEventDto() {
+    }
+
+    public OutboxEventDto(long id, Integer warehouse, long seq, String type, String payload, Instant createdAt) {
+        this.id = id;
+        this.warehouse = warehouse;
+        this.seq = seq;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public Integer getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(Integer warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.time.Instant;
+
+// Stock held for a cart or pick list until it is confirmed (and the quantity
+// decremented), released or expires
+public class ReservationDto {
+
+    private long id;
+
+    private int inventory;
+
+    private int quantity;
+
+    private String reference;
+
+    private Instant expiresAt;
+
+    public ReservationDto() {
+    }
+
+    public ReservationDto(long id, int inventory, int quantity, String reference, Instant expiresAt) {
+        this.id = id;
+        this.inventory = inventory;
+        this.quantity = quantity;
+        this.reference = reference;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(int inventory) {
+        this.inventory = inventory;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+}
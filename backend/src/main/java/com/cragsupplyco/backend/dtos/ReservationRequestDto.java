@@ -0,0 +1,62 @@
+package com.cragsupplyco.backend.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+public class ReservationRequestDto {
+
+    private int inventory;
+
+    @Min(value = 1)
+    private int quantity = 1; // Sets default value to 1 if not passed
+
+    @Min(value = 1)
+    private int ttlSeconds = 900; // How long the stock is held unless confirmed or released (15 minutes if
+                                  // not passed)
+
+    @Size(max = 100)
+    private String reference; // Optional, e.g., a cart or pick list id
+
+    public ReservationRequestDto() {
+    }
+
+    public ReservationRequestDto(int inventory, int quantity, int ttlSeconds, String reference) {
+        this.inventory = inventory;
+        this.quantity = quantity;
+        this.ttlSeconds = ttlSeconds;
+        this.reference = reference;
+    }
+
+    public int getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(int inventory) {
+        this.inventory = inventory;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(int ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+}
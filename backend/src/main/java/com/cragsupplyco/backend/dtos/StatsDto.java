@@ -0,0 +1,98 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.util.List;
+
+// Dashboard figures (see GET /api/stats): total and per-warehouse capacity
+// utilization, and units and low-stock items per product category
+public class StatsDto {
+
+    private long currentCapacity; // Units in stock in every warehouse
+
+    private long maxCapacity;
+
+    private double utilization; // Current over max capacity (0 if the max is 0)
+
+    private int lowStockThreshold; // Items with this quantity or less count as low on stock
+
+    private long lowStockCount;
+
+    private List<WarehouseStatsDto> warehouses;
+
+    private List<CategoryStatsDto> categories;
+
+    public StatsDto() {
+    }
+
+    public StatsDto(int lowStockThreshold, List<WarehouseStatsDto> warehouses, List<CategoryStatsDto> categories) {
+        for (WarehouseStatsDto warehouse : warehouses) { // Every item is in one warehouse
+            this.currentCapacity += warehouse.getCurrentCapacity();
+            this.maxCapacity += warehouse.getMaxCapacity();
+            this.lowStockCount += warehouse.getLowStockCount();
+        }
+        this.utilization = utilization(currentCapacity, maxCapacity);
+        this.lowStockThreshold = lowStockThreshold;
+        this.warehouses = warehouses;
+        this.categories = categories;
+    }
+
+    static double utilization(long current, long max) {
+        return max == 0 ? 0 : (double) current / max;
+    }
+
+    public long getCurrentCapacity() {
+        return currentCapacity;
+    }
+
+    public void setCurrentCapacity(long currentCapacity) {
+        this.currentCapacity = currentCapacity;
+    }
+
+    public long getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(long maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public void setUtilization(double utilization) {
+        this.utilization = utilization;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public long getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public void setLowStockCount(long lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+
+    public List<WarehouseStatsDto> getWarehouses() {
+        return warehouses;
+    }
+
+    public void setWarehouses(List<WarehouseStatsDto> warehouses) {
+        this.warehouses = warehouses;
+    }
+
+    public List<CategoryStatsDto> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryStatsDto> categories) {
+        this.categories = categories;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.cragsupplyco.backend.dtos;
+
+// Quantity of an inventory item rebuilt from the stock movement ledger: its
+// latest snapshot plus the movements recorded after it
+public class StockBalanceDto {
+
+    private int inventory;
+
+    private int quantity;
+
+    private Long snapshotMovement; // Last movement included in the snapshot (null if there is no snapshot yet)
+
+    private int replayedMovements; // Movements added to the snapshot
+
+    private Long lastMovement; // Null if the item has no movements
+
+    public StockBalanceDto() {
+    }
+
+    public StockBalanceDto(int inventory, int quantity, Long snapshotMovement, int replayedMovements,
+            Long lastMovement) {
+        this.inventory = inventory;
+        this.quantity = quantity;
+        this.snapshotMovement = snapshotMovement;
+        this.replayedMovements = replayedMovements;
+        this.lastMovement = lastMovement;
+    }
+
+    public int getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(int inventory) {
+        this.inventory = inventory;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getSnapshotMovement() {
+        return snapshotMovement;
+    }
+
+    public void setSnapshotMovement(Long snapshotMovement) {
+        this.snapshotMovement = snapshotMovement;
+    }
+
+    public int getReplayedMovements() {
+        return replayedMovements;
+    }
+
+    public void setReplayedMovements(int replayedMovements) {
+        this.replayedMovements = replayedMovements;
+    }
+
+    public Long getLastMovement() {
+        return lastMovement;
+    }
+
+    public void setLastMovement(Long lastMovement) {
+        this.lastMovement = lastMovement;
+    }
+
+}
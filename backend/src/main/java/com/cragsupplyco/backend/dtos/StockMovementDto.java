@@ -0,0 +1,106 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.time.Instant;
+
+// A row of the stock movement ledger: a change in the quantity of an inventory
+// item, with the product and warehouse it belonged to at the time
+public class StockMovementDto {
+
+    public enum Reason {
+        OPENING, // Quantity of an item that existed before the ledger, or was seeded
+        CREATED, // Created, or added to the existing item with the same product, warehouse and size
+        UPDATED, // Quantity replaced by an update
+        INCREMENTED,
+        DECREMENTED,
+        MOVED_OUT, // Moved to another warehouse or product (recorded under the old ones)
+        MOVED_IN, // Moved from another warehouse or product (recorded under the new ones)
+        TRANSFERRED_OUT, // Part of the quantity sent to the same product and size in another warehouse
+        TRANSFERRED_IN, // Part of the quantity received from the same product and size in another warehouse
+        IMPORTED,
+        DELETED
+    }
+
+    private long id;
+
+    private int inventory;
+
+    private int product; // Product and warehouse are passed as id, the same as in the request DTOs
+
+    private int warehouse;
+
+    private int delta;
+
+    private Reason reason;
+
+    private Instant createdAt;
+
+    public StockMovementDto() {
+    }
+
+    public StockMovementDto(long id, int inventory, int product, int warehouse, int delta, Reason reason,
+            Instant createdAt) {
+        this.id = id;
+        this.inventory = inventory;
+        this.product = product;
+        this.warehouse = warehouse;
+        this.delta = delta;
+        this.reason = reason;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(int inventory) {
+        this.inventory = inventory;
+    }
+
+    public int getProduct() {
+        return product;
+    }
+
+    public void setProduct(int product) {
+        this.product = product;
+    }
+
+    public int getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(int warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public void setReason(Reason reason) {
+        this.reason = reason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.util.List;
+
+public class StockMovementPageDto {
+
+    private List<StockMovementDto> movements;
+
+    // Id to pass as "after" to fetch the next page (null when this is the last
+    // page)
+    private Long nextCursor;
+
+    public StockMovementPageDto() {
+    }
+
+    public StockMovementPageDto(List<StockMovementDto> movements, Long nextCursor) {
+        this.movements = movements;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<StockMovementDto> getMovements() {
+        return movements;
+    }
+
+    public void setMovements(List<StockMovementDto> movements) {
+        this.movements = movements;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+}
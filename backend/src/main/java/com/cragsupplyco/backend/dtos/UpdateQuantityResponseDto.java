@@ -0,0 +1,73 @@
+package com.cragsupplyco.backend.dtos;
+
+public class UpdateQuantityResponseDto {
+
+    private int id;
+
+    private int quantity;
+
+    private int product; // Product id, read back for the stock movement ledger
+
+    // Warehouse is passed as id, the same as in the request DTOs
+    private int warehouse;
+
+    private int warehouseCurrentCapacity;
+
+    public UpdateQuantityResponseDto() {
+    }
+
+    public UpdateQuantityResponseDto(int id, int quantity, int warehouse, int warehouseCurrentCapacity) {
+        this.id = id;
+        this.quantity = quantity;
+        this.warehouse = warehouse;
+        this.warehouseCurrentCapacity = warehouseCurrentCapacity;
+    }
+
+    // Used by the JPQL constructor expression to read back the adjusted values
+    // without loading the Inventory and Warehouse entities
+    public UpdateQuantityResponseDto(int id, int quantity, int product, int warehouse, int warehouseCurrentCapacity) {
+        this(id, quantity, warehouse, warehouseCurrentCapacity);
+        this.product = product;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getProduct() {
+        return product;
+    }
+
+    public void setProduct(int product) {
+        this.product = product;
+    }
+
+    public int getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(int warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public int getWarehouseCurrentCapacity() {
+        return warehouseCurrentCapacity;
+    }
+
+    public void setWarehouseCurrentCapacity(int warehouseCurrentCapacity) {
+        this.warehouseCurrentCapacity = warehouseCurrentCapacity;
+    }
+
+}
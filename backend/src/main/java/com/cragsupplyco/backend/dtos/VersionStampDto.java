@@ -0,0 +1,73 @@
+package com.cragsupplyco.backend.dtos;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import com.cragsupplyco.backend.models.Versioned;
+
+// Identifies the state of a set of rows: how many there are, the sum of their
+// versions and when the last one was modified. An update increments a version, a
+// delete lowers the count and an insert sets a later last modified time, so the
+// stamp changes whenever the rows do (see EntityTags).
+public class VersionStampDto {
+
+    private long count;
+
+    private long versionSum;
+
+    private Instant lastModified; // Null if there are no rows
+
+    public VersionStampDto() {
+    }
+
+    // Used by the JPQL constructor expressions that aggregate a whole table (SUM
+    // and MAX are null for an empty table)
+    public VersionStampDto(Long count, Long versionSum, Instant lastModified) {
+        this.count = count == null ? 0 : count;
+        this.versionSum = versionSum == null ? 0 : versionSum;
+        this.lastModified = lastModified;
+    }
+
+    public static VersionStampDto of(Versioned entity) {
+        return of(List.of(entity));
+    }
+
+    public static VersionStampDto of(Collection<? extends Versioned> entities) {
+        VersionStampDto stamp = new VersionStampDto();
+        for (Versioned entity : entities) {
+            stamp.count++;
+            stamp.versionSum += entity.getVersion();
+            if (entity.getLastModified() != null
+                    && (stamp.lastModified == null || entity.getLastModified().isAfter(stamp.lastModified))) {
+                stamp.lastModified = entity.getLastModified();
+            }
+        }
+        return stamp;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getVersionSum() {
+        return versionSum;
+    }
+
+    public void setVersionSum(long versionSum) {
+        this.versionSum = versionSum;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.cragsupplyco.backend.dtos;
+
+// Capacity utilization and low-stock count of one warehouse (see StatsDto)
+public class WarehouseStatsDto {
+
+    private int id;
+
+    private String name;
+
+    private long currentCapacity; // Sum of the quantities of its items
+
+    private int maxCapacity;
+
+    private double utilization; // Current over max capacity (0 if the max is 0)
+
+    private long lowStockCount; // Items at or below the low-stock threshold
+
+    public WarehouseStatsDto() {
+    }
+
+    public WarehouseStatsDto(int id, String name, long currentCapacity, int maxCapacity, long lowStockCount) {
+        this.id = id;
+        this.name = name;
+        this.currentCapacity = currentCapacity;
+        this.maxCapacity = maxCapacity;
+        this.utilization = StatsDto.utilization(currentCapacity, maxCapacity);
+        this.lowStockCount = lowStockCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getCurrentCapacity() {
+        return currentCapacity;
+    }
+
+    public void setCurrentCapacity(long currentCapacity) {
+        this.currentCapacity = currentCapacity;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public void setUtilization(double utilization) {
+        this.utilization = utilization;
+    }
+
+    public long getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public void setLowStockCount(long lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+
+}
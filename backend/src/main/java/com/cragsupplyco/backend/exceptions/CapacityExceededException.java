@@ -0,0 +1,10 @@
+package com.cragsupplyco.backend.exceptions;
+
+// Thrown when a change would put a warehouse over its max capacity (returned as
+// 400 by GlobalExceptionHandler, like any IllegalArgumentException)
+public class CapacityExceededException extends IllegalArgumentException {
+
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cragsupplyco.backend.exceptions;
+
+// Thrown when a guarded update finds that inventory was changed by another
+// request since it was read, so the request can be retried (returned as 409 by
+// GlobalExceptionHandler)
+public class ConcurrentModificationConflictException extends RuntimeException {
+
+    public ConcurrentModificationConflictException(String message) {
+        super(message);
+    }
+}
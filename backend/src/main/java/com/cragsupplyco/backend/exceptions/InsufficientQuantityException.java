@@ -0,0 +1,10 @@
+package com.cragsupplyco.backend.exceptions;
+
+// Thrown when a change would take more of an item than it has available (returned
+// as 400 by GlobalExceptionHandler, like any IllegalArgumentException)
+public class InsufficientQuantityException extends IllegalArgumentException {
+
+    public InsufficientQuantityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cragsupplyco.backend.exceptions;
+
+// Thrown when an If-Match header does not match the current ETag of the resource
+// being updated (returned as 412 by GlobalExceptionHandler)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
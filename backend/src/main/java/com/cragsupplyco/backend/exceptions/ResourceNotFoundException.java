@@ -0,0 +1,9 @@
+package com.cragsupplyco.backend.exceptions;
+
+// Thrown when an entity referenced by id does not exist
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
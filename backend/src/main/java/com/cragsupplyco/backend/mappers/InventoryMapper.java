@@ -5,20 +5,21 @@ import java.util.Optional;
 import org.springframework.context.annotation.Configuration;
 
 import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
 import com.cragsupplyco.backend.models.Inventory;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.models.Warehouse;
-import com.cragsupplyco.backend.repositories.ProductRepository;
-import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.services.ProductService;
+import com.cragsupplyco.backend.services.WarehouseService;
 
 @Configuration
 public class InventoryMapper {
-    private WarehouseRepository warehouseRepo;
-    private ProductRepository productRepo;
+    private WarehouseService warehouseService;
+    private ProductService productService;
 
-    public InventoryMapper(WarehouseRepository warehouseRepo, ProductRepository productRepo) {
-        this.warehouseRepo = warehouseRepo;
-        this.productRepo = productRepo;
+    public InventoryMapper(WarehouseService warehouseService, ProductService productService) {
+        this.warehouseService = warehouseService;
+        this.productService = productService;
     }
 
     // Maps inventory request DTO to inventory (needs to translate warehouse id to
@@ -26,16 +27,16 @@ public class InventoryMapper {
     public Inventory toInventory(InventoryRequestDto inventoryDto) {
         Inventory inventory = new Inventory();
 
-        Optional<Warehouse> optionalWarehouse = warehouseRepo.findById(inventoryDto.getWarehouse());
+        Optional<Warehouse> optionalWarehouse = warehouseService.findById(inventoryDto.getWarehouse());
         if (optionalWarehouse.isEmpty()) {
-            throw new RuntimeException("Warehouse not found with ID: " + inventoryDto.getWarehouse());
+            throw new ResourceNotFoundException("Warehouse not found with ID: " + inventoryDto.getWarehouse());
         }
 
         Warehouse warehouse = optionalWarehouse.get();
 
-        Optional<Product> optionalProduct = productRepo.findById(inventoryDto.getProduct());
+        Optional<Product> optionalProduct = productService.findById(inventoryDto.getProduct());
         if (optionalProduct.isEmpty()) {
-            throw new RuntimeException("Product not found with ID: " + inventoryDto.getProduct());
+            throw new ResourceNotFoundException("Product not found with ID: " + inventoryDto.getProduct());
         }
 
         Product product = optionalProduct.get();
@@ -5,6 +5,7 @@ import java.util.Optional;
 import org.springframework.context.annotation.Configuration;
 
 import com.cragsupplyco.backend.dtos.ProductRequestDto;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
 import com.cragsupplyco.backend.models.Category;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.services.CategoryService;
@@ -33,7 +34,7 @@ public class ProductMapper {
             Category category = optionalCategory.get();
             product.setCategory(category);
         } else {
-            throw new RuntimeException("Category not found with ID: " + productRequestDto.getCategory());
+            throw new ResourceNotFoundException("Category not found with ID: " + productRequestDto.getCategory());
         }
 
         return product;
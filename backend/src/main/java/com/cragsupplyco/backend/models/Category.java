@@ -1,25 +1,35 @@
 package com.cragsupplyco.backend.models;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Categories are rarely written, so they are kept in
+                                                     // the second-level cache
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "name")
-public class Category {
+public class Category implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment to generate PK
     @JsonView(Views.Public.class)
@@ -36,6 +46,14 @@ public class Category {
                                     // on controller method
     List<Product> products;
 
+    @Version // Incremented on every update (identifies the state for ETags and If-Match)
+    @JsonIgnore
+    private long version;
+
+    @UpdateTimestamp
+    @JsonIgnore
+    private Instant lastModified;
+
     public int getId() {
         return id;
     }
@@ -60,6 +78,24 @@ public class Category {
         this.products = products;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public String toString() {
         return "Category [id=" + id + ", name=" + name + ", products=" + products + "]";
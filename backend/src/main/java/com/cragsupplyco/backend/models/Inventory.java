@@ -1,6 +1,11 @@
 package com.cragsupplyco.backend.models;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 
 import jakarta.persistence.Column;
@@ -8,13 +13,24 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-public class Inventory {
+// One item per product, warehouse and size (items without a size included, as the
+// constraint treats NULL sizes as equal), so creating an item that already exists
+// adds to its quantity instead (see InventoryBatchRepository.upsertQuantity)
+// (indexes are created by the migrations in db/migration and listed here to
+// document them)
+@Table(uniqueConstraints = @UniqueConstraint(name = "inventory_product_warehouse_size_key", columnNames = {
+        "product_id", "warehouse_id", "size" }), indexes = @Index(name = "inventory_warehouse_id_idx", columnList = "warehouse_id"))
+public class Inventory implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment to generate PK
     @JsonView(Views.Public.class)
@@ -44,6 +60,14 @@ public class Inventory {
     @JsonView(Views.Public.class)
     private int quantity;
 
+    @Version // Also incremented by the quantity updates made with JPQL and JDBC
+    @JsonIgnore
+    private long version;
+
+    @UpdateTimestamp
+    @JsonIgnore
+    private Instant lastModified;
+
     public int getId() {
         return id;
     }
@@ -84,6 +108,24 @@ public class Inventory {
         this.size = size;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public String toString() {
         return "Inventory [id=" + id + ", product=" + product + ", warehouse=" + warehouse + ", size=" + size
@@ -1,32 +1,47 @@
 package com.cragsupplyco.backend.models;
 
+import java.time.Instant;
 import java.util.List;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.fasterxml.jackson.annotation.JsonView;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
+// (indexes are created by the migrations in db/migration and listed here to
+// document them)
+@Table(indexes = { @Index(name = "product_category_id_idx", columnList = "category_id"),
+        @Index(name = "product_brand_name_idx", columnList = "brand, name") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
-public class Product {
+public class Product implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment to generate PK
     @JsonView(Views.Public.class)
@@ -66,6 +81,14 @@ public class Product {
                                     // on controller method
     private List<Inventory> inventory;
 
+    @Version
+    @JsonIgnore
+    private long version;
+
+    @UpdateTimestamp
+    @JsonIgnore
+    private Instant lastModified;
+
     public int getId() {
         return id;
     }
@@ -124,6 +147,24 @@ public class Product {
         this.brand = brand;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public String toString() {
         return "Product [id=" + id + ", brand=" + brand + ", name=" + name + ", description=" + description + ", price="
@@ -0,0 +1,11 @@
+package com.cragsupplyco.backend.models;
+
+import java.time.Instant;
+
+// Entities whose version and last modified time identify their state (see
+// VersionStampDto)
+public interface Versioned {
+    long getVersion();
+
+    Instant getLastModified();
+}
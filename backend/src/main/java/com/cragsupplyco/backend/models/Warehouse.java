@@ -1,28 +1,43 @@
 package com.cragsupplyco.backend.models;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
+import org.hibernate.annotations.QueryCacheLayout;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Current capacity is written with JDBC, so
+                                                     // InventoryBatchRepository evicts the cached entry
+@QueryCacheLayout(layout = CacheLayout.SHALLOW) // Cached queries keep only ids (and read the warehouses from
+                                                // the evictable entity cache), so they do not return a stale
+                                                // current capacity
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "name")
-public class Warehouse {
+public class Warehouse implements Versioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment to generate PK
     @JsonView(Views.Public.class)
@@ -38,6 +53,8 @@ public class Warehouse {
     @JsonView(Views.Public.class)
     private int maxCapacity;
 
+    @Column(updatable = false) // Owned by WarehouseCapacityTracker (written with relative updates), so saving
+                               // a warehouse never overwrites it
     @Min(value = 0)
     @NotNull
     @JsonView(Views.Public.class)
@@ -72,6 +89,14 @@ public class Warehouse {
                                     // on controller method
     private List<Inventory> inventory;
 
+    @Version // Not incremented by the JDBC capacity updates in InventoryBatchRepository
+    @JsonIgnore
+    private long version;
+
+    @UpdateTimestamp
+    @JsonIgnore
+    private Instant lastModified;
+
     public int getId() {
         return id;
     }
@@ -144,6 +169,24 @@ public class Warehouse {
         this.currentCapacity = currentCapacity;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public String toString() {
         return "Warehouse [id=" + id + ", name=" + name + ", maxCapacity=" + maxCapacity + ", currentCapacity="
@@ -1,21 +1,48 @@
 package com.cragsupplyco.backend.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+    // Results are kept in the query cache (invalidated by Hibernate whenever the
+    // category table is written)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByName(String name);
 
     boolean existsByName(String name);
 
+    // Returns id, name, sum of inventory quantities and number of items at or
+    // below the low-stock threshold for every product category, by id (for GET
+    // /api/stats)
+    @Query("SELECT c.id, c.name, COALESCE(SUM(i.quantity), 0),"
+            + " SUM(CASE WHEN i.quantity <= :lowStockThreshold THEN 1 ELSE 0 END)"
+            + " FROM Category c LEFT JOIN c.products p LEFT JOIN p.inventory i GROUP BY c.id, c.name ORDER BY c.id")
+    List<Object[]> findStats(int lowStockThreshold);
+
+    // Count, version sum and last modified time of all product categories, to
+    // answer conditional GETs without loading them
+    @Query("SELECT new com.cragsupplyco.backend.dtos.VersionStampDto(COUNT(c), SUM(c.version), MAX(c.lastModified))"
+            + " FROM Category c")
+    VersionStampDto findVersionStamp();
+
     // reset the PSQL id incrementing sequence for the sake of test data and
     // facilitating tests
     @Modifying
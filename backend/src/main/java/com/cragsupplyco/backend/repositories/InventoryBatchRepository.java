@@ -0,0 +1,154 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.models.Warehouse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Repository
+public class InventoryBatchRepository {
+    private static final String ADJUST_QUANTITY_SQL = "UPDATE inventory SET quantity = quantity + ?,"
+            + " version = version + 1, last_modified = CURRENT_TIMESTAMP WHERE id = ? AND quantity + ? >= ?";
+    private static final String INSERT_SQL = "INSERT INTO inventory (product_id, warehouse_id, size, quantity) VALUES (?, ?, ?, ?)";
+    private static final String UPSERT_SQL = "INSERT INTO inventory (product_id, warehouse_id, size, quantity) VALUES (?, ?, ?, ?)"
+            + " ON CONFLICT (product_id, warehouse_id, size) DO UPDATE SET quantity = inventory.quantity + EXCLUDED.quantity,"
+            + " version = inventory.version + 1, last_modified = CURRENT_TIMESTAMP"
+            + " RETURNING id, quantity";
+    private static final String INCREMENT_BY_KEY_SQL = "UPDATE inventory SET quantity = quantity + ?,"
+            + " version = version + 1, last_modified = CURRENT_TIMESTAMP"
+            + " WHERE product_id = ? AND warehouse_id = ? AND size IS NOT DISTINCT FROM ?";
+    private static final String FIND_BY_KEY_SQL = "SELECT id, quantity FROM inventory"
+            + " WHERE product_id = ? AND warehouse_id = ? AND size IS NOT DISTINCT FROM ?";
+    private static final String EXPORT_SQL = "SELECT id, product_id, warehouse_id, size, quantity FROM inventory ORDER BY id";
+    // Current capacity is a counter derived from inventory, so its updates leave the
+    // version alone (a warehouse update that overlaps them must not conflict)
+    private static final String ADD_CAPACITY_SQL = "UPDATE warehouse SET current_capacity = current_capacity + ?,"
+            + " last_modified = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private volatile Boolean postgres; // Whether the database supports INSERT ... ON CONFLICT (checked once)
+
+    public InventoryBatchRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Applies quantity deltas (keyed by inventory id) as one JDBC batch of
+    // conditional updates; returns false if any row failed its guard
+    public boolean adjustQuantities(Map<Integer, Integer> deltas) {
+        return adjustQuantities(deltas, Map.of());
+    }
+
+    // Same, but the quantity of an item in minimums (e.g., what is held of it) must
+    // not drop below its minimum rather than below 0
+    public boolean adjustQuantities(Map<Integer, Integer> deltas, Map<Integer, Integer> minimums) {
+        if (deltas.isEmpty()) {
+            return true;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> args.add(new Object[] { delta, id, delta, minimums.getOrDefault(id, 0) }));
+
+        for (int count : jdbcTemplate.batchUpdate(ADJUST_QUANTITY_SQL, args)) {
+            if (count == 0 || (count < 0 && count != Statement.SUCCESS_NO_INFO)) { // Driver may not report counts
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Creates an inventory item, or adds the quantity to the existing item with the
+    // same product, warehouse and size; returns the item's id and new quantity.
+    // On Postgres this is a single INSERT ... ON CONFLICT statement, so concurrent
+    // creates of the same item (with or without a size, as the unique constraint
+    // treats NULL sizes as equal) are merged by the constraint. Other databases
+    // (H2 in tests) update then insert, adding to the item if a concurrent insert
+    // won.
+    public UpdateQuantityResponseDto upsertQuantity(int productId, int warehouseId, String size, int quantity) {
+        SqlParameterValue sizeValue = new SqlParameterValue(Types.VARCHAR, size);
+
+        if (isPostgres()) {
+            return jdbcTemplate.queryForObject(UPSERT_SQL,
+                    (resultSet, row) -> new UpdateQuantityResponseDto(resultSet.getInt(1), resultSet.getInt(2),
+                            warehouseId, 0),
+                    productId, warehouseId, sizeValue, quantity);
+        }
+
+        if (jdbcTemplate.update(INCREMENT_BY_KEY_SQL, quantity, productId, warehouseId, sizeValue) == 0) {
+            try {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] { "id" });
+                    statement.setInt(1, productId);
+                    statement.setInt(2, warehouseId);
+                    statement.setString(3, size);
+                    statement.setInt(4, quantity);
+                    return statement;
+                }, keyHolder);
+                return new UpdateQuantityResponseDto(keyHolder.getKey().intValue(), quantity, warehouseId, 0);
+            } catch (DuplicateKeyException e) { // Created concurrently since the update, so add to it instead
+                jdbcTemplate.update(INCREMENT_BY_KEY_SQL, quantity, productId, warehouseId, sizeValue);
+            }
+        }
+
+        return jdbcTemplate.queryForObject(FIND_BY_KEY_SQL,
+                (resultSet, row) -> new UpdateQuantityResponseDto(resultSet.getInt(1), resultSet.getInt(2),
+                        warehouseId, 0),
+                productId, warehouseId, sizeValue);
+    }
+
+    // Passes every inventory item (id, product id, warehouse id, size, quantity) to
+    // the handler, reading from a forward-only cursor fetchSize rows at a time
+    // rather than loading the whole result (Postgres only uses a cursor inside a
+    // transaction)
+    public void forEachItem(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    // Adds capacity deltas (keyed by warehouse id) as one JDBC batch; max capacity
+    // is already enforced in memory by WarehouseCapacityTracker
+    public void addCapacities(Map<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> args.add(new Object[] { delta, id }));
+        jdbcTemplate.batchUpdate(ADD_CAPACITY_SQL, args);
+
+        // The update bypasses Hibernate, so drop the changed warehouses from the
+        // second-level cache
+        deltas.keySet().forEach(id -> entityManagerFactory.getCache().evict(Warehouse.class, id));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                    .equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
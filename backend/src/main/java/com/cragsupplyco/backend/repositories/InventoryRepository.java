@@ -1,22 +1,99 @@
 package com.cragsupplyco.backend.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Inventory;
-import com.cragsupplyco.backend.models.Product;
-import com.cragsupplyco.backend.models.Warehouse;
 import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
-    Optional<Inventory> findByProductAndWarehouseAndSize(Product product, Warehouse warehouse, String size);
+    // Adds delta to the quantity in a single conditional update so concurrent
+    // adjustments cannot overwrite each other; returns 0 if the item does not exist
+    // or the quantity would drop below 0
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :delta, i.version = i.version + 1, i.lastModified = INSTANT"
+            + " WHERE i.id = :id AND i.quantity + :delta >= 0")
+    int adjustQuantity(int id, int delta);
+
+    // Same, but the quantity must not drop below minimum (e.g., what is held of
+    // the item by others) rather than below 0
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :delta, i.version = i.version + 1, i.lastModified = INSTANT"
+            + " WHERE i.id = :id AND i.quantity + :delta >= :minimum")
+    int adjustQuantity(int id, int delta, int minimum);
+
+    // Same, but only if the item still has the given version (e.g., the one an
+    // If-Match header was checked against)
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :delta, i.version = i.version + 1, i.lastModified = INSTANT"
+            + " WHERE i.id = :id AND i.version = :version AND i.quantity + :delta >= :minimum")
+    int adjustQuantityIfVersion(int id, int delta, int minimum, long version);
+
+    @Query("SELECT i.version FROM Inventory i WHERE i.id = :id")
+    Optional<Long> findVersionById(int id);
+
+    // Reads back the adjusted values as a DTO (no entities are loaded)
+    @Query("SELECT new com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto(i.id, i.quantity, i.product.id, w.id, w.currentCapacity)"
+            + " FROM Inventory i JOIN i.warehouse w WHERE i.id = :id")
+    Optional<UpdateQuantityResponseDto> findQuantityById(int id);
+
+    @Query("SELECT new com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto(i.id, i.quantity, i.product.id, w.id, w.currentCapacity)"
+            + " FROM Inventory i JOIN i.warehouse w WHERE i.id IN :ids")
+    List<UpdateQuantityResponseDto> findQuantitiesByIdIn(Collection<Integer> ids);
+
+    // Returns id, product id and size of every inventory item in a warehouse, to
+    // find which imported items already exist
+    @Query("SELECT i.id, i.product.id, i.size FROM Inventory i WHERE i.warehouse.id = :warehouseId")
+    List<Object[]> findImportKeysByWarehouseId(int warehouseId);
+
+    // Returns id, product id, warehouse id, size and quantity of every inventory
+    // item of the given products, with the state and ZIP code of its warehouse
+    // (see FulfillmentAllocator)
+    @Query("SELECT i.id, i.product.id, w.id, i.size, i.quantity, w.state, w.zipCode FROM Inventory i JOIN i.warehouse w"
+            + " WHERE i.product.id IN :productIds")
+    List<Object[]> findStockByProductIdIn(Collection<Integer> productIds);
+
+    // Returns id, product id, warehouse id, size and quantity of the inventory
+    // items of the given products in the given warehouses, to find the items
+    // transfers move stock between
+    @Query("SELECT i.id, i.product.id, i.warehouse.id, i.size, i.quantity FROM Inventory i"
+            + " WHERE i.product.id IN :productIds AND i.warehouse.id IN :warehouseIds")
+    List<Object[]> findTransferKeys(Collection<Integer> productIds, Collection<Integer> warehouseIds);
+
+    // Returns the id of the item with the given product, warehouse and size (items
+    // without a size match a null size), to merge an item moved onto it
+    @Query("SELECT i.id FROM Inventory i WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId"
+            + " AND (i.size = :size OR (i.size IS NULL AND :size IS NULL))")
+    Optional<Integer> findIdByKey(int productId, int warehouseId, String size);
+
+    // Keyset page of inventory items with id greater than "after", with optional
+    // filters (null means no filter); product, category and warehouse are fetched
+    // in the same query
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product p JOIN FETCH p.category c JOIN FETCH i.warehouse w"
+            + " WHERE i.id > :after"
+            + " AND (:warehouseId IS NULL OR w.id = :warehouseId)"
+            + " AND (:productId IS NULL OR p.id = :productId)"
+            + " AND (:categoryId IS NULL OR c.id = :categoryId)"
+            + " AND (:size IS NULL OR i.size = :size)"
+            + " ORDER BY i.id")
+    List<Inventory> findPage(int after, Integer warehouseId, Integer productId, Integer categoryId, String size,
+            Pageable pageable);
 
-    boolean existsByProductAndWarehouseAndSize(Product product, Warehouse warehouse, String size);
+    // Count, version sum and last modified time of all inventory items, to
+    // answer conditional GETs without loading them
+    @Query("SELECT new com.cragsupplyco.backend.dtos.VersionStampDto(COUNT(i), SUM(i.version), MAX(i.lastModified))"
+            + " FROM Inventory i")
+    VersionStampDto findVersionStamp();
 
     // reset the PSQL id incrementing sequence for the sake of test data and
     // facilitating tests
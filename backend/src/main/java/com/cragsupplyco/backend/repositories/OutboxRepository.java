@@ -0,0 +1,137 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+
+@Repository
+public class OutboxRepository {
+    private static final String INSERT_SQL = "INSERT INTO outbox_event (warehouse_id, seq, type, payload)"
+            + " VALUES (?, ?, ?, ?)";
+    // Takes the next count numbers of a warehouse and locks its row until the
+    // transaction ends, so numbers are taken in commit order
+    private static final String UPSERT_SEQUENCE_SQL = "INSERT INTO outbox_sequence (warehouse_id, last_seq)"
+            + " VALUES (?, ?) ON CONFLICT (warehouse_id) DO UPDATE"
+            + " SET last_seq = outbox_sequence.last_seq + EXCLUDED.last_seq RETURNING last_seq";
+    private static final String INCREMENT_SEQUENCE_SQL = "UPDATE outbox_sequence SET last_seq = last_seq + ?"
+            + " WHERE warehouse_id = ?";
+    private static final String INSERT_SEQUENCE_SQL = "INSERT INTO outbox_sequence (warehouse_id, last_seq)"
+            + " VALUES (?, ?)";
+    private static final String FIND_SEQUENCE_SQL = "SELECT last_seq FROM outbox_sequence WHERE warehouse_id = ?";
+    // Locks the rows, so a relay running in another instance waits rather than
+    // sending them too
+    private static final String LOCK_BATCH_SQL = "SELECT id, warehouse_id, seq, type, payload, created_at"
+            + " FROM outbox_event ORDER BY warehouse_id, seq LIMIT ? FOR UPDATE";
+    private static final String FIND_RELAYED_SQL = "SELECT warehouse_id, seq FROM outbox_relay_position";
+    private static final String UPDATE_RELAYED_SQL = "UPDATE outbox_relay_position SET seq = ? WHERE warehouse_id = ?";
+    private static final String INSERT_RELAYED_SQL = "INSERT INTO outbox_relay_position (warehouse_id, seq)"
+            + " VALUES (?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM outbox_event WHERE id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private Boolean postgres; // Whether the database is PostgreSQL (checked once)
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts events (warehouse id, type, payload) as one JDBC batch, in the
+    // current transaction, numbering them per warehouse after the events already
+    // committed. The sequence rows are locked in warehouse order, so transactions
+    // writing events of the same warehouses cannot deadlock; call this just before
+    // the transaction commits, as other writers wait for it to end.
+    public void insertAll(List<Object[]> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> counts = new TreeMap<>(); // Events per sequence key, sorted to lock in order
+        events.forEach(event -> counts.merge(sequenceKey((Integer) event[0]), 1, Integer::sum));
+        Map<Integer, Long> nextSeqs = new HashMap<>();
+        counts.forEach((key, count) -> nextSeqs.put(key, takeSequence(key, count) - count + 1));
+
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (Object[] event : events) {
+            long seq = nextSeqs.merge(sequenceKey((Integer) event[0]), 1L, Long::sum) - 1;
+            rows.add(new Object[] { event[0], seq, event[1], event[2] });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    // Returns (and locks until the transaction ends) the oldest events, in
+    // warehouse and seq order
+    public List<OutboxEventDto> lockBatch(int limit) {
+        return jdbcTemplate.query(LOCK_BATCH_SQL, (resultSet, row) -> {
+            Timestamp createdAt = resultSet.getTimestamp(6);
+            return new OutboxEventDto(resultSet.getLong(1), (Integer) resultSet.getObject(2), resultSet.getLong(3),
+                    resultSet.getString(4), resultSet.getString(5),
+                    createdAt == null ? null : createdAt.toInstant());
+        }, limit);
+    }
+
+    // Returns the seq of the last event relayed per warehouse (0 for events not
+    // tied to one); warehouses with none relayed yet are left out
+    public Map<Integer, Long> findRelayedSeqs() {
+        Map<Integer, Long> seqs = new HashMap<>();
+        jdbcTemplate.query(FIND_RELAYED_SQL, resultSet -> {
+            seqs.put(resultSet.getInt(1), resultSet.getLong(2));
+        });
+        return seqs;
+    }
+
+    // Stores the seq of the last event relayed per warehouse (only one relay runs
+    // at a time, as each locks the events it sends)
+    public void saveRelayedSeqs(Map<Integer, Long> seqs) {
+        seqs.forEach((key, seq) -> {
+            if (jdbcTemplate.update(UPDATE_RELAYED_SQL, seq, key) == 0) {
+                jdbcTemplate.update(INSERT_RELAYED_SQL, key, seq);
+            }
+        });
+    }
+
+    public void deleteAll(List<OutboxEventDto> events) {
+        List<Object[]> ids = new ArrayList<>(events.size());
+        events.forEach(event -> ids.add(new Object[] { event.getId() }));
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids);
+    }
+
+    // Key of a warehouse's sequence (0 for events not tied to one warehouse)
+    public static int sequenceKey(Integer warehouseId) {
+        return warehouseId == null ? 0 : warehouseId;
+    }
+
+    // Adds count to the sequence of a warehouse and returns its new last seq
+    private long takeSequence(int key, int count) {
+        if (isPostgres()) {
+            return jdbcTemplate.queryForObject(UPSERT_SEQUENCE_SQL, Long.class, key, count);
+        }
+
+        // Other databases (H2 in tests) update then insert
+        if (jdbcTemplate.update(INCREMENT_SEQUENCE_SQL, count, key) == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SEQUENCE_SQL, key, count);
+            } catch (DuplicateKeyException e) { // Created concurrently since the update, so add to it instead
+                jdbcTemplate.update(INCREMENT_SEQUENCE_SQL, count, key);
+            }
+        }
+        return jdbcTemplate.queryForObject(FIND_SEQUENCE_SQL, Long.class, key);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                    .equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -1,21 +1,55 @@
 package com.cragsupplyco.backend.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Product;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
         Iterable<Product> findByCategoryId(Integer categoryId);
 
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")) // Kept in the query cache
         Optional<Product> findByBrandAndName(String brand, String name);
 
+        // Returns id, brand and name of every product, to resolve the products of an
+        // inventory import without loading the entities
+        @Query("SELECT p.id, p.brand, p.name FROM Product p")
+        List<Object[]> findImportKeys();
+
+        // The following load products together with their inventory (and each
+        // item's warehouse) in a single query, so the detailed (internal) view does
+        // not trigger one select per product/inventory item
+        @EntityGraph(attributePaths = { "category", "inventory", "inventory.warehouse" })
+        @Query("SELECT p FROM Product p")
+        List<Product> findAllWithInventory();
+
+        @EntityGraph(attributePaths = { "category", "inventory", "inventory.warehouse" })
+        @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId")
+        List<Product> findAllWithInventoryByCategoryId(int categoryId);
+
+        @EntityGraph(attributePaths = { "category", "inventory", "inventory.warehouse" })
+        @Query("SELECT p FROM Product p WHERE p.id = :id")
+        Optional<Product> findWithInventoryById(int id);
+
+        // Count, version sum and last modified time of all products, to
+        // answer conditional GETs without loading them
+        @Query("SELECT new com.cragsupplyco.backend.dtos.VersionStampDto(COUNT(p), SUM(p.version), MAX(p.lastModified))"
+                + " FROM Product p")
+        VersionStampDto findVersionStamp();
+
         // reset the PSQL id incrementing sequence for the sake of test data and
         // facilitating tests
         @Modifying
@@ -0,0 +1,94 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.cragsupplyco.backend.dtos.ReservationDto;
+
+@Repository
+public class ReservationRepository {
+    private static final String INSERT_SQL = "INSERT INTO stock_reservation (inventory_id, quantity, reference,"
+            + " expires_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT id, inventory_id, quantity, reference, expires_at"
+            + " FROM stock_reservation";
+    private static final String DELETE_SQL = "DELETE FROM stock_reservation WHERE id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public ReservationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts a reservation in the current transaction and returns its id
+    public long insert(int inventoryId, int quantity, String reference, Instant expiresAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] { "id" });
+            statement.setInt(1, inventoryId);
+            statement.setInt(2, quantity);
+            statement.setObject(3, reference, Types.VARCHAR);
+            statement.setTimestamp(4, Timestamp.from(expiresAt));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    // Returns every active reservation, to rebuild the in-memory index at startup
+    public List<ReservationDto> findAll() {
+        return jdbcTemplate.query(SELECT_SQL + " ORDER BY id", (resultSet, row) -> toReservation(resultSet));
+    }
+
+    public Optional<ReservationDto> findById(long id) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE id = ?", (resultSet, row) -> toReservation(resultSet), id)
+                .stream().findFirst();
+    }
+
+    // Returns (and locks until the transaction ends) a reservation, so it cannot
+    // be confirmed, released or expired by another request meanwhile
+    public Optional<ReservationDto> lockById(long id) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE id = ? FOR UPDATE", (resultSet, row) -> toReservation(resultSet),
+                id).stream().findFirst();
+    }
+
+    // Returns false if the reservation does not exist (anymore)
+    public boolean deleteById(long id) {
+        return jdbcTemplate.update(DELETE_SQL, id) > 0;
+    }
+
+    // Deletes reservations as one JDBC batch and returns the ids of those that
+    // existed (the others were confirmed, released or deleted with their item)
+    public List<Long> deleteAll(List<Long> ids) {
+        List<Object[]> args = new ArrayList<>(ids.size());
+        ids.forEach(id -> args.add(new Object[] { id }));
+        int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, args);
+
+        List<Long> deleted = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) { // Drivers may report SUCCESS_NO_INFO (-2) rather than a row count
+                deleted.add(ids.get(i));
+            }
+        }
+        return deleted;
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM stock_reservation");
+    }
+
+    private static ReservationDto toReservation(ResultSet resultSet) throws SQLException {
+        return new ReservationDto(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3),
+                resultSet.getString(4), resultSet.getTimestamp(5).toInstant());
+    }
+}
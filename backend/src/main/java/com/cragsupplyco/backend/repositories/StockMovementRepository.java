@@ -0,0 +1,163 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cragsupplyco.backend.dtos.StockBalanceDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto;
+
+@Repository
+public class StockMovementRepository {
+    private static final String INSERT_SQL = "INSERT INTO stock_movement (inventory_id, product_id, warehouse_id, delta,"
+            + " reason) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_OPENING_SQL = "INSERT INTO stock_movement (inventory_id, product_id,"
+            + " warehouse_id, delta, reason) SELECT i.id, i.product_id, i.warehouse_id, i.quantity, 'OPENING'"
+            + " FROM inventory i WHERE NOT EXISTS (SELECT 1 FROM stock_movement m WHERE m.inventory_id = i.id)"
+            + " ORDER BY i.id";
+    private static final String SELECT_SQL = "SELECT id, inventory_id, product_id, warehouse_id, delta, reason,"
+            + " created_at FROM stock_movement WHERE id > ?";
+    // Snapshot and the movements after it in one statement, so a snapshot taken
+    // meanwhile is not counted twice
+    private static final String BALANCE_SQL = "SELECT s.movement_id, s.quantity, COUNT(m.id), COALESCE(SUM(m.delta), 0),"
+            + " MAX(m.id) FROM (SELECT CAST(? AS INTEGER) AS inventory_id) i"
+            + " LEFT JOIN stock_snapshot s ON s.inventory_id = i.inventory_id"
+            + " LEFT JOIN stock_movement m ON m.inventory_id = i.inventory_id AND m.id > COALESCE(s.movement_id, 0)"
+            + " GROUP BY s.movement_id, s.quantity";
+    // Movements are recorded while the item's row is locked (see StockLedger), so
+    // once the rows are locked here no movement of these items is in flight, and
+    // any recorded later gets a greater id than the ones snapshotted
+    private static final String LOCK_ITEMS_SQL = "SELECT id FROM inventory WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String PENDING_SQL = "SELECT m.inventory_id, s.movement_id, MAX(m.id),"
+            + " COALESCE(s.quantity, 0) + SUM(m.delta) FROM stock_movement m"
+            + " LEFT JOIN stock_snapshot s ON s.inventory_id = m.inventory_id"
+            + " WHERE m.inventory_id > ? AND m.inventory_id <= ? AND m.id > COALESCE(s.movement_id, 0)"
+            + " GROUP BY m.inventory_id, s.movement_id, s.quantity";
+    private static final String UPDATE_SNAPSHOT_SQL = "UPDATE stock_snapshot SET movement_id = ?, quantity = ?,"
+            + " created_at = CURRENT_TIMESTAMP WHERE inventory_id = ?";
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT INTO stock_snapshot (movement_id, quantity, inventory_id)"
+            + " VALUES (?, ?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public StockMovementRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts movements (inventory id, product id, warehouse id, delta, reason) as
+    // one JDBC batch, in the current transaction
+    public void insertAll(List<Object[]> movements) {
+        if (!movements.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, movements);
+        }
+    }
+
+    // Records the current quantity of every inventory item that has no movements
+    // yet as its opening balance (for items written without going through the
+    // ledger, e.g. seeded test data)
+    public void insertOpeningBalances() {
+        jdbcTemplate.update(INSERT_OPENING_SQL);
+    }
+
+    // Returns up to limit movements with id greater than "after", in id order,
+    // with optional filters (null means no filter); the time range includes from
+    // and excludes to
+    public List<StockMovementDto> findPage(long after, Integer inventoryId, Integer productId, Integer warehouseId,
+            Instant from, Instant to, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(after);
+        if (inventoryId != null) {
+            sql.append(" AND inventory_id = ?");
+            args.add(inventoryId);
+        }
+        if (productId != null) {
+            sql.append(" AND product_id = ?");
+            args.add(productId);
+        }
+        if (warehouseId != null) {
+            sql.append(" AND warehouse_id = ?");
+            args.add(warehouseId);
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (resultSet, row) -> toMovement(resultSet), args.toArray());
+    }
+
+    // Returns the quantity of an item rebuilt from its snapshot and the movements
+    // after it (empty if the ledger has neither)
+    public Optional<StockBalanceDto> findBalance(int inventoryId) {
+        return jdbcTemplate.query(BALANCE_SQL, resultSet -> {
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            Long snapshotMovement = resultSet.getObject(1, Long.class);
+            int replayed = resultSet.getInt(3);
+            if (snapshotMovement == null && replayed == 0) {
+                return Optional.empty();
+            }
+            Long lastMovement = replayed == 0 ? snapshotMovement : Long.valueOf(resultSet.getLong(5));
+            return Optional.of(new StockBalanceDto(inventoryId, resultSet.getInt(2) + resultSet.getInt(4),
+                    snapshotMovement, replayed, lastMovement));
+        }, inventoryId);
+    }
+
+    // Snapshots the quantities of the (up to limit) items with id greater than
+    // "after" that have movements since their last snapshot, holding their row
+    // locks until the transaction ends; returns the id of the last item, or -1 if
+    // there are no items after "after"
+    public int snapshot(int after, int limit) {
+        List<Integer> ids = jdbcTemplate.queryForList(LOCK_ITEMS_SQL, Integer.class, after, limit);
+        if (ids.isEmpty()) {
+            return -1;
+        }
+        int last = ids.get(ids.size() - 1);
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        jdbcTemplate.query(PENDING_SQL, resultSet -> {
+            Object[] snapshot = { resultSet.getLong(3), resultSet.getInt(4), resultSet.getInt(1) };
+            if (resultSet.getObject(2) != null) {
+                updates.add(snapshot);
+            } else {
+                inserts.add(snapshot);
+            }
+        }, after, last);
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT_SQL, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, inserts);
+        }
+        return last;
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM stock_snapshot");
+        jdbcTemplate.update("DELETE FROM stock_movement");
+    }
+
+    private static StockMovementDto toMovement(ResultSet resultSet) throws SQLException {
+        Timestamp createdAt = resultSet.getTimestamp(7);
+        return new StockMovementDto(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3),
+                resultSet.getInt(4), resultSet.getInt(5), StockMovementDto.Reason.valueOf(resultSet.getString(6)),
+                createdAt == null ? null : createdAt.toInstant());
+    }
+}
@@ -1,21 +1,66 @@
 package com.cragsupplyco.backend.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Warehouse;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface WarehouseRepository extends JpaRepository<Warehouse, Integer> {
+    // Results are kept in the query cache (invalidated by Hibernate whenever the
+    // warehouse table is written; capacity updates made with JDBC do not change
+    // which warehouses match)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Warehouse> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Warehouse> findByName(String name);
 
     boolean existsByName(String name);
 
+    // Loads the warehouse together with its inventory (and each item's product) in
+    // a single query for the detailed (internal) view
+    @EntityGraph(attributePaths = { "inventory", "inventory.product", "inventory.product.category" })
+    @Query("SELECT w FROM Warehouse w WHERE w.id = :id")
+    Optional<Warehouse> findWithInventoryById(int id);
+
+    // Returns id and name of every warehouse, to resolve the warehouses of an
+    // inventory import without loading the entities
+    @Query("SELECT w.id, w.name FROM Warehouse w")
+    List<Object[]> findImportKeys();
+
+    // Returns id, stored current capacity and the actual sum of inventory
+    // quantities for every warehouse (used to correct capacity drift)
+    @Query("SELECT w.id, w.currentCapacity, COALESCE(SUM(i.quantity), 0) FROM Warehouse w LEFT JOIN w.inventory i"
+            + " GROUP BY w.id, w.currentCapacity")
+    List<Object[]> findCapacityTotals();
+
+    // Returns id, name, max capacity, sum of inventory quantities and number of
+    // items at or below the low-stock threshold for every warehouse, by id (for
+    // GET /api/stats)
+    @Query("SELECT w.id, w.name, w.maxCapacity, COALESCE(SUM(i.quantity), 0),"
+            + " SUM(CASE WHEN i.quantity <= :lowStockThreshold THEN 1 ELSE 0 END)"
+            + " FROM Warehouse w LEFT JOIN w.inventory i GROUP BY w.id, w.name, w.maxCapacity ORDER BY w.id")
+    List<Object[]> findStats(int lowStockThreshold);
+
+    // Count, version sum and last modified time of all warehouses, to
+    // answer conditional GETs without loading them
+    @Query("SELECT new com.cragsupplyco.backend.dtos.VersionStampDto(COUNT(w), SUM(w.version), MAX(w.lastModified))"
+            + " FROM Warehouse w")
+    VersionStampDto findVersionStamp();
+
     // reset the PSQL id incrementing sequence for the sake of test data and
     // facilitating tests
     @Modifying
@@ -0,0 +1,51 @@
+package com.cragsupplyco.backend.services;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.models.Views;
+import com.cragsupplyco.backend.utils.SerializedResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// The public category and product lists, serialized once and cached in the
+// "responses" cache until a category or product is written (see the evictions in
+// CategoryService and ProductService). The version stamps are read before the
+// rows, so a write in between can only leave the cached body newer than its tag,
+// never older.
+@Service
+public class CatalogResponseService {
+    private CategoryService categoryService;
+    private ProductService productService;
+    private CatalogVersionService versions;
+    private ObjectMapper mapper; // The one Spring MVC writes responses with
+
+    public CatalogResponseService(CategoryService categoryService, ProductService productService,
+            CatalogVersionService versions, ObjectMapper mapper) {
+        this.categoryService = categoryService;
+        this.productService = productService;
+        this.versions = versions;
+        this.mapper = mapper;
+    }
+
+    @Cacheable(cacheNames = "responses", key = "'categories'")
+    public SerializedResponse findAllCategories() {
+        VersionStampDto[] stamps = versions.forCategories();
+        return new SerializedResponse(serialize(categoryService.findAll()), stamps);
+    }
+
+    @Cacheable(cacheNames = "responses", key = "'products'")
+    public SerializedResponse findAllProducts() { // Without inventory
+        VersionStampDto[] stamps = versions.forProducts();
+        return new SerializedResponse(serialize(productService.findAll()), stamps);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return mapper.writerWithView(Views.Public.class).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.repositories.CategoryRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.repositories.ProductRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+
+// Version stamps of each catalog representation, used for its ETag (see
+// EntityTags). A representation includes the stamps of everything its JSON shows:
+// products show their category's name, and inventory items their warehouse's
+// name. Collections are stamped with one aggregate query per table, so a
+// conditional GET can be answered without loading them.
+@Service
+public class CatalogVersionService {
+    private CategoryRepository categoryRepo;
+    private WarehouseRepository warehouseRepo;
+    private ProductRepository productRepo;
+    private InventoryRepository inventoryRepo;
+
+    public CatalogVersionService(CategoryRepository categoryRepo, WarehouseRepository warehouseRepo,
+            ProductRepository productRepo, InventoryRepository inventoryRepo) {
+        this.categoryRepo = categoryRepo;
+        this.warehouseRepo = warehouseRepo;
+        this.productRepo = productRepo;
+        this.inventoryRepo = inventoryRepo;
+    }
+
+    public VersionStampDto[] forCategories() {
+        return new VersionStampDto[] { categoryRepo.findVersionStamp() };
+    }
+
+    public VersionStampDto[] forCategory(Category category) {
+        return new VersionStampDto[] { VersionStampDto.of(category) };
+    }
+
+    public VersionStampDto[] forWarehouses() { // Without inventory
+        return new VersionStampDto[] { warehouseRepo.findVersionStamp() };
+    }
+
+    public VersionStampDto[] forWarehouse(Warehouse warehouse) { // With inventory
+        return new VersionStampDto[] { VersionStampDto.of(warehouse), VersionStampDto.of(warehouse.getInventory()) };
+    }
+
+    public VersionStampDto[] forInventory(Inventory inventory) { // Shows its product and warehouse by id only
+        return new VersionStampDto[] { VersionStampDto.of(inventory) };
+    }
+
+    public VersionStampDto[] forProducts() { // Without inventory
+        return new VersionStampDto[] { productRepo.findVersionStamp(), categoryRepo.findVersionStamp() };
+    }
+
+    public VersionStampDto[] forProductsWithInventory() { // Also used for a single category's products
+        return new VersionStampDto[] { productRepo.findVersionStamp(), categoryRepo.findVersionStamp(),
+                inventoryRepo.findVersionStamp(), warehouseRepo.findVersionStamp() };
+    }
+
+    public VersionStampDto[] forProduct(Product product) { // Without inventory
+        return new VersionStampDto[] { VersionStampDto.of(product), VersionStampDto.of(product.getCategory()) };
+    }
+
+    public VersionStampDto[] forProductWithInventory(Product product) {
+        List<Inventory> inventory = product.getInventory();
+        return new VersionStampDto[] { VersionStampDto.of(product), VersionStampDto.of(product.getCategory()),
+                VersionStampDto.of(inventory),
+                VersionStampDto.of(inventory.stream().map(Inventory::getWarehouse).distinct().toList()) };
+    }
+}
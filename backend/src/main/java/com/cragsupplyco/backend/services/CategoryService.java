@@ -2,17 +2,23 @@ package com.cragsupplyco.backend.services;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import com.cragsupplyco.backend.models.Category;
 import com.cragsupplyco.backend.repositories.CategoryRepository;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 @Service
 public class CategoryService {
     private CategoryRepository repo;
+    private CatalogVersionService versions;
 
-    public CategoryService(CategoryRepository repo) {
+    public CategoryService(CategoryRepository repo, CatalogVersionService versions) {
         this.repo = repo;
+        this.versions = versions;
     }
 
     public Iterable<Category> findAll() { // Returns all product categories
@@ -23,10 +29,15 @@ public class CategoryService {
         return repo.findByName(name);
     }
 
+    // Categories rarely change, so lookups by id (e.g. when mapping products) are
+    // served from the cache; a missing category is not cached
+    @Cacheable(cacheNames = "categories", key = "#id", unless = "#result == null")
     public Optional<Category> findById(int id) { // Returns product category by id
         return repo.findById(id);
     }
 
+    // Every write also evicts the serialized category list (see CatalogResponseService)
+    @CacheEvict(cacheNames = "responses", allEntries = true)
     public Category save(Category category) { // Saves new product category
         if (repo.existsByName(category.getName())) { // Checks if product category exists with the intended name (as
                                                      // categories must have unique names)
@@ -36,9 +47,15 @@ public class CategoryService {
         return repo.save(category);
     }
 
-    public Category updateCategoryById(int id, Category category) { // Update product category by id
+    // Update product category by id (only if it still has the If-Match ETag, when sent);
+    // cached products show the category name, so they are evicted too
+    @Caching(evict = { @CacheEvict(cacheNames = "categories", key = "#id"),
+            @CacheEvict(cacheNames = { "products", "responses" }, allEntries = true) })
+    public Category updateCategoryById(int id, Category category, String ifMatch) {
         category.setId(id);
         Category existingCategory = repo.findById(id).get();
+        EntityTags.checkIfMatch(ifMatch, versions.forCategory(existingCategory));
+        category.setVersion(existingCategory.getVersion()); // Saving fails if it was updated since it was read
 
         // Checks whether category name is being updated to a new value and checks if
         // product category exists with the intended name (as categories must have
@@ -49,6 +66,9 @@ public class CategoryService {
         return repo.save(category);
     }
 
+    // Deleting a category also deletes its products
+    @Caching(evict = { @CacheEvict(cacheNames = "categories", key = "#id"),
+            @CacheEvict(cacheNames = { "products", "responses" }, allEntries = true) })
     public void deleteById(int id) { // Delete product category by id
         repo.deleteById(id);
     }
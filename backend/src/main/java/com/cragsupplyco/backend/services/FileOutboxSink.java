@@ -0,0 +1,43 @@
+package com.cragsupplyco.backend.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Appends outbox events to an NDJSON file, as a stand-in for a message broker
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+    private ObjectMapper mapper;
+    private Path file;
+
+    public FileOutboxSink(ObjectMapper mapper, @Value("${inventory.outbox.file:outbox.ndjson}") Path file) {
+        this.mapper = mapper;
+        this.file = file;
+    }
+
+    @Override
+    public void send(List<OutboxEventDto> events) {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            for (OutboxEventDto event : events) {
+                writer.write(mapper.writeValueAsString(event));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write outbox events to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cragsupplyco.backend.dtos.AllocationLineDto;
+import com.cragsupplyco.backend.dtos.AllocationPickDto;
+import com.cragsupplyco.backend.dtos.AllocationRequestDto;
+import com.cragsupplyco.backend.dtos.AllocationResultDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+
+// Chooses the warehouses an order's lines are taken from. The stock of each
+// product (its items by size, with their warehouse's location) is kept in memory,
+// loaded on first use and dropped when a committed change touches the product, so
+// an allocation usually runs without a query. Holds (see StockReservationService)
+// are subtracted from each item's quantity.
+@Service
+public class FulfillmentAllocator {
+    private static final int MAX_LINES = 500;
+
+    private InventoryRepository repo;
+    private StockReservationService reservations;
+    private final long maxAgeMillis;
+
+    private final Map<Integer, ProductStock> index = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> productOfItem = new ConcurrentHashMap<>(); // For changes that only
+                                                                                  // send the item id
+    // Bumped when a product (or the whole index) is dropped, so a load that read
+    // the database before the change is not kept
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public FulfillmentAllocator(InventoryRepository repo, StockReservationService reservations,
+            InventoryChangeStream changes, @Value("${inventory.allocation.max-age-ms:60000}") long maxAgeMillis) {
+        this.repo = repo;
+        this.reservations = reservations;
+        this.maxAgeMillis = maxAgeMillis;
+        changes.addListener(this::onChange);
+    }
+
+    // Allocates the lines to as few warehouses as possible (choosing the nearest
+    // when a destination is passed). Finding the fewest is a set cover problem, so
+    // it is done greedily: first, warehouses are chosen one at a time by how many
+    // of the remaining lines they can fill in full (then by units, then distance);
+    // lines that no single warehouse has enough of are then split, taking from
+    // warehouses already chosen before adding others.
+    public AllocationResultDto allocate(AllocationRequestDto request) {
+        List<AllocationLineDto> lines = request.getLines();
+        if (lines == null || lines.isEmpty() || lines.size() > MAX_LINES) {
+            throw new IllegalArgumentException("Cannot allocate. An order must have between 1 and " + MAX_LINES
+                    + " lines.");
+        }
+        for (AllocationLineDto line : lines) {
+            if (line.getQuantity() < 1) {
+                throw new IllegalArgumentException("Cannot allocate. Quantity must be greater than 0.");
+            }
+        }
+
+        Allocation allocation = new Allocation(lines, sources(lines, request));
+        while (true) { // Lines filled in full by one warehouse
+            Source best = null;
+            for (Source source : allocation.sources) {
+                if (source.filled(allocation.remaining) > 0
+                        && (best == null || allocation.compareFull(source, best) > 0)) {
+                    best = source;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            for (int line : best.lines.keySet()) {
+                if (allocation.remaining[line] > 0 && best.available(line) >= allocation.remaining[line]) {
+                    allocation.take(best, line);
+                }
+            }
+        }
+
+        for (int line = 0; line < lines.size(); line++) { // Lines split across warehouses
+            List<Source> candidates = new ArrayList<>();
+            for (Source source : allocation.sources) {
+                if (allocation.remaining[line] > 0 && source.available(line) > 0) {
+                    candidates.add(source);
+                }
+            }
+            int current = line;
+            candidates.sort((a, b) -> allocation.compareSplit(a, b, current));
+            for (Source source : candidates) {
+                if (allocation.remaining[line] == 0) {
+                    break;
+                }
+                allocation.take(source, line);
+            }
+        }
+
+        List<AllocationLineDto> shortfalls = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (allocation.remaining[i] > 0) {
+                shortfalls.add(new AllocationLineDto(lines.get(i).getProduct(), lines.get(i).getSize(),
+                        allocation.remaining[i]));
+            }
+        }
+        return new AllocationResultDto(new ArrayList<>(allocation.chosen), allocation.picks, shortfalls);
+    }
+
+    // Drops every product from the index (e.g., after the inventory is reset)
+    public void clear() {
+        epoch.incrementAndGet();
+        index.clear();
+        productOfItem.clear();
+    }
+
+    // Drops the products a committed change touched
+    void onChange(InventoryChangeEventDto change) {
+        switch (change.getType()) {
+            case INVENTORY_CHANGED, INVENTORY_DELETED -> {
+                if (change.getProduct() != null) {
+                    invalidate(change.getProduct());
+                }
+                Integer previousProduct = change.getInventory() == null ? null
+                        : productOfItem.get(change.getInventory());
+                if (previousProduct != null) { // The item may have moved to another product
+                    invalidate(previousProduct);
+                }
+            }
+            // Imports, changed warehouses (whose location may have changed), deleted
+            // warehouses (and their items) and resets touch many products
+            default -> clear();
+        }
+    }
+
+    // The warehouses with available stock for any of the lines, with their stock
+    // per line
+    private List<Source> sources(List<AllocationLineDto> lines, AllocationRequestDto request) {
+        Map<Integer, Source> sources = new HashMap<>();
+        Map<Integer, Stock> stocks = new HashMap<>(); // By item, shared by lines of the same product and size
+        Map<Integer, ProductStock> products = findProducts(lines);
+        for (int i = 0; i < lines.size(); i++) {
+            AllocationLineDto line = lines.get(i);
+            for (Item item : products.get(line.getProduct()).items(line.getSize())) {
+                Stock stock = stocks.computeIfAbsent(item.inventoryId,
+                        id -> new Stock(item, item.quantity - reservations.getReserved(id)));
+                if (stock.available > 0) {
+                    sources.computeIfAbsent(item.warehouseId, id -> new Source(id, distance(item, request)))
+                            .lines.computeIfAbsent(i, index -> new ArrayList<>()).add(stock);
+                }
+            }
+        }
+
+        List<Source> sorted = new ArrayList<>(sources.values());
+        sorted.sort(Comparator.comparingInt(source -> source.warehouseId)); // Ties go to the lowest id
+        return sorted;
+    }
+
+    // Distance between a warehouse and the destination: the difference between the
+    // first three digits of their ZIP codes (which run roughly east to west), or 0
+    // in the same state and 1 otherwise when only a state is passed
+    private static int distance(Item item, AllocationRequestDto request) {
+        if (request.getZipCode() != null && item.zipCode != null) {
+            return Math.abs(zipPrefix(request.getZipCode()) - zipPrefix(item.zipCode));
+        }
+        if (request.getState() != null) {
+            return request.getState().equals(item.state) ? 0 : 1;
+        }
+        return 0;
+    }
+
+    private static int zipPrefix(String zipCode) {
+        return Integer.parseInt(zipCode.substring(0, 3));
+    }
+
+    private Map<Integer, ProductStock> findProducts(List<AllocationLineDto> lines) {
+        Map<Integer, ProductStock> products = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        long now = System.currentTimeMillis();
+        for (AllocationLineDto line : lines) {
+            ProductStock stock = index.get(line.getProduct());
+            if (stock != null && now - stock.loadedAt < maxAgeMillis) {
+                products.put(line.getProduct(), stock);
+            } else {
+                missing.add(line.getProduct());
+            }
+        }
+        if (!missing.isEmpty()) {
+            products.putAll(load(missing, now));
+        }
+        return products;
+    }
+
+    // Loads the stock of the products in one query and keeps it in the index,
+    // unless one of them was dropped meanwhile
+    private Map<Integer, ProductStock> load(Set<Integer> productIds, long now) {
+        long epochBefore = epoch.get();
+        Map<Integer, Long> versionsBefore = new HashMap<>();
+        Map<Integer, ProductStock> loaded = new HashMap<>();
+        for (Integer productId : productIds) {
+            versionsBefore.put(productId, versions.getOrDefault(productId, 0L));
+            loaded.put(productId, new ProductStock(now));
+        }
+
+        for (Object[] row : repo.findStockByProductIdIn(productIds)) {
+            Item item = new Item(((Number) row[0]).intValue(), ((Number) row[2]).intValue(),
+                    ((Number) row[4]).intValue(), (String) row[5], (String) row[6]);
+            int productId = ((Number) row[1]).intValue();
+            loaded.get(productId).add((String) row[3], item);
+            productOfItem.put(item.inventoryId, productId);
+        }
+
+        loaded.forEach((productId, stock) -> index.compute(productId, (id, current) -> {
+            boolean unchanged = epoch.get() == epochBefore
+                    && versions.getOrDefault(id, 0L).equals(versionsBefore.get(id));
+            return unchanged ? stock : current;
+        }));
+        return loaded;
+    }
+
+    private void invalidate(int productId) {
+        index.compute(productId, (id, current) -> {
+            versions.merge(id, 1L, Long::sum); // In the same compute as the load's check, so neither is missed
+            return null;
+        });
+    }
+
+    // An inventory item as loaded
+    private static class Item {
+        final int inventoryId;
+        final int warehouseId;
+        final int quantity;
+        final String state;
+        final String zipCode;
+
+        Item(int inventoryId, int warehouseId, int quantity, String state, String zipCode) {
+            this.inventoryId = inventoryId;
+            this.warehouseId = warehouseId;
+            this.quantity = quantity;
+            this.state = state;
+            this.zipCode = zipCode;
+        }
+    }
+
+    // The items of a product by size (null for items without one)
+    private static class ProductStock {
+        final long loadedAt;
+        final Map<String, List<Item>> bySize = new HashMap<>();
+
+        ProductStock(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        void add(String size, Item item) {
+            bySize.computeIfAbsent(size, s -> new ArrayList<>()).add(item);
+        }
+
+        List<Item> items(String size) {
+            List<Item> items = bySize.get(size);
+            return items == null ? List.of() : items;
+        }
+    }
+
+    // A warehouse's available stock for each line (by line index)
+    private static class Source {
+        final int warehouseId;
+        final int distance;
+        final Map<Integer, List<Stock>> lines = new LinkedHashMap<>();
+
+        Source(int warehouseId, int distance) {
+            this.warehouseId = warehouseId;
+            this.distance = distance;
+        }
+
+        long available(int line) {
+            long available = 0;
+            for (Stock stock : lines.getOrDefault(line, List.of())) {
+                available += stock.available;
+            }
+            return available;
+        }
+
+        // Number of remaining lines this warehouse has enough of
+        int filled(int[] remaining) {
+            int filled = 0;
+            for (int line : lines.keySet()) {
+                if (remaining[line] > 0 && available(line) >= remaining[line]) {
+                    filled++;
+                }
+            }
+            return filled;
+        }
+
+        // Units of the remaining lines this warehouse has enough of
+        long filledUnits(int[] remaining) {
+            long units = 0;
+            for (int line : lines.keySet()) {
+                if (remaining[line] > 0 && available(line) >= remaining[line]) {
+                    units += remaining[line];
+                }
+            }
+            return units;
+        }
+    }
+
+    // The state of one allocation
+    private static class Allocation {
+        final List<Source> sources;
+        final int[] remaining;
+        final Set<Integer> chosen = new LinkedHashSet<>(); // Warehouses in the order they were chosen
+        final List<AllocationPickDto> picks = new ArrayList<>();
+
+        Allocation(List<AllocationLineDto> lines, List<Source> sources) {
+            this.sources = sources;
+            this.remaining = lines.stream().mapToInt(AllocationLineDto::getQuantity).toArray();
+        }
+
+        // Takes as much of the line as the warehouse has, up to what remains
+        void take(Source source, int line) {
+            for (Stock stock : source.lines.getOrDefault(line, List.of())) {
+                int quantity = Math.min(remaining[line], stock.available);
+                if (quantity > 0) {
+                    stock.available -= quantity;
+                    remaining[line] -= quantity;
+                    picks.add(new AllocationPickDto(line, stock.item.inventoryId, source.warehouseId, quantity));
+                    chosen.add(source.warehouseId);
+                }
+            }
+        }
+
+        // Positive if a is the better warehouse to fill lines in full from: more
+        // lines, then more units, then already chosen, then nearer
+        int compareFull(Source a, Source b) {
+            int compared = Integer.compare(a.filled(remaining), b.filled(remaining));
+            if (compared == 0) {
+                compared = Long.compare(a.filledUnits(remaining), b.filledUnits(remaining));
+            }
+            if (compared == 0) {
+                compared = Boolean.compare(chosen.contains(a.warehouseId), chosen.contains(b.warehouseId));
+            }
+            return compared != 0 ? compared : Integer.compare(b.distance, a.distance);
+        }
+
+        // Negative if a comes first when splitting a line: already chosen, then more
+        // of the line, then nearer
+        int compareSplit(Source a, Source b, int line) {
+            int compared = Boolean.compare(chosen.contains(b.warehouseId), chosen.contains(a.warehouseId));
+            if (compared == 0) {
+                compared = Long.compare(b.available(line), a.available(line));
+            }
+            return compared != 0 ? compared : Integer.compare(a.distance, b.distance);
+        }
+    }
+
+    // What is left of an item during one allocation
+    private static class Stock {
+        final Item item;
+        int available;
+
+        Stock(Item item, int available) {
+            this.item = item;
+            this.available = available;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.cragsupplyco.backend.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.repositories.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+// In-process bus for committed inventory and warehouse changes, fanned out to
+// Server-Sent Events clients (see GET /api/inventory/events). Each client has a
+// bounded queue that is drained on a small pool of its own (sends block while the
+// client's connection is full, so they must not hold the shared task executor),
+// so a slow client never blocks the request that made the change; a client that
+// falls a whole queue behind, or whose send does not finish within the send
+// timeout, is disconnected instead, and its EventSource reconnects with the id of
+// the last event it received. The latest events are kept so such clients (and
+// clients that lost their connection) are sent what they missed; clients that
+// missed more than that are sent a RESET event.
+//
+// The changes of a transaction are also written to the outbox table just before
+// it commits, so integrations (see InventoryOutboxRelay) get them if and only if
+// the transaction commits, numbered per warehouse in commit order.
+@Service
+public class InventoryChangeStream {
+    private final Executor executor;
+    private OutboxRepository outboxRepo;
+    private ObjectMapper mapper;
+    private final int subscriberBufferSize;
+    private final long sendTimeoutNanos;
+    // Event ids are "<stream start time>-<sequence>", so ids from before a restart
+    // are not mistaken for ids of this stream
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<InventoryChangeEventDto>> listeners = new CopyOnWriteArrayList<>();
+    private final Event[] recent; // The latest events, indexed by sequence modulo length
+    private long lastSequence; // Sequence of the latest event (0 before the first), guarded by lock
+    private final ReentrantLock lock = new ReentrantLock(); // A lock rather than synchronized, so virtual threads
+                                                            // do not pin their carrier
+
+    @Autowired
+    public InventoryChangeStream(OutboxRepository outboxRepo, ObjectMapper mapper,
+            @Value("${inventory.events.replay-size:10000}") int replaySize,
+            @Value("${inventory.events.subscriber-buffer-size:1000}") int subscriberBufferSize,
+            @Value("${inventory.events.send-threads:4}") int sendThreads,
+            @Value("${inventory.events.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this(newSendExecutor(sendThreads), outboxRepo, mapper, replaySize, subscriberBufferSize, sendTimeoutMillis);
+    }
+
+    // Drains the subscriber queues on the given executor (used by tests)
+    InventoryChangeStream(Executor executor, OutboxRepository outboxRepo, ObjectMapper mapper, int replaySize,
+            int subscriberBufferSize, long sendTimeoutMillis) {
+        if (replaySize <= 0 || subscriberBufferSize <= 0 || sendTimeoutMillis <= 0) {
+            throw new IllegalArgumentException(
+                    "Event replay and subscriber buffer sizes and the send timeout must be greater than 0.");
+        }
+        this.executor = executor;
+        this.outboxRepo = outboxRepo;
+        this.mapper = mapper;
+        this.recent = new Event[replaySize];
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    // A fixed number of threads (stopped while idle), with one task per subscriber
+    // at most queued
+    private static ExecutorService newSendExecutor(int sendThreads) {
+        if (sendThreads <= 0) {
+            throw new IllegalArgumentException("Event send threads must be greater than 0.");
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("inventory-events-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow(); // Interrupts sends in progress; the clients reconnect
+        }
+    }
+
+    // Publishes the change once the current transaction commits (it is dropped if
+    // the transaction rolls back), or right away outside a transaction
+    public void publish(InventoryChangeEventDto change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().add(change);
+        } else {
+            outboxRepo.insertAll(Collections.singletonList(outboxRow(change)));
+            append(change);
+        }
+    }
+
+    // The changes published in the current transaction so far; they are written
+    // to the outbox in one batch before it commits, and appended after
+    @SuppressWarnings("unchecked")
+    private List<InventoryChangeEventDto> pendingChanges() {
+        List<InventoryChangeEventDto> pending = (List<InventoryChangeEventDto>) TransactionSynchronizationManager
+                .getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<InventoryChangeEventDto> changes = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                outboxRepo.insertAll(changes.stream().map(InventoryChangeStream.this::outboxRow).toList());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InventoryChangeStream.this);
+                if (status == STATUS_COMMITTED) {
+                    changes.forEach(InventoryChangeStream.this::append);
+                }
+            }
+        });
+        return changes;
+    }
+
+    private Object[] outboxRow(InventoryChangeEventDto change) {
+        try {
+            return new Object[] { change.getWarehouse(), change.getType().name(), mapper.writeValueAsString(change) };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize inventory change", e);
+        }
+    }
+
+    // Subscribes a client to the changes of a warehouse (all warehouses if null),
+    // starting after the given event id (new changes only if null)
+    public SseEmitter subscribe(Integer warehouseId, String lastEventId) {
+        Subscriber subscriber = new Subscriber(newEmitter(), warehouseId);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete); // The client reconnects and resumes
+
+        lock.lock();
+        try { // Replay and subscribe under the lock, so no event is missed or sent twice
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return subscriber.emitter;
+    }
+
+    // Calls the listener with every committed change, in commit order, on the
+    // thread that committed it (so it must be quick and must not throw)
+    public void addListener(Consumer<InventoryChangeEventDto> listener) {
+        listeners.add(listener);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Sends a comment to every client now and then, so idle connections are not
+    // closed by proxies and clients that went away are noticed
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(Event.HEARTBEAT)) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    // Disconnects clients whose send has not finished within the send timeout (their
+    // connection is full, e.g. they stopped reading), interrupting the send so its
+    // thread is free for the other clients again
+    @Scheduled(fixedDelayString = "${inventory.events.send-timeout-ms:10000}")
+    public void abortStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.abortSendStartedBefore(now - sendTimeoutNanos)) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(); // Times out after spring.mvc.async.request-timeout
+    }
+
+    private void append(InventoryChangeEventDto change) {
+        lock.lock();
+        try {
+            Event event = new Event(++lastSequence, change);
+            recent[(int) (event.sequence % recent.length)] = event;
+            listeners.forEach(listener -> listener.accept(change));
+
+            for (Subscriber subscriber : subscribers) {
+                if (change.concerns(subscriber.warehouseId) && !subscriber.offer(event)) {
+                    disconnect(subscriber); // Too far behind, so let it resume from its last event
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long sequence = parseSequence(lastEventId);
+        if (sequence < 0 || sequence > lastSequence || lastSequence - sequence > recent.length) {
+            subscriber.offer(new Event(lastSequence, new InventoryChangeEventDto(InventoryChangeEventDto.Type.RESET,
+                    null)));
+            return;
+        }
+
+        for (long s = sequence + 1; s <= lastSequence; s++) {
+            Event event = recent[(int) (s % recent.length)];
+            if (event.change.concerns(subscriber.warehouseId) && !subscriber.offer(event)) {
+                // More missed events than fit in the buffer, so send a RESET instead
+                subscriber.queue.clear();
+                subscriber.offer(new Event(lastSequence,
+                        new InventoryChangeEventDto(InventoryChangeEventDto.Type.RESET, null)));
+                return;
+            }
+        }
+    }
+
+    // Sequence of an event id of this stream, or -1 if the id is not one
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Event event = subscriber.queue.poll();
+            if (event == null) {
+                subscriber.draining.set(false);
+                // Check again, in case an event was queued before the flag was cleared
+                if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            subscriber.startSend();
+            try {
+                if (event == Event.HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(epoch + "-" + event.sequence)
+                            .data(event.change, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) { // The client went away, the emitter completed or
+                                                              // the send was aborted
+                subscribers.remove(subscriber);
+                subscriber.queue.clear();
+                return;
+            } finally {
+                subscriber.endSend();
+            }
+        }
+    }
+
+    private static class Event {
+        static final Event HEARTBEAT = new Event(0, null);
+
+        final long sequence;
+        final InventoryChangeEventDto change;
+
+        Event(long sequence, InventoryChangeEventDto change) {
+            this.sequence = sequence;
+            this.change = change;
+        }
+    }
+
+    private class Subscriber {
+        final SseEmitter emitter;
+        final Integer warehouseId;
+        final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(subscriberBufferSize);
+        final AtomicBoolean draining = new AtomicBoolean(); // Whether a drain task is queued or running
+        private final ReentrantLock sendLock = new ReentrantLock(); // Guards sender and sendStarted, so an
+                                                                    // abort only interrupts this subscriber's send
+        private Thread sender; // Thread running a send, null between sends
+        private long sendStarted; // System.nanoTime() when the send started
+
+        Subscriber(SseEmitter emitter, Integer warehouseId) {
+            this.emitter = emitter;
+            this.warehouseId = warehouseId;
+        }
+
+        // Queues the event, starting a drain task unless one is already running;
+        // returns false if the queue is full
+        boolean offer(Event event) {
+            if (!queue.offer(event)) {
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(() -> drain(this));
+                } catch (RejectedExecutionException e) { // Shutting down
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void startSend() {
+            sendLock.lock();
+            try {
+                sender = Thread.currentThread();
+                sendStarted = System.nanoTime();
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void endSend() {
+            sendLock.lock();
+            try {
+                sender = null;
+                Thread.interrupted(); // Clears an abort that came as the send finished, so it cannot hit the next one
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        // Interrupts the send in progress if it started before the given time
+        boolean abortSendStartedBefore(long time) {
+            sendLock.lock();
+            try {
+                if (sender == null || sendStarted - time > 0) {
+                    return false;
+                }
+                sender.interrupt();
+                return true;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cragsupplyco.backend.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.utils.InventoryExportWriter;
+import com.cragsupplyco.backend.utils.InventoryFileFormat;
+
+// Export of all inventory items, written to the output as rows are read from the
+// database so memory use does not grow with the number of items
+@Service
+public class InventoryExportService {
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_INTERVAL = 1000; // Rows between flushes (the first row is flushed right away)
+
+    private InventoryBatchRepository batchRepo;
+
+    public InventoryExportService(InventoryBatchRepository batchRepo) {
+        this.batchRepo = batchRepo;
+    }
+
+    @Transactional(readOnly = true) // Keeps the cursor open for the whole export
+    public int export(OutputStream output, InventoryFileFormat format) throws IOException {
+        InventoryExportWriter writer = new InventoryExportWriter(output, format);
+        int[] rows = { 0 };
+
+        batchRepo.forEachItem(FETCH_SIZE, resultSet -> {
+            try {
+                writer.write(resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3), resultSet.getString(4),
+                        resultSet.getInt(5));
+                rows[0]++;
+                if (rows[0] == 1 || rows[0] % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) { // E.g., the client disconnected
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.finish();
+        return rows[0]; // Number of items exported
+    }
+}
@@ -0,0 +1,259 @@
+package com.cragsupplyco.backend.services;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryImportResultDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.repositories.ProductRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.utils.InventoryFileFormat;
+import com.cragsupplyco.backend.utils.InventoryImportReader;
+
+// Bulk import of inventory items from a CSV or NDJSON upload. Each line names a
+// product (by "product" id, or by "brand" and "name"), a warehouse (by
+// "warehouse" id or "warehouseName"), an optional "size" and a "quantity". As with
+// POST /api/inventory, the quantity is added to an existing item with the same
+// product, warehouse and size, and a new item is created otherwise.
+@Service
+public class InventoryImportService {
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private ProductRepository productRepo;
+    private WarehouseRepository warehouseRepo;
+    private InventoryRepository inventoryRepo;
+    private InventoryBatchRepository batchRepo;
+    private WarehouseCapacityTracker capacityTracker;
+    private InventoryChangeStream changes;
+    private StockLedger ledger;
+
+    public InventoryImportService(ProductRepository productRepo, WarehouseRepository warehouseRepo,
+            InventoryRepository inventoryRepo, InventoryBatchRepository batchRepo,
+            WarehouseCapacityTracker capacityTracker, InventoryChangeStream changes, StockLedger ledger) {
+        this.productRepo = productRepo;
+        this.warehouseRepo = warehouseRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.batchRepo = batchRepo;
+        this.capacityTracker = capacityTracker;
+        this.changes = changes;
+        this.ledger = ledger;
+    }
+
+    // Parses the upload line by line, merging lines for the same item, then
+    // reserves capacity once per warehouse, increments existing items in JDBC
+    // batches and upserts new ones.
+    // Lines that cannot be imported are reported and skipped; everything else is
+    // written in one transaction.
+    @Transactional
+    public InventoryImportResultDto importInventory(InputStream input, InventoryFileFormat format) {
+        InventoryImportResultDto result = new InventoryImportResultDto();
+        Lookup lookup = new Lookup();
+
+        // Quantity per item (product id, size), per warehouse; only distinct items
+        // are kept in memory, not the lines
+        Map<Integer, Map<List<Object>, Long>> quantities = new TreeMap<>(); // Sorted by warehouse id so capacity
+                                                                            // is always reserved in the same order
+        Map<Integer, Integer> linesPerWarehouse = new HashMap<>();
+
+        InventoryImportReader reader = new InventoryImportReader(input, format);
+        while (true) {
+            Map<String, String> fields;
+            try {
+                fields = reader.next();
+            } catch (IllegalArgumentException e) { // The line could not be parsed
+                result.setLinesRead(result.getLinesRead() + 1);
+                reject(result, reader.getLine(), e.getMessage());
+                continue;
+            }
+            if (fields == null) {
+                break;
+            }
+            result.setLinesRead(result.getLinesRead() + 1);
+
+            try {
+                int productId = lookup.productId(fields);
+                int warehouseId = lookup.warehouseId(fields);
+                String size = fields.get("size");
+                if (size != null && size.length() > 20) {
+                    throw new IllegalArgumentException("Size cannot be longer than 20 characters.");
+                }
+                int quantity = parseQuantity(fields.get("quantity"));
+
+                quantities.computeIfAbsent(warehouseId, id -> new LinkedHashMap<>())
+                        .merge(Arrays.asList(productId, size), (long) quantity, Long::sum);
+                linesPerWarehouse.merge(warehouseId, 1, Integer::sum);
+            } catch (IllegalArgumentException e) {
+                reject(result, reader.getLine(), e.getMessage());
+            }
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        Map<Integer, Integer> increments = new HashMap<>();
+
+        for (Map.Entry<Integer, Map<List<Object>, Long>> entry : quantities.entrySet()) {
+            int warehouseId = entry.getKey();
+            Map<List<Object>, Long> items = entry.getValue();
+
+            // Reserve the warehouse's total once; if it does not fit, none of the
+            // warehouse's lines are imported
+            long total = items.values().stream().mapToLong(Long::longValue).sum();
+            if (total > Integer.MAX_VALUE || !capacityTracker.tryAdjust(warehouseId, (int) total)) {
+                result.getWarehouseErrors().put(warehouseId,
+                        "Cannot import inventory. It exceeds the warehouse capacity.");
+                result.setLinesRejected(result.getLinesRejected() + linesPerWarehouse.get(warehouseId));
+                continue;
+            }
+            // One event per warehouse rather than per item (sent once the import commits)
+            changes.publish(new InventoryChangeEventDto(InventoryChangeEventDto.Type.INVENTORY_IMPORTED, warehouseId));
+
+            Map<List<Object>, Integer> existing = new HashMap<>(); // (product id, size) -> inventory id
+            for (Object[] row : inventoryRepo.findImportKeysByWarehouseId(warehouseId)) {
+                existing.put(Arrays.asList(row[1], row[2]), (Integer) row[0]);
+            }
+
+            for (Map.Entry<List<Object>, Long> item : items.entrySet()) {
+                Integer inventoryId = existing.get(item.getKey());
+                int quantity = item.getValue().intValue(); // Fits, since the warehouse total does
+                if (inventoryId != null) {
+                    increments.put(inventoryId, quantity);
+                    ledger.record(inventoryId, (Integer) item.getKey().get(0), warehouseId, quantity,
+                            StockMovementDto.Reason.IMPORTED);
+                } else {
+                    inserts.add(new Object[] { item.getKey().get(0), warehouseId, item.getKey().get(1), quantity });
+                }
+
+                if (inserts.size() + increments.size() >= BATCH_SIZE) {
+                    writeBatch(result, inserts, increments);
+                }
+            }
+        }
+        writeBatch(result, inserts, increments);
+
+        return result;
+    }
+
+    private void writeBatch(InventoryImportResultDto result, List<Object[]> inserts,
+            Map<Integer, Integer> increments) {
+        if (inserts.isEmpty() && increments.isEmpty()) {
+            return;
+        }
+
+        // Items missing when the keys were read are upserted, so one created by another
+        // request meanwhile is added to rather than failing the import on its unique key
+        for (Object[] item : inserts) {
+            UpdateQuantityResponseDto created = batchRepo.upsertQuantity((Integer) item[0], (Integer) item[1],
+                    (String) item[2], (Integer) item[3]);
+            ledger.record(created.getId(), (Integer) item[0], (Integer) item[1], (Integer) item[3],
+                    StockMovementDto.Reason.IMPORTED);
+        }
+        if (!batchRepo.adjustQuantities(increments)) { // Only fails if an item was deleted meanwhile
+            throw new ConcurrentModificationConflictException(
+                    "Inventory was changed by another request. Please retry the import.");
+        }
+
+        result.setInserted(result.getInserted() + inserts.size());
+        result.setUpdated(result.getUpdated() + increments.size());
+        result.setBatches(result.getBatches() + 1);
+        inserts.clear();
+        increments.clear();
+    }
+
+    private static void reject(InventoryImportResultDto result, int line, String message) {
+        result.setLinesRejected(result.getLinesRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().put(line, message);
+        }
+    }
+
+    private static int parseQuantity(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Quantity is required.");
+        }
+        try {
+            int quantity = Integer.parseInt(value);
+            if (quantity >= 0) {
+                return quantity;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Quantity must be a whole number greater than or equal to 0.");
+    }
+
+    // Product and warehouse ids and names, loaded once per import
+    private class Lookup {
+        private final Set<Integer> productIds = new HashSet<>();
+        private final Map<List<String>, Integer> productsByBrandAndName = new HashMap<>();
+        private final Set<Integer> warehouseIds = new HashSet<>();
+        private final Map<String, Integer> warehousesByName = new HashMap<>();
+
+        private Lookup() {
+            for (Object[] row : productRepo.findImportKeys()) { // id, brand, name
+                productIds.add((Integer) row[0]);
+                productsByBrandAndName.put(Arrays.asList((String) row[1], (String) row[2]), (Integer) row[0]);
+            }
+            for (Object[] row : warehouseRepo.findImportKeys()) { // id, name
+                warehouseIds.add((Integer) row[0]);
+                warehousesByName.put((String) row[1], (Integer) row[0]);
+            }
+        }
+
+        private int productId(Map<String, String> fields) {
+            if (fields.containsKey("product")) {
+                int id = parseId(fields.get("product"), "Product");
+                if (!productIds.contains(id)) {
+                    throw new IllegalArgumentException("Product not found with ID: " + id);
+                }
+                return id;
+            }
+
+            Integer id = productsByBrandAndName.get(Arrays.asList(fields.get("brand"), fields.get("name")));
+            if (id == null) {
+                throw new IllegalArgumentException(
+                        "Product not found: " + fields.get("brand") + " " + fields.get("name"));
+            }
+            return id;
+        }
+
+        private int warehouseId(Map<String, String> fields) {
+            if (fields.containsKey("warehouse")) {
+                int id = parseId(fields.get("warehouse"), "Warehouse");
+                if (!warehouseIds.contains(id)) {
+                    throw new IllegalArgumentException("Warehouse not found with ID: " + id);
+                }
+                return id;
+            }
+
+            Integer id = warehousesByName.get(fields.get("warehouseName"));
+            if (id == null) {
+                throw new IllegalArgumentException("Warehouse not found: " + fields.get("warehouseName"));
+            }
+            return id;
+        }
+
+        private int parseId(String value, String entity) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(entity + " ID must be a number: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+import com.cragsupplyco.backend.repositories.OutboxRepository;
+
+// Relays outbox events (written with each inventory and warehouse change, see
+// InventoryChangeStream) to the outbox sink in batches. A batch is locked, sent
+// and deleted in one transaction, so events are sent at least once; a failed
+// send leaves the batch for the next run. The events of each warehouse are sent
+// in commit order: they are numbered per warehouse as their transaction commits
+// (see OutboxRepository.insertAll), and sent in that order starting after the
+// last one sent, stopping at a gap (a number not visible yet) until a later run.
+// Events of different warehouses are not ordered.
+@Service
+public class InventoryOutboxRelay {
+    private OutboxRepository repo;
+    private OutboxSink sink;
+    private TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public InventoryOutboxRelay(OutboxRepository repo, OutboxSink sink, TransactionTemplate transactionTemplate,
+            @Value("${inventory.outbox.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Outbox batch size must be greater than 0.");
+        }
+        this.repo = repo;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        relayPending();
+    }
+
+    // Sends batches until the outbox is drained, so a backlog does not wait for the
+    // next run; returns the number of events sent
+    public int relayPending() {
+        int sent = 0;
+        while (true) {
+            int[] locked = new int[1];
+            int count = transactionTemplate.execute(status -> {
+                List<OutboxEventDto> batch = repo.lockBatch(batchSize);
+                locked[0] = batch.size();
+                List<OutboxEventDto> ready = inSequence(batch);
+                if (!ready.isEmpty()) {
+                    sink.send(ready);
+                    repo.deleteAll(ready);
+                }
+                return ready.size();
+            });
+            sent += count;
+            if (locked[0] < batchSize || count == 0) { // Drained, or only events after a gap are left
+                return sent;
+            }
+        }
+    }
+
+    // The events of a batch (in warehouse and seq order) that follow the last one
+    // sent of their warehouse without a gap; the positions are stored in the same
+    // transaction
+    private List<OutboxEventDto> inSequence(List<OutboxEventDto> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+
+        Map<Integer, Long> relayed = repo.findRelayedSeqs();
+        Map<Integer, Long> advanced = new HashMap<>();
+        List<OutboxEventDto> ready = new ArrayList<>(batch.size());
+        for (OutboxEventDto event : batch) {
+            int key = OutboxRepository.sequenceKey(event.getWarehouse());
+            long last = advanced.getOrDefault(key, relayed.getOrDefault(key, 0L));
+            if (event.getSeq() == last + 1) {
+                ready.add(event);
+                advanced.put(key, event.getSeq());
+            }
+        }
+        repo.saveRelayedSeqs(advanced);
+        return ready;
+    }
+}
@@ -1,196 +1,482 @@
 package com.cragsupplyco.backend.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentResultDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryPageDto;
 import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto.Reason;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.exceptions.PreconditionFailedException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
 import com.cragsupplyco.backend.mappers.InventoryMapper;
 import com.cragsupplyco.backend.models.Inventory;
-import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
 import com.cragsupplyco.backend.repositories.InventoryRepository;
-import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 @Service
 public class InventoryService {
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private InventoryMapper mapper;
     private InventoryRepository repo;
-    private WarehouseRepository warehouseRepo;
-
-    public InventoryService(InventoryRepository repo, WarehouseRepository warehouseRepo, InventoryMapper mapper) {
+    private InventoryBatchRepository batchRepo;
+    private WarehouseCapacityTracker capacityTracker;
+    private InventoryChangeStream changes;
+    private StockLedger ledger;
+    private StockHoldTracker holdTracker;
+    private CatalogVersionService versions;
+
+    public InventoryService(InventoryRepository repo, InventoryBatchRepository batchRepo,
+            WarehouseCapacityTracker capacityTracker, InventoryMapper mapper, InventoryChangeStream changes,
+            StockLedger ledger, StockHoldTracker holdTracker, CatalogVersionService versions) {
         this.repo = repo;
-        this.warehouseRepo = warehouseRepo;
+        this.batchRepo = batchRepo;
+        this.capacityTracker = capacityTracker;
         this.mapper = mapper;
+        this.changes = changes;
+        this.ledger = ledger;
+        this.holdTracker = holdTracker;
+        this.versions = versions;
     }
 
     public Iterable<Inventory> findAll() { // Returns all inventory items
         return repo.findAll();
     }
 
+    // Returns a page of inventory items after the given id (keyset pagination),
+    // optionally filtered by warehouse, product, category and size
+    public InventoryPageDto findPage(int after, int limit, Integer warehouseId, Integer productId, Integer categoryId,
+            String size) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        // Fetch one extra row to know whether there is a next page
+        List<Inventory> items = repo.findPage(after, warehouseId, productId, categoryId, size,
+                PageRequest.of(0, limit + 1));
+
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            return new InventoryPageDto(items, items.get(limit - 1).getId());
+        }
+        return new InventoryPageDto(items, null);
+    }
+
     public Optional<Inventory> findById(int id) { // Returns inventory item by id
         return repo.findById(id);
     }
 
+    @Transactional
     public Inventory save(InventoryRequestDto inventoryDto) { // Saves new inventory item
         Inventory inventory = mapper.toInventory(inventoryDto); // Map from DTO to Inventory obj
-        Product product = inventory.getProduct();
         Warehouse warehouse = inventory.getWarehouse();
         int newQuantity = inventory.getQuantity();
 
-        // Checks whether inventory item already exists, and if so increments the
-        // existing item by specified quantity
-        if (repo.existsByProductAndWarehouseAndSize(product, warehouse, inventory.getSize())) {
-            Inventory existingInventory = repo.findByProductAndWarehouseAndSize(product,
-                    warehouse, inventory.getSize()).get();
-            return updateQuantityById(existingInventory.getId(), "increment", newQuantity);
+        if (newQuantity < 0) {
+            throw new InsufficientQuantityException("Cannot save inventory. Quantity cannot be less than 0.");
         }
 
-        int currentQuantity = warehouse.getCurrentCapacity();
-        int updatedCapacity = currentQuantity + newQuantity;
-
-        // Checks whether the potential capacity would exceed max capacity of warehouse
-        if (updatedCapacity > warehouse.getMaxCapacity()) {
-            throw new IllegalArgumentException("Cannot save inventory. It exceeds the warehouse capacity.");
+        // Reserves the quantity in the warehouse, unless it would exceed the max
+        // capacity of the warehouse (the same amount is added whether the item is new
+        // or already exists)
+        if (!capacityTracker.tryAdjust(warehouse.getId(), newQuantity)) {
+            throw new CapacityExceededException("Cannot save inventory. It exceeds the warehouse capacity.");
         }
 
-        // If not, then saves item and updates warehouse's current capacity
-        warehouse.setCurrentCapacity(updatedCapacity);
-        warehouseRepo.save(warehouse);
-
-        return repo.save(inventory);
+        // Creates the item, or increments the existing item with the same product,
+        // warehouse and size by the specified quantity
+        UpdateQuantityResponseDto result = batchRepo.upsertQuantity(inventory.getProduct().getId(),
+                warehouse.getId(), inventory.getSize(), newQuantity);
+        inventory.setId(result.getId());
+        inventory.setQuantity(result.getQuantity());
+        ledger.record(result.getId(), inventory.getProduct().getId(), warehouse.getId(), newQuantity, Reason.CREATED);
+
+        InventoryChangeEventDto change = changed(inventory, warehouse.getId(), newQuantity);
+        change.setQuantity(result.getQuantity());
+        changes.publish(change);
+        return inventory;
     }
 
-    public Inventory updateInventoryById(int id, InventoryRequestDto updatedInventoryDto) { // Update inventory item
-                                                                                            // by id
+    // Update inventory item by id (only if it still has the If-Match ETag, when
+    // sent; saving fails if it was updated after the check)
+    @Transactional
+    public Inventory updateInventoryById(int id, InventoryRequestDto updatedInventoryDto, String ifMatch) {
         Optional<Inventory> optionalInventory = repo.findById(id);
         Inventory updatedInventory = mapper.toInventory(updatedInventoryDto); // Map from DTO to Inventory obj
 
         if (optionalInventory.isPresent()) { // If inventory item already exists, update its fields
             Inventory existingInventory = optionalInventory.get();
+            EntityTags.checkIfMatch(ifMatch, versions.forInventory(existingInventory));
             Warehouse currentWarehouse = existingInventory.getWarehouse();
             Warehouse newWarehouse = updatedInventory.getWarehouse();
 
+            int oldProductId = existingInventory.getProduct().getId();
+            int newProductId = updatedInventory.getProduct().getId();
             int oldQuantity = existingInventory.getQuantity();
             int newQuantity = updatedInventory.getQuantity();
             int quantityDifference = newQuantity - oldQuantity;
 
-            if (!currentWarehouse.equals(newWarehouse)) { // If the warehouse changes, update both old and new
-                                                          // warehouses
-                // Calculate capacity of the current warehouse
-                int currentCapacity = currentWarehouse.getCurrentCapacity();
-                int updatedCapacity = currentCapacity - oldQuantity;
-
-                // Calculate capacity of the new warehouse
-                int newWarehouseCurrentCapacity = newWarehouse.getCurrentCapacity();
-                int newWarehouseCapacity = newWarehouseCurrentCapacity + newQuantity;
+            // Moving the item onto the product, warehouse and size of another item
+            // merges it into that one, as creating it would (see save); its holds
+            // cannot move with it
+            Optional<Integer> mergeId = Optional.empty();
+            if (oldProductId != newProductId || currentWarehouse.getId() != newWarehouse.getId()
+                    || !Objects.equals(existingInventory.getSize(), updatedInventory.getSize())) {
+                mergeId = repo.findIdByKey(newProductId, newWarehouse.getId(), updatedInventory.getSize());
+            }
+            if (mergeId.isPresent() && holdTracker.getHeld(id) > 0) {
+                throw new InsufficientQuantityException(
+                        "Cannot merge inventory. " + holdTracker.getHeld(id) + " of it is reserved.");
+            }
 
-                // Check whether the potential capacity would exceed max capacity of new
-                // warehouse
-                if (newWarehouseCapacity > newWarehouse.getMaxCapacity()) {
-                    throw new IllegalArgumentException("Cannot move inventory. It exceeds the new warehouse capacity.");
+            // A lower quantity must still cover what is held of the item (the decrease
+            // is held until the transaction ends, like any decrement)
+            if (quantityDifference < 0) {
+                int held = holdTracker.holdForDecrement(id, -quantityDifference);
+                if (newQuantity < held) {
+                    throw new InsufficientQuantityException(belowHeld(held));
                 }
+            }
 
-                // If not, update warehouses' capacity and update warehouse on inventory item
-                currentWarehouse.setCurrentCapacity(updatedCapacity);
-                warehouseRepo.save(currentWarehouse);
-
-                newWarehouse.setCurrentCapacity(newWarehouseCapacity);
-                warehouseRepo.save(newWarehouse);
+            if (currentWarehouse.getId() != newWarehouse.getId()) { // If the warehouse changes, update both old
+                                                                     // and new warehouses
+                // Check whether the new quantity would exceed max capacity of new warehouse
+                if (!capacityTracker.tryAdjust(newWarehouse.getId(), newQuantity)) {
+                    throw new CapacityExceededException(
+                            "Cannot move inventory. It exceeds the new warehouse capacity.");
+                }
 
+                // If not, release the old quantity from the current warehouse and update
+                // warehouse on inventory item
+                capacityTracker.tryAdjust(currentWarehouse.getId(), -oldQuantity);
                 existingInventory.setWarehouse(newWarehouse);
-            } else { // If warehouse does not change, update warehouse capacity based on the change
-                     // in quantity
-                int currentCapacity = currentWarehouse.getCurrentCapacity();
-                int updatedCapacity = currentCapacity + quantityDifference;
-
-                // Check whether the potential capacity would exceed max capacity of the
-                // warehouse
-                if (updatedCapacity > currentWarehouse.getMaxCapacity()) {
-                    throw new IllegalArgumentException("Cannot update inventory. It exceeds the warehouse capacity.");
-                }
+            } else if (!capacityTracker.tryAdjust(currentWarehouse.getId(), quantityDifference)) { // If warehouse
+                                                                                                  // does not change,
+                                                                                                  // update capacity
+                                                                                                  // by the change in
+                                                                                                  // quantity
+                throw new CapacityExceededException("Cannot update inventory. It exceeds the warehouse capacity.");
+            }
 
-                // If not, update warehouse capacity
-                currentWarehouse.setCurrentCapacity(updatedCapacity);
-                warehouseRepo.save(currentWarehouse);
+            if (mergeId.isPresent()) {
+                return merge(existingInventory, updatedInventory, currentWarehouse.getId());
             }
 
             // Update inventory details
             existingInventory.setQuantity(newQuantity);
             existingInventory.setProduct(updatedInventory.getProduct());
             existingInventory.setSize(updatedInventory.getSize());
-            return repo.save(existingInventory);
+            Inventory savedInventory = repo.save(existingInventory);
+
+            if (currentWarehouse.getId() != newWarehouse.getId() || oldProductId != newProductId) {
+                // Recorded as leaving the old warehouse and product and arriving at the new
+                // ones, so the history of each adds up
+                ledger.record(id, oldProductId, currentWarehouse.getId(), -oldQuantity, Reason.MOVED_OUT);
+                ledger.record(id, newProductId, newWarehouse.getId(), newQuantity, Reason.MOVED_IN);
+            } else {
+                ledger.record(id, newProductId, newWarehouse.getId(), quantityDifference, Reason.UPDATED);
+            }
+
+            InventoryChangeEventDto change = changed(savedInventory, newWarehouse.getId(), quantityDifference);
+            change.setQuantity(newQuantity);
+            if (currentWarehouse.getId() != newWarehouse.getId()) {
+                change.setPreviousWarehouse(currentWarehouse.getId());
+            }
+            changes.publish(change);
+            return savedInventory;
         } else { // If inventory item does not exist, create a new ones
-            updatedInventory.setId(id);
+            if (ifMatch != null) { // No ETag matches an item that does not exist
+                throw new PreconditionFailedException(EntityTags.CHANGED_MESSAGE);
+            }
 
             Warehouse warehouse = updatedInventory.getWarehouse();
-            int newQuantity = updatedInventory.getQuantity();
-            int currentQuantity = warehouse.getCurrentCapacity();
-            int updatedCapacity = currentQuantity + newQuantity;
+            if (repo.findIdByKey(updatedInventory.getProduct().getId(), warehouse.getId(), updatedInventory.getSize())
+                    .isPresent()) {
+                return save(updatedInventoryDto); // Adds to the item that already exists instead
+            }
 
-            if (updatedCapacity > warehouse.getMaxCapacity()) {
-                throw new IllegalArgumentException("Cannot save inventory. It exceeds the warehouse capacity.");
+            updatedInventory.setId(id);
+            if (!capacityTracker.tryAdjust(warehouse.getId(), updatedInventory.getQuantity())) {
+                throw new CapacityExceededException("Cannot save inventory. It exceeds the warehouse capacity.");
             }
 
-            warehouse.setCurrentCapacity(updatedCapacity);
-            warehouseRepo.save(warehouse);
+            Inventory savedInventory = repo.save(updatedInventory);
+            ledger.record(savedInventory.getId(), savedInventory.getProduct().getId(), warehouse.getId(),
+                    savedInventory.getQuantity(), Reason.CREATED);
 
-            return repo.save(updatedInventory);
+            InventoryChangeEventDto change = changed(savedInventory, warehouse.getId(), savedInventory.getQuantity());
+            change.setQuantity(savedInventory.getQuantity());
+            changes.publish(change);
+            return savedInventory;
         }
     }
 
-    public Inventory updateQuantityById(int id, String operation, int value) { // Update quantity of inventory item by
-                                                                               // id
-        Optional<Inventory> optionalInventory = repo.findById(id);
+    // Update quantity of inventory item by id (only if it still has the If-Match
+    // ETag, when sent)
+    @Transactional
+    public UpdateQuantityResponseDto updateQuantityById(int id, String operation, int value, String ifMatch) {
+        Long version = null; // The version the update is conditional on, if any
+        if (ifMatch != null) {
+            Inventory inventory = repo.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
+            EntityTags.checkIfMatch(ifMatch, versions.forInventory(inventory));
+            version = inventory.getVersion();
+        }
 
-        if (optionalInventory.isPresent()) { // Check whether inventory item exists
-            Inventory inventory = optionalInventory.get();
-            Warehouse warehouse = inventory.getWarehouse();
-            int currentCapacity = warehouse.getCurrentCapacity();
+        int delta;
+        if (operation.equals("increment")) {
+            delta = value; // Add quantity if operation is increment
+        } else if (operation.equals("decrement")) {
+            delta = -value; // Subtract quantity if operation is decrement
+        } else {
+            throw new IllegalArgumentException("Invalid operation: " + operation); // Otherwise, throw error for
+                                                                                   // invalid operations
+        }
 
-            if (operation.equals("increment")) {
-                int updatedCapacity = currentCapacity + value; // Add quantity if operation is increment
+        // A decrement holds its quantity until the transaction ends, so it cannot take
+        // stock held for reservations, nor can a reserve count the stock it takes
+        return applyDelta(id, delta, delta < 0 ? holdTracker.holdForDecrement(id, value) : 0, version);
+    }
 
-                if (updatedCapacity > warehouse.getMaxCapacity()) {
-                    throw new IllegalArgumentException("Cannot update inventory. It exceeds the warehouse capacity.");
-                }
+    // Decrements the quantity of an item by stock held for it by a reservation
+    // being confirmed (see StockReservationService), so only what is held besides
+    // it has to remain
+    @Transactional
+    public UpdateQuantityResponseDto decrementHeldQuantity(int id, int value) {
+        return applyDelta(id, -value, Math.max(holdTracker.getHeld(id) - value, 0), null);
+    }
 
-                inventory.setQuantity(inventory.getQuantity() + value);
-                warehouse.setCurrentCapacity(updatedCapacity);
-            } else if (operation.equals("decrement")) {
-                int updatedCapacity = currentCapacity - value; // Subtract quantity if operation is decrement
+    private UpdateQuantityResponseDto applyDelta(int id, int delta, int minimum, Long version) {
+        // Apply the change as a single conditional update instead of read-modify-write,
+        // so concurrent adjustments to the same item cannot be lost (nor, if a version
+        // is given, applied to an item changed since its If-Match header was checked)
+        int updated = version != null ? repo.adjustQuantityIfVersion(id, delta, minimum, version)
+                : delta < 0 ? repo.adjustQuantity(id, delta, minimum) : repo.adjustQuantity(id, delta);
+        if (updated == 0) {
+            if (!repo.existsById(id)) { // Throw error if inventory item not found
+                throw new ResourceNotFoundException("Inventory not found with ID: " + id);
+            }
+            if (version != null && !version.equals(repo.findVersionById(id).orElse(null))) {
+                throw new PreconditionFailedException(EntityTags.CHANGED_MESSAGE);
+            }
+            throw new InsufficientQuantityException(minimum > 0 ? belowHeld(minimum)
+                    : "Cannot update inventory. Quantity cannot be less than 0.");
+        }
 
-                if (updatedCapacity > warehouse.getMaxCapacity()) {
-                    throw new IllegalArgumentException("Cannot update inventory. It exceeds the warehouse capacity.");
-                }
+        // Apply the same change to the warehouse, guarded by its max capacity (the
+        // quantity update above is rolled back if this fails)
+        UpdateQuantityResponseDto result = repo.findQuantityById(id).get();
+        if (!capacityTracker.tryAdjust(result.getWarehouse(), delta)) {
+            throw new CapacityExceededException("Cannot update inventory. It exceeds the warehouse capacity.");
+        }
 
-                inventory.setQuantity(inventory.getQuantity() - value);
-                warehouse.setCurrentCapacity(updatedCapacity);
+        result.setWarehouseCurrentCapacity(capacityTracker.getCurrentCapacity(result.getWarehouse()));
+        ledger.record(id, result.getProduct(), result.getWarehouse(), delta,
+                delta > 0 ? Reason.INCREMENTED : Reason.DECREMENTED);
+
+        InventoryChangeEventDto change = new InventoryChangeEventDto(InventoryChangeEventDto.Type.INVENTORY_CHANGED,
+                result.getWarehouse());
+        change.setInventory(id);
+        change.setQuantity(result.getQuantity());
+        change.setDelta(delta);
+        change.setWarehouseCurrentCapacity(result.getWarehouseCurrentCapacity());
+        changes.publish(change);
+        return result;
+    }
+
+    // Apply a batch of quantity adjustments in one transaction, reporting success
+    // or failure per line
+    @Transactional
+    public List<InventoryAdjustmentResultDto> adjustQuantities(List<InventoryAdjustmentRequestDto> adjustments) {
+        if (adjustments.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot apply more than " + MAX_BATCH_SIZE + " adjustments at once.");
+        }
+
+        String[] errors = new String[adjustments.size()]; // Failure message per line (null if the line succeeds)
+        int[] lineDeltas = new int[adjustments.size()];
+        Set<Integer> ids = new HashSet<>();
+
+        // Validate operations
+        for (int line = 0; line < adjustments.size(); line++) {
+            InventoryAdjustmentRequestDto adjustment = adjustments.get(line);
+            if (adjustment.getValue() < 1) {
+                errors[line] = "Value must be greater than or equal to 1.";
+            } else if ("increment".equals(adjustment.getOperation())) {
+                lineDeltas[line] = adjustment.getValue();
+                ids.add(adjustment.getId());
+            } else if ("decrement".equals(adjustment.getOperation())) {
+                lineDeltas[line] = -adjustment.getValue();
+                ids.add(adjustment.getId());
             } else {
-                throw new RuntimeException("Invalid operation: " + operation); // Otherwise, throw error for
-                                                                               // invalid operations
+                errors[line] = "Invalid operation: " + adjustment.getOperation();
             }
+        }
 
-            return repo.save(inventory);
-        } else { // Throw error if inventory item not found
-            throw new RuntimeException("Inventory not found with ID: " + id);
+        // Load the current quantity and warehouse of every item in one query
+        Map<Integer, UpdateQuantityResponseDto> items = new HashMap<>();
+        for (UpdateQuantityResponseDto item : repo.findQuantitiesByIdIn(ids)) {
+            items.put(item.getId(), item);
         }
+
+        // Check each line in order against the quantity left by the lines accepted
+        // before it, and reserve its capacity on its own (decreases always fit), so a
+        // line only fails for its own reasons
+        Map<Integer, Integer> quantities = new HashMap<>(); // Quantity per item after the accepted lines
+        Map<Integer, Integer> itemDeltas = new TreeMap<>(); // Net delta of the accepted lines per item, sorted by
+                                                            // id so rows are always locked in the same order
+        for (int line = 0; line < adjustments.size(); line++) {
+            if (errors[line] != null) {
+                continue;
+            }
+
+            int id = adjustments.get(line).getId();
+            int delta = lineDeltas[line];
+            UpdateQuantityResponseDto item = items.get(id);
+            if (item == null) {
+                errors[line] = "Inventory not found with ID: " + id;
+                continue;
+            }
+
+            int quantity = quantities.getOrDefault(id, item.getQuantity()) + delta;
+            int held = holdTracker.getHeld(id); // Held for reservations, so a decrement cannot take it
+            if (quantity < 0) {
+                errors[line] = "Cannot update inventory. Quantity cannot be less than 0.";
+            } else if (delta < 0 && quantity < held) {
+                errors[line] = belowHeld(held);
+            } else if (!capacityTracker.tryAdjust(item.getWarehouse(), delta)) {
+                errors[line] = "Cannot update inventory. It exceeds the warehouse capacity.";
+            } else {
+                quantities.put(id, quantity);
+                itemDeltas.merge(id, delta, Integer::sum);
+            }
+        }
+        itemDeltas.values().removeIf(delta -> delta == 0); // Lines of an item that cancel out change nothing
+
+        // Hold what each decrement takes until the transaction ends; its update must
+        // leave at least what was held before
+        Map<Integer, Integer> minimums = new HashMap<>();
+        itemDeltas.forEach((id, delta) -> {
+            if (delta < 0) {
+                minimums.put(id, holdTracker.holdForDecrement(id, -delta));
+            }
+        });
+
+        // Apply all remaining quantity deltas as one JDBC batch; the updates are still
+        // guarded, so if a concurrent change invalidated the checks above the whole
+        // batch (including the capacity reservations) is rolled back rather than
+        // partially applied
+        if (!batchRepo.adjustQuantities(itemDeltas, minimums)) {
+            throw new ConcurrentModificationConflictException(
+                    "Inventory was changed by another request. Please retry the batch.");
+        }
+
+        // Only the deltas are known (the quantities read above may have changed since)
+        itemDeltas.forEach((id, delta) -> {
+            ledger.record(id, items.get(id).getProduct(), items.get(id).getWarehouse(), delta,
+                    delta > 0 ? Reason.INCREMENTED : Reason.DECREMENTED);
+
+            InventoryChangeEventDto change = new InventoryChangeEventDto(
+                    InventoryChangeEventDto.Type.INVENTORY_CHANGED, items.get(id).getWarehouse());
+            change.setInventory(id);
+            change.setDelta(delta);
+            changes.publish(change);
+        });
+
+        List<InventoryAdjustmentResultDto> results = new ArrayList<>(adjustments.size());
+        for (int line = 0; line < adjustments.size(); line++) {
+            InventoryAdjustmentRequestDto adjustment = adjustments.get(line);
+            results.add(new InventoryAdjustmentResultDto(adjustment.getId(), adjustment.getOperation(),
+                    adjustment.getValue(), errors[line] == null, errors[line]));
+        }
+        return results;
     }
 
+    @Transactional
     public void deleteById(int id) { // Delete inventory item by id
         Optional<Inventory> optionalInventory = repo.findById(id);
 
-        if (optionalInventory.isPresent()) {
+        if (optionalInventory.isPresent()) { // Release the item's quantity from its warehouse
             Inventory inventory = optionalInventory.get();
-            Warehouse warehouse = inventory.getWarehouse();
-            int quantity = inventory.getQuantity();
-            int currentCapacity = warehouse.getCurrentCapacity();
-            int updatedCapacity = currentCapacity - quantity;
-
-            warehouse.setCurrentCapacity(updatedCapacity);
-            warehouseRepo.save(warehouse);
+            capacityTracker.tryAdjust(inventory.getWarehouse().getId(), -inventory.getQuantity());
+            ledger.record(id, inventory.getProduct().getId(), inventory.getWarehouse().getId(),
+                    -inventory.getQuantity(), Reason.DELETED);
+
+            InventoryChangeEventDto change = new InventoryChangeEventDto(
+                    InventoryChangeEventDto.Type.INVENTORY_DELETED, inventory.getWarehouse().getId());
+            change.setInventory(id);
+            change.setDelta(-inventory.getQuantity());
+            changes.publish(change);
         }
         repo.deleteById(id);
     }
 
+    // Deletes an item moved onto the product, warehouse and size of another item
+    // and adds its new quantity to that one (the warehouse capacity is already
+    // adjusted for the move); returns the item merged into
+    private Inventory merge(Inventory existingInventory, Inventory updatedInventory, int oldWarehouseId) {
+        int id = existingInventory.getId();
+        int newWarehouseId = updatedInventory.getWarehouse().getId();
+        int oldQuantity = existingInventory.getQuantity();
+        int newQuantity = updatedInventory.getQuantity();
+
+        repo.delete(existingInventory);
+        UpdateQuantityResponseDto result = batchRepo.upsertQuantity(updatedInventory.getProduct().getId(),
+                newWarehouseId, updatedInventory.getSize(), newQuantity);
+        updatedInventory.setId(result.getId());
+        updatedInventory.setQuantity(result.getQuantity());
+
+        // Recorded as leaving the moved item and arriving at the item merged into, so
+        // the history of each adds up
+        ledger.record(id, existingInventory.getProduct().getId(), oldWarehouseId, -oldQuantity, Reason.MOVED_OUT);
+        ledger.record(result.getId(), updatedInventory.getProduct().getId(), newWarehouseId, newQuantity,
+                Reason.MOVED_IN);
+
+        InventoryChangeEventDto deleted = new InventoryChangeEventDto(InventoryChangeEventDto.Type.INVENTORY_DELETED,
+                oldWarehouseId);
+        deleted.setInventory(id);
+        deleted.setDelta(-oldQuantity);
+        changes.publish(deleted);
+
+        InventoryChangeEventDto change = changed(updatedInventory, newWarehouseId, newQuantity);
+        change.setQuantity(result.getQuantity());
+        changes.publish(change);
+        return updatedInventory;
+    }
+
+    // Change event for a created or updated item (published once the transaction
+    // commits)
+    private static InventoryChangeEventDto changed(Inventory inventory, int warehouseId, int delta) {
+        InventoryChangeEventDto change = new InventoryChangeEventDto(InventoryChangeEventDto.Type.INVENTORY_CHANGED,
+                warehouseId);
+        change.setInventory(inventory.getId());
+        change.setProduct(inventory.getProduct() == null ? null : inventory.getProduct().getId());
+        change.setSize(inventory.getSize());
+        change.setDelta(delta);
+        return change;
+    }
+
+    private static String belowHeld(int held) {
+        return "Cannot update inventory. Quantity cannot be less than the " + held + " reserved.";
+    }
 }
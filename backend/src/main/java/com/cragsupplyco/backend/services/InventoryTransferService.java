@@ -0,0 +1,203 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferResultDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto.Reason;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+
+// Moves part of an item's quantity to the same product and size in another
+// warehouse (see POST /api/inventory/transfers). A batch of transfers is applied
+// in one transaction, all or nothing: both items and both warehouses' capacities
+// change together, or not at all.
+@Service
+public class InventoryTransferService {
+    private static final int MAX_BATCH_SIZE = 1000;
+    // New destination items are created in the same order by every transaction
+    private static final Comparator<List<Object>> KEY_ORDER = Comparator
+            .<List<Object>>comparingInt(key -> (Integer) key.get(1))
+            .thenComparingInt(key -> (Integer) key.get(0))
+            .thenComparing(key -> (String) key.get(2), Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private InventoryRepository repo;
+    private InventoryBatchRepository batchRepo;
+    private WarehouseCapacityTracker capacityTracker;
+    private InventoryChangeStream changes;
+    private StockLedger ledger;
+    private StockHoldTracker holdTracker;
+
+    public InventoryTransferService(InventoryRepository repo, InventoryBatchRepository batchRepo,
+            WarehouseCapacityTracker capacityTracker, InventoryChangeStream changes, StockLedger ledger,
+            StockHoldTracker holdTracker) {
+        this.repo = repo;
+        this.batchRepo = batchRepo;
+        this.capacityTracker = capacityTracker;
+        this.changes = changes;
+        this.ledger = ledger;
+        this.holdTracker = holdTracker;
+    }
+
+    // Applies the transfers in one transaction; throws an IllegalArgumentException
+    // naming the first transfer that cannot be applied, and a
+    // ConcurrentModificationConflictException if a concurrent change got in the
+    // way (the batch can be retried)
+    @Transactional
+    public List<InventoryTransferResultDto> transfer(List<InventoryTransferRequestDto> transfers) {
+        if (transfers.isEmpty() || transfers.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot transfer inventory. A batch must have between 1 and "
+                    + MAX_BATCH_SIZE + " transfers.");
+        }
+
+        Set<Integer> productIds = new HashSet<>();
+        Set<Integer> warehouseIds = new HashSet<>();
+        for (int line = 0; line < transfers.size(); line++) {
+            InventoryTransferRequestDto transfer = transfers.get(line);
+            if (transfer.getQuantity() < 1) {
+                throw new IllegalArgumentException(error(line, "Quantity must be greater than 0."));
+            }
+            if (transfer.getFromWarehouse() == transfer.getToWarehouse()) {
+                throw new IllegalArgumentException(error(line, "Warehouses must be different."));
+            }
+            productIds.add(transfer.getProduct());
+            warehouseIds.add(transfer.getFromWarehouse());
+            warehouseIds.add(transfer.getToWarehouse());
+        }
+
+        // Find the items involved in one query, keyed by (product id, warehouse id,
+        // size); the quantities are only read to report errors, the updates below
+        // are still guarded
+        Map<List<Object>, Integer> ids = new HashMap<>();
+        Map<Integer, Integer> quantities = new HashMap<>();
+        for (Object[] row : repo.findTransferKeys(productIds, warehouseIds)) {
+            int id = ((Number) row[0]).intValue();
+            ids.put(Arrays.asList(((Number) row[1]).intValue(), ((Number) row[2]).intValue(), (String) row[3]), id);
+            quantities.put(id, ((Number) row[4]).intValue());
+        }
+
+        Map<Integer, Integer> itemDeltas = new TreeMap<>(); // Net delta per existing item, sorted by id so rows
+                                                            // are always locked in the same order
+        Map<List<Object>, Integer> newItems = new TreeMap<>(KEY_ORDER); // Quantity per destination to create
+        Map<Integer, Integer> warehouseDeltas = new TreeMap<>(); // Net delta per warehouse, sorted by id
+        for (int line = 0; line < transfers.size(); line++) {
+            InventoryTransferRequestDto transfer = transfers.get(line);
+            Integer fromId = ids.get(key(transfer, transfer.getFromWarehouse()));
+            if (fromId == null) {
+                throw new IllegalArgumentException(error(line, "No inventory of product " + transfer.getProduct()
+                        + (transfer.getSize() == null ? "" : " in size " + transfer.getSize()) + " in warehouse "
+                        + transfer.getFromWarehouse() + "."));
+            }
+            int fromDelta = itemDeltas.merge(fromId, -transfer.getQuantity(), Integer::sum);
+            int held = holdTracker.getHeld(fromId); // Held for reservations, so a transfer cannot take it
+            if (quantities.get(fromId) + fromDelta < 0) {
+                throw new InsufficientQuantityException(error(line, "Quantity cannot be less than 0."));
+            } else if (quantities.get(fromId) + fromDelta < held) {
+                throw new InsufficientQuantityException(
+                        error(line, "Quantity cannot be less than the " + held + " reserved."));
+            }
+
+            Integer toId = ids.get(key(transfer, transfer.getToWarehouse()));
+            if (toId != null) {
+                itemDeltas.merge(toId, transfer.getQuantity(), Integer::sum);
+            } else {
+                newItems.merge(key(transfer, transfer.getToWarehouse()), transfer.getQuantity(), Integer::sum);
+            }
+            warehouseDeltas.merge(transfer.getFromWarehouse(), -transfer.getQuantity(), Integer::sum);
+            warehouseDeltas.merge(transfer.getToWarehouse(), transfer.getQuantity(), Integer::sum);
+        }
+
+        // Reserve capacity once per warehouse for its net delta (undone if the
+        // transaction rolls back)
+        warehouseDeltas.forEach((warehouseId, delta) -> {
+            if (!capacityTracker.tryAdjust(warehouseId, delta)) {
+                throw new CapacityExceededException(
+                        "Cannot transfer inventory. It exceeds the capacity of warehouse " + warehouseId + ".");
+            }
+        });
+
+        // Hold what each source gives until the transaction ends, so neither this batch
+        // nor a concurrent reserve takes stock the other counted on
+        Map<Integer, Integer> minimums = new HashMap<>();
+        itemDeltas.forEach((id, delta) -> {
+            if (delta < 0) {
+                minimums.put(id, holdTracker.holdForDecrement(id, -delta));
+            }
+        });
+
+        // Apply the deltas of existing items as one JDBC batch of guarded updates
+        // (leaving sources at least what was held of them), in id order, then create
+        // the missing destination items (or add to them, if another request created
+        // them meanwhile)
+        if (!batchRepo.adjustQuantities(itemDeltas, minimums)) {
+            throw new ConcurrentModificationConflictException(
+                    "Inventory was changed by another request. Please retry the batch.");
+        }
+        Map<Integer, Integer> changed = new TreeMap<>(itemDeltas); // Every item the batch changed, by id
+        newItems.forEach((key, quantity) -> {
+            UpdateQuantityResponseDto created = batchRepo.upsertQuantity((Integer) key.get(0),
+                    (Integer) key.get(1), (String) key.get(2), quantity);
+            ids.put(key, created.getId());
+            changed.merge(created.getId(), quantity, Integer::sum);
+        });
+
+        // Read back the quantities once the whole batch is applied (the rows are
+        // locked by this transaction, so they cannot change before it ends)
+        Map<Integer, UpdateQuantityResponseDto> items = new HashMap<>();
+        for (UpdateQuantityResponseDto item : repo.findQuantitiesByIdIn(changed.keySet())) {
+            items.put(item.getId(), item);
+        }
+
+        List<InventoryTransferResultDto> results = new ArrayList<>(transfers.size());
+        for (InventoryTransferRequestDto transfer : transfers) {
+            int fromId = ids.get(key(transfer, transfer.getFromWarehouse()));
+            int toId = ids.get(key(transfer, transfer.getToWarehouse()));
+            ledger.record(fromId, transfer.getProduct(), transfer.getFromWarehouse(), -transfer.getQuantity(),
+                    Reason.TRANSFERRED_OUT);
+            ledger.record(toId, transfer.getProduct(), transfer.getToWarehouse(), transfer.getQuantity(),
+                    Reason.TRANSFERRED_IN);
+            results.add(new InventoryTransferResultDto(fromId, items.get(fromId).getQuantity(), toId,
+                    items.get(toId).getQuantity(), transfer.getQuantity()));
+        }
+
+        Map<Integer, String> sizes = new HashMap<>();
+        ids.forEach((key, id) -> sizes.put(id, (String) key.get(2)));
+        changed.forEach((id, delta) -> {
+            UpdateQuantityResponseDto item = items.get(id);
+            InventoryChangeEventDto change = new InventoryChangeEventDto(
+                    InventoryChangeEventDto.Type.INVENTORY_CHANGED, item.getWarehouse());
+            change.setInventory(id);
+            change.setProduct(item.getProduct());
+            change.setSize(sizes.get(id));
+            change.setQuantity(item.getQuantity());
+            change.setDelta(delta);
+            change.setWarehouseCurrentCapacity(capacityTracker.getCurrentCapacity(item.getWarehouse()));
+            changes.publish(change);
+        });
+        return results;
+    }
+
+    private static List<Object> key(InventoryTransferRequestDto transfer, int warehouseId) {
+        return Arrays.asList(transfer.getProduct(), warehouseId, transfer.getSize());
+    }
+
+    private static String error(int line, String message) {
+        return "Cannot transfer inventory. Transfer " + (line + 1) + ": " + message;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Writes outbox events to the application log, one JSON line each (the default
+// sink, for local development)
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LogOutboxSink implements OutboxSink {
+    private static final Logger log = LoggerFactory.getLogger(LogOutboxSink.class);
+
+    private ObjectMapper mapper;
+
+    public LogOutboxSink(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void send(List<OutboxEventDto> events) {
+        for (OutboxEventDto event : events) {
+            try {
+                log.info(mapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize outbox event " + event.getId(), e);
+            }
+        }
+    }
+}
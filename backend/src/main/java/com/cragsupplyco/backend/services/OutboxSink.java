@@ -0,0 +1,15 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.List;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+
+// Where InventoryOutboxRelay delivers outbox events, each warehouse's in commit
+// (seq) order. send must only return once the sink has the events (they are
+// deleted from the outbox then), and throw otherwise, in which case they are
+// sent again later; a sink may so see an event more than once, and consumers
+// should de-duplicate by warehouse and seq. Events of different warehouses are
+// not ordered, so a message broker sink should key messages by warehouse id.
+public interface OutboxSink {
+    void send(List<OutboxEventDto> events);
+}
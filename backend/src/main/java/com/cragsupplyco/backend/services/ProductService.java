@@ -2,49 +2,78 @@ package com.cragsupplyco.backend.services;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import com.cragsupplyco.backend.dtos.ProductRequestDto;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
 import com.cragsupplyco.backend.mappers.ProductMapper;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.repositories.ProductRepository;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 @Service
 public class ProductService {
     private ProductRepository repo;
     private ProductMapper mapper;
+    private CatalogVersionService versions;
 
-    public ProductService(ProductRepository repo, ProductMapper mapper) {
+    public ProductService(ProductRepository repo, ProductMapper mapper, CatalogVersionService versions) {
         this.repo = repo;
         this.mapper = mapper;
+        this.versions = versions;
     }
 
     public Iterable<Product> findAll() { // Returns all products
         return repo.findAll();
     }
 
-    public Iterable<Product> findAllByCategoryId(int categoryId) { // Returns all products with specified category id
-        return repo.findByCategoryId(categoryId);
+    public Iterable<Product> findAllWithInventory() { // Returns all products with their inventory
+        return repo.findAllWithInventory();
     }
 
+    public Iterable<Product> findAllByCategoryId(int categoryId) { // Returns all products (with their inventory)
+                                                                   // with specified category id
+        return repo.findAllWithInventoryByCategoryId(categoryId);
+    }
+
+    @Cacheable(cacheNames = "products", key = "#id", unless = "#result == null")
     public Optional<Product> findById(int id) { // Returns product by id
         return repo.findById(id);
     }
 
+    public Optional<Product> findByIdWithInventory(int id) { // Returns product (with its inventory) by id
+        return repo.findWithInventoryById(id);
+    }
+
     public Optional<Product> findByBrandAndName(String brand, String name) { // Returns product by brand and name
         return repo.findByBrandAndName(brand, name);
     }
 
+    // Every write also evicts the serialized product list (see CatalogResponseService)
+    @CacheEvict(cacheNames = "responses", allEntries = true)
     public Product save(ProductRequestDto productRequestDto) { // Saves new product
         return repo.save(mapper.toProduct(productRequestDto)); // Map from DTO to Product obj then saves
     }
 
-    public Product updateProductById(int id, ProductRequestDto productRequestDto) { // Update product by id
+    // Update product by id (only if it still has the If-Match ETag, when sent)
+    @Caching(evict = { @CacheEvict(cacheNames = "products", key = "#id"),
+            @CacheEvict(cacheNames = "responses", allEntries = true) })
+    public Product updateProductById(int id, ProductRequestDto productRequestDto, String ifMatch) {
+        Product existingProduct = repo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
+        EntityTags.checkIfMatch(ifMatch, versions.forProduct(existingProduct));
+
         Product product = mapper.toProduct(productRequestDto); // Map from DTO to Product obj
         product.setId(id);
+        product.setVersion(existingProduct.getVersion()); // Saving fails if it was updated since it was read
         return repo.save(product);
     }
 
+    @Caching(evict = { @CacheEvict(cacheNames = "products", key = "#id"),
+            @CacheEvict(cacheNames = "responses", allEntries = true) })
     public void deleteById(int id) { // Delete product by id
         repo.deleteById(id);
     }
@@ -0,0 +1,54 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.cragsupplyco.backend.dtos.CategoryStatsDto;
+import com.cragsupplyco.backend.dtos.StatsDto;
+import com.cragsupplyco.backend.dtos.WarehouseStatsDto;
+import com.cragsupplyco.backend.repositories.CategoryRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+
+// Dashboard figures, aggregated by the database (one grouped query per
+// warehouse and per category) rather than by loading the rows, and kept in the
+// "stats" cache for inventory.stats.ttl-ms (see AppConfig), so a dashboard
+// polled by many clients runs the queries at most once per TTL. Figures may be
+// that much behind the latest writes.
+@Service
+public class StatsService {
+    private WarehouseRepository warehouseRepo;
+    private CategoryRepository categoryRepo;
+    private final int lowStockThreshold;
+
+    public StatsService(WarehouseRepository warehouseRepo, CategoryRepository categoryRepo,
+            @Value("${inventory.stats.low-stock-threshold:10}") int lowStockThreshold) {
+        this.warehouseRepo = warehouseRepo;
+        this.categoryRepo = categoryRepo;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    @Cacheable(cacheNames = "stats", key = "'all'")
+    public StatsDto getStats() {
+        List<WarehouseStatsDto> warehouses = new ArrayList<>();
+        for (Object[] row : warehouseRepo.findStats(lowStockThreshold)) {
+            warehouses.add(new WarehouseStatsDto((Integer) row[0], (String) row[1], toLong(row[3]),
+                    (Integer) row[2], toLong(row[4])));
+        }
+
+        List<CategoryStatsDto> categories = new ArrayList<>();
+        for (Object[] row : categoryRepo.findStats(lowStockThreshold)) {
+            categories.add(new CategoryStatsDto((Integer) row[0], (String) row[1], toLong(row[2]), toLong(row[3])));
+        }
+        return new StatsDto(lowStockThreshold, warehouses, categories);
+    }
+
+    // Sums are returned as Long (or null for a warehouse or category without
+    // items, depending on the database)
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,129 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+
+// Keeps how much of each inventory item is held (by reservations, see
+// StockReservationService, and by decrements until their transaction ends) in
+// memory, so available-to-promise (quantity less held) is answered without a
+// query. Decrements hold their quantity too, so a reserve cannot count stock
+// that a concurrent decrement is taking, and their guarded updates keep the
+// quantity at or above what the others hold.
+@Service
+public class StockHoldTracker {
+    private static final long HELD_MASK = 0xFFFFFFFFL;
+    private static final long CONFIRMED = 1L << 32; // One confirm, in the high half of an item's state
+
+    private InventoryRepository inventoryRepo;
+
+    // Per item, the number of confirms (high 32 bits) and the quantity held (low
+    // 32 bits), updated together with compare-and-set so concurrent holds of the
+    // same item neither lock nor hold more than its quantity
+    private final Map<Integer, AtomicLong> items = new ConcurrentHashMap<>();
+
+    public StockHoldTracker(InventoryRepository inventoryRepo) {
+        this.inventoryRepo = inventoryRepo;
+    }
+
+    // Adds quantity to what is held of the item unless that would exceed its
+    // quantity. A confirm lowers the quantity and what is held together, so if one
+    // happened since the quantity was read it is read again.
+    public void hold(int inventoryId, int quantity) {
+        AtomicLong item = itemFor(inventoryId);
+        long state = item.get(); // Read before the quantity, so a confirm in between is noticed
+        int available = findQuantity(inventoryId);
+        while (true) {
+            int held = held(state);
+            if (held + quantity > available) {
+                throw new InsufficientQuantityException("Cannot reserve inventory. Only "
+                        + Math.max(available - held, 0) + " available.");
+            }
+            if (item.compareAndSet(state, state + quantity)) {
+                return;
+            }
+
+            long current = item.get();
+            if ((current & ~HELD_MASK) != (state & ~HELD_MASK)) {
+                available = findQuantity(inventoryId);
+            }
+            state = current;
+        }
+    }
+
+    // Holds the quantity a decrement is about to take until the current
+    // transaction ends (confirmed if it commits, released if it rolls back);
+    // returns what was held before, which the decremented quantity must not drop
+    // below
+    public int holdForDecrement(int inventoryId, int quantity) {
+        AtomicLong item = itemFor(inventoryId);
+        int held = held(item.getAndAdd(quantity));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    item.addAndGet(status == STATUS_COMMITTED ? CONFIRMED - quantity : -quantity);
+                }
+            });
+        } else {
+            item.addAndGet(CONFIRMED - quantity);
+        }
+        return held;
+    }
+
+    // Ends a hold whose quantity was taken from the item (by a confirm)
+    public void confirm(int inventoryId, int quantity) {
+        AtomicLong item = items.get(inventoryId);
+        if (item != null) {
+            item.addAndGet(CONFIRMED - quantity);
+        }
+    }
+
+    // Ends a hold without changing the item's quantity
+    public void release(int inventoryId, int quantity) {
+        AtomicLong item = items.get(inventoryId);
+        if (item != null) {
+            item.addAndGet(-quantity);
+        }
+    }
+
+    // Adds to what is held without checking the quantity (when rebuilding the
+    // holds of committed reservations)
+    public void restore(int inventoryId, int quantity) {
+        itemFor(inventoryId).addAndGet(quantity);
+    }
+
+    // Returns how much of an item is held (from memory, without a query)
+    public int getHeld(int inventoryId) {
+        AtomicLong item = items.get(inventoryId);
+        return item == null ? 0 : held(item.get());
+    }
+
+    // Called when all inventory items are deleted
+    public void clear() {
+        items.clear();
+    }
+
+    private int findQuantity(int inventoryId) {
+        return inventoryRepo.findQuantityById(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + inventoryId))
+                .getQuantity();
+    }
+
+    private AtomicLong itemFor(int inventoryId) {
+        return items.computeIfAbsent(inventoryId, id -> new AtomicLong());
+    }
+
+    private static int held(long state) {
+        return (int) (state & HELD_MASK);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cragsupplyco.backend.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cragsupplyco.backend.dtos.StockBalanceDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto;
+import com.cragsupplyco.backend.dtos.StockMovementPageDto;
+import com.cragsupplyco.backend.repositories.StockMovementRepository;
+
+import jakarta.persistence.EntityManager;
+
+// Append-only ledger of inventory quantity changes (see GET
+// /api/inventory/movements). The movements of a transaction are inserted as one
+// JDBC batch just before it commits, so they are dropped if it rolls back.
+// Snapshots of each item's quantity are taken now and then, so its current
+// quantity is rebuilt from the latest snapshot and the movements after it rather
+// than from its whole history.
+@Service
+public class StockLedger {
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private StockMovementRepository repo;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private final int snapshotBatchSize;
+
+    public StockLedger(StockMovementRepository repo, EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${inventory.ledger.snapshot-batch-size:500}") int snapshotBatchSize) {
+        if (snapshotBatchSize <= 0) {
+            throw new IllegalArgumentException("Snapshot batch size must be greater than 0.");
+        }
+        this.repo = repo;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotBatchSize = snapshotBatchSize;
+    }
+
+    // Records a change in the quantity of an item, with the product and warehouse
+    // it belongs to (changes of 0 are not recorded)
+    public void record(int inventoryId, int productId, int warehouseId, int delta, StockMovementDto.Reason reason) {
+        if (delta == 0) {
+            return;
+        }
+
+        Object[] movement = { inventoryId, productId, warehouseId, delta, reason.name() };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingMovements().add(movement);
+        } else {
+            repo.insertAll(Collections.singletonList(movement));
+        }
+    }
+
+    // Returns a page of movements after the given id (keyset pagination), oldest
+    // first, optionally filtered by item, product and warehouse and limited to
+    // [from, to)
+    public StockMovementPageDto findPage(long after, int limit, Integer inventoryId, Integer productId,
+            Integer warehouseId, Instant from, Instant to) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("From must be before to.");
+        }
+
+        // Fetch one extra row to know whether there is a next page
+        List<StockMovementDto> movements = repo.findPage(after, inventoryId, productId, warehouseId, from, to,
+                limit + 1);
+
+        if (movements.size() > limit) {
+            movements = movements.subList(0, limit);
+            return new StockMovementPageDto(movements, movements.get(limit - 1).getId());
+        }
+        return new StockMovementPageDto(movements, null);
+    }
+
+    // Returns the quantity of an item rebuilt from the ledger (empty if the item
+    // has no movements)
+    public Optional<StockBalanceDto> findBalance(int inventoryId) {
+        return repo.findBalance(inventoryId);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        snapshotAll();
+    }
+
+    // Snapshots every item with movements since its last snapshot, a batch of
+    // items per transaction (so their rows are only locked briefly); returns the
+    // number of batches
+    public int snapshotAll() {
+        int batches = 0;
+        int after = 0;
+        while (true) {
+            int from = after;
+            after = transactionTemplate.execute(status -> repo.snapshot(from, snapshotBatchSize));
+            if (after < 0) {
+                return batches;
+            }
+            batches++;
+        }
+    }
+
+    // The movements recorded in the current transaction so far
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pendingMovements() {
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<Object[]> movements = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, movements);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Write Hibernate's pending changes first, so the movements are inserted
+                // while the changed items' rows are locked (snapshots rely on this)
+                entityManager.flush();
+                repo.insertAll(movements);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(StockLedger.this);
+            }
+        });
+        return movements;
+    }
+}
@@ -0,0 +1,240 @@
+package com.cragsupplyco.backend.services;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cragsupplyco.backend.dtos.AvailabilityDto;
+import com.cragsupplyco.backend.dtos.ReservationDto;
+import com.cragsupplyco.backend.dtos.ReservationRequestDto;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.repositories.ReservationRepository;
+import com.cragsupplyco.backend.utils.TimerWheel;
+
+import jakarta.annotation.PostConstruct;
+
+// Holds stock for carts and pick lists without changing the item's quantity
+// until the hold is confirmed. Reservations are stored in the stock_reservation
+// table; how much of each item is held is kept in memory by StockHoldTracker
+// (rebuilt from the table at startup), so available-to-promise (quantity less
+// held) is answered without summing the table, and expirations are driven by a
+// timer wheel rather than by scanning it.
+@Service
+public class StockReservationService {
+    private ReservationRepository repo;
+    private InventoryRepository inventoryRepo;
+    private InventoryService inventoryService;
+    private StockHoldTracker holdTracker;
+    private final long maxTtlSeconds;
+    private final TimerWheel<Long> expirations;
+
+    private final Map<Long, ReservationDto> holds = new ConcurrentHashMap<>(); // Committed reservations by id
+    private final Set<Long> missed = ConcurrentHashMap.newKeySet(); // Due, but the row was already gone
+
+    public StockReservationService(ReservationRepository repo, InventoryRepository inventoryRepo,
+            InventoryService inventoryService, StockHoldTracker holdTracker,
+            @Value("${inventory.reservations.tick-ms:1000}") long tickMillis,
+            @Value("${inventory.reservations.wheel-size:3600}") int wheelSize,
+            @Value("${inventory.reservations.max-ttl-seconds:86400}") long maxTtlSeconds) {
+        this.repo = repo;
+        this.inventoryRepo = inventoryRepo;
+        this.inventoryService = inventoryService;
+        this.holdTracker = holdTracker;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.expirations = new TimerWheel<>(wheelSize, tickMillis, System.currentTimeMillis());
+    }
+
+    // Rebuilds the held quantities and expirations from the table
+    @PostConstruct
+    public void load() {
+        for (ReservationDto reservation : repo.findAll()) {
+            holdTracker.restore(reservation.getInventory(), reservation.getQuantity());
+            track(reservation);
+        }
+    }
+
+    // Holds stock of an item for ttlSeconds, unless less than the quantity is
+    // available
+    @Transactional
+    public ReservationDto reserve(ReservationRequestDto request) {
+        int inventoryId = request.getInventory();
+        int quantity = request.getQuantity();
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Cannot reserve inventory. Quantity must be greater than 0.");
+        }
+        if (request.getTtlSeconds() < 1 || request.getTtlSeconds() > maxTtlSeconds) {
+            throw new IllegalArgumentException("Cannot reserve inventory. TTL must be between 1 and " + maxTtlSeconds
+                    + " seconds.");
+        }
+
+        holdTracker.hold(inventoryId, quantity);
+
+        Instant expiresAt = Instant.now().plusSeconds(request.getTtlSeconds());
+        ReservationDto reservation;
+        try {
+            long id = repo.insert(inventoryId, quantity, request.getReference(), expiresAt);
+            reservation = new ReservationDto(id, inventoryId, quantity, request.getReference(), expiresAt);
+        } catch (RuntimeException e) {
+            holdTracker.release(inventoryId, quantity); // Nothing was reserved
+            throw e;
+        }
+
+        afterCompletion(committed -> {
+            if (committed) {
+                track(reservation);
+            } else {
+                holdTracker.release(inventoryId, quantity); // Release the hold on rollback
+            }
+        });
+        return reservation;
+    }
+
+    public Optional<ReservationDto> findById(long id) {
+        return repo.findById(id);
+    }
+
+    // Returns an item's quantity, how much of it is held and what is left (empty if
+    // the item does not exist)
+    public Optional<AvailabilityDto> findAvailability(int inventoryId) {
+        int reserved = getReserved(inventoryId);
+        return inventoryRepo.findQuantityById(inventoryId)
+                .map(result -> new AvailabilityDto(inventoryId, result.getQuantity(), reserved));
+    }
+
+    // Returns how much of an item is held (from memory, without a query)
+    public int getReserved(int inventoryId) {
+        return holdTracker.getHeld(inventoryId);
+    }
+
+    // Decrements the item's quantity by the held stock and ends the reservation;
+    // returns false if it does not exist (or has expired). Other decrements keep
+    // the quantity at or above what is held, so the held stock is still there.
+    @Transactional
+    public boolean confirm(long id) {
+        Optional<ReservationDto> locked = repo.lockById(id);
+        if (locked.isEmpty() || !locked.get().getExpiresAt().isAfter(Instant.now())) {
+            return false; // An expired reservation is deleted by the next tick
+        }
+
+        ReservationDto reservation = locked.get();
+        repo.deleteById(id);
+        inventoryService.decrementHeldQuantity(reservation.getInventory(), reservation.getQuantity());
+
+        afterCompletion(committed -> {
+            if (committed) {
+                forget(id, true);
+            }
+        });
+        return true;
+    }
+
+    // Ends the reservation without changing the item's quantity; returns false if
+    // it does not exist
+    @Transactional
+    public boolean release(long id) {
+        if (repo.lockById(id).isEmpty()) {
+            return false;
+        }
+
+        repo.deleteById(id);
+        afterCompletion(committed -> {
+            if (committed) {
+                forget(id, false);
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick-ms:1000}")
+    public void expire() {
+        expire(System.currentTimeMillis());
+    }
+
+    // Deletes the reservations due by the given time as one batch and releases
+    // their stock; returns the number expired
+    public int expire(long nowMillis) {
+        List<Long> due = expirations.advance(nowMillis);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> deleted;
+        try {
+            deleted = new HashSet<>(repo.deleteAll(due));
+        } catch (RuntimeException e) {
+            due.forEach(id -> expirations.schedule(id, nowMillis)); // Try again next tick
+            throw e;
+        }
+
+        for (long id : due) {
+            if (deleted.contains(id) || !missed.add(id)) {
+                // Expired, or still gone a tick later, so not confirmed or released here
+                // (e.g., deleted with its item)
+                forget(id, false);
+            } else {
+                // Confirmed or released by a transaction that has not run its
+                // after-commit yet (which forgets it), or deleted with its item; look
+                // again next tick
+                expirations.schedule(id, nowMillis);
+            }
+        }
+        return deleted.size();
+    }
+
+    // Called when all inventory items are deleted
+    public void clear() {
+        holdTracker.clear();
+        holds.clear();
+        missed.clear();
+        expirations.clear();
+    }
+
+    private void track(ReservationDto reservation) {
+        holds.put(reservation.getId(), reservation);
+        expirations.schedule(reservation.getId(), reservation.getExpiresAt().toEpochMilli());
+    }
+
+    // Stops tracking a reservation whose row was deleted and releases its stock
+    // (once, whichever of confirm, release and expire gets here first)
+    private void forget(long id, boolean confirmed) {
+        expirations.cancel(id);
+        missed.remove(id);
+        ReservationDto reservation = holds.remove(id);
+        if (reservation == null) {
+            return;
+        }
+
+        if (confirmed) {
+            holdTracker.confirm(reservation.getInventory(), reservation.getQuantity());
+        } else {
+            holdTracker.release(reservation.getInventory(), reservation.getQuantity());
+        }
+    }
+
+    // Runs the callback with whether the current transaction committed once it
+    // ends, or right away (as committed) outside a transaction
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            callback.accept(true);
+        }
+    }
+}
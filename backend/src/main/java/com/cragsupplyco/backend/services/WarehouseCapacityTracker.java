@@ -0,0 +1,273 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
+import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Keeps each warehouse's current capacity in memory so inventory changes do not
+// have to update (and lock) the warehouse row. Capacity is reserved atomically
+// against max capacity here, and committed deltas are written to the warehouse
+// table in the background, coalesced per warehouse.
+@Service
+public class WarehouseCapacityTracker {
+    private WarehouseRepository warehouseRepo;
+    private InventoryBatchRepository batchRepo;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> pending = new ConcurrentHashMap<>(); // Committed deltas not yet
+                                                                               // written to the database
+    private final ReentrantLock flushLock = new ReentrantLock(); // A lock rather than synchronized, so virtual
+                                                                 // threads waiting on JDBC do not pin their carrier
+
+    public WarehouseCapacityTracker(WarehouseRepository warehouseRepo, InventoryBatchRepository batchRepo) {
+        this.warehouseRepo = warehouseRepo;
+        this.batchRepo = batchRepo;
+    }
+
+    // Adds delta to the warehouse's current capacity unless that would exceed its
+    // max capacity (decreases always succeed). When called inside a transaction the
+    // change is undone if the transaction rolls back, and only written to the
+    // database once it commits.
+    public boolean tryAdjust(int warehouseId, int delta) {
+        Counter counter = counterFor(warehouseId);
+
+        int updated;
+        while (true) {
+            int current = counter.current.get();
+            updated = current + delta;
+            if (delta > 0 && updated > counter.maxCapacity) {
+                return false;
+            }
+            if (counter.current.compareAndSet(current, updated)) {
+                break;
+            }
+        }
+        if (delta > 0 && updated > counter.maxCapacity) { // Max capacity lowered meanwhile (see updateMaxCapacity)
+            counter.current.addAndGet(-delta);
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.inFlight.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        addPending(warehouseId, delta);
+                    } else {
+                        counter.current.addAndGet(-delta); // Release the reservation on rollback
+                    }
+                    counter.completed.incrementAndGet(); // Before leaving flight (see reconcile)
+                    counter.inFlight.decrementAndGet();
+                }
+            });
+        } else {
+            addPending(warehouseId, delta);
+            counter.completed.incrementAndGet();
+        }
+        return true;
+    }
+
+    // Returns the warehouse's current capacity including changes not yet written to
+    // the database
+    public int getCurrentCapacity(int warehouseId) {
+        return counterFor(warehouseId).current.get();
+    }
+
+    // Called when a warehouse is updated so a changed max capacity is enforced;
+    // throws a CapacityExceededException if the current capacity is above it. When
+    // called inside a transaction a lower max capacity is enforced right away (so
+    // nothing is reserved past it before the transaction ends) and put back if the
+    // transaction rolls back, and a higher one only once it commits.
+    public void updateMaxCapacity(int warehouseId, int maxCapacity) {
+        Counter counter = counterFor(warehouseId);
+        int previous = counter.maxCapacity;
+        if (maxCapacity < previous) {
+            counter.maxCapacity = maxCapacity; // Before reading current capacity (see tryAdjust)
+        }
+
+        int current = counter.current.get();
+        if (current > maxCapacity) {
+            counter.maxCapacity = previous;
+            throw new CapacityExceededException(
+                    "Cannot update warehouse. Max capacity cannot be less than the current capacity of " + current
+                            + ".");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.maxCapacity = status == STATUS_COMMITTED ? maxCapacity : previous;
+                }
+            });
+        } else {
+            counter.maxCapacity = maxCapacity;
+        }
+    }
+
+    // Called when a warehouse is deleted; inside a transaction the warehouse's
+    // counter and pending deltas are only dropped once it commits
+    public void remove(int warehouseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counters.remove(warehouseId);
+                    pending.remove(warehouseId);
+                }
+            });
+        } else {
+            counters.remove(warehouseId);
+            pending.remove(warehouseId);
+        }
+    }
+
+    // Called when all warehouses are deleted
+    public void clear() {
+        flushLock.lock();
+        try {
+            counters.clear();
+            pending.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Writes the committed deltas of every warehouse to the database in one batch
+    @Scheduled(fixedDelayString = "${inventory.capacity.flush-interval-ms:500}")
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Integer, Integer> deltas = new HashMap<>();
+            pending.forEach((warehouseId, adder) -> {
+                int delta = (int) adder.sum();
+                if (delta != 0) {
+                    adder.add(-delta); // Subtract what was read so concurrent additions are kept
+                    deltas.put(warehouseId, delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                batchRepo.addCapacities(deltas);
+            } catch (RuntimeException e) {
+                deltas.forEach(this::addPending); // Keep the deltas for the next flush
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Recomputes each warehouse's current capacity as the sum of its inventory
+    // quantities and corrects any drift, both in the database and in memory. A
+    // transaction's changes are visible to the sum as soon as it commits, but its
+    // delta only reaches pending afterwards, so a warehouse with a reservation in
+    // flight or completed while the sums were read is skipped until the next run
+    // (otherwise that delta would be corrected and then flushed a second time).
+    @Scheduled(fixedDelayString = "${inventory.capacity.reconcile-interval-ms:300000}",
+            initialDelayString = "${inventory.capacity.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        flushLock.lock();
+        try {
+            flush();
+
+            Map<Integer, Long> quiet = new HashMap<>(); // Completed count of warehouses with nothing in flight
+            counters.forEach((warehouseId, counter) -> {
+                if (counter.inFlight.get() == 0) {
+                    quiet.put(warehouseId, counter.completed.get());
+                }
+            });
+
+            Map<Integer, Integer> corrections = new HashMap<>();
+            for (Object[] row : warehouseRepo.findCapacityTotals()) { // id, current capacity, sum of quantities
+                int warehouseId = ((Number) row[0]).intValue();
+                Counter counter = counters.get(warehouseId);
+                if (counter != null && (counter.inFlight.get() != 0
+                        || !Long.valueOf(counter.completed.get()).equals(quiet.get(warehouseId)))) {
+                    continue;
+                }
+
+                LongAdder adder = pending.get(warehouseId);
+                long stored = ((Number) row[1]).longValue() + (adder == null ? 0 : adder.sum());
+                int drift = (int) (((Number) row[2]).longValue() - stored);
+
+                if (drift != 0) {
+                    corrections.put(warehouseId, drift);
+                    if (counter != null) {
+                        counter.current.addAndGet(drift);
+                    }
+                }
+            }
+            if (!corrections.isEmpty()) {
+                batchRepo.addCapacities(corrections);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void addPending(int warehouseId, int delta) {
+        pending.computeIfAbsent(warehouseId, id -> new LongAdder()).add(delta);
+    }
+
+    private Counter counterFor(int warehouseId) {
+        Counter counter = counters.get(warehouseId);
+        if (counter != null) {
+            return counter;
+        }
+
+        // Loaded outside computeIfAbsent so the query does not run while holding a
+        // map lock; if two threads load the same warehouse only one counter is kept
+        // (nothing can have been reserved against either before it is published)
+        Counter loaded = load(warehouseId);
+        counter = counters.putIfAbsent(warehouseId, loaded);
+        return counter != null ? counter : loaded;
+    }
+
+    private Counter load(int warehouseId) {
+        flushLock.lock(); // Database value and pending deltas must be read without a flush in between
+        try {
+            Warehouse warehouse = warehouseRepo.findById(warehouseId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found with ID: " + warehouseId));
+            LongAdder adder = pending.get(warehouseId);
+            int current = warehouse.getCurrentCapacity() + (adder == null ? 0 : (int) adder.sum());
+            return new Counter(warehouse.getMaxCapacity(), current);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static class Counter {
+        private volatile int maxCapacity;
+        private final AtomicInteger current;
+        private final AtomicInteger inFlight = new AtomicInteger(); // Reservations of uncompleted transactions
+        private final AtomicLong completed = new AtomicLong(); // Reservations committed or rolled back so far
+
+        private Counter(int maxCapacity, int current) {
+            this.maxCapacity = maxCapacity;
+            this.current = new AtomicInteger(current);
+        }
+    }
+}
@@ -2,42 +2,75 @@ package com.cragsupplyco.backend.services;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
 import com.cragsupplyco.backend.models.Warehouse;
 import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 @Service
 public class WarehouseService {
     private WarehouseRepository repo;
+    private WarehouseCapacityTracker capacityTracker;
+    private CatalogVersionService versions;
+    private InventoryChangeStream changes;
 
-    public WarehouseService(WarehouseRepository repo) {
+    public WarehouseService(WarehouseRepository repo, WarehouseCapacityTracker capacityTracker,
+            CatalogVersionService versions, InventoryChangeStream changes) {
         this.repo = repo;
+        this.capacityTracker = capacityTracker;
+        this.versions = versions;
+        this.changes = changes;
     }
 
     public Iterable<Warehouse> findAll() { // Returns all warehouses
         return repo.findAll();
     }
 
+    // Warehouses rarely change, so lookups by id (e.g. when mapping inventory) are
+    // served from the cache; current capacity of a cached warehouse may be stale
+    // (WarehouseCapacityTracker has the live value)
+    @Cacheable(cacheNames = "warehouses", key = "#id", unless = "#result == null")
     public Optional<Warehouse> findById(int id) { // Return warehouse by id
         return repo.findById(id);
     }
 
+    public Optional<Warehouse> findByIdWithInventory(int id) { // Return warehouse (with its inventory) by id
+        return repo.findWithInventoryById(id);
+    }
+
     public Optional<Warehouse> findByName(String name) { // Return warehouse by name
         return repo.findByName(name);
     }
 
+    // Writes are transactional so the change event reaches the outbox in the same
+    // transaction (see InventoryChangeStream)
+    @Transactional
     public Warehouse save(Warehouse warehouse) { // Saves warehouse
         if (repo.existsByName(warehouse.getName())) { // Checks if warehouse exists with the intended name (as warehouse
                                                       // name have unique names)
             throw new IllegalArgumentException("Warehouse with this name already exists.");
         }
-        return repo.save(warehouse);
+
+        Warehouse savedWarehouse = repo.save(warehouse);
+        changes.publish(changed(savedWarehouse));
+        return savedWarehouse;
     }
 
-    public Warehouse updateWarehouseById(int id, Warehouse warehouse) { // Update warehouse by id
+    // Update warehouse by id (only if it still has the If-Match ETag, when sent)
+    @Transactional
+    @CacheEvict(cacheNames = "warehouses", key = "#id")
+    public Warehouse updateWarehouseById(int id, Warehouse warehouse, String ifMatch) {
         warehouse.setId(id);
         Warehouse existingWarehouse = repo.findById(id).get();
+        if (ifMatch != null) { // The ETag of a warehouse includes its inventory
+            EntityTags.checkIfMatch(ifMatch, versions.forWarehouse(repo.findWithInventoryById(id).get()));
+        }
+        warehouse.setVersion(existingWarehouse.getVersion()); // Saving fails if it was updated since it was read
 
         // Checks whether warehouse name is being updated to a new value and checks if
         // warehouse exists with the intended name (as warehouses must have
@@ -46,10 +79,28 @@ public class WarehouseService {
             throw new IllegalArgumentException("Warehouse with this name already exists.");
         }
 
-        return repo.save(warehouse);
+        // Current capacity is kept by the capacity tracker and is never overwritten
+        // by an update, so enforce the new max capacity there (once the update
+        // commits; it cannot be below the current capacity) and return its value
+        capacityTracker.updateMaxCapacity(id, warehouse.getMaxCapacity());
+        warehouse.setCurrentCapacity(capacityTracker.getCurrentCapacity(id));
+        Warehouse savedWarehouse = repo.save(warehouse);
+        changes.publish(changed(savedWarehouse));
+        return savedWarehouse;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = "warehouses", key = "#id")
     public void deleteById(int id) { // Delete warehouse by id
         repo.deleteById(id);
+        capacityTracker.remove(id); // Once the delete commits
+        changes.publish(new InventoryChangeEventDto(InventoryChangeEventDto.Type.WAREHOUSE_DELETED, id));
+    }
+
+    private static InventoryChangeEventDto changed(Warehouse warehouse) {
+        InventoryChangeEventDto change = new InventoryChangeEventDto(InventoryChangeEventDto.Type.WAREHOUSE_CHANGED,
+                warehouse.getId());
+        change.setWarehouseCurrentCapacity(warehouse.getCurrentCapacity());
+        return change;
     }
 }
@@ -0,0 +1,95 @@
+package com.cragsupplyco.backend.utils;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.exceptions.PreconditionFailedException;
+
+// Strong ETags and Last-Modified values built from the version stamps of every
+// set of rows a representation includes (e.g. a product and its category, since
+// the category name is part of the product's JSON)
+public class EntityTags {
+    public static final String CHANGED_MESSAGE = "The resource has changed. Fetch it again and retry the update.";
+
+    private EntityTags() {
+    }
+
+    public static String of(VersionStampDto... stamps) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (VersionStampDto stamp : stamps) {
+            if (tag.length() > 1) {
+                tag.append('-');
+            }
+            tag.append(Long.toString(stamp.getCount(), 36)).append('.')
+                    .append(Long.toString(stamp.getVersionSum(), 36)).append('.')
+                    .append(stamp.getLastModified() == null ? "0"
+                            : Long.toString(stamp.getLastModified().toEpochMilli(), 36));
+        }
+        return tag.append('"').toString();
+    }
+
+    // Latest last modified time of the stamps (null if all are empty). A delete
+    // does not move it forward, so clients that send If-None-Match are answered by
+    // the ETag instead (which does change).
+    public static Instant lastModified(VersionStampDto... stamps) {
+        Instant lastModified = null;
+        for (VersionStampDto stamp : stamps) {
+            if (stamp.getLastModified() != null
+                    && (lastModified == null || stamp.getLastModified().isAfter(lastModified))) {
+                lastModified = stamp.getLastModified();
+            }
+        }
+        return lastModified;
+    }
+
+    // Answers a GET with 304 if the client's copy is current, without loading the
+    // body; otherwise loads it and returns it with the ETag and Last-Modified
+    // headers. Responses must be revalidated before the browser reuses them
+    // (no-cache), as the catalog can change at any time.
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, Supplier<T> body,
+            VersionStampDto... stamps) {
+        String etag = of(stamps);
+        Instant lastModified = lastModified(stamps);
+        boolean notModified = checkNotModified(request, etag, lastModified);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return notModified ? response.build() : response.body(body.get());
+    }
+
+    // Whether the client's copy (by If-None-Match, or If-Modified-Since if no ETag
+    // was sent) is current; lastModified may be null
+    public static boolean checkNotModified(WebRequest request, String etag, Instant lastModified) {
+        return lastModified == null ? request.checkNotModified(etag)
+                : request.checkNotModified(etag, lastModified.toEpochMilli());
+    }
+
+    // Throws PreconditionFailedException unless the If-Match header (if sent) is *
+    // or lists the current ETag; weak tags never match, as If-Match uses strong
+    // comparison
+    public static void checkIfMatch(String ifMatch, VersionStampDto... stamps) {
+        if (ifMatch == null) {
+            return;
+        }
+
+        String etag = of(stamps);
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException(CHANGED_MESSAGE);
+    }
+}
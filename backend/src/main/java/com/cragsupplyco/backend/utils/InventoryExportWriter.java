@@ -0,0 +1,76 @@
+package com.cragsupplyco.backend.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+// Writes inventory items one at a time as CSV (with a header line) or one JSON
+// object per line, with the same fields as the public view of an item (product and
+// warehouse as ids). The CSV columns can be imported again as they are.
+public class InventoryExportWriter {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Writer writer;
+    private final JsonGenerator json; // NDJSON only
+
+    public InventoryExportWriter(OutputStream output, InventoryFileFormat format) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        if (format == InventoryFileFormat.NDJSON) {
+            json = jsonFactory.createGenerator(writer);
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n")); // Separates root values with a new line
+        } else {
+            json = null;
+            writer.write("id,product,warehouse,size,quantity\n");
+        }
+    }
+
+    public void write(int id, int product, int warehouse, String size, int quantity) throws IOException {
+        if (json == null) {
+            writer.write(id + "," + product + "," + warehouse + "," + csvValue(size) + "," + quantity + "\n");
+            return;
+        }
+
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeNumberField("product", product);
+        json.writeNumberField("warehouse", warehouse);
+        json.writeStringField("size", size);
+        json.writeNumberField("quantity", quantity);
+        json.writeEndObject();
+    }
+
+    // Sends what has been written so far to the client
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    public void finish() throws IOException {
+        if (json != null) {
+            json.writeRaw('\n'); // Terminate the last line
+        }
+        flush();
+    }
+
+    // Quotes a value that contains a comma, quote or line break
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
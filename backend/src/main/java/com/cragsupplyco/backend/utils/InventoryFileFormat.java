@@ -0,0 +1,40 @@
+package com.cragsupplyco.backend.utils;
+
+import org.springframework.http.MediaType;
+
+// File formats for inventory imports and exports
+public enum InventoryFileFormat {
+    CSV(new MediaType("text", "csv")), // With a header line
+    NDJSON(MediaType.APPLICATION_NDJSON); // One JSON object per line
+
+    private final MediaType mediaType;
+
+    InventoryFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // Returns the format for a content type or format name (e.g., "text/csv" or
+    // "csv")
+    public static InventoryFileFormat from(String value) {
+        for (InventoryFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(value);
+            for (InventoryFileFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+        } catch (IllegalArgumentException e) { // InvalidMediaTypeException
+            // Reported below
+        }
+        throw new IllegalArgumentException("Unsupported format: " + value);
+    }
+}
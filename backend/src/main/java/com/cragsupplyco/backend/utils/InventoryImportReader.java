@@ -0,0 +1,148 @@
+package com.cragsupplyco.backend.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Reads an inventory import (CSV with a header line, or one JSON object per line)
+// one row at a time, so uploads are never loaded into memory as a whole. Every row
+// is returned as field name -> value.
+public class InventoryImportReader {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final InventoryFileFormat format;
+    private String[] header; // CSV only
+    private int line;
+
+    public InventoryImportReader(InputStream input, InventoryFileFormat format) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+    }
+
+    // Returns the fields of the next row, or null at the end of the input; throws
+    // IllegalArgumentException for a row that cannot be parsed (reading can
+    // continue with the next row)
+    public Map<String, String> next() {
+        String text = readLine();
+        while (text != null && text.isBlank()) { // Skip empty lines
+            text = readLine();
+        }
+        if (text == null) {
+            return null;
+        }
+
+        if (format == InventoryFileFormat.NDJSON) {
+            return parseJson(text);
+        }
+        if (header == null) {
+            header = splitCsv(text.replace("\uFEFF", "")).toArray(new String[0]); // Drop a byte order mark
+            for (int i = 0; i < header.length; i++) {
+                header[i] = header[i].trim();
+            }
+            return next();
+        }
+        return toFields(splitCsv(text));
+    }
+
+    // Line number of the row last returned by next() (1-based, counting the header)
+    public int getLine() {
+        return line;
+    }
+
+    private String readLine() {
+        try {
+            String text = reader.readLine();
+            if (text != null) {
+                line++;
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, String> parseJson(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Invalid JSON: each line must be an object.");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            if (!entry.getValue().isNull()) {
+                fields.put(entry.getKey(), entry.getValue().asText());
+            }
+        }
+        return fields;
+    }
+
+    private Map<String, String> toFields(List<String> values) {
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + header.length + " columns but found " + values.size() + ".");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) { // Empty cells are treated as missing
+                fields.put(header[i], value);
+            }
+        }
+        return fields;
+    }
+
+    // Splits a CSV line on commas; fields may be quoted (with "" for a quote inside
+    // a quoted field), but cannot span lines
+    private static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,119 @@
+package com.cragsupplyco.backend.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+
+// A JSON response body serialized (and gzipped) once, with the ETag and
+// Last-Modified of the rows it was built from, so it can be cached and written
+// out as is. Bodies under MIN_GZIP_SIZE bytes are not worth compressing and are
+// always sent uncompressed.
+public class SerializedResponse {
+    static final int MIN_GZIP_SIZE = 1024;
+
+    private final byte[] json;
+    private final byte[] gzip; // Null if the body is too small to compress
+    private final String etag;
+    private final String gzipEtag; // The gzipped body is a different representation, so it has its own tag
+    private final Instant lastModified;
+
+    public SerializedResponse(byte[] json, VersionStampDto... stamps) {
+        this.json = json;
+        this.gzip = json.length < MIN_GZIP_SIZE ? null : gzip(json);
+        this.etag = EntityTags.of(stamps);
+        this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gz\"";
+        this.lastModified = EntityTags.lastModified(stamps);
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    // Answers a GET with 304 if the client's copy is current, otherwise with the
+    // body, gzipped if the client accepts it (see EntityTags.conditionalGet)
+    public ResponseEntity<byte[]> toResponseEntity(WebRequest request) {
+        boolean gzipped = gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String tag = gzipped ? gzipEtag : etag;
+        boolean notModified = EntityTags.checkNotModified(request, tag, lastModified);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(tag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        if (notModified) {
+            return response.build();
+        }
+
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzipped ? gzip : json);
+    }
+
+    // Whether the Accept-Encoding header lists gzip (or *) without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            return quality > 0;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) { // Not thrown by in-memory streams
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,7 +1,10 @@
 package com.cragsupplyco.backend.utils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.annotation.Configuration;
 
 import com.cragsupplyco.backend.models.Category;
@@ -11,7 +14,11 @@ import com.cragsupplyco.backend.models.Warehouse;
 import com.cragsupplyco.backend.repositories.CategoryRepository;
 import com.cragsupplyco.backend.repositories.InventoryRepository;
 import com.cragsupplyco.backend.repositories.ProductRepository;
+import com.cragsupplyco.backend.repositories.StockMovementRepository;
 import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.services.FulfillmentAllocator;
+import com.cragsupplyco.backend.services.StockReservationService;
+import com.cragsupplyco.backend.services.WarehouseCapacityTracker;
 
 @Configuration
 public class TestDataUtil {
@@ -20,20 +27,32 @@ public class TestDataUtil {
     final private ProductRepository productRepository;
     final private CategoryRepository categoryRepository;
     final private InventoryRepository inventoryRepository;
+    final private StockMovementRepository stockMovementRepository;
+    final private WarehouseCapacityTracker capacityTracker;
+    final private StockReservationService reservationService;
+    final private FulfillmentAllocator allocator;
 
     public TestDataUtil(WarehouseRepository warehouseRepository, ProductRepository productRepository,
-            CategoryRepository categoryRepository, InventoryRepository inventoryRepository) {
+            CategoryRepository categoryRepository, InventoryRepository inventoryRepository,
+            StockMovementRepository stockMovementRepository, WarehouseCapacityTracker capacityTracker,
+            StockReservationService reservationService, FulfillmentAllocator allocator) {
         this.warehouseRepository = warehouseRepository;
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.inventoryRepository = inventoryRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.capacityTracker = capacityTracker;
+        this.reservationService = reservationService;
+        this.allocator = allocator;
     }
 
+    @CacheEvict(cacheNames = { "categories", "warehouses", "products", "responses" }, allEntries = true)
     public void clearDatabase() {
         warehouseRepository.deleteAll();
         productRepository.deleteAll();
         categoryRepository.deleteAll();
         inventoryRepository.deleteAll();
+        stockMovementRepository.deleteAll(); // Inventory ids are reused after the reset
         // reset id auto generation sequences
         // otherwise the id's will increment
         // where they left off on each reset/reseed
@@ -42,8 +61,14 @@ public class TestDataUtil {
         categoryRepository.resetIdSequence();
         inventoryRepository.resetIdSequence();
         productRepository.resetIdSequence();
+        // ids are reused after the reset, so drop the in-memory capacities, holds
+        // and allocation index too (reservations are deleted with their items)
+        capacityTracker.clear();
+        reservationService.clear();
+        allocator.clear();
     }
 
+    @CacheEvict(cacheNames = "responses", allEntries = true) // Lists serialized before seeding are stale
     public void generateTestData() {
         if (warehouseRepository.findAll().isEmpty() && productRepository.findAll().isEmpty()
                 && categoryRepository.findAll().isEmpty() && inventoryRepository.findAll().isEmpty()) {
@@ -199,8 +224,66 @@ public class TestDataUtil {
             ny1.setCurrentCapacity(650);
 
             inventoryRepository.saveAll(Arrays.asList(inv1, inv2, inv3, inv4, inv5, inv6, inv7));
+            stockMovementRepository.insertOpeningBalances(); // Seeded quantities start the ledger
+            allocator.clear(); // Seeded items are saved without change events
         }
 
     }
 
-}
\ No newline at end of file
+    // Seeds a synthetic catalog for benchmarks and load tests: the given number of
+    // warehouses and products (spread over a handful of categories), with every
+    // product stocked in every warehouse. Warehouses get a large max capacity so
+    // repeated increments do not run into it.
+    @CacheEvict(cacheNames = "responses", allEntries = true)
+    public void generateSyntheticData(int warehouseCount, int productCount, int quantityPerItem) {
+        List<Category> categories = new ArrayList<>();
+        for (int c = 1; c <= Math.min(productCount, 10); c++) {
+            Category category = new Category();
+            category.setName("Category " + c);
+            categories.add(category);
+        }
+        categoryRepository.saveAll(categories);
+
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int w = 1; w <= warehouseCount; w++) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.setName("WH" + w);
+            warehouse.setMaxCapacity(1_000_000_000);
+            warehouse.setCurrentCapacity(productCount * quantityPerItem);
+            warehouse.setStreetAddress(w + " Synthetic Way");
+            warehouse.setCity("Boulder");
+            warehouse.setState("CO");
+            warehouse.setZipCode("80301");
+            warehouses.add(warehouse);
+        }
+        warehouseRepository.saveAll(warehouses);
+
+        List<Product> products = new ArrayList<>();
+        for (int p = 1; p <= productCount; p++) {
+            Product product = new Product();
+            product.setBrand("Brand " + (p % 25));
+            product.setName("Product " + p);
+            product.setDescription("Synthetic product " + p + " for benchmarks and load tests.");
+            product.setPrice(10 + (p % 200));
+            product.setCategory(categories.get(p % categories.size()));
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+
+        List<Inventory> inventory = new ArrayList<>();
+        for (Product product : products) {
+            for (Warehouse warehouse : warehouses) {
+                Inventory item = new Inventory();
+                item.setProduct(product);
+                item.setWarehouse(warehouse);
+                item.setSize("M");
+                item.setQuantity(quantityPerItem);
+                inventory.add(item);
+            }
+        }
+        inventoryRepository.saveAll(inventory);
+        stockMovementRepository.insertOpeningBalances();
+        allocator.clear();
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.cragsupplyco.backend.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hashed timing wheel: each key's deadline is rounded up to a tick and hashed
+// into one of a fixed number of slots, so scheduling and cancelling are O(1)
+// and each tick only looks at the keys in one slot (deadlines more than a turn
+// of the wheel away stay in their slot until the turn they are due). Nothing
+// runs on its own; the owner calls advance() with the current time and handles
+// the keys that are due.
+public class TimerWheel<K> {
+    private final long tickMillis;
+    private final List<Set<K>> slots; // Keys by the slot of their deadline
+    private final Map<K, Long> deadlines = new HashMap<>(); // Deadline tick of every scheduled key
+    private long currentTick; // Every key due at or before this tick has been returned by advance()
+    private final ReentrantLock lock = new ReentrantLock(); // A lock rather than synchronized, so virtual threads
+                                                            // do not pin their carrier
+
+    public TimerWheel(int slotCount, long tickMillis, long startMillis) {
+        if (slotCount <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Timer wheel slot count and tick must be greater than 0.");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new HashSet<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Schedules the key (replacing its previous deadline, if any); a deadline that
+    // has already passed is due at the next tick
+    public void schedule(K key, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis); // Rounded up
+        lock.lock();
+        try {
+            long tick = Math.max(deadlineTick, currentTick + 1);
+            removeLocked(key);
+            deadlines.put(key, tick);
+            slot(tick).add(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns false if the key was not scheduled (or was already returned as due)
+    public boolean cancel(K key) {
+        lock.lock();
+        try {
+            return removeLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves the wheel to the given time and returns the keys that are due, which
+    // are no longer scheduled
+    public List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        lock.lock();
+        try {
+            if (targetTick <= currentTick) {
+                return due;
+            }
+
+            // After a full turn every slot has been visited, so a long pause does not
+            // walk the same slots again
+            long ticks = Math.min(targetTick - currentTick, slots.size());
+            for (long i = 1; i <= ticks; i++) {
+                Iterator<K> keys = slot(currentTick + i).iterator();
+                while (keys.hasNext()) {
+                    K key = keys.next();
+                    if (deadlines.get(key) <= targetTick) { // Otherwise due in a later turn
+                        keys.remove();
+                        deadlines.remove(key);
+                        due.add(key);
+                    }
+                }
+            }
+            currentTick = targetTick;
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return deadlines.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            deadlines.clear();
+            slots.forEach(Set::clear);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean removeLocked(K key) {
+        Long tick = deadlines.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        slot(tick).remove(key);
+        return true;
+    }
+
+    private Set<K> slot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+}
@@ -0,0 +1,44 @@
+-- Schema as previously created by Hibernate (ddl-auto: update); existing
+-- databases are baselined at this version
+
+CREATE TABLE category (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT category_name_key UNIQUE (name)
+);
+
+CREATE TABLE warehouse (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(50) NOT NULL,
+    max_capacity INTEGER NOT NULL CHECK (max_capacity >= 1),
+    current_capacity INTEGER NOT NULL CHECK (current_capacity >= 0),
+    street_address VARCHAR(255) NOT NULL,
+    city VARCHAR(50) NOT NULL,
+    state VARCHAR(2) NOT NULL,
+    zip_code VARCHAR(10) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT warehouse_name_key UNIQUE (name)
+);
+
+CREATE TABLE product (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    brand VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    price FLOAT(53) NOT NULL CHECK (price >= 0),
+    category_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT product_category_id_fkey FOREIGN KEY (category_id) REFERENCES category (id)
+);
+
+CREATE TABLE inventory (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    product_id INTEGER NOT NULL,
+    warehouse_id INTEGER NOT NULL,
+    size VARCHAR(20),
+    quantity INTEGER NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (id),
+    CONSTRAINT inventory_product_id_fkey FOREIGN KEY (product_id) REFERENCES product (id),
+    CONSTRAINT inventory_warehouse_id_fkey FOREIGN KEY (warehouse_id) REFERENCES warehouse (id)
+);
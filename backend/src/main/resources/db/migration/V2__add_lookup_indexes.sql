@@ -0,0 +1,27 @@
+-- Merge duplicate inventory items (same product, warehouse and size) into the one
+-- with the lowest id, so the unique index below can be created
+UPDATE inventory i
+SET quantity = (SELECT SUM(d.quantity) FROM inventory d
+                WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id
+                AND d.size IS NOT DISTINCT FROM i.size)
+WHERE i.id = (SELECT MIN(d.id) FROM inventory d
+              WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id
+              AND d.size IS NOT DISTINCT FROM i.size);
+
+DELETE FROM inventory i
+WHERE i.id > (SELECT MIN(d.id) FROM inventory d
+              WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id
+              AND d.size IS NOT DISTINCT FROM i.size);
+
+-- One item per product, warehouse and size (used by INSERT ... ON CONFLICT when
+-- creating inventory); may already exist where ddl-auto created the constraint
+CREATE UNIQUE INDEX IF NOT EXISTS inventory_product_warehouse_size_key ON inventory (product_id, warehouse_id, size);
+
+-- Inventory of a warehouse (import, detailed view, capacity totals)
+CREATE INDEX IF NOT EXISTS inventory_warehouse_id_idx ON inventory (warehouse_id);
+
+-- Products of a category
+CREATE INDEX IF NOT EXISTS product_category_id_idx ON product (category_id);
+
+-- Product lookup by brand and name
+CREATE INDEX IF NOT EXISTS product_brand_name_idx ON product (brand, name);
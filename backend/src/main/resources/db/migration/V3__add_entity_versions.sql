@@ -0,0 +1,15 @@
+-- Every row gets a version (incremented on each update, by Hibernate or by the
+-- JDBC updates in InventoryBatchRepository) and the time it was last modified.
+-- Together they identify the state of a resource for ETag and Last-Modified
+-- headers and for optimistic locking.
+ALTER TABLE category ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE category ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE warehouse ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE warehouse ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE product ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE product ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE inventory ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE inventory ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,13 @@
+-- Inventory and warehouse changes, written in the same transaction as the
+-- change and relayed to the outbox sink in id order by InventoryOutboxRelay
+-- (rows are deleted once the sink has them). warehouse_id has no foreign key, as
+-- the changes of a deleted warehouse are still relayed.
+
+CREATE TABLE outbox_event (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    warehouse_id INTEGER,
+    type VARCHAR(30) NOT NULL,
+    payload VARCHAR(1000) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
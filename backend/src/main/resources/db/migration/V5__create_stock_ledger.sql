@@ -0,0 +1,36 @@
+-- Append-only ledger of inventory quantity changes, written in the same
+-- transaction as the change (see StockLedger). inventory_id, product_id and
+-- warehouse_id have no foreign keys, as the movements of deleted items, products
+-- and warehouses are kept.
+CREATE TABLE stock_movement (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    inventory_id INTEGER NOT NULL,
+    product_id INTEGER NOT NULL,
+    warehouse_id INTEGER NOT NULL,
+    delta INTEGER NOT NULL,
+    reason VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+-- Movement history of a product or warehouse over a time range
+CREATE INDEX stock_movement_product_id_created_at_idx ON stock_movement (product_id, created_at);
+CREATE INDEX stock_movement_warehouse_id_created_at_idx ON stock_movement (warehouse_id, created_at);
+
+-- Movements of an item after its snapshot
+CREATE INDEX stock_movement_inventory_id_id_idx ON stock_movement (inventory_id, id);
+
+-- Quantity of each item as of a movement (the sum of its movements up to and
+-- including movement_id), so the current quantity is rebuilt from the snapshot
+-- and the movements after it
+CREATE TABLE stock_snapshot (
+    inventory_id INTEGER NOT NULL,
+    movement_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (inventory_id)
+);
+
+-- Existing quantities are the opening balance of each item
+INSERT INTO stock_movement (inventory_id, product_id, warehouse_id, delta, reason)
+SELECT id, product_id, warehouse_id, quantity, 'OPENING' FROM inventory ORDER BY id;
@@ -0,0 +1,19 @@
+-- Active stock holds (see StockReservationService). A row is deleted when its
+-- hold is confirmed, released or expires, so the table only holds what is
+-- reserved right now; it is read once at startup to rebuild the in-memory index,
+-- and expirations are driven from memory, so expires_at is not indexed. The
+-- holds of a deleted item are deleted with it.
+CREATE TABLE stock_reservation (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    inventory_id INTEGER NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    reference VARCHAR(100),
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT stock_reservation_inventory_id_fkey FOREIGN KEY (inventory_id) REFERENCES inventory (id)
+        ON DELETE CASCADE
+);
+
+-- Holds of an item
+CREATE INDEX stock_reservation_inventory_id_idx ON stock_reservation (inventory_id);
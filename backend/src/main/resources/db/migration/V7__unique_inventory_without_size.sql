@@ -0,0 +1,48 @@
+-- The unique index on inventory (product_id, warehouse_id, size) treats NULL
+-- sizes as distinct, so concurrent creates of an item without a size could
+-- still make duplicates. Merge those into the item with the lowest id (moving
+-- their stock movements and holds to it, and dropping the affected snapshots so
+-- balances are rebuilt from the movements), then replace the index with a
+-- constraint that treats NULL sizes as equal (PostgreSQL 15+), which
+-- INSERT ... ON CONFLICT then also uses for items without a size.
+UPDATE stock_movement m
+SET inventory_id = (SELECT MIN(d.id) FROM inventory i JOIN inventory d
+                    ON d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id AND d.size IS NULL
+                    WHERE i.id = m.inventory_id)
+WHERE m.inventory_id IN (SELECT i.id FROM inventory i WHERE i.size IS NULL
+                         AND i.id > (SELECT MIN(d.id) FROM inventory d
+                                     WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id
+                                     AND d.size IS NULL));
+
+UPDATE stock_reservation r
+SET inventory_id = (SELECT MIN(d.id) FROM inventory i JOIN inventory d
+                    ON d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id AND d.size IS NULL
+                    WHERE i.id = r.inventory_id)
+WHERE r.inventory_id IN (SELECT i.id FROM inventory i WHERE i.size IS NULL
+                         AND i.id > (SELECT MIN(d.id) FROM inventory d
+                                     WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id
+                                     AND d.size IS NULL));
+
+DELETE FROM stock_snapshot s
+WHERE s.inventory_id IN (SELECT i.id FROM inventory i WHERE i.size IS NULL
+                         AND EXISTS (SELECT 1 FROM inventory d
+                                     WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id
+                                     AND d.size IS NULL AND d.id <> i.id));
+
+UPDATE inventory i
+SET quantity = (SELECT SUM(d.quantity) FROM inventory d
+                WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id AND d.size IS NULL)
+WHERE i.size IS NULL
+AND i.id = (SELECT MIN(d.id) FROM inventory d
+            WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id AND d.size IS NULL);
+
+DELETE FROM inventory i
+WHERE i.size IS NULL
+AND i.id > (SELECT MIN(d.id) FROM inventory d
+            WHERE d.product_id = i.product_id AND d.warehouse_id = i.warehouse_id AND d.size IS NULL);
+
+-- Created as an index by V2, or as a constraint where ddl-auto created it
+ALTER TABLE inventory DROP CONSTRAINT IF EXISTS inventory_product_warehouse_size_key;
+DROP INDEX IF EXISTS inventory_product_warehouse_size_key;
+ALTER TABLE inventory ADD CONSTRAINT inventory_product_warehouse_size_key
+    UNIQUE NULLS NOT DISTINCT (product_id, warehouse_id, size);
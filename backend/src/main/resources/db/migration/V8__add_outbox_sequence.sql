@@ -0,0 +1,32 @@
+-- Orders outbox events per warehouse in commit order. Just before a transaction
+-- commits, its events take the next numbers of their warehouse's row in
+-- outbox_sequence (warehouse_id 0 for events not tied to one warehouse), which
+-- stays locked until it commits, so a later number is always committed later.
+-- InventoryOutboxRelay sends each warehouse's events in seq order, starting
+-- after the seq in outbox_relay_position and stopping at a gap.
+
+CREATE TABLE outbox_sequence (
+    warehouse_id INTEGER NOT NULL,
+    last_seq BIGINT NOT NULL,
+    PRIMARY KEY (warehouse_id)
+);
+
+CREATE TABLE outbox_relay_position (
+    warehouse_id INTEGER NOT NULL,
+    seq BIGINT NOT NULL,
+    PRIMARY KEY (warehouse_id)
+);
+
+ALTER TABLE outbox_event ADD COLUMN seq BIGINT;
+
+-- Events not relayed yet are numbered in id order
+UPDATE outbox_event e
+SET seq = (SELECT COUNT(*) FROM outbox_event d
+           WHERE COALESCE(d.warehouse_id, 0) = COALESCE(e.warehouse_id, 0) AND d.id <= e.id);
+
+INSERT INTO outbox_sequence (warehouse_id, last_seq)
+SELECT COALESCE(warehouse_id, 0), MAX(seq) FROM outbox_event GROUP BY COALESCE(warehouse_id, 0);
+
+ALTER TABLE outbox_event ALTER COLUMN seq SET NOT NULL;
+
+CREATE INDEX outbox_event_warehouse_seq_idx ON outbox_event (warehouse_id, seq);
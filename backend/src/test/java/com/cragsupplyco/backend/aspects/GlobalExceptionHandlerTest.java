@@ -0,0 +1,54 @@
+package com.cragsupplyco.backend.aspects;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.models.Inventory;
+
+import jakarta.persistence.OptimisticLockException;
+
+public class GlobalExceptionHandlerTest {
+
+    private GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    /**
+     * Test case to verify that a guarded update that lost to a concurrent change
+     * is answered with 409 and its message.
+     */
+    @Test
+    public void testConcurrentModificationConflict() {
+        ResponseEntity<String> response = handler.handleConcurrentModificationConflictException(
+                new ConcurrentModificationConflictException("Inventory was changed by another request."));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.CONFLICT);
+        Assert.assertEquals(response.getBody(), "Inventory was changed by another request.");
+    }
+
+    /**
+     * Test case to verify that an optimistic lock conflict, translated by Spring
+     * or not, is answered with 409.
+     */
+    @Test
+    public void testOptimisticLockConflict() {
+        Assert.assertEquals(handler.handleOptimisticLockingFailureException(
+                new ObjectOptimisticLockingFailureException(Inventory.class, 1)).getStatusCode(), HttpStatus.CONFLICT);
+        Assert.assertEquals(handler.handleOptimisticLockException(new OptimisticLockException()).getStatusCode(),
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Test case to verify that other IllegalStateExceptions (programming or
+     * framework errors) are not answered as conflicts.
+     */
+    @Test
+    public void testIllegalStateExceptionIsServerError() {
+        ResponseEntity<String> response = handler
+                .handleGeneralException(new IllegalStateException("Failed to serialize response"));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
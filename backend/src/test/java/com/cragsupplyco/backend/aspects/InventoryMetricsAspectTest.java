@@ -0,0 +1,115 @@
+package com.cragsupplyco.backend.aspects;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
+import com.cragsupplyco.backend.mappers.InventoryMapper;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.services.CatalogVersionService;
+import com.cragsupplyco.backend.services.InventoryChangeStream;
+import com.cragsupplyco.backend.services.InventoryService;
+import com.cragsupplyco.backend.services.StockHoldTracker;
+import com.cragsupplyco.backend.services.StockLedger;
+import com.cragsupplyco.backend.services.WarehouseCapacityTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InventoryMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private InventoryRepository inventoryRepository;
+    private WarehouseCapacityTracker capacityTracker;
+    private InventoryService inventoryService;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        inventoryRepository = mock(InventoryRepository.class);
+        capacityTracker = mock(WarehouseCapacityTracker.class);
+
+        // Proxy a real service (with mocked dependencies) with the aspect applied
+        AspectJProxyFactory factory = new AspectJProxyFactory(new InventoryService(inventoryRepository,
+                mock(InventoryBatchRepository.class), capacityTracker, mock(InventoryMapper.class),
+                mock(InventoryChangeStream.class), mock(StockLedger.class), mock(StockHoldTracker.class),
+                mock(CatalogVersionService.class)));
+        factory.addAspect(new InventoryMetricsAspect(registry));
+        inventoryService = factory.getProxy();
+    }
+
+    /**
+     * Test case to verify that a successful operation is timed with the
+     * operation name and a success outcome.
+     */
+    @Test
+    public void testSuccessfulOperationTimed() {
+        when(inventoryRepository.adjustQuantity(1, 5)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(1)).thenReturn(Optional.of(new UpdateQuantityResponseDto(1, 10, 2, 0)));
+        when(capacityTracker.tryAdjust(2, 5)).thenReturn(true);
+
+        inventoryService.updateQuantityById(1, "increment", 5, null);
+
+        Assert.assertEquals(registry.get("inventory.service").tag("operation", "updateQuantityById")
+                .tag("outcome", "success").timer().count(), 1);
+    }
+
+    /**
+     * Test case to verify that a failed operation is timed with the outcome of
+     * the failure and the exception is still thrown.
+     */
+    @Test
+    public void testCapacityExceededOutcome() {
+        when(inventoryRepository.adjustQuantity(1, 500)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(1)).thenReturn(Optional.of(new UpdateQuantityResponseDto(1, 510, 2, 0)));
+        when(capacityTracker.tryAdjust(2, 500)).thenReturn(false);
+
+        Assert.assertThrows(CapacityExceededException.class,
+                () -> inventoryService.updateQuantityById(1, "increment", 500, null));
+
+        Assert.assertEquals(registry.get("inventory.service").tag("operation", "updateQuantityById")
+                .tag("outcome", "capacity-exceeded").timer().count(), 1);
+    }
+
+    /**
+     * Test case to verify the outcome tags of the failures the service reports.
+     */
+    @Test
+    public void testOutcomeClassification() {
+        Assert.assertEquals(InventoryMetricsAspect.outcome(
+                new CapacityExceededException("Cannot move inventory. It exceeds the new warehouse capacity.")),
+                "capacity-exceeded");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(
+                new InsufficientQuantityException("Cannot update inventory. Quantity cannot be less than 0.")),
+                "below-zero");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(new ResourceNotFoundException("Inventory not found with ID: 3")),
+                "not-found");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(new IllegalArgumentException("Invalid operation: multiply")),
+                "invalid");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(new RuntimeException("Warehouse not found")), "error");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(new IllegalArgumentException("Limit must be between 1 and 500.")),
+                "invalid");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(
+                new ConcurrentModificationConflictException("Inventory was changed by another request. Please retry the batch.")),
+                "conflict");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(
+                new DataIntegrityViolationException("Unique index or primary key violation")), "conflict");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(
+                new ObjectOptimisticLockingFailureException(Inventory.class, 1)), "conflict");
+        Assert.assertEquals(InventoryMetricsAspect.outcome(new RuntimeException()), "error");
+    }
+}
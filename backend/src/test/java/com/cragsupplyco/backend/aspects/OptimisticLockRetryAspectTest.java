@@ -0,0 +1,161 @@
+package com.cragsupplyco.backend.aspects;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.mappers.InventoryMapper;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.services.CatalogVersionService;
+import com.cragsupplyco.backend.services.InventoryChangeStream;
+import com.cragsupplyco.backend.services.InventoryService;
+import com.cragsupplyco.backend.services.StockHoldTracker;
+import com.cragsupplyco.backend.services.StockLedger;
+import com.cragsupplyco.backend.services.WarehouseCapacityTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.OptimisticLockException;
+
+public class OptimisticLockRetryAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private InventoryRepository inventoryRepository;
+    private InventoryService inventoryService;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        inventoryRepository = mock(InventoryRepository.class);
+        WarehouseCapacityTracker capacityTracker = mock(WarehouseCapacityTracker.class);
+        when(capacityTracker.tryAdjust(2, 5)).thenReturn(true);
+        when(inventoryRepository.findQuantityById(1))
+                .thenReturn(Optional.of(new UpdateQuantityResponseDto(1, 10, 2, 0)));
+
+        // Proxy a real service (with mocked dependencies) with the aspect applied,
+        // allowing 3 attempts without backoff
+        AspectJProxyFactory factory = new AspectJProxyFactory(new InventoryService(inventoryRepository,
+                mock(InventoryBatchRepository.class), capacityTracker, mock(InventoryMapper.class),
+                mock(InventoryChangeStream.class), mock(StockLedger.class), mock(StockHoldTracker.class),
+                mock(CatalogVersionService.class)));
+        factory.addAspect(new OptimisticLockRetryAspect(registry, 3, 0, 0));
+        inventoryService = factory.getProxy();
+    }
+
+    /**
+     * Test case to verify that an operation failing with an optimistic lock
+     * conflict is attempted again and its result returned, and that the conflict
+     * and the retry are counted.
+     */
+    @Test
+    public void testConflictRetried() {
+        when(inventoryRepository.adjustQuantity(1, 5))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Inventory.class, 1))
+                .thenReturn(1);
+
+        UpdateQuantityResponseDto result = inventoryService.updateQuantityById(1, "increment", 5, null);
+
+        Assert.assertEquals(result.getQuantity(), 10);
+        verify(inventoryRepository, times(2)).adjustQuantity(1, 5);
+        Assert.assertEquals(registry.get("inventory.service.conflicts").tag("operation", "updateQuantityById")
+                .counter().count(), 1.0);
+        Assert.assertEquals(registry.get("inventory.service.retries").tag("operation", "updateQuantityById")
+                .counter().count(), 1.0);
+    }
+
+    /**
+     * Test case to verify that the conflict is thrown once the attempts are used
+     * up.
+     */
+    @Test
+    public void testAttemptsBounded() {
+        when(inventoryRepository.adjustQuantity(1, 5))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Inventory.class, 1));
+
+        Assert.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> inventoryService.updateQuantityById(1, "increment", 5, null));
+
+        verify(inventoryRepository, times(3)).adjustQuantity(1, 5);
+        Assert.assertEquals(registry.get("inventory.service.conflicts").counter().count(), 3.0);
+        Assert.assertEquals(registry.get("inventory.service.retries").counter().count(), 2.0);
+    }
+
+    /**
+     * Test case to verify that an untranslated JPA conflict is retried too, and
+     * thrown once the attempts are used up (answered with 409, see
+     * GlobalExceptionHandler).
+     */
+    @Test
+    public void testJpaConflictAttemptsBounded() {
+        when(inventoryRepository.adjustQuantity(1, 5)).thenThrow(new OptimisticLockException());
+
+        Assert.assertThrows(OptimisticLockException.class,
+                () -> inventoryService.updateQuantityById(1, "increment", 5, null));
+
+        verify(inventoryRepository, times(3)).adjustQuantity(1, 5);
+        Assert.assertEquals(registry.get("inventory.service.conflicts").counter().count(), 3.0);
+        Assert.assertEquals(registry.get("inventory.service.retries").counter().count(), 2.0);
+    }
+
+    /**
+     * Test case to verify that other failures are not retried.
+     */
+    @Test
+    public void testOtherFailuresNotRetried() {
+        when(inventoryRepository.adjustQuantity(1, -5, 0)).thenReturn(0);
+        when(inventoryRepository.existsById(1)).thenReturn(true);
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.updateQuantityById(1, "decrement", 5, null));
+
+        verify(inventoryRepository, times(1)).adjustQuantity(1, -5, 0);
+        Assert.assertNull(registry.find("inventory.service.conflicts").counter());
+    }
+
+    /**
+     * Test case to verify that a conflict is not retried when the operation runs
+     * inside a caller's transaction, which has to be retried as a whole.
+     */
+    @Test
+    public void testNotRetriedInsideTransaction() {
+        when(inventoryRepository.adjustQuantity(1, 5))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Inventory.class, 1));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            Assert.assertThrows(ObjectOptimisticLockingFailureException.class,
+                    () -> inventoryService.updateQuantityById(1, "increment", 5, null));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(inventoryRepository, times(1)).adjustQuantity(1, 5);
+    }
+
+    /**
+     * Test case to verify that read-only operations are not wrapped.
+     */
+    @Test
+    public void testReadsNotWrapped() {
+        when(inventoryRepository.findById(1)).thenThrow(new ObjectOptimisticLockingFailureException(Inventory.class, 1));
+
+        Assert.assertThrows(ObjectOptimisticLockingFailureException.class, () -> inventoryService.findById(1));
+
+        verify(inventoryRepository, times(1)).findById(1);
+        verify(inventoryRepository, never()).adjustQuantity(1, 5);
+    }
+}
@@ -0,0 +1,191 @@
+package com.cragsupplyco.backend.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import jakarta.servlet.FilterChain;
+
+public class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeMethod
+    public void setUp() {
+        filter = new ConcurrencyLimitFilter(1, 50);
+    }
+
+    /**
+     * Test case to verify that a request is passed down the chain when a permit is
+     * available.
+     */
+    @Test
+    public void testRequestPassesWhenPermitAvailable() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory"), response, chain);
+
+        Assert.assertNotNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 200);
+    }
+
+    /**
+     * Test case to verify that a request is rejected with 503 and a Retry-After
+     * header while all permits are held by other requests.
+     */
+    @Test
+    public void testRequestRejectedWhenNoPermitAvailable() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory"), new MockHttpServletResponse(),
+                        blockingChain);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/product"), response, chain);
+
+        release.countDown();
+        holder.join();
+
+        Assert.assertNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 503);
+        Assert.assertEquals(response.getHeader("Retry-After"), "1");
+    }
+
+    /**
+     * Test case to verify that the permit is released when the request fails, so
+     * later requests are not rejected.
+     */
+    @Test
+    public void testPermitReleasedWhenRequestFails() throws Exception {
+        FilterChain failingChain = (request, response) -> {
+            throw new IllegalStateException("Failed");
+        };
+
+        Assert.assertThrows(IllegalStateException.class, () -> filter
+                .doFilter(new MockHttpServletRequest("GET", "/api/inventory"), new MockHttpServletResponse(),
+                        failingChain));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory"), response, chain);
+
+        Assert.assertNotNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 200);
+    }
+
+    /**
+     * Test case to verify that requests outside the API (e.g., actuator endpoints)
+     * are not limited.
+     */
+    @Test
+    public void testNonApiRequestNotLimited() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, chain);
+
+        release.countDown();
+        holder.join();
+
+        Assert.assertNotNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 200);
+    }
+
+    /**
+     * Test case to verify that an asynchronous response keeps its permit after the
+     * handler returns, until it completes.
+     */
+    @Test
+    public void testPermitHeldUntilAsyncCompletes() throws Exception {
+        MockHttpServletRequest asyncRequest = new MockHttpServletRequest("GET", "/api/inventory/export");
+        asyncRequest.setAsyncSupported(true);
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(),
+                (request, response) -> request.startAsync(request, response));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/product"), response, chain);
+        Assert.assertNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 503);
+
+        asyncRequest.getAsyncContext().complete();
+
+        chain = new MockFilterChain();
+        response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/product"), response, chain);
+        Assert.assertNotNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 200);
+    }
+
+    /**
+     * Test case to verify that event streams are not limited, so open streams do
+     * not hold permits.
+     */
+    @Test
+    public void testEventStreamNotLimited() throws Exception {
+        MockHttpServletRequest streamRequest = new MockHttpServletRequest("GET", "/api/inventory/events");
+        streamRequest.addHeader("Accept", "text/event-stream");
+        streamRequest.setAsyncSupported(true);
+        filter.doFilter(streamRequest, new MockHttpServletResponse(),
+                (request, response) -> request.startAsync(request, response));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/product"), response, chain);
+
+        Assert.assertNotNull(chain.getRequest());
+        Assert.assertEquals(response.getStatus(), 200);
+    }
+
+    /**
+     * Test case to verify that the filter cannot be created without permits.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testZeroPermitsRejected() {
+        new ConcurrencyLimitFilter(0, 50);
+    }
+}
@@ -0,0 +1,61 @@
+package com.cragsupplyco.backend.controllers;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.AllocationLineDto;
+import com.cragsupplyco.backend.dtos.AllocationPickDto;
+import com.cragsupplyco.backend.dtos.AllocationRequestDto;
+import com.cragsupplyco.backend.dtos.AllocationResultDto;
+import com.cragsupplyco.backend.services.FulfillmentAllocator;
+
+public class AllocationControllerTests {
+
+    @Mock
+    private FulfillmentAllocator allocator;
+
+    @InjectMocks
+    private AllocationController allocationController;
+    private AutoCloseable closeable;
+
+    @BeforeTest
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+    }
+
+    @AfterTest
+    public void teardown() throws Exception {
+        if (closeable != null) {
+            closeable.close(); // Close any open mocks after test
+        }
+    }
+
+    /**
+     * Test case for allocating an order using the allocate() method. Verifies that
+     * the request is passed to the allocator and its result is returned.
+     */
+    @Test
+    public void testAllocate() {
+        AllocationRequestDto request = new AllocationRequestDto(Arrays.asList(new AllocationLineDto(1, "M", 2)),
+                "93650", null);
+        AllocationResultDto expected = new AllocationResultDto(Collections.singletonList(3),
+                Collections.singletonList(new AllocationPickDto(0, 7, 3, 2)), Collections.emptyList());
+        when(allocator.allocate(request)).thenReturn(expected);
+
+        AllocationResultDto result = allocationController.allocate(request);
+
+        Assert.assertEquals(result, expected);
+        verify(allocator).allocate(request);
+    }
+}
@@ -1,39 +1,70 @@
 package com.cragsupplyco.backend.controllers;
 
-import java.util.Arrays;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.testng.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.services.CatalogResponseService;
+import com.cragsupplyco.backend.services.CatalogVersionService;
 import com.cragsupplyco.backend.services.CategoryService;
+import com.cragsupplyco.backend.utils.EntityTags;
+import com.cragsupplyco.backend.utils.SerializedResponse;
 
 public class CategoryControllerTests {
 
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private CatalogResponseService catalogResponseService;
+
     @InjectMocks
     private CategoryController categoryController;
     private AutoCloseable closeable;
 
+    private static final VersionStampDto[] STAMPS = { new VersionStampDto(2L, 5L, Instant.parse("2024-08-01T10:00:00Z")) };
+    private static final byte[] JSON = "[{\"id\":1,\"name\":\"Ropes\"}]".getBytes(StandardCharsets.UTF_8);
+
+    // A GET request, conditional if an ETag is passed
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @BeforeTest
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+        when(catalogResponseService.findAllCategories()).thenReturn(new SerializedResponse(JSON, STAMPS));
+        when(catalogVersionService.forCategory(any(Category.class))).thenReturn(STAMPS);
     }
 
     @AfterTest
@@ -45,19 +76,17 @@ public class CategoryControllerTests {
 
     /**
      * Test case for finding all categories using the findAllCategories() method.
-     * Validates that the service returns a list of categories and the method is
-     * called once.
+     * Validates that the pre-serialized categories are returned as JSON with their
+     * ETag.
      */
     @Test
     public void testFindAllCategories() {
-        List<Category> expectedCategories = Arrays.asList(new Category(), new Category());
-
-        when(categoryService.findAll()).thenReturn(expectedCategories);
+        ResponseEntity<byte[]> response = categoryController.findAllCategories(request(null));
 
-        Iterable<Category> result = categoryController.findAllCategories();
-
-        Assert.assertEquals(result, expectedCategories);
-        verify(categoryService, times(1)).findAll();
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getBody(), JSON);
+        Assert.assertEquals(response.getHeaders().getContentType(), MediaType.APPLICATION_JSON);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
     }
 
     /**
@@ -72,7 +101,7 @@ public class CategoryControllerTests {
         int id = category1.getId();
         when(categoryService.findById(id)).thenReturn(Optional.of(category1));
 
-        ResponseEntity<Category> response = categoryController.findCategoryById(id);
+        ResponseEntity<Category> response = categoryController.findCategoryById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
         Assert.assertEquals(response.getBody(), category1);
@@ -88,7 +117,7 @@ public class CategoryControllerTests {
         int id = 999;
         when(categoryService.findById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Category> response = categoryController.findCategoryById(id);
+        ResponseEntity<Category> response = categoryController.findCategoryById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_FOUND);
         verify(categoryService, times(1)).findById(id);
@@ -172,9 +201,21 @@ public class CategoryControllerTests {
         validCategory.setId(3);
         validCategory.setName("Climbing Accessories");
 
-        categoryController.updateCategoryById(3, validCategory);
+        categoryController.updateCategoryById(3, validCategory, null);
+
+        verify(categoryService, times(1)).updateCategoryById(eq(3), any(Category.class), isNull());
+    }
+
+    /**
+     * Test case for finding all categories with the current ETag in If-None-Match.
+     * Validates that 304/Not Modified is returned without a body.
+     */
+    @Test
+    public void testFindAllCategoriesNotModified() {
+        ResponseEntity<byte[]> response = categoryController.findAllCategories(request(EntityTags.of(STAMPS)));
 
-        verify(categoryService, times(1)).updateCategoryById(eq(3), any(Category.class));
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertNull(response.getBody());
     }
 
     /**
@@ -1,5 +1,8 @@
 package com.cragsupplyco.backend.controllers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -12,27 +15,82 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.testng.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.cragsupplyco.backend.dtos.AvailabilityDto;
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentResultDto;
+import com.cragsupplyco.backend.dtos.InventoryImportResultDto;
+import com.cragsupplyco.backend.dtos.InventoryPageDto;
 import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferResultDto;
 import com.cragsupplyco.backend.dtos.UpdateQuantityRequestDto;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Inventory;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.services.CatalogVersionService;
+import com.cragsupplyco.backend.services.InventoryChangeStream;
+import com.cragsupplyco.backend.services.InventoryExportService;
+import com.cragsupplyco.backend.services.InventoryImportService;
 import com.cragsupplyco.backend.services.InventoryService;
+import com.cragsupplyco.backend.services.InventoryTransferService;
+import com.cragsupplyco.backend.services.StockLedger;
+import com.cragsupplyco.backend.services.StockReservationService;
+import com.cragsupplyco.backend.utils.EntityTags;
+import com.cragsupplyco.backend.utils.InventoryFileFormat;
 
 public class InventoryControllerTests {
 
     @Mock
     private InventoryService inventoryService;
 
+    @Mock
+    private InventoryImportService inventoryImportService;
+
+    @Mock
+    private InventoryExportService inventoryExportService;
+
+    @Mock
+    private InventoryChangeStream inventoryChangeStream;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private InventoryTransferService inventoryTransferService;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @InjectMocks
     private InventoryController inventoryController;
+
+    // A GET request, conditional if an ETag is passed
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
     private AutoCloseable closeable;
 
     @BeforeTest
@@ -48,20 +106,22 @@ public class InventoryControllerTests {
     }
 
     /**
-     * Test case for finding all inventory items using the findAllInventory()
-     * method. Validates that the service returns a list of inventory items and the
-     * method is called once.
+     * Test case for finding a page of inventory items using the findAllInventory()
+     * method. Validates that the cursor, limit and filters are passed to the
+     * service and the page is returned.
      */
     @Test
     public void testFindAllInventory() {
         List<Inventory> expectedInventory = Arrays.asList(new Inventory(), new Inventory());
+        InventoryPageDto expectedPage = new InventoryPageDto(expectedInventory, 12);
 
-        when(inventoryService.findAll()).thenReturn(expectedInventory);
+        when(inventoryService.findPage(10, 2, 1, null, 3, "M")).thenReturn(expectedPage);
 
-        Iterable<Inventory> result = inventoryController.findAllInventory();
+        InventoryPageDto result = inventoryController.findAllInventory(10, 2, 1, null, 3, "M");
 
-        Assert.assertEquals(result, expectedInventory);
-        verify(inventoryService, times(1)).findAll();
+        Assert.assertEquals(result.getItems(), expectedInventory);
+        Assert.assertEquals(result.getNextCursor(), Integer.valueOf(12));
+        verify(inventoryService, times(1)).findPage(10, 2, 1, null, 3, "M");
     }
 
     /**
@@ -94,14 +154,38 @@ public class InventoryControllerTests {
 
         int id = inventory1.getId();
         when(inventoryService.findById(id)).thenReturn(Optional.of(inventory1));
+        when(catalogVersionService.forInventory(inventory1))
+                .thenReturn(new VersionStampDto[] { VersionStampDto.of(inventory1) });
 
-        ResponseEntity<Inventory> response = inventoryController.findInventoryById(id);
+        ResponseEntity<Inventory> response = inventoryController.findInventoryById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
         Assert.assertEquals(response.getBody(), inventory1);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(VersionStampDto.of(inventory1)));
         verify(inventoryService, times(1)).findById(id);
     }
 
+    /**
+     * Test case for finding an inventory item by its id with the current ETag in
+     * If-None-Match. Validates that the ETag is built from the item's version and
+     * that 304/Not Modified is returned without a body.
+     */
+    @Test
+    public void testFindInventoryByIdNotModified() {
+        Inventory inventory = new Inventory();
+        inventory.setId(2);
+        inventory.setVersion(7);
+        VersionStampDto[] stamps = { VersionStampDto.of(inventory) };
+        when(inventoryService.findById(2)).thenReturn(Optional.of(inventory));
+        when(catalogVersionService.forInventory(inventory)).thenReturn(stamps);
+
+        ResponseEntity<Inventory> response = inventoryController.findInventoryById(2, request(EntityTags.of(stamps)));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(stamps));
+        Assert.assertNull(response.getBody());
+    }
+
     /**
      * Test case for attempting to find an inventory item with a non-existent id.
      * Validates that a 404/Not Found response is returned.
@@ -111,7 +195,7 @@ public class InventoryControllerTests {
         int id = 999;
         when(inventoryService.findById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Inventory> response = inventoryController.findInventoryById(id);
+        ResponseEntity<Inventory> response = inventoryController.findInventoryById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_FOUND);
         verify(inventoryService, times(1)).findById(id);
@@ -233,25 +317,133 @@ public class InventoryControllerTests {
         validInventoryDto.setSize(validInventory.getSize());
         validInventoryDto.setQuantity(Integer.toString(validInventory.getQuantity()));
 
-        inventoryController.updateInventoryById(3, validInventoryDto);
+        inventoryController.updateInventoryById(3, validInventoryDto, "\"1.2.3\"");
 
-        verify(inventoryService, times(1)).updateInventoryById(eq(3), any(InventoryRequestDto.class));
+        verify(inventoryService, times(1)).updateInventoryById(eq(3), any(InventoryRequestDto.class),
+                eq("\"1.2.3\""));
     }
 
     /**
      * Test case for updating the quantity of an inventory item by its id using the
      * updateQuantityById() method. Verifies that the updateQuantityById service
-     * method is called with the correct parameters.
+     * method is called with the correct parameters and its result returned.
      */
     @Test
     public void testUpdateInventoryQuantityById() {
         UpdateQuantityRequestDto dto = new UpdateQuantityRequestDto();
         dto.setOperation("increment");
         dto.setValue(10);
+        UpdateQuantityResponseDto updated = new UpdateQuantityResponseDto(3, 20, 1, 120);
+        when(inventoryService.updateQuantityById(3, "increment", 10, null)).thenReturn(updated);
 
-        inventoryController.updateInventoryQuantityById(3, dto);
+        UpdateQuantityResponseDto result = inventoryController.updateInventoryQuantityById(3, dto, null);
 
-        verify(inventoryService, times(1)).updateQuantityById(eq(3), eq("increment"), eq(10));
+        Assert.assertEquals(result, updated);
+        verify(inventoryService, times(1)).updateQuantityById(eq(3), eq("increment"), eq(10), eq(null));
+    }
+
+    /**
+     * Test case for applying a batch of quantity adjustments using the
+     * adjustInventoryQuantities() method. Verifies that the per-line results from
+     * the adjustQuantities service method are returned.
+     */
+    @Test
+    public void testAdjustInventoryQuantities() {
+        List<InventoryAdjustmentRequestDto> adjustments = Arrays.asList(
+                new InventoryAdjustmentRequestDto(1, "increment", 2),
+                new InventoryAdjustmentRequestDto(2, "decrement", 1));
+        List<InventoryAdjustmentResultDto> expectedResults = Arrays.asList(
+                new InventoryAdjustmentResultDto(1, "increment", 2, true, null),
+                new InventoryAdjustmentResultDto(2, "decrement", 1, false, "Inventory not found with ID: 2"));
+
+        when(inventoryService.adjustQuantities(adjustments)).thenReturn(expectedResults);
+
+        List<InventoryAdjustmentResultDto> result = inventoryController.adjustInventoryQuantities(adjustments);
+
+        Assert.assertEquals(result, expectedResults);
+        verify(inventoryService, times(1)).adjustQuantities(adjustments);
+    }
+
+    /**
+     * Test case for transferring inventory using the transferInventory() method.
+     * Verifies that the results from the transfer service are returned.
+     */
+    @Test
+    public void testTransferInventory() {
+        List<InventoryTransferRequestDto> transfers = Arrays.asList(
+                new InventoryTransferRequestDto(1, "M", 1, 2, 3));
+        List<InventoryTransferResultDto> expectedResults = Arrays.asList(
+                new InventoryTransferResultDto(10, 7, 20, 3, 3));
+
+        when(inventoryTransferService.transfer(transfers)).thenReturn(expectedResults);
+
+        List<InventoryTransferResultDto> result = inventoryController.transferInventory(transfers);
+
+        Assert.assertEquals(result, expectedResults);
+        verify(inventoryTransferService, times(1)).transfer(transfers);
+    }
+
+    /**
+     * Test case for importing inventory using the importInventory() method.
+     * Verifies that the upload is passed to the import service in the format
+     * given by its content type.
+     */
+    @Test
+    public void testImportInventory() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        InputStream ndjson = new ByteArrayInputStream(new byte[0]);
+        InventoryImportResultDto expectedCsvResult = new InventoryImportResultDto();
+        InventoryImportResultDto expectedNdjsonResult = new InventoryImportResultDto();
+
+        when(inventoryImportService.importInventory(csv, InventoryFileFormat.CSV))
+                .thenReturn(expectedCsvResult);
+        when(inventoryImportService.importInventory(ndjson, InventoryFileFormat.NDJSON))
+                .thenReturn(expectedNdjsonResult);
+
+        Assert.assertSame(inventoryController.importInventory("text/csv; charset=UTF-8", csv), expectedCsvResult);
+        Assert.assertSame(inventoryController.importInventory("application/x-ndjson", ndjson),
+                expectedNdjsonResult);
+    }
+
+    /**
+     * Test case for exporting inventory using the exportInventory() method.
+     * Verifies that the response has the content type of the requested format and
+     * that its body streams the export from the export service.
+     */
+    @Test
+    public void testExportInventory() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = inventoryController.exportInventory("csv");
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getHeaders().getContentType(), new MediaType("text", "csv"));
+        Assert.assertEquals(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION),
+                "attachment; filename=\"inventory.csv\"");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        verify(inventoryExportService, times(1)).export(output, InventoryFileFormat.CSV);
+    }
+
+    /**
+     * Test case for exporting inventory in an unknown format. Verifies that an
+     * IllegalArgumentException is thrown.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testExportInventoryUnsupportedFormat() {
+        inventoryController.exportInventory("xml");
+    }
+
+    /**
+     * Test case for subscribing to inventory changes using the
+     * streamInventoryChanges() method. Verifies that the emitter subscribed with
+     * the warehouse filter and last event id is returned.
+     */
+    @Test
+    public void testStreamInventoryChanges() {
+        SseEmitter emitter = new SseEmitter();
+        when(inventoryChangeStream.subscribe(2, "abc-5")).thenReturn(emitter);
+
+        Assert.assertSame(inventoryController.streamInventoryChanges(2, "abc-5"), emitter);
     }
 
     /**
@@ -265,4 +457,22 @@ public class InventoryControllerTests {
 
         verify(inventoryService, times(1)).deleteById(3);
     }
+
+    /**
+     * Test case for finding the available quantity of an inventory item using the
+     * findAvailability() method, for an existing and a missing item.
+     */
+    @Test
+    public void testFindAvailability() {
+        AvailabilityDto expected = new AvailabilityDto(4, 10, 3);
+        when(stockReservationService.findAvailability(4)).thenReturn(Optional.of(expected));
+        when(stockReservationService.findAvailability(5)).thenReturn(Optional.empty());
+
+        ResponseEntity<AvailabilityDto> found = inventoryController.findAvailability(4);
+        ResponseEntity<AvailabilityDto> missing = inventoryController.findAvailability(5);
+
+        Assert.assertEquals(found.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(found.getBody().getAvailable(), 7);
+        Assert.assertEquals(missing.getStatusCode(), HttpStatus.NOT_FOUND);
+    }
 }
@@ -1,41 +1,78 @@
 package com.cragsupplyco.backend.controllers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.cragsupplyco.backend.dtos.ProductRequestDto;
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Category;
 import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.services.CatalogResponseService;
+import com.cragsupplyco.backend.services.CatalogVersionService;
 import com.cragsupplyco.backend.services.ProductService;
+import com.cragsupplyco.backend.utils.EntityTags;
+import com.cragsupplyco.backend.utils.SerializedResponse;
 
 public class ProductControllerTests {
 
     @Mock
     private ProductService productService;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private CatalogResponseService catalogResponseService;
+
     @InjectMocks
     private ProductController productController;
     private AutoCloseable closeable;
 
+    private static final VersionStampDto[] STAMPS = { new VersionStampDto(2L, 5L, Instant.parse("2024-08-01T10:00:00Z")) };
+    private static final byte[] JSON = "[{\"id\":1,\"name\":\"Rope\"}]".getBytes(StandardCharsets.UTF_8);
+
+    // A GET request, conditional if an ETag is passed
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @BeforeMethod
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+        when(catalogResponseService.findAllProducts()).thenReturn(new SerializedResponse(JSON, STAMPS));
+        when(catalogVersionService.forProductsWithInventory()).thenReturn(STAMPS);
+        when(catalogVersionService.forProduct(any(Product.class))).thenReturn(STAMPS);
+        when(catalogVersionService.forProductWithInventory(any(Product.class))).thenReturn(STAMPS);
     }
 
     @AfterMethod
@@ -47,19 +84,29 @@ public class ProductControllerTests {
 
     /**
      * Test case for finding all products using the findAllProducts() method.
-     * Validates that the service returns a list of products and the method is
-     * called once.
+     * Validates that the pre-serialized products are returned as JSON with their
+     * ETag.
      */
     @Test
     public void testFindAllProducts() {
-        List<Product> expectedProducts = Arrays.asList(new Product(), new Product());
+        ResponseEntity<byte[]> response = productController.findAllProducts(request(null));
 
-        when(productService.findAll()).thenReturn(expectedProducts);
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getBody(), JSON);
+        Assert.assertEquals(response.getHeaders().getContentType(), MediaType.APPLICATION_JSON);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
+    }
 
-        Iterable<Product> result = productController.findAllProducts();
+    /**
+     * Test case for finding all products with the current ETag in If-None-Match.
+     * Validates that 304/Not Modified is returned without a body.
+     */
+    @Test
+    public void testFindAllProductsNotModified() {
+        ResponseEntity<byte[]> response = productController.findAllProducts(request(EntityTags.of(STAMPS)));
 
-        Assert.assertEquals(result, expectedProducts);
-        verify(productService, times(1)).findAll();
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertNull(response.getBody());
     }
 
     /**
@@ -73,12 +120,28 @@ public class ProductControllerTests {
         List<Product> expectedProducts = Arrays.asList(new Product(), new Product(), new Product());
         when(productService.findAllByCategoryId(categoryId)).thenReturn(expectedProducts);
 
-        Iterable<Product> result = productController.findAllProducts(categoryId);
+        ResponseEntity<Iterable<Product>> response = productController.findAllProducts(categoryId, request(null));
 
-        Assert.assertEquals(result, expectedProducts);
+        Assert.assertEquals(response.getBody(), expectedProducts);
         verify(productService, times(1)).findAllByCategoryId(categoryId);
     }
 
+    /**
+     * Test case for finding all products (with inventory) using the
+     * findAllProducts(Integer categoryId) method without a category id. Validates
+     * that the service returns the products loaded with their inventory.
+     */
+    @Test
+    public void testFindAllProductsDetailed() {
+        List<Product> expectedProducts = Arrays.asList(new Product(), new Product());
+        when(productService.findAllWithInventory()).thenReturn(expectedProducts);
+
+        ResponseEntity<Iterable<Product>> response = productController.findAllProducts(null, request(null));
+
+        Assert.assertEquals(response.getBody(), expectedProducts);
+        verify(productService, times(1)).findAllWithInventory();
+    }
+
     /**
      * Test case for finding a product (without inventory) by its id using the
      * findProductById() method. Validates that the correct product is returned for
@@ -92,7 +155,7 @@ public class ProductControllerTests {
         int id = 1;
         when(productService.findById(id)).thenReturn(Optional.of(product1));
 
-        ResponseEntity<Product> response = productController.findProductById(id);
+        ResponseEntity<Product> response = productController.findProductById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
         Assert.assertEquals(response.getBody(), product1);
@@ -109,7 +172,7 @@ public class ProductControllerTests {
         int id = 10;
         when(productService.findById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Product> response = productController.findProductById(id);
+        ResponseEntity<Product> response = productController.findProductById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_FOUND);
         Assert.assertEquals(response.getBody(), null);
@@ -130,14 +193,14 @@ public class ProductControllerTests {
         product1.setBrand("PenguinPro");
 
         int id = 1;
-        when(productService.findById(id)).thenReturn(Optional.of(product1));
+        when(productService.findByIdWithInventory(id)).thenReturn(Optional.of(product1));
 
-        ResponseEntity<Product> response = productController.findProductByIdDetailed(id);
+        ResponseEntity<Product> response = productController.findProductByIdDetailed(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
         Assert.assertEquals(response.getBody(), product1);
 
-        verify(productService, times(1)).findById(id);
+        verify(productService, times(1)).findByIdWithInventory(id);
     }
 
     /**
@@ -147,14 +210,14 @@ public class ProductControllerTests {
     @Test
     public void testFindByNonExistentIdDetailed() {
         int id = 10;
-        when(productService.findById(id)).thenReturn(Optional.empty());
+        when(productService.findByIdWithInventory(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Product> response = productController.findProductByIdDetailed(id);
+        ResponseEntity<Product> response = productController.findProductByIdDetailed(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_FOUND);
         Assert.assertEquals(response.getBody(), null);
 
-        verify(productService, times(1)).findById(id);
+        verify(productService, times(1)).findByIdWithInventory(id);
     }
 
     /**
@@ -284,10 +347,43 @@ public class ProductControllerTests {
 
         when(productService.save(any(ProductRequestDto.class))).thenReturn(validProduct);
 
-        productController.updateProductById(4, validProductRequestDto);
+        productController.updateProductById(4, validProductRequestDto, null);
 
         verify(productService, times(1))
-                .updateProductById(eq(4), any(ProductRequestDto.class));
+                .updateProductById(eq(4), any(ProductRequestDto.class), isNull());
+    }
+
+    /**
+     * Test case for finding all products (with inventory) with a stale ETag in
+     * If-None-Match. Validates that the products are loaded and returned with the
+     * current ETag.
+     */
+    @Test
+    public void testFindAllProductsDetailedModified() {
+        List<Product> expectedProducts = Arrays.asList(new Product());
+        when(productService.findAllWithInventory()).thenReturn(expectedProducts);
+
+        ResponseEntity<Iterable<Product>> response = productController.findAllProducts(null, request("\"stale\""));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getBody(), expectedProducts);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
+        verify(catalogVersionService, times(1)).forProductsWithInventory();
+    }
+
+    /**
+     * Test case for finding a product by its id with the current ETag in
+     * If-None-Match. Validates that 304/Not Modified is returned without a body.
+     */
+    @Test
+    public void testFindByIdNotModified() {
+        when(productService.findById(4)).thenReturn(Optional.of(new Product()));
+
+        ResponseEntity<Product> response = productController.findProductById(4, request(EntityTags.of(STAMPS)));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertNull(response.getBody());
+        verify(productService, never()).findAll();
     }
 
     /**
@@ -0,0 +1,104 @@
+package com.cragsupplyco.backend.controllers;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testng.Assert;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.ReservationDto;
+import com.cragsupplyco.backend.dtos.ReservationRequestDto;
+import com.cragsupplyco.backend.services.StockReservationService;
+
+public class ReservationControllerTests {
+
+    @Mock
+    private StockReservationService reservationService;
+
+    @InjectMocks
+    private ReservationController reservationController;
+    private AutoCloseable closeable;
+
+    @BeforeTest
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+    }
+
+    @AfterTest
+    public void teardown() throws Exception {
+        if (closeable != null) {
+            closeable.close(); // Close any open mocks after test
+        }
+    }
+
+    /**
+     * Test case for creating a reservation using the createReservation() method.
+     * Verifies that the request is passed to the service and the reservation is
+     * returned.
+     */
+    @Test
+    public void testCreateReservation() {
+        ReservationRequestDto request = new ReservationRequestDto(1, 2, 60, "cart-1");
+        ReservationDto expected = new ReservationDto(5, 1, 2, "cart-1", Instant.now().plusSeconds(60));
+        when(reservationService.reserve(request)).thenReturn(expected);
+
+        ReservationDto result = reservationController.createReservation(request);
+
+        Assert.assertEquals(result, expected);
+        verify(reservationService).reserve(request);
+    }
+
+    /**
+     * Test case for finding a reservation by its id using the
+     * findReservationById() method, for an existing and a missing reservation.
+     */
+    @Test
+    public void testFindReservationById() {
+        ReservationDto expected = new ReservationDto(6, 1, 2, null, Instant.now().plusSeconds(60));
+        when(reservationService.findById(6)).thenReturn(Optional.of(expected));
+        when(reservationService.findById(7)).thenReturn(Optional.empty());
+
+        ResponseEntity<ReservationDto> found = reservationController.findReservationById(6);
+        ResponseEntity<ReservationDto> missing = reservationController.findReservationById(7);
+
+        Assert.assertEquals(found.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(found.getBody(), expected);
+        Assert.assertEquals(missing.getStatusCode(), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Test case for confirming a reservation using the confirmReservation()
+     * method. Verifies 204 when it is confirmed and 404 when it does not exist.
+     */
+    @Test
+    public void testConfirmReservation() {
+        when(reservationService.confirm(8)).thenReturn(true);
+        when(reservationService.confirm(9)).thenReturn(false);
+
+        Assert.assertEquals(reservationController.confirmReservation(8).getStatusCode(), HttpStatus.NO_CONTENT);
+        Assert.assertEquals(reservationController.confirmReservation(9).getStatusCode(), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Test case for releasing a reservation using the releaseReservation() method.
+     * Verifies 204 when it is released and 404 when it does not exist.
+     */
+    @Test
+    public void testReleaseReservation() {
+        when(reservationService.release(10)).thenReturn(true);
+        when(reservationService.release(11)).thenReturn(false);
+
+        Assert.assertEquals(reservationController.releaseReservation(10).getStatusCode(), HttpStatus.NO_CONTENT);
+        Assert.assertEquals(reservationController.releaseReservation(11).getStatusCode(), HttpStatus.NOT_FOUND);
+    }
+}
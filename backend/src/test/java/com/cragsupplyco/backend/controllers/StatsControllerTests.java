@@ -0,0 +1,58 @@
+package com.cragsupplyco.backend.controllers;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.CategoryStatsDto;
+import com.cragsupplyco.backend.dtos.StatsDto;
+import com.cragsupplyco.backend.dtos.WarehouseStatsDto;
+import com.cragsupplyco.backend.services.StatsService;
+
+public class StatsControllerTests {
+
+    @Mock
+    private StatsService statsService;
+
+    @InjectMocks
+    private StatsController statsController;
+    private AutoCloseable closeable;
+
+    @BeforeTest
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+    }
+
+    @AfterTest
+    public void teardown() throws Exception {
+        if (closeable != null) {
+            closeable.close(); // Close any open mocks after test
+        }
+    }
+
+    /**
+     * Test case for getting the dashboard stats using the getStats() method.
+     * Verifies that the stats from the service are returned.
+     */
+    @Test
+    public void testGetStats() {
+        StatsDto expected = new StatsDto(10,
+                Collections.singletonList(new WarehouseStatsDto(1, "CA1", 25, 100, 2)),
+                Collections.singletonList(new CategoryStatsDto(1, "Ropes", 25, 2)));
+        when(statsService.getStats()).thenReturn(expected);
+
+        StatsDto result = statsController.getStats();
+
+        Assert.assertEquals(result, expected);
+        verify(statsService).getStats();
+    }
+}
@@ -1,39 +1,66 @@
 package com.cragsupplyco.backend.controllers;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.testng.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.cragsupplyco.backend.dtos.VersionStampDto;
 import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.services.CatalogVersionService;
 import com.cragsupplyco.backend.services.WarehouseService;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 public class WarehouseControllerTests {
 
     @Mock
     private WarehouseService warehouseService;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @InjectMocks
     private WarehouseController warehouseController;
     private AutoCloseable closeable;
 
+    private static final VersionStampDto[] STAMPS = { new VersionStampDto(2L, 5L, Instant.parse("2024-08-01T10:00:00Z")) };
+
+    // A GET request, conditional if an ETag is passed
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @BeforeTest
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+        when(catalogVersionService.forWarehouses()).thenReturn(STAMPS);
+        when(catalogVersionService.forWarehouse(any(Warehouse.class))).thenReturn(STAMPS);
     }
 
     @AfterTest
@@ -54,9 +81,11 @@ public class WarehouseControllerTests {
 
         when(warehouseService.findAll()).thenReturn(expectedWarehouses);
 
-        Iterable<Warehouse> result = warehouseController.findAllWarehouses();
+        ResponseEntity<Iterable<Warehouse>> response = warehouseController.findAllWarehouses(request(null));
 
-        Assert.assertEquals(result, expectedWarehouses);
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getBody(), expectedWarehouses);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
         verify(warehouseService, times(1)).findAll();
     }
 
@@ -70,14 +99,14 @@ public class WarehouseControllerTests {
         warehouse1.setId(1);
 
         int id = 1;
-        when(warehouseService.findById(id)).thenReturn(Optional.of(warehouse1));
+        when(warehouseService.findByIdWithInventory(id)).thenReturn(Optional.of(warehouse1));
 
-        ResponseEntity<Warehouse> response = warehouseController.findWarehouseById(id);
+        ResponseEntity<Warehouse> response = warehouseController.findWarehouseById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
         Assert.assertEquals(response.getBody(), warehouse1);
 
-        verify(warehouseService, times(1)).findById(id);
+        verify(warehouseService, times(1)).findByIdWithInventory(id);
     }
 
     /**
@@ -87,14 +116,14 @@ public class WarehouseControllerTests {
     @Test
     public void testFindWarehouseByNonExistentId() {
         int id = 10;
-        when(warehouseService.findById(id)).thenReturn(Optional.empty());
+        when(warehouseService.findByIdWithInventory(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Warehouse> response = warehouseController.findWarehouseById(id);
+        ResponseEntity<Warehouse> response = warehouseController.findWarehouseById(id, request(null));
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_FOUND);
         Assert.assertEquals(response.getBody(), null);
 
-        verify(warehouseService, times(1)).findById(id);
+        verify(warehouseService, times(1)).findByIdWithInventory(id);
     }
 
     /**
@@ -193,9 +222,9 @@ public class WarehouseControllerTests {
         validWarehouse.setState("CA");
         validWarehouse.setZipCode("54321");
 
-        warehouseController.updateWarehouseById(3, validWarehouse);
+        warehouseController.updateWarehouseById(3, validWarehouse, null);
 
-        verify(warehouseService, times(1)).updateWarehouseById(eq(3), any(Warehouse.class));
+        verify(warehouseService, times(1)).updateWarehouseById(eq(3), any(Warehouse.class), isNull());
     }
 
     /**
@@ -208,4 +237,21 @@ public class WarehouseControllerTests {
 
         verify(warehouseService, times(1)).deleteById(3);
     }
+
+    /**
+     * Test case for finding a warehouse by its id with the current ETag in
+     * If-None-Match. Validates that 304/Not Modified is returned without a body.
+     */
+    @Test
+    public void testFindWarehouseByIdNotModified() {
+        Warehouse warehouse = new Warehouse();
+        when(warehouseService.findByIdWithInventory(2)).thenReturn(Optional.of(warehouse));
+
+        ResponseEntity<Warehouse> response = warehouseController.findWarehouseById(2,
+                request(EntityTags.of(STAMPS)));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertNull(response.getBody());
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
+    }
 }
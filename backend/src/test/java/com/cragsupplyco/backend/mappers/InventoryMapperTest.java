@@ -15,16 +15,16 @@ import com.cragsupplyco.backend.dtos.InventoryRequestDto;
 import com.cragsupplyco.backend.models.Inventory;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.models.Warehouse;
-import com.cragsupplyco.backend.repositories.ProductRepository;
-import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.services.ProductService;
+import com.cragsupplyco.backend.services.WarehouseService;
 
 public class InventoryMapperTest {
 
     @Mock
-    private WarehouseRepository warehouseRepo;
+    private WarehouseService warehouseService;
 
     @Mock
-    private ProductRepository productRepo;
+    private ProductService productService;
 
     @InjectMocks
     private InventoryMapper inventoryMapper;
@@ -59,8 +59,8 @@ public class InventoryMapperTest {
         Product product = new Product();
         product.setId(2);
 
-        when(warehouseRepo.findById(1)).thenReturn(Optional.of(warehouse));
-        when(productRepo.findById(2)).thenReturn(Optional.of(product));
+        when(warehouseService.findById(1)).thenReturn(Optional.of(warehouse));
+        when(productService.findById(2)).thenReturn(Optional.of(product));
 
         Inventory result = inventoryMapper.toInventory(inventoryDto);
 
@@ -81,7 +81,7 @@ public class InventoryMapperTest {
         inventoryDto.setProduct(2);
         inventoryDto.setQuantity("10");
 
-        when(warehouseRepo.findById(1)).thenReturn(Optional.empty());
+        when(warehouseService.findById(1)).thenReturn(Optional.empty());
 
         try {
             inventoryMapper.toInventory(inventoryDto);
@@ -106,8 +106,8 @@ public class InventoryMapperTest {
         Warehouse warehouse = new Warehouse();
         warehouse.setId(1);
 
-        when(warehouseRepo.findById(1)).thenReturn(Optional.of(warehouse));
-        when(productRepo.findById(2)).thenReturn(Optional.empty());
+        when(warehouseService.findById(1)).thenReturn(Optional.of(warehouse));
+        when(productService.findById(2)).thenReturn(Optional.empty());
 
         try {
             inventoryMapper.toInventory(inventoryDto);
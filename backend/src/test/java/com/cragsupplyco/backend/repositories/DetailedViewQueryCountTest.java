@@ -0,0 +1,148 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.testng.AbstractTransactionalTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DetailedViewQueryCountTest extends AbstractTransactionalTestNGSpringContextTests {
+
+    private static final int WAREHOUSES = 3;
+    private static final int PRODUCTS = 8;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    private Statistics statistics;
+    private Category category;
+    private Warehouse firstWarehouse;
+
+    @BeforeMethod
+    public void setUp() {
+        // Seed every product in every warehouse, then clear the persistence context
+        // so the detailed queries have to load everything from the database
+        category = new Category();
+        category.setName("Ropes");
+        entityManager.persist(category);
+
+        Warehouse[] warehouses = new Warehouse[WAREHOUSES];
+        for (int w = 0; w < WAREHOUSES; w++) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.setName("WH" + w);
+            warehouse.setMaxCapacity(1000);
+            warehouse.setStreetAddress("1 Main St");
+            warehouse.setCity("Fresno");
+            warehouse.setState("CA");
+            warehouse.setZipCode("93650");
+            warehouses[w] = entityManager.persist(warehouse);
+        }
+        firstWarehouse = warehouses[0];
+
+        for (int p = 0; p < PRODUCTS; p++) {
+            Product product = new Product();
+            product.setBrand("Brand");
+            product.setName("Rope " + p);
+            product.setDescription("Description");
+            product.setPrice(100);
+            product.setCategory(category);
+            entityManager.persist(product);
+
+            for (Warehouse warehouse : warehouses) {
+                Inventory inventory = new Inventory();
+                inventory.setProduct(product);
+                inventory.setWarehouse(warehouse);
+                inventory.setSize("60m");
+                inventory.setQuantity(5);
+                entityManager.persist(inventory);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Test case to verify that findAllWithInventory() loads all products with
+     * their inventory and warehouses in a single statement, regardless of how many
+     * products there are.
+     */
+    @Test
+    public void testFindAllWithInventoryUsesSingleStatement() {
+        List<Product> products = productRepository.findAllWithInventory();
+        int items = walkProducts(products);
+
+        Assert.assertEquals(products.size(), PRODUCTS);
+        Assert.assertEquals(items, PRODUCTS * WAREHOUSES);
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+    }
+
+    /**
+     * Test case to verify that findAllWithInventoryByCategoryId() loads the
+     * products of a category with their inventory in a single statement.
+     */
+    @Test
+    public void testFindAllWithInventoryByCategoryIdUsesSingleStatement() {
+        List<Product> products = productRepository.findAllWithInventoryByCategoryId(category.getId());
+        int items = walkProducts(products);
+
+        Assert.assertEquals(items, PRODUCTS * WAREHOUSES);
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+    }
+
+    /**
+     * Test case to verify that findWithInventoryById() loads a warehouse with its
+     * inventory, products and categories in a single statement.
+     */
+    @Test
+    public void testFindWarehouseWithInventoryUsesSingleStatement() {
+        Warehouse warehouse = warehouseRepository.findWithInventoryById(firstWarehouse.getId()).get();
+
+        int items = 0;
+        for (Inventory inventory : warehouse.getInventory()) {
+            inventory.getProduct().getCategory().getName();
+            items++;
+        }
+
+        Assert.assertEquals(items, PRODUCTS);
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+    }
+
+    // Touch everything the internal view serializes so any lazy load is counted
+    private int walkProducts(List<Product> products) {
+        int items = 0;
+        for (Product product : products) {
+            product.getCategory().getName();
+            for (Inventory inventory : product.getInventory()) {
+                inventory.getWarehouse().getName();
+                items++;
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,131 @@
+package com.cragsupplyco.backend.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.testng.AbstractTransactionalTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+
+import jakarta.persistence.PersistenceException;
+
+// Runs against H2, so covers the update-then-insert fallback of upsertQuantity()
+// and the unique constraint on (product, warehouse, size)
+@DataJpaTest
+@Import(InventoryBatchRepository.class)
+public class InventoryUpsertTest extends AbstractTransactionalTestNGSpringContextTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    private Product product;
+    private Warehouse warehouse;
+
+    @BeforeMethod
+    public void setUp() {
+        Category category = new Category();
+        category.setName("Ropes");
+        entityManager.persist(category);
+
+        warehouse = new Warehouse();
+        warehouse.setName("CA1");
+        warehouse.setMaxCapacity(1000);
+        warehouse.setStreetAddress("1 Main St");
+        warehouse.setCity("Fresno");
+        warehouse.setState("CA");
+        warehouse.setZipCode("93650");
+        entityManager.persist(warehouse);
+
+        product = new Product();
+        product.setBrand("Brand");
+        product.setName("Rope");
+        product.setDescription("Description");
+        product.setPrice(100);
+        product.setCategory(category);
+        entityManager.persist(product);
+        entityManager.flush();
+    }
+
+    /**
+     * Test case to verify that upsertQuantity() creates an item that does not
+     * exist and adds to the quantity of the same item afterwards.
+     */
+    @Test
+    public void testUpsertQuantityCreatesThenIncrements() {
+        UpdateQuantityResponseDto created = inventoryBatchRepository.upsertQuantity(product.getId(),
+                warehouse.getId(), "60m", 5);
+        UpdateQuantityResponseDto incremented = inventoryBatchRepository.upsertQuantity(product.getId(),
+                warehouse.getId(), "60m", 3);
+
+        Assert.assertEquals(created.getQuantity(), 5);
+        Assert.assertEquals(incremented.getId(), created.getId());
+        Assert.assertEquals(incremented.getQuantity(), 8);
+        Assert.assertEquals(inventoryRepository.count(), 1);
+    }
+
+    /**
+     * Test case to verify that items without a size are matched as well, and are
+     * kept apart from items with a size.
+     */
+    @Test
+    public void testUpsertQuantityWithoutSize() {
+        UpdateQuantityResponseDto created = inventoryBatchRepository.upsertQuantity(product.getId(),
+                warehouse.getId(), null, 2);
+        UpdateQuantityResponseDto incremented = inventoryBatchRepository.upsertQuantity(product.getId(),
+                warehouse.getId(), null, 2);
+        UpdateQuantityResponseDto sized = inventoryBatchRepository.upsertQuantity(product.getId(),
+                warehouse.getId(), "70m", 1);
+
+        Assert.assertEquals(incremented.getId(), created.getId());
+        Assert.assertEquals(incremented.getQuantity(), 4);
+        Assert.assertNotEquals(sized.getId(), created.getId());
+        Assert.assertEquals(inventoryRepository.count(), 2);
+    }
+
+    /**
+     * Test case to verify that the unique constraint rejects a second item with the
+     * same product, warehouse and size.
+     */
+    @Test(expectedExceptions = PersistenceException.class)
+    public void testDuplicateItemRejected() {
+        for (int i = 0; i < 2; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setWarehouse(warehouse);
+            inventory.setSize("60m");
+            inventory.setQuantity(1);
+            entityManager.persist(inventory);
+        }
+        entityManager.flush();
+    }
+
+    /**
+     * Test case to verify that the unique constraint treats items without a size as
+     * the same size, so a second one is rejected too.
+     */
+    @Test(expectedExceptions = PersistenceException.class)
+    public void testDuplicateItemWithoutSizeRejected() {
+        for (int i = 0; i < 2; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setWarehouse(warehouse);
+            inventory.setQuantity(1);
+            entityManager.persist(inventory);
+        }
+        entityManager.flush();
+    }
+}
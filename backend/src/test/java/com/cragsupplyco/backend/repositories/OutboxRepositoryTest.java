@@ -0,0 +1,162 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto.Type;
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+import com.cragsupplyco.backend.services.InventoryChangeStream;
+import com.cragsupplyco.backend.services.InventoryOutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Not transactional: the changes are published in transactions of their own,
+// which commit concurrently
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OutboxRepository.class)
+public class OutboxRepositoryTest extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private InventoryChangeStream stream;
+    private InventoryOutboxRelay relay;
+    private final List<OutboxEventDto> sent = new ArrayList<>(); // What the sink was sent, in order
+
+    @BeforeMethod
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        stream = new InventoryChangeStream(outboxRepository, new ObjectMapper(), 10, 10, 1, 10000);
+        relay = new InventoryOutboxRelay(outboxRepository, sent::addAll, transactionTemplate, 10);
+        sent.clear();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        stream.shutdown();
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("DELETE FROM outbox_sequence");
+        jdbcTemplate.update("DELETE FROM outbox_relay_position");
+    }
+
+    private static InventoryChangeEventDto change(int inventory) {
+        InventoryChangeEventDto change = new InventoryChangeEventDto(Type.INVENTORY_CHANGED, 1);
+        change.setInventory(inventory);
+        return change;
+    }
+
+    /**
+     * Test case to verify that the changes of two concurrent transactions on
+     * different items of one warehouse are numbered, and sent by the relay, in
+     * the order the transactions commit rather than the order they published
+     * in.
+     */
+    @Test
+    public void testEventsOfWarehouseSentInCommitOrder() throws Exception {
+        CountDownLatch secondPublished = new CountDownLatch(1);
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Publishes first, but commits last
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                stream.publish(change(2));
+                secondPublished.countDown();
+                await(firstWritten);
+            }));
+
+            // Writes its event, then waits before committing, so the other
+            // transaction tries to write its event meanwhile
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                await(secondPublished);
+                stream.publish(change(1));
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) { // After the stream's, which was registered first
+                        firstWritten.countDown();
+                        sleep(200);
+                    }
+                });
+            }));
+
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(relay.relayPending(), 2);
+        Assert.assertEquals(sent.stream().map(OutboxEventDto::getSeq).toList(), List.of(1L, 2L));
+        Assert.assertTrue(sent.get(0).getPayload().contains("\"inventory\":1"));
+        Assert.assertTrue(sent.get(1).getPayload().contains("\"inventory\":2"));
+    }
+
+    /**
+     * Test case to verify that the relay sends nothing past a gap in the numbers
+     * of a warehouse's events, and resumes once the missing event is there.
+     */
+    @Test
+    public void testRelayStopsAtGap() {
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.insertAll(List.of(
+                new Object[] { 1, "INVENTORY_CHANGED", "{}" }, new Object[] { 1, "INVENTORY_CHANGED", "{}" })));
+        jdbcTemplate.update("UPDATE outbox_event SET seq = 3 WHERE seq = 2"); // As if seq 2 were not committed yet
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.insertAll(List.<Object[]>of(
+                new Object[] { null, "RESET", "{}" })));
+
+        Assert.assertEquals(relay.relayPending(), 2); // Seq 1 of warehouse 1 and the event of no warehouse
+        Assert.assertEquals(sent.stream().filter(event -> event.getWarehouse() != null)
+                .map(OutboxEventDto::getSeq).toList(), List.of(1L));
+
+        jdbcTemplate.update("INSERT INTO outbox_event (warehouse_id, seq, type, payload)"
+                + " VALUES (1, 2, 'INVENTORY_CHANGED', '{}')");
+        Assert.assertEquals(relay.relayPending(), 2);
+        Assert.assertEquals(sent.stream().filter(event -> event.getWarehouse() != null)
+                .map(OutboxEventDto::getSeq).toList(), List.of(1L, 2L, 3L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.testng.AbstractTransactionalTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.ReservationDto;
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+
+@DataJpaTest
+@Import(ReservationRepository.class)
+public class ReservationRepositoryTest extends AbstractTransactionalTestNGSpringContextTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private Product product;
+    private Warehouse warehouse;
+    private Inventory inventory;
+
+    @BeforeMethod
+    public void setUp() {
+        Category category = new Category();
+        category.setName("Ropes");
+        entityManager.persist(category);
+
+        warehouse = new Warehouse();
+        warehouse.setName("CA1");
+        warehouse.setMaxCapacity(1000);
+        warehouse.setStreetAddress("1 Main St");
+        warehouse.setCity("Fresno");
+        warehouse.setState("CA");
+        warehouse.setZipCode("93650");
+        entityManager.persist(warehouse);
+
+        product = new Product();
+        product.setBrand("Brand");
+        product.setName("Rope");
+        product.setDescription("Description");
+        product.setPrice(100);
+        product.setCategory(category);
+        entityManager.persist(product);
+
+        inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setWarehouse(warehouse);
+        inventory.setSize("60m");
+        inventory.setQuantity(10);
+        entityManager.persist(inventory);
+        entityManager.flush();
+    }
+
+    /**
+     * Test case to verify that an inserted reservation is found by id (also when
+     * locked) and in findAll(), with its expiry stored to the microsecond.
+     */
+    @Test
+    public void testInsertAndFind() {
+        Instant expiresAt = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+        long id = reservationRepository.insert(inventory.getId(), 3, "cart-1", expiresAt);
+
+        ReservationDto reservation = reservationRepository.findById(id).get();
+        Assert.assertEquals(reservation.getInventory(), inventory.getId());
+        Assert.assertEquals(reservation.getQuantity(), 3);
+        Assert.assertEquals(reservation.getReference(), "cart-1");
+        Assert.assertEquals(reservation.getExpiresAt(), expiresAt);
+        Assert.assertEquals(reservationRepository.lockById(id).get().getId(), id);
+        Assert.assertEquals(reservationRepository.findAll().size(), 1);
+        Assert.assertTrue(reservationRepository.findById(id + 1).isEmpty());
+    }
+
+    /**
+     * Test case to verify that deleteById() and deleteAll() report which
+     * reservations existed.
+     */
+    @Test
+    public void testDeleteReportsExistingReservations() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        long first = reservationRepository.insert(inventory.getId(), 1, null, expiresAt);
+        long second = reservationRepository.insert(inventory.getId(), 2, null, expiresAt);
+
+        Assert.assertTrue(reservationRepository.deleteById(first));
+        Assert.assertFalse(reservationRepository.deleteById(first));
+        Assert.assertEquals(reservationRepository.deleteAll(Arrays.asList(first, second)),
+                Collections.singletonList(second));
+        Assert.assertTrue(reservationRepository.findAll().isEmpty());
+    }
+
+    /**
+     * Test case to verify that the reservations of an item are deleted with it.
+     */
+    @Test
+    public void testDeletedWithItem() {
+        reservationRepository.insert(inventory.getId(), 1, null, Instant.now().plusSeconds(60));
+
+        entityManager.remove(inventory);
+        entityManager.flush();
+
+        Assert.assertTrue(reservationRepository.findAll().isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+// The migrations themselves are run (and checked against the entities) by every
+// repository test; this covers what only matters for existing databases
+public class SchemaMigrationTest {
+
+    /**
+     * Test case to verify that migrating a version 1 database with duplicate
+     * inventory items merges their quantities into the item with the lowest id
+     * before the unique index is created.
+     */
+    @Test
+    public void testDuplicateInventoryMergedBeforeUniqueIndex() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-migration;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbcTemplate.update("INSERT INTO category (name) VALUES ('Ropes')");
+        jdbcTemplate.update("INSERT INTO warehouse (name, max_capacity, current_capacity, street_address, city, state,"
+                + " zip_code) VALUES ('CA1', 100, 10, '1 Main St', 'Fresno', 'CA', '93650')");
+        jdbcTemplate.update("INSERT INTO product (brand, name, description, price, category_id)"
+                + " VALUES ('Brand', 'Rope', 'Description', 100, 1)");
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, size, quantity) VALUES"
+                + " (1, 1, 'M', 2), (1, 1, 'M', 3), (1, 1, NULL, 1), (1, 1, NULL, 1), (1, 1, 'L', 3)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        List<Map<String, Object>> rows = jdbcTemplate
+                .queryForList("SELECT id, size, quantity FROM inventory ORDER BY id");
+        Assert.assertEquals(rows.size(), 3);
+        Assert.assertEquals(rows.get(0), Map.of("ID", 1, "SIZE", "M", "QUANTITY", 5));
+        Assert.assertEquals(rows.get(1).get("QUANTITY"), 2); // Items without a size are merged too
+        Assert.assertEquals(rows.get(2).get("QUANTITY"), 3);
+        Assert.assertThrows(() -> jdbcTemplate
+                .update("INSERT INTO inventory (product_id, warehouse_id, size, quantity) VALUES (1, 1, 'L', 1)"));
+    }
+
+    /**
+     * Test case to verify that migrating a version 6 database merges the duplicate
+     * items without a size that the earlier unique index let through, moves their
+     * stock movements and holds to the item kept, and rejects new duplicates.
+     */
+    @Test
+    public void testDuplicateInventoryWithoutSizeMerged() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-migration-null-size;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("6").load().migrate();
+        jdbcTemplate.update("INSERT INTO category (name) VALUES ('Ropes')");
+        jdbcTemplate.update("INSERT INTO warehouse (name, max_capacity, current_capacity, street_address, city, state,"
+                + " zip_code) VALUES ('CA1', 100, 10, '1 Main St', 'Fresno', 'CA', '93650')");
+        jdbcTemplate.update("INSERT INTO product (brand, name, description, price, category_id)"
+                + " VALUES ('Brand', 'Rope', 'Description', 100, 1)");
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, size, quantity) VALUES"
+                + " (1, 1, NULL, 2), (1, 1, NULL, 3), (1, 1, 'M', 4)");
+        jdbcTemplate.update("INSERT INTO stock_movement (inventory_id, product_id, warehouse_id, delta, reason)"
+                + " VALUES (1, 1, 1, 2, 'CREATED'), (2, 1, 1, 3, 'CREATED')");
+        jdbcTemplate.update("INSERT INTO stock_snapshot (inventory_id, movement_id, quantity) VALUES (1, 1, 2)");
+        jdbcTemplate.update("INSERT INTO stock_reservation (inventory_id, quantity, expires_at)"
+                + " VALUES (2, 1, CURRENT_TIMESTAMP)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        Assert.assertEquals(jdbcTemplate.queryForList("SELECT id, quantity FROM inventory WHERE size IS NULL"),
+                List.of(Map.of("ID", 1, "QUANTITY", 5)));
+        Assert.assertEquals(jdbcTemplate.queryForObject(
+                "SELECT SUM(delta) FROM stock_movement WHERE inventory_id = 1", Long.class), Long.valueOf(5));
+        Assert.assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_snapshot", Long.class),
+                Long.valueOf(0));
+        Assert.assertEquals(jdbcTemplate.queryForObject("SELECT inventory_id FROM stock_reservation", Integer.class),
+                Integer.valueOf(1));
+        Assert.assertThrows(() -> jdbcTemplate
+                .update("INSERT INTO inventory (product_id, warehouse_id, size, quantity) VALUES (1, 1, NULL, 1)"));
+    }
+}
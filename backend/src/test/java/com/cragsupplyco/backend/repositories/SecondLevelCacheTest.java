@@ -0,0 +1,176 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Not transactional: each repository call runs in its own transaction (as it does
+// behind the read endpoints), so cached entries and query results are reused
+// across calls
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(InventoryBatchRepository.class)
+public class SecondLevelCacheTest extends AbstractTestNGSpringContextTests {
+
+    private static final int READS = 10;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    private Statistics statistics;
+    private Category category;
+    private Warehouse warehouse;
+
+    @BeforeMethod
+    public void setUp() {
+        category = new Category();
+        category.setName("Ropes");
+        category = categoryRepository.save(category);
+
+        warehouse = new Warehouse();
+        warehouse.setName("CA1");
+        warehouse.setMaxCapacity(1000);
+        warehouse.setStreetAddress("1 Main St");
+        warehouse.setCity("Fresno");
+        warehouse.setState("CA");
+        warehouse.setZipCode("93650");
+        warehouse = warehouseRepository.save(warehouse);
+
+        Product product = new Product();
+        product.setBrand("Brand");
+        product.setName("Rope");
+        product.setDescription("Description");
+        product.setPrice(100);
+        product.setCategory(category);
+        productRepository.save(product);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        warehouseRepository.deleteAll();
+    }
+
+    /**
+     * Test case to verify that repeated lookups by id of categories and warehouses
+     * only query the database the first time.
+     */
+    @Test
+    public void testFindByIdServedFromSecondLevelCache() {
+        for (int i = 0; i < READS; i++) {
+            categoryRepository.findById(category.getId()).get();
+            warehouseRepository.findById(warehouse.getId()).get();
+        }
+
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 2);
+        Assert.assertEquals(statistics.getSecondLevelCacheHitCount(), 2 * (READS - 1));
+    }
+
+    /**
+     * Test case to verify that repeated findAll/findByName/findByBrandAndName
+     * queries are answered from the query cache.
+     */
+    @Test
+    public void testQueriesServedFromQueryCache() {
+        for (int i = 0; i < READS; i++) {
+            Assert.assertEquals(categoryRepository.findAll().size(), 1);
+            Assert.assertEquals(warehouseRepository.findAll().size(), 1);
+            categoryRepository.findByName("Ropes").get();
+            warehouseRepository.findByName("CA1").get();
+            productRepository.findByBrandAndName("Brand", "Rope").get();
+        }
+
+        Assert.assertEquals(statistics.getQueryCacheHitCount(), 5 * (READS - 1));
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 5);
+    }
+
+    /**
+     * Test case to verify that a capacity update written with JDBC evicts the
+     * cached warehouse, so the next lookup reads the new value.
+     */
+    @Test
+    public void testJdbcCapacityUpdateEvictsWarehouse() {
+        warehouseRepository.findById(warehouse.getId()).get();
+        inventoryBatchRepository.addCapacities(Map.of(warehouse.getId(), 25));
+
+        Assert.assertEquals(warehouseRepository.findById(warehouse.getId()).get().getCurrentCapacity(), 25);
+    }
+
+    /**
+     * Test case to verify that a capacity update written with JDBC leaves the
+     * warehouse's version alone, so an update of the warehouse as it was read
+     * before the capacity update still succeeds.
+     */
+    @Test
+    public void testJdbcCapacityUpdateKeepsVersion() {
+        Warehouse updated = warehouseRepository.findById(warehouse.getId()).get();
+        updated.setCity("Clovis");
+        Warehouse read = warehouseRepository.save(updated);
+
+        inventoryBatchRepository.addCapacities(Map.of(warehouse.getId(), 25));
+        read.setCity("Madera");
+        warehouseRepository.save(read);
+
+        // The cached copy keeps the capacity it was saved with (WarehouseService sets
+        // the tracker's), so read what was written
+        entityManagerFactory.getCache().evict(Warehouse.class, warehouse.getId());
+        Warehouse saved = warehouseRepository.findById(warehouse.getId()).get();
+        Assert.assertEquals(saved.getCity(), "Madera");
+        Assert.assertEquals(saved.getCurrentCapacity(), 25);
+        Assert.assertEquals(saved.getVersion(), read.getVersion() + 1);
+    }
+
+    /**
+     * Test case to verify that saving a category through Hibernate invalidates
+     * cached query results.
+     */
+    @Test
+    public void testWriteInvalidatesQueryCache() {
+        categoryRepository.findByName("Ropes").get();
+
+        Category other = new Category();
+        other.setName("Harnesses");
+        categoryRepository.save(other);
+
+        Assert.assertTrue(categoryRepository.findByName("Harnesses").isPresent());
+        Assert.assertEquals(categoryRepository.findAll().size(), 2);
+    }
+}
@@ -0,0 +1,126 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.testng.AbstractTransactionalTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+
+// Runs the dashboard aggregates against H2, including warehouses and categories
+// without any items (left joins, so they are still listed)
+@DataJpaTest
+public class StatsQueryTest extends AbstractTransactionalTestNGSpringContextTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Warehouse ca1;
+    private Warehouse nv1;
+    private Category ropes;
+    private Category shoes;
+
+    @BeforeMethod
+    public void setUp() {
+        ropes = category("Ropes");
+        shoes = category("Shoes");
+        ca1 = warehouse("CA1", 100);
+        nv1 = warehouse("NV1", 50);
+        warehouse("WA1", 10);
+
+        Product rope = product("Rope", ropes);
+        Product harness = product("Harness", ropes);
+        item(rope, ca1, "60m", 20);
+        item(rope, ca1, "70m", 3);
+        item(harness, ca1, "M", 10);
+        item(harness, nv1, "M", 1);
+        entityManager.flush();
+    }
+
+    /**
+     * Test case to verify the units and low-stock items per warehouse.
+     */
+    @Test
+    public void testWarehouseStats() {
+        List<Object[]> rows = warehouseRepository.findStats(10);
+
+        Assert.assertEquals(rows.size(), 3);
+        assertRow(rows.get(0), ca1.getId(), "CA1", 100, 33L, 2L);
+        assertRow(rows.get(1), nv1.getId(), "NV1", 50, 1L, 1L);
+        Assert.assertEquals(((Number) rows.get(2)[3]).longValue(), 0L); // No items
+        Assert.assertEquals(rows.get(2)[4] == null ? 0L : ((Number) rows.get(2)[4]).longValue(), 0L);
+    }
+
+    /**
+     * Test case to verify the units and low-stock items per product category.
+     */
+    @Test
+    public void testCategoryStats() {
+        List<Object[]> rows = categoryRepository.findStats(3);
+
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(0)[0], ropes.getId());
+        Assert.assertEquals(((Number) rows.get(0)[2]).longValue(), 34L);
+        Assert.assertEquals(((Number) rows.get(0)[3]).longValue(), 2L);
+        Assert.assertEquals(rows.get(1)[0], shoes.getId());
+        Assert.assertEquals(((Number) rows.get(1)[2]).longValue(), 0L); // No products
+    }
+
+    private static void assertRow(Object[] row, int id, String name, int maxCapacity, long units, long lowStock) {
+        Assert.assertEquals(row[0], id);
+        Assert.assertEquals(row[1], name);
+        Assert.assertEquals(row[2], maxCapacity);
+        Assert.assertEquals(((Number) row[3]).longValue(), units);
+        Assert.assertEquals(((Number) row[4]).longValue(), lowStock);
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return entityManager.persist(category);
+    }
+
+    private Warehouse warehouse(String name, int maxCapacity) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName(name);
+        warehouse.setMaxCapacity(maxCapacity);
+        warehouse.setStreetAddress("1 Main St");
+        warehouse.setCity("Fresno");
+        warehouse.setState("CA");
+        warehouse.setZipCode("93650");
+        return entityManager.persist(warehouse);
+    }
+
+    private Product product(String name, Category category) {
+        Product product = new Product();
+        product.setBrand("Brand");
+        product.setName(name);
+        product.setDescription("Description");
+        product.setPrice(100);
+        product.setCategory(category);
+        return entityManager.persist(product);
+    }
+
+    private void item(Product product, Warehouse warehouse, String size, int quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setWarehouse(warehouse);
+        inventory.setSize(size);
+        inventory.setQuantity(quantity);
+        entityManager.persist(inventory);
+    }
+}
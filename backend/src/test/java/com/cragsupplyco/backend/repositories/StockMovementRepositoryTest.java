@@ -0,0 +1,144 @@
+package com.cragsupplyco.backend.repositories;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.testng.AbstractTransactionalTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.StockBalanceDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto;
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+
+@DataJpaTest
+@Import(StockMovementRepository.class)
+public class StockMovementRepositoryTest extends AbstractTransactionalTestNGSpringContextTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    private Product product;
+    private Warehouse warehouse;
+    private Inventory inventory;
+
+    @BeforeMethod
+    public void setUp() {
+        Category category = new Category();
+        category.setName("Ropes");
+        entityManager.persist(category);
+
+        warehouse = new Warehouse();
+        warehouse.setName("CA1");
+        warehouse.setMaxCapacity(1000);
+        warehouse.setStreetAddress("1 Main St");
+        warehouse.setCity("Fresno");
+        warehouse.setState("CA");
+        warehouse.setZipCode("93650");
+        entityManager.persist(warehouse);
+
+        product = new Product();
+        product.setBrand("Brand");
+        product.setName("Rope");
+        product.setDescription("Description");
+        product.setPrice(100);
+        product.setCategory(category);
+        entityManager.persist(product);
+
+        inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setWarehouse(warehouse);
+        inventory.setSize("60m");
+        inventory.setQuantity(10);
+        entityManager.persist(inventory);
+        entityManager.flush();
+    }
+
+    private Object[] movement(int delta, StockMovementDto.Reason reason) {
+        return new Object[] { inventory.getId(), product.getId(), warehouse.getId(), delta, reason.name() };
+    }
+
+    /**
+     * Test case to verify that the balance of an item is its snapshot plus the
+     * movements recorded after it, and that a snapshot includes the previous one.
+     */
+    @Test
+    public void testBalanceFromSnapshotAndLaterMovements() {
+        stockMovementRepository.insertOpeningBalances();
+        stockMovementRepository.insertAll(Arrays.asList(movement(5, StockMovementDto.Reason.INCREMENTED),
+                movement(-3, StockMovementDto.Reason.DECREMENTED)));
+
+        StockBalanceDto replayed = stockMovementRepository.findBalance(inventory.getId()).get();
+        Assert.assertEquals(replayed.getQuantity(), 12);
+        Assert.assertNull(replayed.getSnapshotMovement());
+        Assert.assertEquals(replayed.getReplayedMovements(), 3);
+
+        Assert.assertEquals(stockMovementRepository.snapshot(0, 10), inventory.getId());
+        stockMovementRepository.insertAll(Collections.singletonList(movement(4, StockMovementDto.Reason.INCREMENTED)));
+
+        StockBalanceDto balance = stockMovementRepository.findBalance(inventory.getId()).get();
+        Assert.assertEquals(balance.getQuantity(), 16);
+        Assert.assertEquals(balance.getSnapshotMovement(), replayed.getLastMovement());
+        Assert.assertEquals(balance.getReplayedMovements(), 1);
+
+        stockMovementRepository.snapshot(0, 10); // Updates the existing snapshot
+        StockBalanceDto snapshotted = stockMovementRepository.findBalance(inventory.getId()).get();
+        Assert.assertEquals(snapshotted.getQuantity(), 16);
+        Assert.assertEquals(snapshotted.getReplayedMovements(), 0);
+        Assert.assertEquals(snapshotted.getSnapshotMovement(), balance.getLastMovement());
+        Assert.assertEquals(stockMovementRepository.snapshot(inventory.getId(), 10), -1); // No items left
+    }
+
+    /**
+     * Test case to verify that an item without movements has no balance, and that
+     * opening balances are only recorded for items that are not in the ledger yet.
+     */
+    @Test
+    public void testOpeningBalancesRecordedOnce() {
+        Assert.assertTrue(stockMovementRepository.findBalance(inventory.getId()).isEmpty());
+
+        stockMovementRepository.insertOpeningBalances();
+        stockMovementRepository.insertOpeningBalances();
+
+        Assert.assertEquals(stockMovementRepository.findBalance(inventory.getId()).get().getQuantity(), 10);
+    }
+
+    /**
+     * Test case to verify that findPage() returns movements after the cursor in id
+     * order, filtered by product, warehouse and time range.
+     */
+    @Test
+    public void testFindPageFilters() {
+        stockMovementRepository.insertAll(Arrays.asList(movement(10, StockMovementDto.Reason.CREATED),
+                movement(2, StockMovementDto.Reason.INCREMENTED), movement(-1, StockMovementDto.Reason.DECREMENTED)));
+
+        List<StockMovementDto> all = stockMovementRepository.findPage(0, null, product.getId(), warehouse.getId(),
+                null, null, 10);
+        Assert.assertEquals(all.size(), 3);
+        Assert.assertEquals(all.get(1).getDelta(), 2);
+        Assert.assertEquals(all.get(1).getReason(), StockMovementDto.Reason.INCREMENTED);
+        Assert.assertNotNull(all.get(1).getCreatedAt());
+
+        Assert.assertEquals(stockMovementRepository.findPage(all.get(0).getId(), inventory.getId(), null, null, null,
+                null, 1).get(0).getId(), all.get(1).getId());
+        Assert.assertTrue(stockMovementRepository.findPage(0, null, product.getId() + 1, null, null, null, 10)
+                .isEmpty());
+        Assert.assertTrue(stockMovementRepository.findPage(0, null, null, warehouse.getId(),
+                Instant.now().plusSeconds(60), null, 10).isEmpty());
+        Assert.assertEquals(stockMovementRepository.findPage(0, null, null, null, Instant.now().minusSeconds(60),
+                Instant.now().plusSeconds(60), 10).size(), 3);
+    }
+}
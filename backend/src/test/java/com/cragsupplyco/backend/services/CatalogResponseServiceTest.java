@@ -0,0 +1,109 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Inventory;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.utils.EntityTags;
+import com.cragsupplyco.backend.utils.SerializedResponse;
+
+public class CatalogResponseServiceTest {
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    private CatalogResponseService catalogResponseService;
+    private AutoCloseable closeable;
+
+    private static final VersionStampDto[] STAMPS = { new VersionStampDto(2L, 5L, Instant.parse("2024-08-01T10:00:00Z")) };
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+        // Configured like the ObjectMapper Spring Boot creates (fields without a view
+        // are left out of views)
+        catalogResponseService = new CatalogResponseService(categoryService, productService, catalogVersionService,
+                Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        if (closeable != null) {
+            closeable.close(); // Close any open mocks after test
+        }
+    }
+
+    /**
+     * Test case for serializing all categories using the findAllCategories()
+     * method. Validates that the JSON and ETag match the categories and their
+     * version stamps.
+     */
+    @Test
+    public void testFindAllCategories() {
+        Category category = new Category();
+        category.setId(1);
+        category.setName("Ropes");
+        when(categoryService.findAll()).thenReturn(List.of(category));
+        when(catalogVersionService.forCategories()).thenReturn(STAMPS);
+
+        SerializedResponse response = catalogResponseService.findAllCategories();
+
+        Assert.assertEquals(new String(response.getJson(), StandardCharsets.UTF_8), "[{\"name\":\"Ropes\",\"id\":1}]");
+        Assert.assertEquals(response.getEtag(), EntityTags.of(STAMPS));
+        Assert.assertEquals(response.getLastModified(), EntityTags.lastModified(STAMPS));
+    }
+
+    /**
+     * Test case for serializing all products using the findAllProducts() method.
+     * Validates that the public view is used, so inventory is left out, and that
+     * the version stamps are read before the products.
+     */
+    @Test
+    public void testFindAllProductsUsesPublicView() {
+        Category category = new Category();
+        category.setId(1);
+        category.setName("Ropes");
+        Product product = new Product();
+        product.setId(2);
+        product.setBrand("Petzl");
+        product.setName("Volta");
+        product.setPrice(300);
+        product.setCategory(category);
+        product.setInventory(Arrays.asList(new Inventory()));
+        when(productService.findAll()).thenReturn(List.of(product));
+        when(catalogVersionService.forProducts()).thenReturn(STAMPS);
+
+        SerializedResponse response = catalogResponseService.findAllProducts();
+
+        String json = new String(response.getJson(), StandardCharsets.UTF_8);
+        Assert.assertTrue(json.contains("\"brand\":\"Petzl\""));
+        Assert.assertTrue(json.contains("\"category\":\"Ropes\""));
+        Assert.assertFalse(json.contains("inventory"));
+        InOrder order = inOrder(catalogVersionService, productService);
+        order.verify(catalogVersionService).forProducts();
+        order.verify(productService).findAll();
+    }
+}
@@ -2,6 +2,7 @@ package com.cragsupplyco.backend.services;
 
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 
 import java.util.Arrays;
 import java.util.List;
@@ -15,8 +16,11 @@ import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 import org.testng.Assert;
 
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.exceptions.PreconditionFailedException;
 import com.cragsupplyco.backend.models.Category;
 import com.cragsupplyco.backend.repositories.CategoryRepository;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 public class CategoryServiceTest {
 
@@ -27,6 +31,9 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @BeforeTest
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
@@ -154,7 +161,7 @@ public class CategoryServiceTest {
         when(categoryRepository.save(expectedCategory)).thenReturn(expectedCategory);
         when(categoryRepository.existsByName("Climbing Shoes")).thenReturn(false);
 
-        Category result = categoryService.updateCategoryById(categoryId, expectedCategory);
+        Category result = categoryService.updateCategoryById(categoryId, expectedCategory, null);
         Assert.assertEquals(expectedCategory, result);
     }
 
@@ -178,8 +185,39 @@ public class CategoryServiceTest {
         when(categoryRepository.existsByName("Climbing Apparel")).thenReturn(true);
 
         Assert.assertThrows(IllegalArgumentException.class, () -> {
-            categoryService.updateCategoryById(categoryId, category);
+            categoryService.updateCategoryById(categoryId, category, null);
+        });
+    }
+
+    /**
+     * Test case to verify that updateCategoryById() saves the category with the
+     * version of the existing category when If-Match has its current ETag, and
+     * throws a PreconditionFailedException without saving when it does not.
+     */
+    @Test
+    public void testUpdateCategoryByIdIfMatch() {
+        int categoryId = 6;
+        Category existingCategory = new Category();
+        existingCategory.setId(categoryId);
+        existingCategory.setName("Ropes");
+        existingCategory.setVersion(3);
+        VersionStampDto[] stamps = { VersionStampDto.of(existingCategory) };
+
+        Category category = new Category();
+        category.setName("Ropes");
+
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(existingCategory));
+        when(catalogVersionService.forCategory(existingCategory)).thenReturn(stamps);
+        when(categoryRepository.save(category)).thenReturn(category);
+
+        Assert.assertThrows(PreconditionFailedException.class, () -> {
+            categoryService.updateCategoryById(categoryId, category, "\"stale\"");
         });
+        verify(categoryRepository, never()).save(category);
+
+        categoryService.updateCategoryById(categoryId, category, EntityTags.of(stamps));
+        Assert.assertEquals(category.getVersion(), 3);
+        verify(categoryRepository).save(category);
     }
 
     /**
@@ -0,0 +1,43 @@
+package com.cragsupplyco.backend.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+public class FileOutboxSinkTest {
+
+    /**
+     * Test case to verify that events are appended to the file as NDJSON, with the
+     * payload written as JSON rather than as a string.
+     */
+    @Test
+    public void testSendAppendsNdjson() throws IOException {
+        Path file = Files.createTempFile("outbox", ".ndjson");
+        try {
+            // Dates are written as ISO-8601, as by the ObjectMapper Spring Boot creates
+            FileOutboxSink sink = new FileOutboxSink(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(), file);
+
+            sink.send(List.of(new OutboxEventDto(1, 2, 1, "INVENTORY_DELETED", "{\"inventory\":7}",
+                    Instant.parse("2024-08-01T10:00:00Z"))));
+            sink.send(List.of(new OutboxEventDto(2, null, 1, "RESET", "{}", null)));
+
+            List<String> lines = Files.readAllLines(file);
+            Assert.assertEquals(lines.size(), 2);
+            Assert.assertEquals(lines.get(0), "{\"id\":1,\"warehouse\":2,\"seq\":1,\"type\":\"INVENTORY_DELETED\","
+                    + "\"payload\":{\"inventory\":7},\"createdAt\":\"2024-08-01T10:00:00Z\"}");
+            Assert.assertTrue(lines.get(1).startsWith("{\"id\":2,"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.AllocationLineDto;
+import com.cragsupplyco.backend.dtos.AllocationPickDto;
+import com.cragsupplyco.backend.dtos.AllocationRequestDto;
+import com.cragsupplyco.backend.dtos.AllocationResultDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto.Type;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+
+public class FulfillmentAllocatorTest {
+
+    // id, product id, warehouse id, size, quantity, warehouse state and ZIP code
+    private static final List<Object[]> STOCK = Arrays.asList(
+            new Object[] { 100, 10, 1, "M", 5, "CA", "93650" },
+            new Object[] { 101, 10, 2, "M", 10, "TX", "75001" },
+            new Object[] { 102, 10, 3, "M", 3, "NY", "10001" },
+            new Object[] { 103, 10, 3, "L", 9, "NY", "10001" },
+            new Object[] { 110, 11, 2, null, 4, "TX", "75001" },
+            new Object[] { 111, 11, 3, null, 4, "NY", "10001" });
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private StockReservationService reservationService;
+
+    @Mock
+    private InventoryChangeStream changeStream;
+
+    private FulfillmentAllocator allocator;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // The allocator keeps an index, so start fresh for each test
+        allocator = new FulfillmentAllocator(inventoryRepository, reservationService, changeStream, 60000);
+
+        when(inventoryRepository.findStockByProductIdIn(anyCollection()))
+                .thenAnswer(invocation -> stockOf(invocation.getArgument(0)));
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    private static List<Object[]> stockOf(Collection<Integer> productIds) {
+        return STOCK.stream().filter(row -> productIds.contains((Integer) row[1])).toList();
+    }
+
+    private static AllocationRequestDto request(String zipCode, AllocationLineDto... lines) {
+        return new AllocationRequestDto(Arrays.asList(lines), zipCode, null);
+    }
+
+    private static int allocated(AllocationResultDto result, int line) {
+        return result.getPicks().stream().filter(pick -> pick.getLine() == line)
+                .mapToInt(AllocationPickDto::getQuantity).sum();
+    }
+
+    /**
+     * Test case to verify that an order is allocated to a single warehouse when
+     * one has enough of every line, even if others have more of some lines.
+     */
+    @Test
+    public void testSingleWarehouseWhenPossible() {
+        AllocationResultDto result = allocator.allocate(request(null, new AllocationLineDto(10, "M", 5),
+                new AllocationLineDto(11, null, 2)));
+
+        Assert.assertEquals(result.getWarehouses(), Collections.singletonList(2));
+        Assert.assertEquals(result.getPicks().size(), 2);
+        Assert.assertEquals(result.getPicks().get(0).getInventory(), 101);
+        Assert.assertEquals(result.getPicks().get(1).getInventory(), 110);
+        Assert.assertTrue(result.getShortfalls().isEmpty());
+    }
+
+    /**
+     * Test case to verify that among warehouses that can fill an order the one
+     * nearest to the destination ZIP code is chosen, and the lowest id without a
+     * destination.
+     */
+    @Test
+    public void testNearestWarehouse() {
+        AllocationLineDto line = new AllocationLineDto(10, "M", 3);
+
+        Assert.assertEquals(allocator.allocate(request("10018", line)).getWarehouses(),
+                Collections.singletonList(3));
+        Assert.assertEquals(allocator.allocate(request("75204", line)).getWarehouses(),
+                Collections.singletonList(2));
+        Assert.assertEquals(allocator.allocate(request(null, line)).getWarehouses(), Collections.singletonList(1));
+        Assert.assertEquals(allocator.allocate(new AllocationRequestDto(Arrays.asList(line), null, "NY"))
+                .getWarehouses(), Collections.singletonList(3));
+    }
+
+    /**
+     * Test case to verify that a line no warehouse has enough of is split, taking
+     * the most from each warehouse first, and what cannot be allocated is reported
+     * as a shortfall.
+     */
+    @Test
+    public void testSplitLineAndShortfall() {
+        AllocationResultDto split = allocator.allocate(request(null, new AllocationLineDto(10, "M", 16)));
+        AllocationResultDto shortfall = allocator.allocate(request(null, new AllocationLineDto(10, "M", 20),
+                new AllocationLineDto(12, "M", 1)));
+
+        Assert.assertEquals(split.getWarehouses(), Arrays.asList(2, 1, 3));
+        Assert.assertEquals(allocated(split, 0), 16);
+        Assert.assertTrue(split.getShortfalls().isEmpty());
+        Assert.assertEquals(allocated(shortfall, 0), 18);
+        Assert.assertEquals(shortfall.getShortfalls().size(), 2);
+        Assert.assertEquals(shortfall.getShortfalls().get(0).getQuantity(), 2);
+        Assert.assertEquals(shortfall.getShortfalls().get(1).getProduct(), 12);
+    }
+
+    /**
+     * Test case to verify that a split line is taken from warehouses already
+     * chosen for other lines before adding another warehouse.
+     */
+    @Test
+    public void testSplitPrefersChosenWarehouses() {
+        AllocationResultDto result = allocator.allocate(request(null, new AllocationLineDto(10, "L", 9),
+                new AllocationLineDto(10, "M", 11)));
+
+        Assert.assertEquals(result.getWarehouses(), Arrays.asList(3, 2));
+        Assert.assertEquals(result.getPicks().get(1).getInventory(), 102); // Warehouse 3 first, although
+                                                                           // warehouse 2 has more
+        Assert.assertEquals(allocated(result, 1), 11);
+    }
+
+    /**
+     * Test case to verify that stock held by reservations is not allocated, and
+     * that two lines of the same item do not allocate it twice.
+     */
+    @Test
+    public void testReservedAndRepeatedStock() {
+        when(reservationService.getReserved(101)).thenReturn(8);
+
+        AllocationResultDto result = allocator.allocate(request(null, new AllocationLineDto(10, "M", 4),
+                new AllocationLineDto(10, "M", 4)));
+
+        // Warehouse 1 fills the first line and has 1 left for the second, which
+        // warehouse 2 (2 of 10 not held) cannot fill, so it is split with warehouse 3
+        Assert.assertEquals(result.getWarehouses(), Arrays.asList(1, 3));
+        Assert.assertEquals(allocated(result, 0), 4);
+        Assert.assertEquals(allocated(result, 1), 4);
+        Assert.assertTrue(result.getPicks().stream().noneMatch(pick -> pick.getInventory() == 101));
+        Assert.assertTrue(result.getShortfalls().isEmpty());
+    }
+
+    /**
+     * Test case to verify that a product's stock is loaded once and reloaded after
+     * a committed change to it, including a change that only sends the item id.
+     */
+    @Test
+    public void testIndexReloadedAfterChange() {
+        AllocationRequestDto request = request(null, new AllocationLineDto(11, null, 1));
+        allocator.allocate(request);
+        allocator.allocate(request);
+        verify(inventoryRepository, times(1)).findStockByProductIdIn(anyCollection());
+
+        InventoryChangeEventDto change = new InventoryChangeEventDto(Type.INVENTORY_CHANGED, 2);
+        change.setInventory(110);
+        allocator.onChange(change);
+        allocator.allocate(request);
+        verify(inventoryRepository, times(2)).findStockByProductIdIn(anyCollection());
+
+        allocator.onChange(new InventoryChangeEventDto(Type.WAREHOUSE_CHANGED, 3));
+        allocator.allocate(request);
+        verify(inventoryRepository, times(3)).findStockByProductIdIn(anyCollection());
+    }
+
+    /**
+     * Test case to verify that stock loaded while a change to the product is
+     * committed is used for that allocation but not kept in the index.
+     */
+    @Test
+    public void testLoadDuringChangeNotKept() {
+        AtomicBoolean changed = new AtomicBoolean();
+        when(inventoryRepository.findStockByProductIdIn(anyCollection())).thenAnswer(invocation -> {
+            if (changed.compareAndSet(false, true)) {
+                InventoryChangeEventDto change = new InventoryChangeEventDto(Type.INVENTORY_CHANGED, 1);
+                change.setProduct(10);
+                allocator.onChange(change);
+            }
+            return stockOf(invocation.getArgument(0));
+        });
+        AllocationRequestDto request = request(null, new AllocationLineDto(10, "M", 1));
+
+        Assert.assertEquals(allocator.allocate(request).getPicks().size(), 1);
+        allocator.allocate(request);
+        allocator.allocate(request);
+
+        verify(inventoryRepository, times(2)).findStockByProductIdIn(anyCollection());
+    }
+
+    /**
+     * Test case to verify that an order without lines, with too many lines or
+     * with a quantity below 1 throws an IllegalArgumentException.
+     */
+    @Test
+    public void testInvalidRequests() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> allocator.allocate(new AllocationRequestDto(Collections.emptyList(), null, null)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> allocator.allocate(new AllocationRequestDto(
+                Collections.nCopies(501, new AllocationLineDto(10, "M", 1)), null, null)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> allocator.allocate(request(null, new AllocationLineDto(10, "M", 0))));
+        verify(reservationService, times(0)).getReserved(anyInt());
+    }
+}
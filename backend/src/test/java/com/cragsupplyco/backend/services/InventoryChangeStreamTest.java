@@ -0,0 +1,290 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto.Type;
+import com.cragsupplyco.backend.repositories.OutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class InventoryChangeStreamTest {
+
+    // Records what is sent instead of writing it to a response
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> ids = new ArrayList<>();
+        final List<InventoryChangeEventDto> events = new ArrayList<>();
+        boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (var part : builder.build()) {
+                if (part.getData() instanceof InventoryChangeEventDto event) {
+                    events.add(event);
+                } else if (part.getData() instanceof String text && text.startsWith("id:")) {
+                    ids.add(text.substring(3, text.indexOf('\n')));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    // Blocks every send until it is interrupted, like a client that stopped
+    // reading once its connection is full
+    private static class StalledEmitter extends SseEmitter {
+        final CountDownLatch sending = new CountDownLatch(1);
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    // A stream whose emitters record what is sent, draining on the given executor
+    private static InventoryChangeStream stream(Executor executor, int replaySize, int bufferSize) {
+        return stream(executor, mock(OutboxRepository.class), replaySize, bufferSize);
+    }
+
+    private static InventoryChangeStream stream(Executor executor, OutboxRepository outboxRepository, int replaySize,
+            int bufferSize) {
+        return new InventoryChangeStream(executor, outboxRepository, new ObjectMapper(), replaySize, bufferSize,
+                10000) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private static InventoryChangeEventDto change(int warehouse) {
+        return new InventoryChangeEventDto(Type.INVENTORY_CHANGED, warehouse);
+    }
+
+    /**
+     * Test case to verify that published changes are sent to every subscriber, and
+     * that a subscriber to one warehouse only receives that warehouse's changes.
+     */
+    @Test
+    public void testPublishFiltersByWarehouse() {
+        InventoryChangeStream stream = stream(Runnable::run, 10, 10);
+        RecordingEmitter all = (RecordingEmitter) stream.subscribe(null, null);
+        RecordingEmitter warehouse1 = (RecordingEmitter) stream.subscribe(1, null);
+
+        stream.publish(change(1));
+        stream.publish(change(2));
+
+        Assert.assertEquals(all.events.size(), 2);
+        Assert.assertEquals(warehouse1.events.size(), 1);
+        Assert.assertEquals(warehouse1.events.get(0).getWarehouse(), Integer.valueOf(1));
+        Assert.assertNotEquals(all.ids.get(0), all.ids.get(1));
+    }
+
+    /**
+     * Test case to verify that listeners are called with every change once it is
+     * committed, in order, and not with changes that are rolled back.
+     */
+    @Test
+    public void testListenersCalledWithCommittedChanges() {
+        InventoryChangeStream stream = stream(Runnable::run, 10, 10);
+        List<InventoryChangeEventDto> received = new ArrayList<>();
+        stream.addListener(received::add);
+
+        stream.publish(change(1));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stream.publish(change(2));
+            Assert.assertEquals(received.size(), 1);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        stream.publish(change(3));
+
+        Assert.assertEquals(received.size(), 2);
+        Assert.assertEquals(received.get(1).getWarehouse(), Integer.valueOf(3));
+    }
+
+    /**
+     * Test case to verify that the changes published inside a transaction are
+     * written to the outbox in one batch before it commits, and only sent once it
+     * has committed.
+     */
+    @Test
+    public void testPublishWaitsForCommit() {
+        OutboxRepository outboxRepository = mock(OutboxRepository.class);
+        InventoryChangeStream stream = stream(Runnable::run, outboxRepository, 10, 10);
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(null, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stream.publish(change(1));
+            stream.publish(change(2));
+            Assert.assertTrue(emitter.events.isEmpty());
+            verify(outboxRepository, never()).insertAll(anyList());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+                verify(outboxRepository).insertAll(argThat(rows -> rows.size() == 2));
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assert.assertEquals(emitter.events.size(), 2);
+    }
+
+    /**
+     * Test case to verify that changes published inside a transaction that rolls
+     * back are neither written to the outbox nor sent.
+     */
+    @Test
+    public void testPublishDroppedOnRollback() {
+        OutboxRepository outboxRepository = mock(OutboxRepository.class);
+        InventoryChangeStream stream = stream(Runnable::run, outboxRepository, 10, 10);
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(null, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stream.publish(change(1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization
+                            .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assert.assertTrue(emitter.events.isEmpty());
+        verify(outboxRepository, never()).insertAll(anyList());
+    }
+
+    /**
+     * Test case to verify that a subscriber that sends the id of the last event it
+     * received is sent the events it missed, and no others.
+     */
+    @Test
+    public void testResumeFromLastEventId() {
+        InventoryChangeStream stream = stream(Runnable::run, 10, 10);
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(null, null);
+        stream.publish(change(1));
+        stream.publish(change(2));
+        stream.publish(change(3));
+
+        RecordingEmitter resumed = (RecordingEmitter) stream.subscribe(null, first.ids.get(0));
+
+        Assert.assertEquals(resumed.ids, first.ids.subList(1, 3));
+        Assert.assertEquals(resumed.events.get(0).getWarehouse(), Integer.valueOf(2));
+    }
+
+    /**
+     * Test case to verify that a subscriber whose last event id is unknown or no
+     * longer kept is sent a RESET event.
+     */
+    @Test
+    public void testResumeUnknownIdSendsReset() {
+        InventoryChangeStream stream = stream(Runnable::run, 2, 10);
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(null, null);
+        for (int i = 0; i < 4; i++) {
+            stream.publish(change(1));
+        }
+
+        RecordingEmitter tooOld = (RecordingEmitter) stream.subscribe(null, first.ids.get(0));
+        RecordingEmitter unknown = (RecordingEmitter) stream.subscribe(null, "other-5");
+
+        Assert.assertEquals(tooOld.events.size(), 1);
+        Assert.assertEquals(tooOld.events.get(0).getType(), Type.RESET);
+        Assert.assertEquals(tooOld.ids.get(0), first.ids.get(3)); // Resumes from the latest event after a reset
+        Assert.assertEquals(unknown.events.get(0).getType(), Type.RESET);
+    }
+
+    /**
+     * Test case to verify that a subscriber that falls a whole buffer behind is
+     * disconnected, without affecting other subscribers.
+     */
+    @Test
+    public void testSlowSubscriberDisconnected() {
+        List<Runnable> pending = new ArrayList<>(); // Drain tasks that have not run yet
+        InventoryChangeStream stream = stream(pending::add, 10, 2);
+        RecordingEmitter slow = (RecordingEmitter) stream.subscribe(null, null);
+
+        stream.publish(change(1));
+        stream.publish(change(1));
+        Assert.assertFalse(slow.completed);
+        Assert.assertEquals(stream.getSubscriberCount(), 1);
+
+        stream.publish(change(1));
+        Assert.assertTrue(slow.completed);
+        Assert.assertEquals(stream.getSubscriberCount(), 0);
+        Assert.assertEquals(pending.size(), 1); // Only one drain task is queued per subscriber
+    }
+
+    /**
+     * Test case to verify that a subscriber that never reads is disconnected once
+     * its send takes longer than the send timeout, and that the send is aborted so
+     * the other subscribers are sent their events.
+     */
+    @Test
+    public void testStalledSendAborted() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor(); // One send thread for both subscribers
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        Iterator<SseEmitter> emitters = List.<SseEmitter>of(stalled, other).iterator();
+        InventoryChangeStream stream = new InventoryChangeStream(executor, mock(OutboxRepository.class),
+                new ObjectMapper(), 10, 10, 1) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.next();
+            }
+        };
+        stream.subscribe(null, null);
+        stream.subscribe(null, null);
+
+        stream.publish(change(1));
+        Assert.assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(10); // Past the send timeout
+
+        stream.abortStalledSends();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Assert.assertTrue(stalled.completed);
+        Assert.assertEquals(stream.getSubscriberCount(), 1);
+        Assert.assertEquals(other.events.size(), 1);
+    }
+}
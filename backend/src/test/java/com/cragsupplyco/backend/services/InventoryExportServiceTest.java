@@ -0,0 +1,113 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.utils.InventoryFileFormat;
+
+public class InventoryExportServiceTest {
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    @InjectMocks
+    private InventoryExportService inventoryExportService;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        closeable = MockitoAnnotations.openMocks(this);
+
+        // Two rows, passed to the handler one at a time as the cursor would
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getInt(1)).thenReturn(1, 2);
+        when(resultSet.getInt(2)).thenReturn(10, 10);
+        when(resultSet.getInt(3)).thenReturn(100, 101);
+        when(resultSet.getString(4)).thenReturn("M").thenReturn(null); // Chained, as a null vararg is ambiguous
+        when(resultSet.getInt(5)).thenReturn(5, 0);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(inventoryBatchRepository).forEachItem(eq(1000), any());
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    /**
+     * Test case to verify that export() writes every row read from the cursor and
+     * returns the number of rows.
+     */
+    @Test
+    public void testExport() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        int rows = inventoryExportService.export(output, InventoryFileFormat.CSV);
+
+        Assert.assertEquals(rows, 2);
+        Assert.assertEquals(output.toString(StandardCharsets.UTF_8),
+                "id,product,warehouse,size,quantity\n1,10,100,M,5\n2,10,101,,0\n");
+    }
+
+    /**
+     * Test case to verify that the first row is flushed right away, so the client
+     * receives data before the export is finished.
+     */
+    @Test
+    public void testExportFlushesFirstRow() throws Exception {
+        StringBuilder flushed = new StringBuilder();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                if (flushed.length() == 0) {
+                    flushed.append(toString(StandardCharsets.UTF_8));
+                }
+            }
+        };
+
+        inventoryExportService.export(output, InventoryFileFormat.NDJSON);
+
+        Assert.assertEquals(flushed.toString(),
+                "{\"id\":1,\"product\":10,\"warehouse\":100,\"size\":\"M\",\"quantity\":5}");
+    }
+
+    /**
+     * Test case to verify that a write failure (e.g., the client disconnected)
+     * stops the export with an UncheckedIOException.
+     */
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void testExportWriteFailure() throws Exception {
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        inventoryExportService.export(output, InventoryFileFormat.CSV);
+    }
+}
@@ -0,0 +1,243 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.InventoryImportResultDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.repositories.ProductRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.utils.InventoryFileFormat;
+
+public class InventoryImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    private WarehouseCapacityTracker capacityTracker;
+
+    @Mock
+    private InventoryChangeStream inventoryChangeStream;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @InjectMocks
+    private InventoryImportService inventoryImportService;
+    private AutoCloseable closeable;
+
+    // Copies of what was written (the service reuses its collections between
+    // batches)
+    private List<Object[]> inserted;
+    private Map<Integer, Integer> incremented;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Stubs differ per test, so start fresh for each test
+
+        when(productRepository.findImportKeys()).thenReturn(Arrays.asList(
+                new Object[] { 1, "Black Diamond", "Momentum" },
+                new Object[] { 2, "Petzl", "Grigri" }));
+        when(warehouseRepository.findImportKeys()).thenReturn(Arrays.asList(
+                new Object[] { 1, "Main" },
+                new Object[] { 2, "North" }));
+        when(inventoryRepository.findImportKeysByWarehouseId(anyInt())).thenReturn(Collections.emptyList());
+        inserted = new ArrayList<>();
+        incremented = new HashMap<>();
+        when(inventoryBatchRepository.upsertQuantity(anyInt(), anyInt(), any(), anyInt())).thenAnswer(invocation -> {
+            Object[] item = invocation.getArguments();
+            inserted.add(item);
+            return new UpdateQuantityResponseDto(1000 + inserted.size(), (Integer) item[3], (Integer) item[1], 0);
+        });
+        when(inventoryBatchRepository.adjustQuantities(anyMap())).thenAnswer(invocation -> {
+            incremented.putAll(invocation.getArgument(0));
+            return true;
+        });
+        when(capacityTracker.tryAdjust(anyInt(), anyInt())).thenReturn(true);
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    private static InputStream upload(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test case to verify that lines for the same item are merged, products and
+     * warehouses are resolved by id or by name, capacity is reserved once per
+     * warehouse, and existing items are incremented while new ones are inserted.
+     */
+    @Test
+    public void testImportMergesLinesAndWritesOnce() {
+        when(inventoryRepository.findImportKeysByWarehouseId(1))
+                .thenReturn(Collections.singletonList(new Object[] { 10, 1, "M" }));
+
+        InventoryImportResultDto result = inventoryImportService.importInventory(upload(
+                "product,brand,name,warehouse,warehouseName,size,quantity\n"
+                        + "1,,,1,,M,5\n"
+                        + ",Black Diamond,Momentum,,Main,M,3\n"
+                        + "2,,,1,,,4\n"
+                        + "2,,,,North,,6\n"),
+                InventoryFileFormat.CSV);
+
+        Assert.assertEquals(result.getLinesRead(), 4);
+        Assert.assertEquals(result.getLinesRejected(), 0);
+        Assert.assertEquals(result.getUpdated(), 1);
+        Assert.assertEquals(result.getInserted(), 2);
+        Assert.assertEquals(result.getBatches(), 1);
+
+        verify(capacityTracker, times(1)).tryAdjust(1, 12);
+        verify(capacityTracker, times(1)).tryAdjust(2, 6);
+        Assert.assertEquals(incremented, Map.of(10, 8));
+        Assert.assertEquals(inserted.size(), 2);
+        Assert.assertEquals(inserted.get(0), new Object[] { 2, 1, null, 4 });
+        Assert.assertEquals(inserted.get(1), new Object[] { 2, 2, null, 6 });
+    }
+
+    /**
+     * Test case to verify that invalid lines are reported by line number and
+     * skipped, while the valid lines are still imported.
+     */
+    @Test
+    public void testImportRejectsInvalidLines() {
+        InventoryImportResultDto result = inventoryImportService.importInventory(upload(
+                "{\"product\": 1, \"warehouse\": 1, \"quantity\": 2}\n"
+                        + "{\"product\": 9, \"warehouse\": 1, \"quantity\": 2}\n"
+                        + "{\"brand\": \"Petzl\", \"name\": \"Nope\", \"warehouse\": 1, \"quantity\": 2}\n"
+                        + "{\"product\": 1, \"warehouse\": 9, \"quantity\": 2}\n"
+                        + "{\"product\": 1, \"warehouseName\": \"South\", \"quantity\": 2}\n"
+                        + "{\"product\": \"one\", \"warehouse\": 1, \"quantity\": 2}\n"
+                        + "{\"product\": 1, \"warehouse\": 1, \"quantity\": -1}\n"
+                        + "{\"product\": 1, \"warehouse\": 1}\n"
+                        + "{\"product\": 1, \"warehouse\": 1, \"size\": \"123456789012345678901\", \"quantity\": 2}\n"
+                        + "not json\n"),
+                InventoryFileFormat.NDJSON);
+
+        Assert.assertEquals(result.getLinesRead(), 10);
+        Assert.assertEquals(result.getLinesRejected(), 9);
+        Assert.assertEquals(result.getInserted(), 1);
+        Assert.assertEquals(result.getErrors().get(2), "Product not found with ID: 9");
+        Assert.assertEquals(result.getErrors().get(3), "Product not found: Petzl Nope");
+        Assert.assertEquals(result.getErrors().get(4), "Warehouse not found with ID: 9");
+        Assert.assertEquals(result.getErrors().get(5), "Warehouse not found: South");
+        Assert.assertEquals(result.getErrors().get(6), "Product ID must be a number: one");
+        Assert.assertEquals(result.getErrors().get(7),
+                "Quantity must be a whole number greater than or equal to 0.");
+        Assert.assertEquals(result.getErrors().get(8), "Quantity is required.");
+        Assert.assertEquals(result.getErrors().get(9), "Size cannot be longer than 20 characters.");
+        Assert.assertTrue(result.getErrors().get(10).startsWith("Invalid JSON"));
+    }
+
+    /**
+     * Test case to verify that every line of a warehouse is rejected when the
+     * warehouse cannot hold the imported quantity, while other warehouses are
+     * still imported.
+     */
+    @Test
+    public void testImportRejectsWarehouseOverCapacity() {
+        when(capacityTracker.tryAdjust(1, 7)).thenReturn(false);
+
+        InventoryImportResultDto result = inventoryImportService.importInventory(upload(
+                "product,warehouse,quantity\n1,1,3\n2,1,4\n1,2,5\n"), InventoryFileFormat.CSV);
+
+        Assert.assertEquals(result.getLinesRejected(), 2);
+        Assert.assertEquals(result.getWarehouseErrors().get(1),
+                "Cannot import inventory. It exceeds the warehouse capacity.");
+        Assert.assertEquals(result.getInserted(), 1);
+        verify(inventoryRepository, never()).findImportKeysByWarehouseId(1);
+    }
+
+    /**
+     * Test case to verify that items are written in batches of at most 500.
+     */
+    @Test
+    public void testImportWritesInBatches() {
+        List<Object[]> products = new ArrayList<>();
+        StringBuilder csv = new StringBuilder("product,warehouse,quantity\n");
+        for (int p = 1; p <= 1200; p++) {
+            products.add(new Object[] { p, "Brand", "Product " + p });
+            csv.append(p).append(",1,1\n");
+        }
+        when(productRepository.findImportKeys()).thenReturn(products);
+
+        InventoryImportResultDto result = inventoryImportService.importInventory(upload(csv.toString()),
+                InventoryFileFormat.CSV);
+
+        Assert.assertEquals(result.getInserted(), 1200);
+        Assert.assertEquals(result.getBatches(), 3);
+        verify(capacityTracker, times(1)).tryAdjust(1, 1200);
+        verify(inventoryBatchRepository, times(1200)).upsertQuantity(anyInt(), eq(1), any(), eq(1));
+    }
+
+    /**
+     * Test case to verify that an item created by another request after the
+     * existing items were read is added to, and its movement recorded against it.
+     */
+    @Test
+    public void testImportAddsToItemCreatedMeanwhile() {
+        when(inventoryBatchRepository.upsertQuantity(1, 1, null, 3))
+                .thenReturn(new UpdateQuantityResponseDto(50, 9, 1, 0)); // 6 created concurrently, plus 3
+
+        InventoryImportResultDto result = inventoryImportService.importInventory(
+                upload("product,warehouse,quantity\n1,1,3\n"), InventoryFileFormat.CSV);
+
+        Assert.assertEquals(result.getLinesRejected(), 0);
+        verify(stockLedger).record(50, 1, 1, 3, StockMovementDto.Reason.IMPORTED);
+    }
+
+    /**
+     * Test case to verify that the import fails with
+     * ConcurrentModificationConflictException if an existing item was deleted
+     * before its quantity could be incremented.
+     */
+    @Test(expectedExceptions = ConcurrentModificationConflictException.class)
+    public void testImportFailsOnConcurrentDelete() {
+        when(inventoryRepository.findImportKeysByWarehouseId(1))
+                .thenReturn(Collections.singletonList(new Object[] { 10, 1, null }));
+        when(inventoryBatchRepository.adjustQuantities(any())).thenReturn(false);
+
+        inventoryImportService.importInventory(upload("product,warehouse,quantity\n1,1,3\n"),
+                InventoryFileFormat.CSV);
+    }
+}
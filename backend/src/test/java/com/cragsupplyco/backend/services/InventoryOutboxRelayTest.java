@@ -0,0 +1,132 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.OutboxEventDto;
+import com.cragsupplyco.backend.repositories.OutboxRepository;
+
+public class InventoryOutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private OutboxSink outboxSink;
+
+    private InventoryOutboxRelay relay;
+    private AutoCloseable closeable;
+
+    // An event of warehouse 1, numbered in id order
+    private static OutboxEventDto event(long id) {
+        return new OutboxEventDto(id, 1, id, "INVENTORY_CHANGED", "{}", null);
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Stubs differ per test, so start fresh for each test
+        relay = new InventoryOutboxRelay(outboxRepository, outboxSink,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2);
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        if (closeable != null) {
+            closeable.close(); // Close any open mocks after test
+        }
+    }
+
+    /**
+     * Test case to verify that batches are sent and deleted until a batch that is
+     * not full is found.
+     */
+    @Test
+    public void testRelayPendingDrainsOutbox() {
+        List<OutboxEventDto> first = List.of(event(1), event(2));
+        List<OutboxEventDto> second = List.of(event(3));
+        when(outboxRepository.lockBatch(2)).thenReturn(first).thenReturn(second);
+        when(outboxRepository.findRelayedSeqs()).thenReturn(Map.of()).thenReturn(Map.of(1, 2L));
+
+        Assert.assertEquals(relay.relayPending(), 3);
+
+        verify(outboxSink).send(first);
+        verify(outboxSink).send(second);
+        verify(outboxRepository).deleteAll(first);
+        verify(outboxRepository).deleteAll(second);
+        verify(outboxRepository, times(2)).lockBatch(2);
+        verify(outboxRepository).saveRelayedSeqs(Map.of(1, 2L));
+        verify(outboxRepository).saveRelayedSeqs(Map.of(1, 3L));
+    }
+
+    /**
+     * Test case to verify that the events of a warehouse are sent starting after
+     * the last one sent, and that none past a gap in their numbers are sent, while
+     * the events of other warehouses are.
+     */
+    @Test
+    public void testRelayPendingStopsAtGap() {
+        OutboxEventDto next = event(6);
+        OutboxEventDto afterGap = event(8);
+        OutboxEventDto otherWarehouse = new OutboxEventDto(9, 2, 1, "INVENTORY_CHANGED", "{}", null);
+        when(outboxRepository.lockBatch(2)).thenReturn(List.of(next, afterGap))
+                .thenReturn(List.of(afterGap, otherWarehouse)).thenReturn(List.of(afterGap));
+        when(outboxRepository.findRelayedSeqs()).thenReturn(Map.of(1, 5L));
+
+        Assert.assertEquals(relay.relayPending(), 2);
+
+        verify(outboxSink).send(List.of(next));
+        verify(outboxSink).send(List.of(otherWarehouse));
+        verify(outboxSink, never()).send(argThat(events -> events.contains(afterGap)));
+        verify(outboxRepository).saveRelayedSeqs(Map.of(1, 6L));
+        verify(outboxRepository).saveRelayedSeqs(Map.of(2, 1L));
+        verify(outboxRepository, times(3)).lockBatch(2); // Stops once only the event after the gap is left
+    }
+
+    /**
+     * Test case to verify that nothing is sent when the outbox is empty.
+     */
+    @Test
+    public void testRelayPendingEmptyOutbox() {
+        when(outboxRepository.lockBatch(2)).thenReturn(List.of());
+
+        Assert.assertEquals(relay.relayPending(), 0);
+        verify(outboxSink, never()).send(anyList());
+    }
+
+    /**
+     * Test case to verify that a batch the sink fails to take is not deleted, so
+     * it is sent again by a later run.
+     */
+    @Test
+    public void testRelayPendingKeepsBatchWhenSinkFails() {
+        List<OutboxEventDto> batch = List.of(event(1));
+        when(outboxRepository.lockBatch(2)).thenReturn(batch);
+        doThrow(new IllegalStateException("Sink unavailable")).when(outboxSink).send(batch);
+
+        try {
+            relay.relayPending();
+            Assert.fail("Expected an IllegalStateException to be thrown");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "Sink unavailable");
+        }
+        verify(outboxRepository, never()).deleteAll(anyList());
+    }
+}
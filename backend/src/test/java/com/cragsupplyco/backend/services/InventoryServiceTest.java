@@ -1,30 +1,50 @@
 package com.cragsupplyco.backend.services;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
 import org.testng.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryAdjustmentResultDto;
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto.Type;
+import com.cragsupplyco.backend.dtos.InventoryPageDto;
 import com.cragsupplyco.backend.dtos.InventoryRequestDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto.Reason;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.exceptions.PreconditionFailedException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
 import com.cragsupplyco.backend.mappers.InventoryMapper;
 import com.cragsupplyco.backend.models.Inventory;
 import com.cragsupplyco.backend.models.Product;
 import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
 import com.cragsupplyco.backend.repositories.InventoryRepository;
-import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.cragsupplyco.backend.utils.EntityTags;
 
 public class InventoryServiceTest {
 
@@ -36,11 +56,26 @@ public class InventoryServiceTest {
     private InventoryRepository inventoryRepository;
 
     @Mock
-    private WarehouseRepository warehouseRepository;
+    private WarehouseCapacityTracker capacityTracker;
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
 
     @Mock
     private InventoryMapper inventoryMapper;
 
+    @Mock
+    private InventoryChangeStream inventoryChangeStream;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockHoldTracker holdTracker;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @Mock
     private Warehouse warehouse;
 
@@ -51,6 +86,11 @@ public class InventoryServiceTest {
         warehouse.setId(1);
         warehouse.setName("CA1");
         warehouse.setMaxCapacity(100);
+
+        // Capacity reservations succeed unless a test stubs a specific one to fail
+        when(capacityTracker.tryAdjust(anyInt(), anyInt())).thenReturn(true);
+        when(catalogVersionService.forInventory(any(Inventory.class))).thenAnswer(
+                invocation -> new VersionStampDto[] { VersionStampDto.of((Inventory) invocation.getArgument(0)) });
     }
 
     @AfterTest
@@ -80,6 +120,56 @@ public class InventoryServiceTest {
         Assert.assertTrue(count == exepctedCategories.size());
     }
 
+    /**
+     * Test case to verify that findPage() returns at most the requested number of
+     * items and the id of the last one as the next cursor when more items exist.
+     */
+    @Test
+    public void testFindPageWithNextPage() {
+        List<Inventory> rows = new ArrayList<>();
+        for (int id = 11; id <= 13; id++) {
+            Inventory inventory = new Inventory();
+            inventory.setId(id);
+            rows.add(inventory);
+        }
+
+        when(inventoryRepository.findPage(10, 1, null, null, null, PageRequest.of(0, 3))).thenReturn(rows);
+        InventoryPageDto result = inventoryService.findPage(10, 2, 1, null, null, null);
+
+        Assert.assertEquals(result.getItems().size(), 2);
+        Assert.assertEquals(result.getNextCursor(), Integer.valueOf(12));
+    }
+
+    /**
+     * Test case to verify that findPage() returns no next cursor on the last page.
+     */
+    @Test
+    public void testFindPageLastPage() {
+        Inventory inventory = new Inventory();
+        inventory.setId(40);
+
+        when(inventoryRepository.findPage(39, null, 2, null, "L", PageRequest.of(0, 6)))
+                .thenReturn(Arrays.asList(inventory));
+        InventoryPageDto result = inventoryService.findPage(39, 5, null, 2, null, "L");
+
+        Assert.assertEquals(result.getItems().size(), 1);
+        Assert.assertNull(result.getNextCursor());
+    }
+
+    /**
+     * Test case to verify that findPage() with a limit outside the allowed range
+     * throws an IllegalArgumentException.
+     */
+    @Test
+    public void testFindPageInvalidLimit() {
+        try {
+            inventoryService.findPage(0, 501, null, null, null, null);
+            Assert.fail("Expected a IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Limit must be between 1 and 500.", e.getMessage());
+        }
+    }
+
     /**
      * Test case to verify that using the findById() method with existing id
      * returns the inventory item with specified id from the repository.
@@ -109,19 +199,32 @@ public class InventoryServiceTest {
 
     /**
      * Test case to verify that using the save() method with a valid inventory item
-     * returns the created inventory item from the repository.
+     * reserves its quantity in the warehouse and creates (or adds to) the item
+     * with a single upsert, returning the item with its id and quantity.
      */
     @Test
     public void testSaveInventory() {
         InventoryRequestDto dto = new InventoryRequestDto();
         dto.setWarehouse(warehouse.getId());
+        Product product = new Product();
+        product.setId(2);
         Inventory expectedInventory = new Inventory();
         expectedInventory.setWarehouse(warehouse);
+        expectedInventory.setProduct(product);
+        expectedInventory.setSize("XL");
+        expectedInventory.setQuantity(4);
+        int warehouseId = warehouse.getId();
         when(inventoryMapper.toInventory(dto)).thenReturn(expectedInventory);
-        when(inventoryRepository.save(expectedInventory)).thenReturn(expectedInventory);
-        when(warehouseRepository.save(warehouse)).thenReturn(warehouse);
+        when(inventoryBatchRepository.upsertQuantity(2, warehouseId, "XL", 4))
+                .thenReturn(new UpdateQuantityResponseDto(7, 9, warehouseId, 0));
+
         Inventory result = inventoryService.save(dto);
+
         Assert.assertEquals(result, expectedInventory);
+        Assert.assertEquals(result.getId(), 7);
+        Assert.assertEquals(result.getQuantity(), 9); // Quantity after merging with an existing item
+        verify(capacityTracker, atLeastOnce()).tryAdjust(warehouseId, 4);
+        verify(inventoryRepository, never()).save(expectedInventory);
     }
 
     /**
@@ -140,12 +243,8 @@ public class InventoryServiceTest {
         inventory.setQuantity(90);
         inventory.setWarehouse(warehouse);
 
-        warehouse.setCurrentCapacity(20);
-
+        when(capacityTracker.tryAdjust(warehouse.getId(), 90)).thenReturn(false);
         when(inventoryMapper.toInventory(dto)).thenReturn(inventory);
-        when(inventoryRepository.existsByProductAndWarehouseAndSize(any(Product.class), any(Warehouse.class),
-                anyString()))
-                .thenReturn(false);
 
         try {
             inventoryService.save(dto);
@@ -153,6 +252,23 @@ public class InventoryServiceTest {
         } catch (IllegalArgumentException e) {
             Assert.assertEquals("Cannot save inventory. It exceeds the warehouse capacity.", e.getMessage());
         }
+        int warehouseId = warehouse.getId();
+        verify(inventoryBatchRepository, never()).upsertQuantity(anyInt(), eq(warehouseId), any(), eq(90));
+    }
+
+    /**
+     * Test case to verify that using the save() method with a negative quantity
+     * throws an IllegalArgumentException.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Cannot save inventory. Quantity cannot be less than 0.")
+    public void testSaveInventoryNegativeQuantity() {
+        InventoryRequestDto dto = new InventoryRequestDto();
+        Inventory inventory = new Inventory();
+        inventory.setQuantity(-1);
+        inventory.setWarehouse(warehouse);
+        when(inventoryMapper.toInventory(dto)).thenReturn(inventory);
+
+        inventoryService.save(dto);
     }
 
     /**
@@ -183,19 +299,18 @@ public class InventoryServiceTest {
         updatedInventory.setSize("M");
 
         when(inventoryRepository.findById(1)).thenReturn(Optional.of(existingInventory));
-        when(warehouseRepository.save(any(Warehouse.class))).thenReturn(currentWarehouse);
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(existingInventory);
 
         InventoryRequestDto dto = new InventoryRequestDto();
         dto.setWarehouse(warehouse.getId());
 
         when(inventoryMapper.toInventory(dto)).thenReturn(updatedInventory);
-        Inventory result = inventoryService.updateInventoryById(1, dto);
+        Inventory result = inventoryService.updateInventoryById(1, dto, null);
 
         Assert.assertEquals(result.getQuantity(), 15);
         Assert.assertEquals(result.getSize(), "M");
         Assert.assertEquals(result.getWarehouse(), currentWarehouse);
-        verify(warehouseRepository).save(currentWarehouse);
+        verify(capacityTracker).tryAdjust(2, 5);
         verify(inventoryRepository).save(existingInventory);
     }
 
@@ -227,7 +342,7 @@ public class InventoryServiceTest {
         updatedInventory.setSize("M");
 
         when(inventoryRepository.findById(1)).thenReturn(Optional.of(existingInventory));
-        when(warehouseRepository.save(any(Warehouse.class))).thenReturn(currentWarehouse);
+        when(capacityTracker.tryAdjust(2, 165)).thenReturn(false);
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(existingInventory);
 
         InventoryRequestDto dto = new InventoryRequestDto();
@@ -236,7 +351,7 @@ public class InventoryServiceTest {
         when(inventoryMapper.toInventory(dto)).thenReturn(updatedInventory);
 
         try {
-            inventoryService.updateInventoryById(1, dto);
+            inventoryService.updateInventoryById(1, dto, null);
             Assert.fail("Expected a IllegalArgumentException to be thrown");
         } catch (IllegalArgumentException e) {
             Assert.assertEquals("Cannot update inventory. It exceeds the warehouse capacity.", e.getMessage());
@@ -246,7 +361,7 @@ public class InventoryServiceTest {
     /**
      * Test case to verify that using the updateInventoryById() method with a valid
      * inventory item in different warehouse returns the updated inventory item from
-     * the repository.
+     * the repository and records the move.
      */
     @Test
     public void testUpdateInventoryInDifferentWarehouse() {
@@ -277,21 +392,22 @@ public class InventoryServiceTest {
         updatedInventory.setSize("M");
 
         when(inventoryRepository.findById(1)).thenReturn(Optional.of(existingInventory));
-        when(warehouseRepository.save(any(Warehouse.class))).thenReturn(newWarehouse);
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(existingInventory);
 
         InventoryRequestDto dto = new InventoryRequestDto();
         dto.setWarehouse(warehouse.getId());
 
         when(inventoryMapper.toInventory(dto)).thenReturn(updatedInventory);
-        Inventory result = inventoryService.updateInventoryById(1, dto);
+        Inventory result = inventoryService.updateInventoryById(1, dto, null);
 
         Assert.assertEquals(result.getQuantity(), 15);
         Assert.assertEquals(result.getSize(), "M");
         Assert.assertEquals(result.getWarehouse(), newWarehouse);
-        verify(warehouseRepository).save(currentWarehouse);
-        verify(warehouseRepository).save(newWarehouse);
+        verify(capacityTracker).tryAdjust(3, 15);
+        verify(capacityTracker).tryAdjust(2, -10);
         verify(inventoryRepository).save(existingInventory);
+        verify(stockLedger).record(1, 0, 2, -10, Reason.MOVED_OUT); // Recorded as leaving one warehouse and
+        verify(stockLedger).record(1, 0, 3, 15, Reason.MOVED_IN); // arriving at the other
     }
 
     /**
@@ -328,7 +444,7 @@ public class InventoryServiceTest {
         updatedInventory.setSize("M");
 
         when(inventoryRepository.findById(1)).thenReturn(Optional.of(existingInventory));
-        when(warehouseRepository.save(any(Warehouse.class))).thenReturn(newWarehouse);
+        when(capacityTracker.tryAdjust(3, 175)).thenReturn(false);
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(existingInventory);
 
         InventoryRequestDto dto = new InventoryRequestDto();
@@ -337,7 +453,7 @@ public class InventoryServiceTest {
         when(inventoryMapper.toInventory(dto)).thenReturn(updatedInventory);
 
         try {
-            inventoryService.updateInventoryById(1, dto);
+            inventoryService.updateInventoryById(1, dto, null);
             Assert.fail("Expected a IllegalArgumentException to be thrown");
         } catch (IllegalArgumentException e) {
             Assert.assertEquals("Cannot move inventory. It exceeds the new warehouse capacity.", e.getMessage());
@@ -345,114 +461,449 @@ public class InventoryServiceTest {
     }
 
     /**
-     * Test case to verify that using the updateQuantityById() method with the valid
-     * operation "increment" returns the updated inventory item from the repository.
+     * Test case to verify that moving an inventory item onto the product, warehouse
+     * and size of another item deletes it and adds its quantity to the other item,
+     * recording the move between the two.
      */
     @Test
-    public void testUpdateQuantityIncrement() {
+    public void testUpdateInventoryMergesIntoExistingItem() {
         Warehouse currentWarehouse = new Warehouse();
-        currentWarehouse.setId(2);
-        currentWarehouse.setName("CA2");
-        currentWarehouse.setCurrentCapacity(50);
-        currentWarehouse.setMaxCapacity(100);
+        currentWarehouse.setId(4);
+        Warehouse newWarehouse = new Warehouse();
+        newWarehouse.setId(5);
+
+        Inventory existingInventory = new Inventory();
+        existingInventory.setId(7);
+        existingInventory.setProduct(new Product());
+        existingInventory.setWarehouse(currentWarehouse);
+        existingInventory.setQuantity(10);
+
+        Inventory updatedInventory = new Inventory();
+        updatedInventory.setProduct(new Product());
+        updatedInventory.setWarehouse(newWarehouse);
+        updatedInventory.setQuantity(12);
+
+        InventoryRequestDto dto = new InventoryRequestDto();
+        when(inventoryRepository.findById(7)).thenReturn(Optional.of(existingInventory));
+        when(inventoryMapper.toInventory(dto)).thenReturn(updatedInventory);
+        when(inventoryRepository.findIdByKey(0, 5, null)).thenReturn(Optional.of(8));
+        when(inventoryBatchRepository.upsertQuantity(0, 5, null, 12))
+                .thenReturn(new UpdateQuantityResponseDto(8, 20, 0, 5, 0));
+
+        Inventory result = inventoryService.updateInventoryById(7, dto, null);
+
+        Assert.assertEquals(result.getId(), 8);
+        Assert.assertEquals(result.getQuantity(), 20);
+        verify(capacityTracker).tryAdjust(5, 12);
+        verify(capacityTracker).tryAdjust(4, -10);
+        verify(inventoryRepository).delete(existingInventory);
+        verify(inventoryRepository, never()).save(existingInventory);
+        verify(stockLedger).record(7, 0, 4, -10, Reason.MOVED_OUT);
+        verify(stockLedger).record(8, 0, 5, 12, Reason.MOVED_IN);
+        verify(inventoryChangeStream).publish(argThat(change -> change.getType() == Type.INVENTORY_DELETED
+                && change.getInventory() == 7 && change.getDelta() == -10));
+        verify(inventoryChangeStream).publish(argThat(change -> change.getType() == Type.INVENTORY_CHANGED
+                && change.getInventory() == 8 && change.getQuantity() == 20));
+    }
+
+    /**
+     * Test case to verify that an inventory item with stock held for reservations
+     * cannot be merged into another item, as its holds cannot move with it.
+     */
+    @Test
+    public void testUpdateInventoryMergeWithReservations() {
+        Warehouse currentWarehouse = new Warehouse();
+        currentWarehouse.setId(4);
+
+        Inventory existingInventory = new Inventory();
+        existingInventory.setId(9);
+        existingInventory.setProduct(new Product());
+        existingInventory.setWarehouse(currentWarehouse);
+        existingInventory.setQuantity(10);
+        existingInventory.setSize("S");
+
+        Inventory updatedInventory = new Inventory();
+        updatedInventory.setProduct(new Product());
+        updatedInventory.setWarehouse(currentWarehouse);
+        updatedInventory.setQuantity(10);
+        updatedInventory.setSize("M");
+
+        InventoryRequestDto dto = new InventoryRequestDto();
+        dto.setSize("M");
+        when(inventoryRepository.findById(9)).thenReturn(Optional.of(existingInventory));
+        when(inventoryMapper.toInventory(dto)).thenReturn(updatedInventory);
+        when(inventoryRepository.findIdByKey(0, 4, "M")).thenReturn(Optional.of(10));
+        when(holdTracker.getHeld(9)).thenReturn(3);
 
+        try {
+            inventoryService.updateInventoryById(9, dto, null);
+            Assert.fail("Expected an InsufficientQuantityException to be thrown");
+        } catch (InsufficientQuantityException e) {
+            Assert.assertEquals(e.getMessage(), "Cannot merge inventory. 3 of it is reserved.");
+        }
+        verify(inventoryRepository, never()).delete(existingInventory);
+    }
+
+    /**
+     * Test case to verify that using the updateInventoryById() method with an
+     * If-Match ETag the inventory item no longer has throws a
+     * PreconditionFailedException without updating it.
+     */
+    @Test
+    public void testUpdateInventoryIfMatchStale() {
+        Inventory existingInventory = new Inventory();
+        existingInventory.setId(11);
+        existingInventory.setProduct(new Product());
+        existingInventory.setWarehouse(new Warehouse());
+        existingInventory.setQuantity(10);
+        existingInventory.setVersion(2);
+        String staleTag = EntityTags.of(VersionStampDto.of(existingInventory));
+        existingInventory.setVersion(3);
+
+        InventoryRequestDto dto = new InventoryRequestDto();
+        when(inventoryRepository.findById(11)).thenReturn(Optional.of(existingInventory));
+        when(inventoryMapper.toInventory(dto)).thenReturn(new Inventory());
+
+        Assert.assertThrows(PreconditionFailedException.class,
+                () -> inventoryService.updateInventoryById(11, dto, staleTag));
+        verify(inventoryRepository, never()).save(existingInventory);
+    }
+
+    /**
+     * Test case to verify that using the updateQuantityById() method with the
+     * current If-Match ETag applies the delta only if the inventory item still has
+     * the version the ETag was checked against.
+     */
+    @Test
+    public void testUpdateQuantityIfMatch() {
+        Inventory inventory = new Inventory();
+        inventory.setId(12);
+        inventory.setVersion(4);
+        when(inventoryRepository.findById(12)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.adjustQuantityIfVersion(12, 5, 0, 4)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(12))
+                .thenReturn(Optional.of(new UpdateQuantityResponseDto(12, 15, 1, 0)));
+
+        UpdateQuantityResponseDto result = inventoryService.updateQuantityById(12, "increment", 5,
+                EntityTags.of(VersionStampDto.of(inventory)));
+
+        Assert.assertEquals(result.getQuantity(), 15);
+        verify(inventoryRepository, never()).adjustQuantity(12, 5);
+    }
+
+    /**
+     * Test case to verify that using the updateQuantityById() method throws a
+     * PreconditionFailedException when the inventory item changes between the
+     * If-Match check and the update.
+     */
+    @Test
+    public void testUpdateQuantityChangedAfterIfMatch() {
         Inventory inventory = new Inventory();
-        inventory.setId(1);
-        inventory.setProduct(new Product());
-        inventory.setWarehouse(currentWarehouse);
-        inventory.setQuantity(10);
-        inventory.setSize("M");
+        inventory.setId(13);
+        inventory.setVersion(4);
+        when(inventoryRepository.findById(13)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.adjustQuantityIfVersion(13, 5, 0, 4)).thenReturn(0);
+        when(inventoryRepository.existsById(13)).thenReturn(true);
+        when(inventoryRepository.findVersionById(13)).thenReturn(Optional.of(5L));
 
+        try {
+            inventoryService.updateQuantityById(13, "increment", 5, EntityTags.of(VersionStampDto.of(inventory)));
+            Assert.fail("Expected a PreconditionFailedException to be thrown");
+        } catch (PreconditionFailedException e) {
+            Assert.assertEquals(e.getMessage(), EntityTags.CHANGED_MESSAGE);
+        }
+    }
+
+    /**
+     * Test case to verify that using the updateQuantityById() method with the valid
+     * operation "increment" applies a positive delta to the inventory item and its
+     * warehouse, returns the adjusted values from the repository and publishes the
+     * change.
+     */
+    @Test
+    public void testUpdateQuantityIncrement() {
         int incrementValue = 20;
-        when(inventoryRepository.findById(1)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+        UpdateQuantityResponseDto expected = new UpdateQuantityResponseDto(1, 30, 9, 2, 70);
+
+        when(inventoryRepository.adjustQuantity(1, incrementValue)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(1)).thenReturn(Optional.of(expected));
+        when(capacityTracker.getCurrentCapacity(2)).thenReturn(70);
 
-        Inventory result = inventoryService.updateQuantityById(1, "increment", incrementValue);
+        UpdateQuantityResponseDto result = inventoryService.updateQuantityById(1, "increment", incrementValue, null);
 
         Assert.assertEquals(result.getQuantity(), 30);
-        verify(inventoryRepository).save(result);
+        Assert.assertEquals(result.getWarehouseCurrentCapacity(), 70);
+        verify(inventoryRepository).adjustQuantity(1, incrementValue);
+        verify(capacityTracker).tryAdjust(2, incrementValue);
+        verify(stockLedger).record(1, 9, 2, incrementValue, Reason.INCREMENTED);
+        verify(inventoryChangeStream).publish(argThat(change -> change.getType() == Type.INVENTORY_CHANGED
+                && Integer.valueOf(1).equals(change.getInventory()) && Integer.valueOf(2).equals(change.getWarehouse())
+                && Integer.valueOf(30).equals(change.getQuantity()) && Integer.valueOf(20).equals(change.getDelta())));
     }
 
     /**
      * Test case to verify that using the updateQuantityById() method with the valid
-     * operation "decrement" returns the updated inventory item from the repository.
+     * operation "decrement" applies a negative delta to the inventory item and its
+     * warehouse and returns the adjusted values from the repository.
      */
     @Test
     public void testUpdateQuantityDecrement() {
-        Warehouse currentWarehouse = new Warehouse();
-        currentWarehouse.setId(2);
-        currentWarehouse.setName("CA2");
-        currentWarehouse.setCurrentCapacity(50);
-        currentWarehouse.setMaxCapacity(100);
-
-        Inventory inventory = new Inventory();
-        inventory.setId(1);
-        inventory.setProduct(new Product());
-        inventory.setWarehouse(currentWarehouse);
-        inventory.setQuantity(10);
-        inventory.setSize("M");
-
         int decrementValue = 5;
-        when(inventoryRepository.findById(1)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+        UpdateQuantityResponseDto expected = new UpdateQuantityResponseDto(3, 5, 4, 45);
+
+        when(inventoryRepository.adjustQuantity(3, -decrementValue, 0)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(3)).thenReturn(Optional.of(expected));
+        when(capacityTracker.getCurrentCapacity(4)).thenReturn(45);
 
-        Inventory result = inventoryService.updateQuantityById(1, "decrement", decrementValue);
+        UpdateQuantityResponseDto result = inventoryService.updateQuantityById(3, "decrement", decrementValue, null);
 
         Assert.assertEquals(result.getQuantity(), 5);
-        verify(inventoryRepository).save(result);
+        Assert.assertEquals(result.getWarehouseCurrentCapacity(), 45);
+        verify(inventoryRepository).adjustQuantity(3, -decrementValue, 0);
+        verify(capacityTracker).tryAdjust(4, -decrementValue);
     }
 
     /**
-     * Test case to verify that using the updateQuantityById() method with an
-     * invalid operation throws a RuntimeException.
+     * Test case to verify that using the updateQuantityById() method with a
+     * decrement that would take the quantity below 0 throws an
+     * InsufficientQuantityException.
      */
     @Test
-    public void testUpdateQuantityInvalidOperation() {
-        Warehouse currentWarehouse = new Warehouse();
-        currentWarehouse.setId(2);
-        currentWarehouse.setName("CA2");
-        currentWarehouse.setCurrentCapacity(50);
-        currentWarehouse.setMaxCapacity(100);
+    public void testUpdateQuantityDecrementBelowZero() {
+        when(inventoryRepository.adjustQuantity(4, -50, 0)).thenReturn(0);
+        when(inventoryRepository.existsById(4)).thenReturn(true);
 
-        Inventory inventory = new Inventory();
-        inventory.setId(1);
-        inventory.setProduct(new Product());
-        inventory.setWarehouse(currentWarehouse);
-        inventory.setQuantity(10);
-        inventory.setSize("M");
+        try {
+            inventoryService.updateQuantityById(4, "decrement", 50, null);
+            Assert.fail("Expected an InsufficientQuantityException to be thrown");
+        } catch (InsufficientQuantityException e) {
+            Assert.assertEquals("Cannot update inventory. Quantity cannot be less than 0.", e.getMessage());
+        }
+    }
 
-        int value = 5;
-        when(inventoryRepository.findById(1)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+    /**
+     * Test case to verify that using the updateQuantityById() method with a
+     * decrement that would take the quantity below what is reserved throws an
+     * InsufficientQuantityException, guarding the update by the reserved quantity.
+     */
+    @Test
+    public void testUpdateQuantityDecrementBelowReserved() {
+        when(holdTracker.holdForDecrement(7, 5)).thenReturn(4);
+        when(inventoryRepository.adjustQuantity(7, -5, 4)).thenReturn(0);
+        when(inventoryRepository.existsById(7)).thenReturn(true);
+
+        try {
+            inventoryService.updateQuantityById(7, "decrement", 5, null);
+            Assert.fail("Expected an InsufficientQuantityException to be thrown");
+        } catch (InsufficientQuantityException e) {
+            Assert.assertEquals("Cannot update inventory. Quantity cannot be less than the 4 reserved.",
+                    e.getMessage());
+        }
+        verify(inventoryRepository).adjustQuantity(7, -5, 4);
+    }
+
+    /**
+     * Test case to verify that the decrementHeldQuantity() method takes a
+     * reservation's own hold out of the quantity the update must leave.
+     */
+    @Test
+    public void testDecrementHeldQuantity() {
+        when(holdTracker.getHeld(8)).thenReturn(5);
+        when(inventoryRepository.adjustQuantity(8, -3, 2)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(8))
+                .thenReturn(Optional.of(new UpdateQuantityResponseDto(8, 7, 4, 40)));
+        when(capacityTracker.tryAdjust(4, -3)).thenReturn(true);
+
+        UpdateQuantityResponseDto result = inventoryService.decrementHeldQuantity(8, 3);
+
+        Assert.assertEquals(result.getQuantity(), 7);
+        verify(inventoryRepository).adjustQuantity(8, -3, 2);
+        verify(holdTracker, never()).holdForDecrement(eq(8), anyInt());
+    }
 
+    /**
+     * Test case to verify that using the updateQuantityById() method with an
+     * increment that would exceed warehouse capacity throws a
+     * CapacityExceededException.
+     */
+    @Test
+    public void testUpdateQuantityExceedsWarehouseCapacity() {
+        when(inventoryRepository.adjustQuantity(5, 500)).thenReturn(1);
+        when(inventoryRepository.findQuantityById(5)).thenReturn(Optional.of(new UpdateQuantityResponseDto(5, 520, 6, 0)));
+        when(capacityTracker.tryAdjust(6, 500)).thenReturn(false);
+
+        try {
+            inventoryService.updateQuantityById(5, "increment", 500, null);
+            Assert.fail("Expected a CapacityExceededException to be thrown");
+        } catch (CapacityExceededException e) {
+            Assert.assertEquals("Cannot update inventory. It exceeds the warehouse capacity.", e.getMessage());
+        }
+        verify(inventoryChangeStream, never()).publish(argThat(change -> Integer.valueOf(5).equals(change.getInventory())));
+    }
+
+    /**
+     * Test case to verify that using the updateQuantityById() method with an
+     * invalid operation throws an IllegalArgumentException.
+     */
+    @Test
+    public void testUpdateQuantityInvalidOperation() {
         try {
-            inventoryService.updateQuantityById(1, "multiply", value);
-            Assert.fail("Expected a RuntimeException to be thrown");
-        } catch (RuntimeException e) {
+            inventoryService.updateQuantityById(1, "multiply", 5, null);
+            Assert.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
             Assert.assertEquals("Invalid operation: multiply", e.getMessage());
         }
     }
 
     /**
      * Test case to verify that using the updateQuantityById() method with an
-     * inventory item that is not found throws a RuntimeException.
+     * inventory item that is not found throws a ResourceNotFoundException.
      */
     @Test
     public void testUpdateQuantityInventoryNotFound() {
-        Warehouse currentWarehouse = new Warehouse();
-        currentWarehouse.setId(2);
-        currentWarehouse.setName("CA2");
-        currentWarehouse.setCurrentCapacity(50);
-        currentWarehouse.setMaxCapacity(100);
-
         int value = 5;
-        when(inventoryRepository.findById(1)).thenReturn(Optional.empty());
+        when(inventoryRepository.adjustQuantity(6, value)).thenReturn(0);
+        when(inventoryRepository.existsById(6)).thenReturn(false);
 
         try {
-            inventoryService.updateQuantityById(1, "increment", value);
-            Assert.fail("Expected a RuntimeException to be thrown");
-        } catch (RuntimeException e) {
-            Assert.assertEquals("Inventory not found with ID: 1", e.getMessage());
+            inventoryService.updateQuantityById(6, "increment", value, null);
+            Assert.fail("Expected a ResourceNotFoundException to be thrown");
+        } catch (ResourceNotFoundException e) {
+            Assert.assertEquals("Inventory not found with ID: 6", e.getMessage());
+        }
+    }
+
+    /**
+     * Test case to verify that using the adjustQuantities() method aggregates the
+     * valid lines per item, applies them in one batch, reserves capacity per line
+     * and reports a failure for each invalid line.
+     */
+    @Test
+    public void testAdjustQuantitiesReportsPerLineResults() {
+        List<InventoryAdjustmentRequestDto> adjustments = Arrays.asList(
+                new InventoryAdjustmentRequestDto(101, "increment", 5), // ok
+                new InventoryAdjustmentRequestDto(101, "decrement", 2), // ok (nets to +3 with line above)
+                new InventoryAdjustmentRequestDto(102, "decrement", 50), // would go below 0
+                new InventoryAdjustmentRequestDto(103, "increment", 10), // small warehouse over capacity
+                new InventoryAdjustmentRequestDto(104, "increment", 1), // not found
+                new InventoryAdjustmentRequestDto(101, "multiply", 2), // invalid operation
+                new InventoryAdjustmentRequestDto(101, "increment", 0)); // invalid value
+
+        when(inventoryRepository.findQuantitiesByIdIn(argThat(ids -> ids != null && ids.contains(101))))
+                .thenReturn(Arrays.asList(new UpdateQuantityResponseDto(101, 10, 21, 10),
+                        new UpdateQuantityResponseDto(102, 20, 21, 10),
+                        new UpdateQuantityResponseDto(103, 0, 20, 95)));
+        when(capacityTracker.tryAdjust(20, 10)).thenReturn(false);
+        when(inventoryBatchRepository.adjustQuantities(Map.of(101, 3), Map.of())).thenReturn(true);
+
+        List<InventoryAdjustmentResultDto> results = inventoryService.adjustQuantities(adjustments);
+
+        Assert.assertEquals(results.size(), 7);
+        Assert.assertTrue(results.get(0).isSuccess());
+        Assert.assertTrue(results.get(1).isSuccess());
+        Assert.assertEquals(results.get(2).getMessage(), "Cannot update inventory. Quantity cannot be less than 0.");
+        Assert.assertEquals(results.get(3).getMessage(), "Cannot update inventory. It exceeds the warehouse capacity.");
+        Assert.assertEquals(results.get(4).getMessage(), "Inventory not found with ID: 104");
+        Assert.assertEquals(results.get(5).getMessage(), "Invalid operation: multiply");
+        Assert.assertEquals(results.get(6).getMessage(), "Value must be greater than or equal to 1.");
+        verify(inventoryBatchRepository).adjustQuantities(Map.of(101, 3), Map.of());
+        verify(capacityTracker).tryAdjust(21, 5);
+        verify(capacityTracker).tryAdjust(21, -2);
+    }
+
+    /**
+     * Test case to verify that using the adjustQuantities() method fails only the
+     * lines that cannot be applied: a decrement succeeds in a warehouse where an
+     * increment exceeds the capacity, and the other lines of an item with a failed
+     * line are still applied.
+     */
+    @Test
+    public void testAdjustQuantitiesFailsOnlyInvalidLines() {
+        List<InventoryAdjustmentRequestDto> adjustments = Arrays.asList(
+                new InventoryAdjustmentRequestDto(105, "increment", 500), // over capacity
+                new InventoryAdjustmentRequestDto(105, "decrement", 2), // ok
+                new InventoryAdjustmentRequestDto(106, "decrement", 100), // would go below 0
+                new InventoryAdjustmentRequestDto(106, "decrement", 1)); // ok
+
+        when(inventoryRepository.findQuantitiesByIdIn(argThat(ids -> ids != null && ids.contains(105))))
+                .thenReturn(Arrays.asList(new UpdateQuantityResponseDto(105, 10, 22, 95),
+                        new UpdateQuantityResponseDto(106, 20, 22, 95)));
+        when(capacityTracker.tryAdjust(22, 500)).thenReturn(false);
+        when(inventoryBatchRepository.adjustQuantities(Map.of(105, -2, 106, -1), Map.of(105, 0, 106, 0)))
+                .thenReturn(true);
+
+        List<InventoryAdjustmentResultDto> results = inventoryService.adjustQuantities(adjustments);
+
+        Assert.assertEquals(results.get(0).getMessage(), "Cannot update inventory. It exceeds the warehouse capacity.");
+        Assert.assertTrue(results.get(1).isSuccess());
+        Assert.assertEquals(results.get(2).getMessage(), "Cannot update inventory. Quantity cannot be less than 0.");
+        Assert.assertTrue(results.get(3).isSuccess());
+        verify(inventoryBatchRepository).adjustQuantities(Map.of(105, -2, 106, -1), Map.of(105, 0, 106, 0));
+        verify(capacityTracker).tryAdjust(22, -2);
+        verify(capacityTracker).tryAdjust(22, -1);
+    }
+
+    /**
+     * Test case to verify that using the adjustQuantities() method throws an
+     * ConcurrentModificationConflictException when a guarded batch update fails because of a
+     * concurrent change, so the transaction is rolled back.
+     */
+    @Test
+    public void testAdjustQuantitiesConcurrentChange() {
+        List<InventoryAdjustmentRequestDto> adjustments = Arrays
+                .asList(new InventoryAdjustmentRequestDto(201, "decrement", 5));
+
+        when(inventoryRepository.findQuantitiesByIdIn(argThat(ids -> ids != null && ids.contains(201))))
+                .thenReturn(Arrays.asList(new UpdateQuantityResponseDto(201, 10, 30, 0)));
+        when(inventoryBatchRepository.adjustQuantities(Map.of(201, -5), Map.of(201, 0))).thenReturn(false);
+
+        try {
+            inventoryService.adjustQuantities(adjustments);
+            Assert.fail("Expected a ConcurrentModificationConflictException to be thrown");
+        } catch (ConcurrentModificationConflictException e) {
+            Assert.assertEquals("Inventory was changed by another request. Please retry the batch.", e.getMessage());
+        }
+    }
+
+    /**
+     * Test case to verify that using the adjustQuantities() method reports a
+     * decrement that would take an item below what is reserved as a failed line,
+     * without applying it.
+     */
+    @Test
+    public void testAdjustQuantitiesBelowReserved() {
+        List<InventoryAdjustmentRequestDto> adjustments = Arrays
+                .asList(new InventoryAdjustmentRequestDto(301, "decrement", 5));
+
+        when(inventoryRepository.findQuantitiesByIdIn(argThat(ids -> ids != null && ids.contains(301))))
+                .thenReturn(Arrays.asList(new UpdateQuantityResponseDto(301, 10, 30, 0)));
+        when(holdTracker.getHeld(301)).thenReturn(6);
+        when(inventoryBatchRepository.adjustQuantities(Map.of(), Map.of())).thenReturn(true);
+
+        List<InventoryAdjustmentResultDto> results = inventoryService.adjustQuantities(adjustments);
+
+        Assert.assertFalse(results.get(0).isSuccess());
+        Assert.assertEquals(results.get(0).getMessage(),
+                "Cannot update inventory. Quantity cannot be less than the 6 reserved.");
+        verify(holdTracker, never()).holdForDecrement(eq(301), anyInt());
+    }
+
+    /**
+     * Test case to verify that using the adjustQuantities() method with more lines
+     * than allowed throws an IllegalArgumentException.
+     */
+    @Test
+    public void testAdjustQuantitiesBatchTooLarge() {
+        List<InventoryAdjustmentRequestDto> adjustments = new ArrayList<>();
+        for (int i = 0; i < 5001; i++) {
+            adjustments.add(new InventoryAdjustmentRequestDto(i, "increment", 1));
+        }
+
+        try {
+            inventoryService.adjustQuantities(adjustments);
+            Assert.fail("Expected a IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Cannot apply more than 5000 adjustments at once.", e.getMessage());
         }
     }
 
@@ -467,4 +918,32 @@ public class InventoryServiceTest {
         verify(inventoryRepository).deleteById(inventoryId);
     }
 
+    /**
+     * Test case to verify that using the deleteById() method with an existing
+     * inventory item releases its quantity from the warehouse capacity, records
+     * the movement and publishes the deletion.
+     */
+    @Test
+    public void testDeleteInventoryByIdReleasesCapacity() {
+        Warehouse currentWarehouse = new Warehouse();
+        currentWarehouse.setId(40);
+        Product product = new Product();
+        product.setId(5);
+
+        Inventory existingInventory = new Inventory();
+        existingInventory.setId(7);
+        existingInventory.setProduct(product);
+        existingInventory.setWarehouse(currentWarehouse);
+        existingInventory.setQuantity(12);
+
+        when(inventoryRepository.findById(7)).thenReturn(Optional.of(existingInventory));
+        inventoryService.deleteById(7);
+
+        verify(capacityTracker).tryAdjust(40, -12);
+        verify(inventoryRepository).deleteById(7);
+        verify(stockLedger).record(7, 5, 40, -12, Reason.DELETED);
+        verify(inventoryChangeStream).publish(argThat(change -> change.getType() == Type.INVENTORY_DELETED
+                && Integer.valueOf(7).equals(change.getInventory()) && Integer.valueOf(40).equals(change.getWarehouse())));
+    }
+
 }
\ No newline at end of file
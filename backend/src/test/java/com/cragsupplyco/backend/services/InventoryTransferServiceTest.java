@@ -0,0 +1,257 @@
+package com.cragsupplyco.backend.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferRequestDto;
+import com.cragsupplyco.backend.dtos.InventoryTransferResultDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto.Reason;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.ConcurrentModificationConflictException;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+
+public class InventoryTransferServiceTest {
+
+    @InjectMocks
+    private InventoryTransferService transferService;
+    private AutoCloseable closeable;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    private WarehouseCapacityTracker capacityTracker;
+
+    @Mock
+    private InventoryChangeStream inventoryChangeStream;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockHoldTracker holdTracker;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Fresh mocks for each test
+
+        // Product 1 in size M: item 30 in warehouse 3 (8 units) and item 10 in
+        // warehouse 1 (5 units); product 2 (no size): item 20 in warehouse 1 (4 units)
+        List<Object[]> keys = new ArrayList<>();
+        keys.add(new Object[] { 30, 1, 3, "M", 8 });
+        keys.add(new Object[] { 10, 1, 1, "M", 5 });
+        keys.add(new Object[] { 20, 2, 1, null, 4 });
+        when(inventoryRepository.findTransferKeys(any(), any())).thenReturn(keys);
+        when(capacityTracker.tryAdjust(anyInt(), anyInt())).thenReturn(true);
+        when(inventoryBatchRepository.adjustQuantities(anyMap(), anyMap())).thenReturn(true);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Test case for transferring into an item that already exists.
+     * Verifies that both items are updated in one guarded batch, in ascending id
+     * order, that each warehouse's capacity changes by the quantity moved, and
+     * that the movement is recorded and published for both items.
+     */
+    @Test
+    public void testTransferIntoExistingItem() {
+        when(inventoryRepository.findQuantitiesByIdIn(any())).thenReturn(Arrays.asList(
+                new UpdateQuantityResponseDto(10, 8, 1, 1, 30),
+                new UpdateQuantityResponseDto(30, 5, 1, 3, 40)));
+
+        List<InventoryTransferResultDto> results = transferService
+                .transfer(Arrays.asList(new InventoryTransferRequestDto(1, "M", 3, 1, 3)));
+
+        Assert.assertEquals(results.size(), 1);
+        Assert.assertEquals(results.get(0).getFromInventory(), 30);
+        Assert.assertEquals(results.get(0).getFromQuantity(), 5);
+        Assert.assertEquals(results.get(0).getToInventory(), 10);
+        Assert.assertEquals(results.get(0).getToQuantity(), 8);
+        Assert.assertEquals(results.get(0).getQuantity(), 3);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Integer, Integer>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(inventoryBatchRepository).adjustQuantities(deltas.capture(), eq(Map.of(30, 0)));
+        Assert.assertEquals(new ArrayList<>(deltas.getValue().keySet()), Arrays.asList(10, 30));
+        Assert.assertEquals(deltas.getValue().get(10), Integer.valueOf(3));
+        Assert.assertEquals(deltas.getValue().get(30), Integer.valueOf(-3));
+        verify(inventoryBatchRepository, never()).upsertQuantity(anyInt(), anyInt(), any(), anyInt());
+
+        verify(capacityTracker).tryAdjust(1, 3);
+        verify(capacityTracker).tryAdjust(3, -3);
+        verify(stockLedger).record(30, 1, 3, -3, Reason.TRANSFERRED_OUT);
+        verify(stockLedger).record(10, 1, 1, 3, Reason.TRANSFERRED_IN);
+        verify(inventoryChangeStream).publish(argThat(change -> change.getInventory() == 10
+                && change.getType() == InventoryChangeEventDto.Type.INVENTORY_CHANGED && change.getDelta() == 3
+                && change.getQuantity() == 8 && "M".equals(change.getSize())));
+        verify(inventoryChangeStream).publish(argThat(change -> change.getInventory() == 30
+                && change.getDelta() == -3 && change.getQuantity() == 5));
+    }
+
+    /**
+     * Test case for transferring to a warehouse that has none of the product.
+     * Verifies that the destination item is created with the quantity moved.
+     */
+    @Test
+    public void testTransferCreatesDestinationItem() {
+        when(inventoryBatchRepository.upsertQuantity(2, 3, null, 4))
+                .thenReturn(new UpdateQuantityResponseDto(40, 4, 3, 0));
+        when(inventoryRepository.findQuantitiesByIdIn(any())).thenReturn(Arrays.asList(
+                new UpdateQuantityResponseDto(20, 0, 2, 1, 30),
+                new UpdateQuantityResponseDto(40, 4, 2, 3, 40)));
+
+        List<InventoryTransferResultDto> results = transferService
+                .transfer(Arrays.asList(new InventoryTransferRequestDto(2, null, 1, 3, 4)));
+
+        Assert.assertEquals(results.get(0).getFromInventory(), 20);
+        Assert.assertEquals(results.get(0).getFromQuantity(), 0);
+        Assert.assertEquals(results.get(0).getToInventory(), 40);
+        Assert.assertEquals(results.get(0).getToQuantity(), 4);
+        verify(inventoryBatchRepository).adjustQuantities(Map.of(20, -4), Map.of(20, 0));
+        verify(inventoryBatchRepository).upsertQuantity(2, 3, null, 4);
+        verify(stockLedger).record(40, 2, 3, 4, Reason.TRANSFERRED_IN);
+    }
+
+    /**
+     * Test case for a batch of transfers touching the same item and warehouses.
+     * Verifies that deltas are netted per item and per warehouse, so capacity is
+     * reserved once per warehouse.
+     */
+    @Test
+    public void testTransferBatchNetsDeltas() {
+        when(inventoryRepository.findQuantitiesByIdIn(any())).thenReturn(Arrays.asList(
+                new UpdateQuantityResponseDto(10, 6, 1, 1, 30),
+                new UpdateQuantityResponseDto(30, 7, 1, 3, 40)));
+
+        transferService.transfer(Arrays.asList(
+                new InventoryTransferRequestDto(1, "M", 3, 1, 3),
+                new InventoryTransferRequestDto(1, "M", 1, 3, 2)));
+
+        verify(inventoryBatchRepository).adjustQuantities(Map.of(10, 1, 30, -1), Map.of(30, 0));
+        verify(capacityTracker).tryAdjust(1, 1);
+        verify(capacityTracker).tryAdjust(3, -1);
+        verify(stockLedger, times(2)).record(anyInt(), eq(1), anyInt(), anyInt(), eq(Reason.TRANSFERRED_OUT));
+        verify(stockLedger, times(2)).record(anyInt(), eq(1), anyInt(), anyInt(), eq(Reason.TRANSFERRED_IN));
+    }
+
+    /**
+     * Test case for transferring more than the source item holds.
+     * Verifies that an IllegalArgumentException names the transfer and nothing is
+     * applied.
+     */
+    @Test
+    public void testTransferInsufficientQuantity() {
+        try {
+            transferService.transfer(Arrays.asList(
+                    new InventoryTransferRequestDto(1, "M", 3, 1, 5),
+                    new InventoryTransferRequestDto(1, "M", 3, 1, 4)));
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("Transfer 2"));
+        }
+
+        verify(capacityTracker, never()).tryAdjust(anyInt(), anyInt());
+        verify(inventoryBatchRepository, never()).adjustQuantities(anyMap(), anyMap());
+    }
+
+    /**
+     * Test case for transferring stock that is reserved.
+     * Verifies that an IllegalArgumentException names the transfer, since the
+     * source cannot drop below what is held of it, and nothing is applied.
+     */
+    @Test
+    public void testTransferReservedQuantity() {
+        when(holdTracker.getHeld(30)).thenReturn(6);
+
+        try {
+            transferService.transfer(Arrays.asList(new InventoryTransferRequestDto(1, "M", 3, 1, 3)));
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(e.getMessage(),
+                    "Cannot transfer inventory. Transfer 1: Quantity cannot be less than the 6 reserved.");
+        }
+
+        verify(capacityTracker, never()).tryAdjust(anyInt(), anyInt());
+        verify(holdTracker, never()).holdForDecrement(anyInt(), anyInt());
+        verify(inventoryBatchRepository, never()).adjustQuantities(anyMap(), anyMap());
+    }
+
+    /**
+     * Test case for transferring from a warehouse without the product.
+     * Verifies that an IllegalArgumentException is thrown.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTransferMissingSource() {
+        transferService.transfer(Arrays.asList(new InventoryTransferRequestDto(2, null, 3, 1, 1)));
+    }
+
+    /**
+     * Test case for transferring to the same warehouse.
+     * Verifies that an IllegalArgumentException is thrown before any query.
+     */
+    @Test
+    public void testTransferSameWarehouse() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> transferService.transfer(Arrays.asList(new InventoryTransferRequestDto(1, "M", 1, 1, 1))));
+        verify(inventoryRepository, never()).findTransferKeys(any(), any());
+    }
+
+    /**
+     * Test case for a transfer that exceeds the destination's capacity.
+     * Verifies that an IllegalArgumentException is thrown and no item is updated.
+     */
+    @Test
+    public void testTransferExceedsCapacity() {
+        when(capacityTracker.tryAdjust(1, 8)).thenReturn(false);
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> transferService.transfer(Arrays.asList(new InventoryTransferRequestDto(1, "M", 3, 1, 8))));
+        verify(inventoryBatchRepository, never()).adjustQuantities(anyMap(), anyMap());
+    }
+
+    /**
+     * Test case for a guarded update failing because of a concurrent change.
+     * Verifies that a ConcurrentModificationConflictException is thrown and nothing is recorded.
+     */
+    @Test
+    public void testTransferConcurrentChange() {
+        when(inventoryBatchRepository.adjustQuantities(anyMap(), anyMap())).thenReturn(false);
+
+        Assert.assertThrows(ConcurrentModificationConflictException.class,
+                () -> transferService.transfer(Arrays.asList(new InventoryTransferRequestDto(1, "M", 3, 1, 2))));
+        verify(stockLedger, never()).record(anyInt(), anyInt(), anyInt(), anyInt(), any());
+        verify(inventoryBatchRepository, never()).upsertQuantity(anyInt(), anyInt(), anyString(), anyInt());
+    }
+}
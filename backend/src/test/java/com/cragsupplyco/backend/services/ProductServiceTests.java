@@ -33,6 +33,9 @@ public class ProductServiceTests {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @BeforeTest
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
@@ -88,6 +91,34 @@ public class ProductServiceTests {
         Assert.assertTrue(result.isEmpty());
     }
 
+    /**
+     * Test case to verify that findAllWithInventory() and findAllByCategoryId()
+     * return the products loaded with their inventory from the repository.
+     */
+    @Test
+    public void testFindAllWithInventory() {
+        List<Product> products = Arrays.asList(new Product(), new Product());
+        when(productRepository.findAllWithInventory()).thenReturn(products);
+        when(productRepository.findAllWithInventoryByCategoryId(3)).thenReturn(products.subList(0, 1));
+
+        Assert.assertEquals(productService.findAllWithInventory(), products);
+        Assert.assertEquals(productService.findAllByCategoryId(3), products.subList(0, 1));
+    }
+
+    /**
+     * Test case to verify that using the findByIdWithInventory() method returns
+     * the product loaded with its inventory from the repository.
+     */
+    @Test
+    public void testFindProductByIdWithInventory() {
+        Product product1 = new Product();
+        product1.setId(7);
+
+        when(productRepository.findWithInventoryById(7)).thenReturn(Optional.of(product1));
+        Optional<Product> result = productService.findByIdWithInventory(7);
+        Assert.assertEquals(result.get(), product1);
+    }
+
     /**
      * Test case to verify that using the findByBrandAndName() method with existing
      * brand and name returns the product with specified brand and name from the
@@ -180,13 +211,30 @@ public class ProductServiceTests {
         updatedProduct.setPrice(150.0);
         updatedProduct.setCategory(category);
 
+        Product existingProduct = new Product();
+        existingProduct.setId(4);
+        existingProduct.setVersion(2);
+
+        when(productRepository.findById(4)).thenReturn(Optional.of(existingProduct));
         when(productMapper.toProduct(any(ProductRequestDto.class))).thenReturn(updatedProduct);
         when(productRepository.save(updatedProduct)).thenReturn(updatedProduct);
 
-        Product result = productService.updateProductById(4, updatedProductRequestDto);
+        Product result = productService.updateProductById(4, updatedProductRequestDto, null);
         Assert.assertNotNull(result);
         Assert.assertEquals(result, updatedProduct);
         verify(productRepository, times(1)).save(updatedProduct);
+        Assert.assertEquals(result.getVersion(), 2); // Saved with the version that was read
+    }
+
+    /**
+     * Test case to verify that using the updateProductById() method with an id
+     * that does not exist throws a RuntimeException.
+     */
+    @Test(expectedExceptions = RuntimeException.class)
+    public void testUpdateNonExistentProductById() {
+        when(productRepository.findById(404)).thenReturn(Optional.empty());
+
+        productService.updateProductById(404, new ProductRequestDto(), null);
     }
 
     /**
@@ -0,0 +1,268 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.mappers.ProductMapper;
+import com.cragsupplyco.backend.models.Category;
+import com.cragsupplyco.backend.models.Product;
+import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.repositories.CategoryRepository;
+import com.cragsupplyco.backend.repositories.ProductRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ContextConfiguration(classes = ServiceCacheTest.CacheTestConfig.class)
+public class ServiceCacheTest extends AbstractTestNGSpringContextTests {
+
+    private static final VersionStampDto[] STAMPS = { new VersionStampDto(0L, null, null) };
+
+    @Configuration
+    @EnableCaching
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager("categories", "warehouses", "products", "responses", "stats");
+        }
+
+        @Bean
+        CategoryRepository categoryRepository() {
+            return mock(CategoryRepository.class);
+        }
+
+        @Bean
+        WarehouseRepository warehouseRepository() {
+            return mock(WarehouseRepository.class);
+        }
+
+        @Bean
+        ProductRepository productRepository() {
+            return mock(ProductRepository.class);
+        }
+
+        @Bean
+        CategoryService categoryService(CategoryRepository categoryRepository) {
+            return new CategoryService(categoryRepository, mock(CatalogVersionService.class));
+        }
+
+        @Bean
+        WarehouseService warehouseService(WarehouseRepository warehouseRepository) {
+            return new WarehouseService(warehouseRepository, mock(WarehouseCapacityTracker.class),
+                    mock(CatalogVersionService.class), mock(InventoryChangeStream.class));
+        }
+
+        @Bean
+        ProductService productService(ProductRepository productRepository) {
+            return new ProductService(productRepository, mock(ProductMapper.class), mock(CatalogVersionService.class));
+        }
+
+        @Bean
+        CatalogVersionService catalogVersionService() {
+            return mock(CatalogVersionService.class);
+        }
+
+        @Bean
+        StatsService statsService(WarehouseRepository warehouseRepository, CategoryRepository categoryRepository) {
+            return new StatsService(warehouseRepository, categoryRepository, 10);
+        }
+
+        @Bean
+        CatalogResponseService catalogResponseService(CategoryService categoryService, ProductService productService,
+                CatalogVersionService catalogVersionService) {
+            return new CatalogResponseService(categoryService, productService, catalogVersionService,
+                    new ObjectMapper());
+        }
+    }
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private CatalogResponseService catalogResponseService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @BeforeMethod
+    public void setUp() {
+        for (String name : cacheManager.getCacheNames()) {
+            cacheManager.getCache(name).clear();
+        }
+        // Reset one at a time: the repositories have different generic types
+        reset(categoryRepository);
+        reset(warehouseRepository);
+        reset(productRepository);
+        when(catalogVersionService.forCategories()).thenReturn(STAMPS);
+        when(catalogVersionService.forProducts()).thenReturn(STAMPS);
+    }
+
+    /**
+     * Test case to verify that repeated category lookups by id are served from the
+     * cache until the category is updated.
+     */
+    @Test
+    public void testCategoryLookupCachedUntilUpdate() {
+        Category category = new Category();
+        category.setId(1);
+        category.setName("Ropes");
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(category)).thenReturn(category);
+
+        Assert.assertEquals(categoryService.findById(1).get(), category);
+        Assert.assertEquals(categoryService.findById(1).get(), category);
+        verify(categoryRepository, times(1)).findById(1);
+
+        categoryService.updateCategoryById(1, category, null); // Loads the existing category from the repository too
+        categoryService.findById(1);
+        verify(categoryRepository, times(3)).findById(1);
+    }
+
+    /**
+     * Test case to verify that a lookup of a category that does not exist is not
+     * cached, so the category is found once it is created.
+     */
+    @Test
+    public void testMissingCategoryNotCached() {
+        Category category = new Category();
+        category.setId(2);
+        when(categoryRepository.findById(2)).thenReturn(Optional.empty()).thenReturn(Optional.of(category));
+
+        Assert.assertTrue(categoryService.findById(2).isEmpty());
+        Assert.assertTrue(categoryService.findById(2).isPresent());
+    }
+
+    /**
+     * Test case to verify that deleting a category evicts it and every cached
+     * product (which are deleted with it).
+     */
+    @Test
+    public void testCategoryDeleteEvictsProducts() {
+        when(categoryRepository.findById(3)).thenReturn(Optional.of(new Category()));
+        when(productRepository.findById(4)).thenReturn(Optional.of(new Product()));
+        categoryService.findById(3);
+        productService.findById(4);
+
+        categoryService.deleteById(3);
+        categoryService.findById(3);
+        productService.findById(4);
+
+        verify(categoryRepository, times(2)).findById(3);
+        verify(productRepository, times(2)).findById(4);
+    }
+
+    /**
+     * Test case to verify that repeated warehouse lookups by id are served from the
+     * cache until the warehouse is deleted.
+     */
+    @Test
+    public void testWarehouseLookupCachedUntilDelete() {
+        when(warehouseRepository.findById(5)).thenReturn(Optional.of(new Warehouse()));
+
+        warehouseService.findById(5);
+        warehouseService.findById(5);
+        verify(warehouseRepository, times(1)).findById(5);
+
+        warehouseService.deleteById(5);
+        warehouseService.findById(5);
+        verify(warehouseRepository, times(2)).findById(5);
+    }
+
+    /**
+     * Test case to verify that repeated product lookups by id are served from the
+     * cache until the product is deleted.
+     */
+    @Test
+    public void testProductLookupCachedUntilDelete() {
+        when(productRepository.findById(6)).thenReturn(Optional.of(new Product()));
+
+        productService.findById(6);
+        productService.findById(6);
+        verify(productRepository, times(1)).findById(6);
+
+        productService.deleteById(6);
+        productService.findById(6);
+        verify(productRepository, times(2)).findById(6);
+    }
+
+    /**
+     * Test case to verify that the serialized category and product lists are
+     * cached until a category or product is written.
+     */
+    @Test
+    public void testSerializedListsCachedUntilWrite() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(productRepository.findAll()).thenReturn(List.of());
+
+        catalogResponseService.findAllCategories();
+        catalogResponseService.findAllCategories();
+        catalogResponseService.findAllProducts();
+        verify(categoryRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findAll();
+
+        productService.deleteById(7);
+        catalogResponseService.findAllCategories();
+        catalogResponseService.findAllProducts();
+        verify(categoryRepository, times(2)).findAll();
+        verify(productRepository, times(2)).findAll();
+
+        categoryService.deleteById(8);
+        catalogResponseService.findAllProducts();
+        verify(productRepository, times(3)).findAll();
+    }
+
+    /**
+     * Test case to verify that the dashboard stats are computed once and then
+     * served from the cache.
+     */
+    @Test
+    public void testStatsCached() {
+        when(warehouseRepository.findStats(10)).thenReturn(List.of());
+        when(categoryRepository.findStats(10)).thenReturn(List.of());
+
+        statsService.getStats();
+        statsService.getStats();
+
+        verify(warehouseRepository, times(1)).findStats(10);
+        verify(categoryRepository, times(1)).findStats(10);
+    }
+}
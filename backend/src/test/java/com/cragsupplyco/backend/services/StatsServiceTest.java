@@ -0,0 +1,101 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.StatsDto;
+import com.cragsupplyco.backend.repositories.CategoryRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+
+public class StatsServiceTest {
+
+    private WarehouseRepository warehouseRepository;
+    private CategoryRepository categoryRepository;
+    private StatsService statsService;
+
+    @BeforeMethod
+    public void setUp() {
+        warehouseRepository = mock(WarehouseRepository.class);
+        categoryRepository = mock(CategoryRepository.class);
+        statsService = new StatsService(warehouseRepository, categoryRepository, 5);
+    }
+
+    /**
+     * Test case to verify that the per-warehouse and per-category aggregates are
+     * returned with the totals and utilization computed from them.
+     */
+    @Test
+    public void testGetStats() {
+        List<Object[]> warehouses = new ArrayList<>();
+        warehouses.add(new Object[] { 1, "CA1", 100, 25L, 2L });
+        warehouses.add(new Object[] { 2, "NV1", 300, 75L, 1L });
+        List<Object[]> categories = new ArrayList<>();
+        categories.add(new Object[] { 1, "Ropes", 90L, 3L });
+        categories.add(new Object[] { 2, "Shoes", 10L, 0L });
+        when(warehouseRepository.findStats(5)).thenReturn(warehouses);
+        when(categoryRepository.findStats(5)).thenReturn(categories);
+
+        StatsDto stats = statsService.getStats();
+
+        Assert.assertEquals(stats.getCurrentCapacity(), 100);
+        Assert.assertEquals(stats.getMaxCapacity(), 400);
+        Assert.assertEquals(stats.getUtilization(), 0.25);
+        Assert.assertEquals(stats.getLowStockThreshold(), 5);
+        Assert.assertEquals(stats.getLowStockCount(), 3);
+
+        Assert.assertEquals(stats.getWarehouses().size(), 2);
+        Assert.assertEquals(stats.getWarehouses().get(1).getName(), "NV1");
+        Assert.assertEquals(stats.getWarehouses().get(1).getCurrentCapacity(), 75);
+        Assert.assertEquals(stats.getWarehouses().get(1).getUtilization(), 0.25);
+        Assert.assertEquals(stats.getWarehouses().get(0).getLowStockCount(), 2);
+
+        Assert.assertEquals(stats.getCategories().size(), 2);
+        Assert.assertEquals(stats.getCategories().get(0).getUnits(), 90);
+        Assert.assertEquals(stats.getCategories().get(0).getLowStockCount(), 3);
+    }
+
+    /**
+     * Test case to verify that warehouses and categories without items, and a
+     * total max capacity of 0, are reported as 0 rather than failing.
+     */
+    @Test
+    public void testGetStatsEmpty() {
+        List<Object[]> warehouses = new ArrayList<>();
+        warehouses.add(new Object[] { 1, "CA1", 0, 0L, null });
+        List<Object[]> categories = new ArrayList<>();
+        categories.add(new Object[] { 1, "Ropes", 0L, null });
+        when(warehouseRepository.findStats(5)).thenReturn(warehouses);
+        when(categoryRepository.findStats(5)).thenReturn(categories);
+
+        StatsDto stats = statsService.getStats();
+
+        Assert.assertEquals(stats.getUtilization(), 0.0);
+        Assert.assertEquals(stats.getWarehouses().get(0).getUtilization(), 0.0);
+        Assert.assertEquals(stats.getWarehouses().get(0).getLowStockCount(), 0);
+        Assert.assertEquals(stats.getCategories().get(0).getLowStockCount(), 0);
+    }
+
+    /**
+     * Test case to verify the stats when there are no warehouses or categories.
+     */
+    @Test
+    public void testGetStatsNoWarehouses() {
+        when(warehouseRepository.findStats(5)).thenReturn(Collections.emptyList());
+        when(categoryRepository.findStats(5)).thenReturn(Collections.emptyList());
+
+        StatsDto stats = statsService.getStats();
+
+        Assert.assertEquals(stats.getCurrentCapacity(), 0);
+        Assert.assertEquals(stats.getMaxCapacity(), 0);
+        Assert.assertTrue(stats.getWarehouses().isEmpty());
+        Assert.assertTrue(stats.getCategories().isEmpty());
+    }
+}
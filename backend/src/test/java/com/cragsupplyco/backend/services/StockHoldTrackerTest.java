@@ -0,0 +1,154 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.exceptions.InsufficientQuantityException;
+import com.cragsupplyco.backend.exceptions.ResourceNotFoundException;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+
+public class StockHoldTrackerTest {
+
+    private StockHoldTracker tracker;
+    private AutoCloseable closeable;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // The tracker keeps state, so start fresh for each test
+        tracker = new StockHoldTracker(inventoryRepository);
+        stubQuantity(10);
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    private void stubQuantity(int quantity) {
+        when(inventoryRepository.findQuantityById(1))
+                .thenReturn(Optional.of(new UpdateQuantityResponseDto(1, quantity, 2, 3, 0)));
+    }
+
+    private void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    /**
+     * Test case to verify that hold() holds up to the item's quantity and throws
+     * an InsufficientQuantityException beyond it, and that a release frees the
+     * quantity again.
+     */
+    @Test
+    public void testHoldUpToQuantity() {
+        tracker.hold(1, 6);
+        tracker.hold(1, 4);
+
+        try {
+            tracker.hold(1, 1);
+            Assert.fail("Expected an InsufficientQuantityException to be thrown");
+        } catch (InsufficientQuantityException e) {
+            Assert.assertEquals(e.getMessage(), "Cannot reserve inventory. Only 0 available.");
+        }
+        Assert.assertEquals(tracker.getHeld(1), 10);
+
+        tracker.release(1, 4);
+        Assert.assertEquals(tracker.getHeld(1), 6);
+    }
+
+    /**
+     * Test case to verify that holding an item that does not exist throws a
+     * ResourceNotFoundException.
+     */
+    @Test(expectedExceptions = ResourceNotFoundException.class)
+    public void testHoldMissingItem() {
+        when(inventoryRepository.findQuantityById(9)).thenReturn(Optional.empty());
+
+        tracker.hold(9, 1);
+    }
+
+    /**
+     * Test case to verify that holdForDecrement() returns what was held before,
+     * that the decrement's quantity cannot be reserved until its transaction
+     * ends, and that once it commits the lowered quantity is read again.
+     */
+    @Test
+    public void testHoldForDecrementConfirmedOnCommit() {
+        tracker.restore(1, 2);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Assert.assertEquals(tracker.holdForDecrement(1, 4), 2);
+            Assert.assertEquals(tracker.getHeld(1), 6);
+            Assert.assertThrows(InsufficientQuantityException.class, () -> tracker.hold(1, 5));
+            tracker.hold(1, 4);
+
+            stubQuantity(6); // The decrement committed
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assert.assertEquals(tracker.getHeld(1), 6);
+        Assert.assertThrows(InsufficientQuantityException.class, () -> tracker.hold(1, 1));
+    }
+
+    /**
+     * Test case to verify that the hold of a decrement is released when its
+     * transaction rolls back.
+     */
+    @Test
+    public void testHoldForDecrementReleasedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Assert.assertEquals(tracker.holdForDecrement(1, 4), 0);
+            Assert.assertEquals(tracker.getHeld(1), 4);
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assert.assertEquals(tracker.getHeld(1), 0);
+        tracker.hold(1, 10);
+    }
+
+    /**
+     * Test case to verify that outside a transaction the hold of a decrement ends
+     * as soon as it is taken.
+     */
+    @Test
+    public void testHoldForDecrementWithoutTransaction() {
+        tracker.restore(1, 3);
+
+        Assert.assertEquals(tracker.holdForDecrement(1, 4), 3);
+        Assert.assertEquals(tracker.getHeld(1), 3);
+    }
+
+    /**
+     * Test case to verify that a confirm ends the hold.
+     */
+    @Test
+    public void testConfirm() {
+        tracker.hold(1, 5);
+
+        tracker.confirm(1, 5);
+
+        Assert.assertEquals(tracker.getHeld(1), 0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.StockMovementDto;
+import com.cragsupplyco.backend.dtos.StockMovementDto.Reason;
+import com.cragsupplyco.backend.dtos.StockMovementPageDto;
+import com.cragsupplyco.backend.repositories.StockMovementRepository;
+
+import jakarta.persistence.EntityManager;
+
+public class StockLedgerTest {
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private StockLedger ledger;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // Stubs differ per test, so start fresh for each test
+        ledger = new StockLedger(stockMovementRepository, entityManager,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2);
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    private static StockMovementDto movement(long id) {
+        return new StockMovementDto(id, 1, 2, 3, 1, Reason.INCREMENTED, null);
+    }
+
+    /**
+     * Test case to verify that the movements recorded in a transaction are
+     * inserted in one batch before it commits, after Hibernate's pending changes
+     * are flushed, and that changes of 0 are not recorded.
+     */
+    @Test
+    public void testRecordInsertsBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.record(1, 2, 3, 5, Reason.CREATED);
+            ledger.record(1, 2, 3, 0, Reason.UPDATED);
+            ledger.record(4, 2, 3, -1, Reason.DECREMENTED);
+            verify(stockMovementRepository, never()).insertAll(anyList());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        InOrder order = inOrder(entityManager, stockMovementRepository);
+        order.verify(entityManager).flush();
+        order.verify(stockMovementRepository).insertAll(argThat(rows -> rows.size() == 2
+                && Arrays.equals(rows.get(1), new Object[] { 4, 2, 3, -1, "DECREMENTED" })));
+        Assert.assertNull(TransactionSynchronizationManager.getResource(ledger)); // Unbound after completion
+    }
+
+    /**
+     * Test case to verify that a full page of movements returns the id of its
+     * last movement as the cursor of the next page, and the last page returns
+     * none.
+     */
+    @Test
+    public void testFindPageCursor() {
+        when(stockMovementRepository.findPage(eq(0L), isNull(), eq(2), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(Arrays.asList(movement(1), movement(2), movement(3)));
+        when(stockMovementRepository.findPage(eq(2L), isNull(), eq(2), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(Arrays.asList(movement(3)));
+
+        StockMovementPageDto first = ledger.findPage(0, 2, null, 2, null, null, null);
+        StockMovementPageDto last = ledger.findPage(2, 2, null, 2, null, null, null);
+
+        Assert.assertEquals(first.getMovements().size(), 2);
+        Assert.assertEquals(first.getNextCursor(), Long.valueOf(2));
+        Assert.assertEquals(last.getMovements().size(), 1);
+        Assert.assertNull(last.getNextCursor());
+    }
+
+    /**
+     * Test case to verify that an invalid limit or time range throws an
+     * IllegalArgumentException.
+     */
+    @Test
+    public void testFindPageInvalidArguments() {
+        Instant now = Instant.now();
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> ledger.findPage(0, 0, null, null, null, null, null));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ledger.findPage(0, 501, null, null, null, null, null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ledger.findPage(0, 10, null, null, null, now, now));
+    }
+
+    /**
+     * Test case to verify that snapshotAll() snapshots a batch of items at a time,
+     * continuing after the last item of each batch until none are left.
+     */
+    @Test
+    public void testSnapshotAllWalksItemsInBatches() {
+        when(stockMovementRepository.snapshot(0, 2)).thenReturn(5);
+        when(stockMovementRepository.snapshot(5, 2)).thenReturn(9);
+        when(stockMovementRepository.snapshot(9, 2)).thenReturn(-1);
+
+        Assert.assertEquals(ledger.snapshotAll(), 2);
+        verify(stockMovementRepository, never()).snapshot(eq(-1), anyInt());
+    }
+}
@@ -0,0 +1,321 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.ReservationDto;
+import com.cragsupplyco.backend.dtos.ReservationRequestDto;
+import com.cragsupplyco.backend.dtos.UpdateQuantityResponseDto;
+import com.cragsupplyco.backend.repositories.InventoryRepository;
+import com.cragsupplyco.backend.repositories.ReservationRepository;
+
+public class StockReservationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private StockReservationService service;
+    private AutoCloseable closeable;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // The service keeps state, so start fresh for each test
+        service = new StockReservationService(reservationRepository, inventoryRepository, inventoryService,
+                new StockHoldTracker(inventoryRepository), 1000, 60, 3600);
+
+        ids.set(0);
+        when(reservationRepository.insert(anyInt(), anyInt(), any(), any()))
+                .thenAnswer(invocation -> ids.incrementAndGet());
+        stubQuantity(10);
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    private void stubQuantity(int quantity) {
+        when(inventoryRepository.findQuantityById(1))
+                .thenReturn(Optional.of(new UpdateQuantityResponseDto(1, quantity, 2, 3, 0)));
+    }
+
+    private int available() {
+        return service.findAvailability(1).get().getAvailable();
+    }
+
+    /**
+     * Test case to verify that stock is held up to the item's quantity, that a
+     * reserve beyond it throws an IllegalArgumentException, and that holds lower
+     * the available quantity but not the quantity.
+     */
+    @Test
+    public void testReserveUpToQuantity() {
+        ReservationDto reservation = service.reserve(new ReservationRequestDto(1, 6, 60, "cart-1"));
+        service.reserve(new ReservationRequestDto(1, 4, 60, null));
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> service.reserve(new ReservationRequestDto(1, 1, 60, null)));
+        Assert.assertEquals(reservation.getReference(), "cart-1");
+        Assert.assertEquals(service.findAvailability(1).get().getQuantity(), 10);
+        Assert.assertEquals(service.findAvailability(1).get().getReserved(), 10);
+        Assert.assertEquals(available(), 0);
+        verify(reservationRepository).insert(eq(1), eq(6), eq("cart-1"), any());
+    }
+
+    /**
+     * Test case to verify that an invalid quantity or TTL throws an
+     * IllegalArgumentException and holds nothing.
+     */
+    @Test
+    public void testReserveInvalidArguments() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> service.reserve(new ReservationRequestDto(1, 0, 60, null)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> service.reserve(new ReservationRequestDto(1, 1, 0, null)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> service.reserve(new ReservationRequestDto(1, 1, 3601, null)));
+        Assert.assertEquals(available(), 10);
+    }
+
+    /**
+     * Test case to verify that a reserve of an item that does not exist throws an
+     * exception and holds nothing.
+     */
+    @Test
+    public void testReserveInventoryNotFound() {
+        when(inventoryRepository.findQuantityById(9)).thenReturn(Optional.empty());
+
+        Assert.assertThrows(RuntimeException.class, () -> service.reserve(new ReservationRequestDto(9, 1, 60, null)));
+        verify(reservationRepository, never()).insert(anyInt(), anyInt(), any(), any());
+    }
+
+    /**
+     * Test case to verify that a hold is released if its transaction rolls back.
+     */
+    @Test
+    public void testReserveRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.reserve(new ReservationRequestDto(1, 4, 60, null));
+            Assert.assertEquals(available(), 6);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assert.assertEquals(available(), 10);
+        Assert.assertEquals(service.expire(System.currentTimeMillis() + 120_000), 0); // Never scheduled
+    }
+
+    /**
+     * Test case to verify that concurrent reserves of the same item hold exactly
+     * its quantity, none more.
+     */
+    @Test
+    public void testConcurrentReserves() throws Exception {
+        stubQuantity(100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        service.reserve(new ReservationRequestDto(1, 1, 60, null));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                reserved += result.get() ? 1 : 0;
+            }
+            Assert.assertEquals(reserved, 100);
+            Assert.assertEquals(available(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test case to verify that a reserve reads the quantity again if a reservation
+     * was confirmed after it was read, so it cannot hold stock that the confirm
+     * took.
+     */
+    @Test
+    public void testReserveRereadsQuantityAfterConfirm() {
+        ReservationDto first = service.reserve(new ReservationRequestDto(1, 2, 60, null));
+        when(reservationRepository.lockById(first.getId())).thenReturn(Optional.of(first));
+
+        // The first read returns the quantity before the confirm (10), while the
+        // confirm commits before the reserve's compare-and-set; later reads return
+        // the quantity after it (8)
+        AtomicInteger reads = new AtomicInteger();
+        when(inventoryRepository.findQuantityById(1)).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() > 0) {
+                return Optional.of(new UpdateQuantityResponseDto(1, 8, 2, 3, 0));
+            }
+            service.confirm(first.getId());
+            return Optional.of(new UpdateQuantityResponseDto(1, 10, 2, 3, 0));
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> service.reserve(new ReservationRequestDto(1, 9, 60, null)));
+        Assert.assertEquals(service.findAvailability(1).get().getReserved(), 0);
+        Assert.assertEquals(available(), 8);
+    }
+
+    /**
+     * Test case to verify that a confirm deletes the reservation, decrements the
+     * item's quantity by the held stock and releases the hold, and that a missing
+     * or expired reservation is not confirmed.
+     */
+    @Test
+    public void testConfirm() {
+        ReservationDto reservation = service.reserve(new ReservationRequestDto(1, 3, 60, null));
+        when(reservationRepository.lockById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.lockById(7L)).thenReturn(Optional.empty());
+        when(reservationRepository.lockById(8L))
+                .thenReturn(Optional.of(new ReservationDto(8, 1, 1, null, Instant.now().minusSeconds(1))));
+
+        Assert.assertTrue(service.confirm(reservation.getId()));
+        Assert.assertFalse(service.confirm(7));
+        Assert.assertFalse(service.confirm(8));
+
+        verify(reservationRepository).deleteById(reservation.getId());
+        verify(inventoryService).decrementHeldQuantity(1, 3);
+        verify(inventoryService, never()).decrementHeldQuantity(1, 1);
+        Assert.assertEquals(service.findAvailability(1).get().getReserved(), 0);
+        Assert.assertEquals(service.expire(System.currentTimeMillis() + 120_000), 0); // No longer scheduled
+    }
+
+    /**
+     * Test case to verify that a release deletes the reservation and releases the
+     * hold without changing the quantity.
+     */
+    @Test
+    public void testRelease() {
+        ReservationDto reservation = service.reserve(new ReservationRequestDto(1, 3, 60, null));
+        when(reservationRepository.lockById(reservation.getId())).thenReturn(Optional.of(reservation));
+
+        Assert.assertTrue(service.release(reservation.getId()));
+        Assert.assertFalse(service.release(99));
+
+        verify(reservationRepository).deleteById(reservation.getId());
+        verify(inventoryService, never()).decrementHeldQuantity(anyInt(), anyInt());
+        Assert.assertEquals(available(), 10);
+    }
+
+    /**
+     * Test case to verify that reservations are expired once their TTL passes,
+     * deleted in one batch, and their stock released.
+     */
+    @Test
+    public void testExpire() {
+        ReservationDto shortHold = service.reserve(new ReservationRequestDto(1, 2, 5, null));
+        ReservationDto otherHold = service.reserve(new ReservationRequestDto(1, 3, 5, null));
+        service.reserve(new ReservationRequestDto(1, 4, 600, null));
+        when(reservationRepository.deleteAll(anyList()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Long>>getArgument(0)));
+
+        long now = System.currentTimeMillis();
+        Assert.assertEquals(service.expire(now), 0);
+        Assert.assertEquals(service.expire(now + 10_000), 2);
+
+        verify(reservationRepository).deleteAll(argThat(due -> due.size() == 2
+                && due.containsAll(Arrays.asList(shortHold.getId(), otherHold.getId()))));
+        Assert.assertEquals(available(), 6);
+    }
+
+    /**
+     * Test case to verify that a due reservation whose row is already gone is
+     * looked at again a tick later, and only then forgotten and its stock
+     * released (unless a confirm or release forgot it meanwhile).
+     */
+    @Test
+    public void testExpireRowAlreadyDeleted() {
+        service.reserve(new ReservationRequestDto(1, 2, 5, null));
+        when(reservationRepository.deleteAll(anyList())).thenReturn(Collections.emptyList());
+
+        long now = System.currentTimeMillis();
+        Assert.assertEquals(service.expire(now + 10_000), 0);
+        Assert.assertEquals(available(), 8); // Maybe a confirm that has not run its after-commit yet
+
+        Assert.assertEquals(service.expire(now + 11_000), 0);
+        Assert.assertEquals(available(), 10); // Deleted with its item, or elsewhere
+    }
+
+    /**
+     * Test case to verify that if deleting expired reservations fails they are
+     * due again at the next tick.
+     */
+    @Test
+    public void testExpireRetriedAfterFailure() {
+        ReservationDto reservation = service.reserve(new ReservationRequestDto(1, 2, 5, null));
+        when(reservationRepository.deleteAll(anyList())).thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(Collections.singletonList(reservation.getId()));
+
+        long now = System.currentTimeMillis();
+        Assert.assertThrows(RuntimeException.class, () -> service.expire(now + 10_000));
+        Assert.assertEquals(available(), 8);
+        Assert.assertEquals(service.expire(now + 11_000), 1);
+        Assert.assertEquals(available(), 10);
+    }
+
+    /**
+     * Test case to verify that load() rebuilds the held quantities and expirations
+     * from the stored reservations.
+     */
+    @Test
+    public void testLoad() {
+        Instant expiresAt = Instant.now().plusSeconds(5);
+        when(reservationRepository.findAll()).thenReturn(Arrays.asList(new ReservationDto(4, 1, 3, null, expiresAt),
+                new ReservationDto(5, 1, 2, null, expiresAt.plusSeconds(600))));
+        when(reservationRepository.deleteAll(anyList())).thenReturn(Collections.singletonList(4L));
+
+        service.load();
+        Assert.assertEquals(available(), 5);
+
+        Assert.assertEquals(service.expire(System.currentTimeMillis() + 10_000), 1);
+        Assert.assertEquals(available(), 8);
+    }
+}
@@ -0,0 +1,367 @@
+package com.cragsupplyco.backend.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.exceptions.CapacityExceededException;
+import com.cragsupplyco.backend.models.Warehouse;
+import com.cragsupplyco.backend.repositories.InventoryBatchRepository;
+import com.cragsupplyco.backend.repositories.WarehouseRepository;
+
+public class WarehouseCapacityTrackerTest {
+
+    private WarehouseCapacityTracker tracker;
+    private AutoCloseable closeable;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this); // The tracker keeps state, so start fresh for each test
+        tracker = new WarehouseCapacityTracker(warehouseRepository, inventoryBatchRepository);
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1);
+        warehouse.setCurrentCapacity(10);
+        warehouse.setMaxCapacity(100);
+        when(warehouseRepository.findById(1)).thenReturn(Optional.of(warehouse));
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        closeable.close(); // Close any open mocks after test
+    }
+
+    private void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    /**
+     * Test case to verify that tryAdjust() reserves capacity up to the max
+     * capacity of the warehouse and rejects an increase beyond it.
+     */
+    @Test
+    public void testTryAdjustWithinMaxCapacity() {
+        Assert.assertTrue(tracker.tryAdjust(1, 90));
+        Assert.assertFalse(tracker.tryAdjust(1, 1));
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 100);
+    }
+
+    /**
+     * Test case to verify that a lowered max capacity is enforced, while a
+     * decrease still succeeds.
+     */
+    @Test
+    public void testTryAdjustWithinLoweredMaxCapacity() {
+        tracker.updateMaxCapacity(1, 10);
+
+        Assert.assertTrue(tracker.tryAdjust(1, -3));
+        Assert.assertFalse(tracker.tryAdjust(1, 4));
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 7);
+    }
+
+    /**
+     * Test case to verify that a max capacity below the current capacity is
+     * rejected with a CapacityExceededException and the old one kept.
+     */
+    @Test
+    public void testUpdateMaxCapacityBelowCurrentCapacity() {
+        try {
+            tracker.updateMaxCapacity(1, 9);
+            Assert.fail("Expected a CapacityExceededException to be thrown");
+        } catch (CapacityExceededException e) {
+            Assert.assertEquals(e.getMessage(),
+                    "Cannot update warehouse. Max capacity cannot be less than the current capacity of 10.");
+        }
+
+        Assert.assertTrue(tracker.tryAdjust(1, 90));
+    }
+
+    /**
+     * Test case to verify that inside a transaction a lowered max capacity is
+     * enforced right away and put back if the transaction rolls back, and a raised
+     * one is only enforced once it commits.
+     */
+    @Test
+    public void testUpdateMaxCapacityUndoneOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.updateMaxCapacity(1, 20);
+            Assert.assertFalse(tracker.tryAdjust(1, 11));
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assert.assertTrue(tracker.tryAdjust(1, 11));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.updateMaxCapacity(1, 200);
+            Assert.assertFalse(tracker.tryAdjust(1, 80));
+
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assert.assertTrue(tracker.tryAdjust(1, 80));
+    }
+
+    /**
+     * Test case to verify that a warehouse removed inside a transaction that rolls
+     * back keeps its committed deltas, so they are still flushed.
+     */
+    @Test
+    public void testRemoveUndoneOnRollback() {
+        tracker.tryAdjust(1, 5);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.remove(1);
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        tracker.flush();
+
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 15);
+        verify(inventoryBatchRepository).addCapacities(Map.of(1, 5));
+    }
+
+    /**
+     * Test case to verify that clear() drops all in-memory capacities and pending
+     * changes, so the next lookup reloads the warehouse from the database.
+     */
+    @Test
+    public void testClear() {
+        tracker.tryAdjust(1, 5);
+        tracker.clear();
+        tracker.flush();
+
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 10);
+        verify(inventoryBatchRepository, never()).addCapacities(any());
+    }
+
+    /**
+     * Test case to verify that tryAdjust() with a warehouse that does not exist
+     * throws a RuntimeException.
+     */
+    @Test
+    public void testTryAdjustWarehouseNotFound() {
+        when(warehouseRepository.findById(2)).thenReturn(Optional.empty());
+
+        try {
+            tracker.tryAdjust(2, 1);
+            Assert.fail("Expected a RuntimeException to be thrown");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Warehouse not found with ID: 2", e.getMessage());
+        }
+    }
+
+    /**
+     * Test case to verify that flush() writes the committed changes of a
+     * warehouse as one coalesced delta, and writes nothing when there are none.
+     */
+    @Test
+    public void testFlushCoalescesDeltas() {
+        tracker.tryAdjust(1, 5);
+        tracker.tryAdjust(1, 7);
+        tracker.tryAdjust(1, -2);
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(inventoryBatchRepository, times(1)).addCapacities(any());
+        verify(inventoryBatchRepository).addCapacities(Map.of(1, 10));
+    }
+
+    /**
+     * Test case to verify that the deltas are kept for the next flush when
+     * writing them to the database fails.
+     */
+    @Test
+    public void testFlushKeepsDeltasOnFailure() {
+        tracker.tryAdjust(1, 4);
+        doThrow(new RuntimeException("Database unavailable")).doNothing()
+                .when(inventoryBatchRepository).addCapacities(Map.of(1, 4));
+
+        Assert.assertThrows(RuntimeException.class, () -> tracker.flush());
+        tracker.flush();
+
+        verify(inventoryBatchRepository, times(2)).addCapacities(Map.of(1, 4));
+    }
+
+    /**
+     * Test case to verify that a reservation made inside a transaction is released
+     * if the transaction rolls back, and never written to the database.
+     */
+    @Test
+    public void testTryAdjustReleasedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Assert.assertTrue(tracker.tryAdjust(1, 50));
+            Assert.assertEquals(tracker.getCurrentCapacity(1), 60);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+                    .getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        tracker.flush();
+
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 10);
+        verify(inventoryBatchRepository, never()).addCapacities(any());
+    }
+
+    /**
+     * Test case to verify that a reservation made inside a transaction is only
+     * written to the database once the transaction commits.
+     */
+    @Test
+    public void testTryAdjustFlushedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.tryAdjust(1, 50);
+            tracker.flush();
+            verify(inventoryBatchRepository, never()).addCapacities(any());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+                    .getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        tracker.flush();
+
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 60);
+        verify(inventoryBatchRepository).addCapacities(Map.of(1, 50));
+    }
+
+    /**
+     * Test case to verify that reconcile() corrects the stored and in-memory
+     * current capacity to the sum of the warehouse's inventory quantities.
+     */
+    @Test
+    public void testReconcileCorrectsDrift() {
+        tracker.getCurrentCapacity(1);
+        when(warehouseRepository.findCapacityTotals()).thenReturn(Arrays.asList(
+                new Object[] { 1, 10, 25L },
+                new Object[] { 2, 40, 40L }));
+
+        tracker.reconcile();
+
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 25);
+        verify(inventoryBatchRepository).addCapacities(Map.of(1, 15));
+    }
+
+    /**
+     * Test case to verify that a transaction committed while reconcile() reads the
+     * sums, but completed only afterwards, is not mistaken for drift: its delta is
+     * written once, by the next flush.
+     */
+    @Test
+    public void testReconcileSkipsTransactionCommittingMeanwhile() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.tryAdjust(1, 5);
+
+            // The sum already includes the committed quantity, pending does not yet
+            when(warehouseRepository.findCapacityTotals())
+                    .thenReturn(Collections.singletonList(new Object[] { 1, 10, 15L }));
+            tracker.reconcile();
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+                    .getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        tracker.flush();
+
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 15);
+        verify(inventoryBatchRepository, times(1)).addCapacities(any());
+        verify(inventoryBatchRepository).addCapacities(Map.of(1, 5));
+    }
+
+    /**
+     * Test case to verify that reconcile() skips a warehouse whose transaction
+     * completed while the sums were read, and corrects it on the next run.
+     */
+    @Test
+    public void testReconcileSkipsTransactionCompletedMeanwhile() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.getCurrentCapacity(1);
+            when(warehouseRepository.findCapacityTotals()).thenAnswer(invocation -> {
+                tracker.tryAdjust(1, 5); // Reserved, committed and completed during the query
+                for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+                        .getSynchronizations()) {
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+                }
+                return Collections.singletonList(new Object[] { 1, 10, 20L });
+            });
+            tracker.reconcile();
+            verify(inventoryBatchRepository, never()).addCapacities(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Next run: the delta was flushed (stored 15) and 5 units really drifted
+        doReturn(Collections.singletonList(new Object[] { 1, 15, 20L })).when(warehouseRepository)
+                .findCapacityTotals();
+        tracker.reconcile();
+
+        verify(inventoryBatchRepository, times(2)).addCapacities(Map.of(1, 5)); // The flush, then the correction
+        Assert.assertEquals(tracker.getCurrentCapacity(1), 20);
+    }
+
+    /**
+     * Test case to verify that reconcile() writes nothing when every warehouse is
+     * consistent with its inventory.
+     */
+    @Test
+    public void testReconcileWithoutDrift() {
+        when(warehouseRepository.findCapacityTotals())
+                .thenReturn(Collections.singletonList(new Object[] { 1, 10, 10L }));
+
+        tracker.reconcile();
+
+        verify(inventoryBatchRepository, never()).addCapacities(any());
+    }
+}
@@ -1,5 +1,6 @@
 package com.cragsupplyco.backend.services;
 
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
@@ -15,6 +16,9 @@ import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.cragsupplyco.backend.dtos.InventoryChangeEventDto.Type;
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+import com.cragsupplyco.backend.exceptions.PreconditionFailedException;
 import com.cragsupplyco.backend.models.Warehouse;
 import com.cragsupplyco.backend.repositories.WarehouseRepository;
 
@@ -27,6 +31,15 @@ public class WarehouseServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
 
+    @Mock
+    private WarehouseCapacityTracker capacityTracker;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private InventoryChangeStream inventoryChangeStream;
+
     @BeforeTest
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this); // Initialize mocks before each test
@@ -37,6 +50,20 @@ public class WarehouseServiceTest {
         closeable.close(); // Close any open mocks after test
     }
 
+    /**
+     * Test case to verify that using the findByIdWithInventory() method returns
+     * the warehouse loaded with its inventory from the repository.
+     */
+    @Test
+    public void testFindWarehouseByIdWithInventory() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(7);
+
+        when(warehouseRepository.findWithInventoryById(7)).thenReturn(Optional.of(warehouse));
+        Optional<Warehouse> result = warehouseService.findByIdWithInventory(7);
+        Assert.assertEquals(result.get(), warehouse);
+    }
+
     /**
      * Test case to verify that findAll() method returns a list of all warehouses
      * from the repository.
@@ -151,12 +178,16 @@ public class WarehouseServiceTest {
         Warehouse expectedWarehouse = new Warehouse();
         expectedWarehouse.setId(warehouseId);
         expectedWarehouse.setName("CA1");
+        expectedWarehouse.setMaxCapacity(500);
 
         when(warehouseRepository.save(expectedWarehouse)).thenReturn(expectedWarehouse);
         when(warehouseRepository.existsByName("CA1")).thenReturn(false);
+        when(capacityTracker.getCurrentCapacity(warehouseId)).thenReturn(120);
 
-        Warehouse result = warehouseService.updateWarehouseById(warehouseId, expectedWarehouse);
+        Warehouse result = warehouseService.updateWarehouseById(warehouseId, expectedWarehouse, null);
         Assert.assertEquals(expectedWarehouse, result);
+        Assert.assertEquals(result.getCurrentCapacity(), 120);
+        verify(capacityTracker).updateMaxCapacity(warehouseId, 500);
     }
 
     /**
@@ -179,19 +210,47 @@ public class WarehouseServiceTest {
         when(warehouseRepository.existsByName("NY1")).thenReturn(true);
 
         Assert.assertThrows(IllegalArgumentException.class, () -> {
-            warehouseService.updateWarehouseById(warehouseId, warehouse);
+            warehouseService.updateWarehouseById(warehouseId, warehouse, null);
+        });
+    }
+
+    /**
+     * Test case to verify that updateWarehouseById() compares If-Match with the
+     * ETag of the warehouse together with its inventory, and throws a
+     * PreconditionFailedException when it no longer matches.
+     */
+    @Test
+    public void testUpdateWarehouseByIdStaleIfMatch() {
+        int warehouseId = 7;
+        Warehouse existingWarehouse = new Warehouse();
+        existingWarehouse.setId(warehouseId);
+        existingWarehouse.setName("VA1");
+
+        when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(existingWarehouse));
+        when(warehouseRepository.findWithInventoryById(warehouseId)).thenReturn(Optional.of(existingWarehouse));
+        when(catalogVersionService.forWarehouse(existingWarehouse))
+                .thenReturn(new VersionStampDto[] { VersionStampDto.of(existingWarehouse) });
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("VA1");
+        Assert.assertThrows(PreconditionFailedException.class, () -> {
+            warehouseService.updateWarehouseById(warehouseId, warehouse, "W/\"1.0.0\", \"stale\"");
         });
+        verify(catalogVersionService).forWarehouse(existingWarehouse);
     }
 
     /**
      * Test case to verify that using the deleteById() method with calls the
-     * repository deleteById() method.
+     * repository deleteById() method and publishes the deletion.
      */
     @Test
     public void testDeleteWarehouseById() {
         int warehouseId = 1;
         warehouseService.deleteById(warehouseId);
         verify(warehouseRepository).deleteById(warehouseId);
+        verify(capacityTracker).remove(warehouseId);
+        verify(inventoryChangeStream).publish(argThat(change -> change.getType() == Type.WAREHOUSE_DELETED
+                && Integer.valueOf(warehouseId).equals(change.getWarehouse())));
     }
 
 }
@@ -0,0 +1,61 @@
+package com.cragsupplyco.backend.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class InventoryExportWriterTest {
+
+    /**
+     * Test case to verify that CSV output has a header line and quotes values that
+     * contain commas or quotes.
+     */
+    @Test
+    public void testWriteCsv() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        InventoryExportWriter writer = new InventoryExportWriter(output, InventoryFileFormat.CSV);
+        writer.write(1, 2, 3, "M", 4);
+        writer.write(5, 6, 7, null, 8);
+        writer.write(9, 10, 11, "9.5, \"wide\"", 12);
+        writer.finish();
+
+        Assert.assertEquals(output.toString(StandardCharsets.UTF_8),
+                "id,product,warehouse,size,quantity\n1,2,3,M,4\n5,6,7,,8\n9,10,11,\"9.5, \"\"wide\"\"\",12\n");
+    }
+
+    /**
+     * Test case to verify that NDJSON output has one JSON object per line.
+     */
+    @Test
+    public void testWriteNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        InventoryExportWriter writer = new InventoryExportWriter(output, InventoryFileFormat.NDJSON);
+        writer.write(1, 2, 3, "M", 4);
+        writer.write(5, 6, 7, null, 8);
+        writer.finish();
+
+        Assert.assertEquals(output.toString(StandardCharsets.UTF_8),
+                "{\"id\":1,\"product\":2,\"warehouse\":3,\"size\":\"M\",\"quantity\":4}\n"
+                        + "{\"id\":5,\"product\":6,\"warehouse\":7,\"size\":null,\"quantity\":8}\n");
+    }
+
+    /**
+     * Test case to verify that a CSV export can be read back by the import reader.
+     */
+    @Test
+    public void testCsvExportCanBeImported() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        InventoryExportWriter writer = new InventoryExportWriter(output, InventoryFileFormat.CSV);
+        writer.write(1, 2, 3, "a,b", 4);
+        writer.finish();
+
+        InventoryImportReader reader = new InventoryImportReader(new ByteArrayInputStream(output.toByteArray()),
+                InventoryFileFormat.CSV);
+        Assert.assertEquals(reader.next(),
+                Map.of("id", "1", "product", "2", "warehouse", "3", "size", "a,b", "quantity", "4"));
+    }
+}
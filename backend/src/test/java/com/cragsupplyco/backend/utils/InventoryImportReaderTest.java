@@ -0,0 +1,68 @@
+package com.cragsupplyco.backend.utils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class InventoryImportReaderTest {
+
+    private static InventoryImportReader reader(String text, InventoryFileFormat format) {
+        return new InventoryImportReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    /**
+     * Test case to verify that CSV rows are returned by header name, with quoted
+     * fields, empty cells left out and empty lines skipped.
+     */
+    @Test
+    public void testReadCsv() {
+        InventoryImportReader reader = reader(
+                "product,warehouse,size,quantity\n1,2,M,5\n\n\"3\",\"Main, \"\"North\"\"\",,7\n",
+                InventoryFileFormat.CSV);
+
+        Map<String, String> first = reader.next();
+        Assert.assertEquals(first, Map.of("product", "1", "warehouse", "2", "size", "M", "quantity", "5"));
+        Assert.assertEquals(reader.getLine(), 2);
+
+        Map<String, String> second = reader.next();
+        Assert.assertEquals(second, Map.of("product", "3", "warehouse", "Main, \"North\"", "quantity", "7"));
+        Assert.assertEquals(reader.getLine(), 4);
+
+        Assert.assertNull(reader.next());
+    }
+
+    /**
+     * Test case to verify that a CSV row with the wrong number of columns or an
+     * unterminated quote is rejected without stopping the following rows.
+     */
+    @Test
+    public void testReadCsvInvalidRows() {
+        InventoryImportReader reader = reader("product,quantity\n1\n\"2,3\n4,5\n", InventoryFileFormat.CSV);
+
+        Assert.assertThrows(IllegalArgumentException.class, reader::next);
+        Assert.assertEquals(reader.getLine(), 2);
+        Assert.assertThrows(IllegalArgumentException.class, reader::next);
+        Assert.assertEquals(reader.getLine(), 3);
+        Assert.assertEquals(reader.next(), Map.of("product", "4", "quantity", "5"));
+    }
+
+    /**
+     * Test case to verify that NDJSON lines are returned as fields, with numbers
+     * converted to text and nulls left out, and that a line that is not a JSON
+     * object is rejected.
+     */
+    @Test
+    public void testReadNdjson() {
+        InventoryImportReader reader = reader(
+                "{\"product\": 1, \"warehouseName\": \"Main\", \"size\": null, \"quantity\": 5}\n[1]\n{bad\n",
+                InventoryFileFormat.NDJSON);
+
+        Assert.assertEquals(reader.next(), Map.of("product", "1", "warehouseName", "Main", "quantity", "5"));
+        Assert.assertThrows(IllegalArgumentException.class, reader::next);
+        Assert.assertThrows(IllegalArgumentException.class, reader::next);
+        Assert.assertNull(reader.next());
+    }
+}
@@ -0,0 +1,125 @@
+package com.cragsupplyco.backend.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.cragsupplyco.backend.dtos.VersionStampDto;
+
+public class SerializedResponseTest {
+
+    private static final VersionStampDto[] STAMPS = { new VersionStampDto(2L, 5L, Instant.parse("2024-08-01T10:00:00Z")) };
+    private static final byte[] SMALL = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LARGE = ("[" + "{\"id\":1,\"name\":\"Ropes\"},".repeat(100) + "{}]")
+            .getBytes(StandardCharsets.UTF_8);
+
+    // A GET request with the given Accept-Encoding and If-None-Match headers (if
+    // not null)
+    private static ServletWebRequest request(String acceptEncoding, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Test case to verify that a body is sent uncompressed, with the ETag of its
+     * stamps, when the client does not accept gzip.
+     */
+    @Test
+    public void testUncompressedResponse() {
+        ResponseEntity<byte[]> response = new SerializedResponse(LARGE, STAMPS).toResponseEntity(request(null, null));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getBody(), LARGE);
+        Assert.assertEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
+        Assert.assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(response.getHeaders().getVary(), List.of(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Test case to verify that the gzipped body is sent, with its own ETag, when
+     * the client accepts gzip.
+     */
+    @Test
+    public void testGzippedResponse() throws IOException {
+        ResponseEntity<byte[]> response = new SerializedResponse(LARGE, STAMPS)
+                .toResponseEntity(request("gzip, deflate, br", null));
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), "gzip");
+        Assert.assertNotEquals(response.getHeaders().getETag(), EntityTags.of(STAMPS));
+        Assert.assertTrue(response.getBody().length < LARGE.length);
+        Assert.assertEquals(gunzip(response.getBody()), LARGE);
+    }
+
+    /**
+     * Test case to verify that small bodies are not compressed, even if the client
+     * accepts gzip.
+     */
+    @Test
+    public void testSmallBodyNotCompressed() {
+        SerializedResponse serialized = new SerializedResponse(SMALL, STAMPS);
+        ResponseEntity<byte[]> response = serialized.toResponseEntity(request("gzip", null));
+
+        Assert.assertNull(serialized.getGzip());
+        Assert.assertEquals(response.getBody(), SMALL);
+        Assert.assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * Test case to verify that 304/Not Modified is returned, without a body, when
+     * the client sends the ETag of the encoding it accepts, and that the ETag of
+     * the other encoding does not match.
+     */
+    @Test
+    public void testNotModified() {
+        SerializedResponse serialized = new SerializedResponse(LARGE, STAMPS);
+        String gzipEtag = serialized.toResponseEntity(request("gzip", null)).getHeaders().getETag();
+
+        ResponseEntity<byte[]> response = serialized.toResponseEntity(request("gzip", gzipEtag));
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertNull(response.getBody());
+
+        response = serialized.toResponseEntity(request(null, gzipEtag));
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(response.getBody(), LARGE);
+    }
+
+    /**
+     * Test case for parsing Accept-Encoding headers, including q values.
+     */
+    @Test
+    public void testAcceptsGzip() {
+        Assert.assertTrue(SerializedResponse.acceptsGzip("gzip"));
+        Assert.assertTrue(SerializedResponse.acceptsGzip("deflate, GZIP;q=0.5"));
+        Assert.assertTrue(SerializedResponse.acceptsGzip("*"));
+        Assert.assertFalse(SerializedResponse.acceptsGzip(null));
+        Assert.assertFalse(SerializedResponse.acceptsGzip("br, deflate"));
+        Assert.assertFalse(SerializedResponse.acceptsGzip("gzip;q=0"));
+        Assert.assertFalse(SerializedResponse.acceptsGzip("gzip; q=invalid"));
+    }
+}
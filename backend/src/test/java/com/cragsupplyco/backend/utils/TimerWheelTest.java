@@ -0,0 +1,76 @@
+package com.cragsupplyco.backend.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TimerWheelTest {
+
+    /**
+     * Test case to verify that keys are returned once the time passes their
+     * deadline (rounded up to a tick), and only once.
+     */
+    @Test
+    public void testAdvanceReturnsDueKeys() {
+        TimerWheel<String> wheel = new TimerWheel<>(8, 100, 0);
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 200);
+        wheel.schedule("c", 420);
+
+        Assert.assertTrue(wheel.advance(199).isEmpty()); // "a" is due at tick 2 (200ms)
+        Assert.assertEquals(new HashSet<>(wheel.advance(200)), new HashSet<>(Arrays.asList("a", "b")));
+        Assert.assertTrue(wheel.advance(300).isEmpty());
+        Assert.assertEquals(wheel.advance(1000), Collections.singletonList("c"));
+        Assert.assertEquals(wheel.size(), 0);
+    }
+
+    /**
+     * Test case to verify that a deadline more than a turn of the wheel away stays
+     * in its slot until the turn it is due, even when the wheel skips more than a
+     * turn at once.
+     */
+    @Test
+    public void testDeadlineBeyondOneTurn() {
+        TimerWheel<String> wheel = new TimerWheel<>(4, 100, 0);
+        wheel.schedule("far", 1000); // Tick 10, in the same slot as ticks 2 and 6
+
+        Assert.assertTrue(wheel.advance(200).isEmpty());
+        Assert.assertTrue(wheel.advance(600).isEmpty());
+        Assert.assertTrue(wheel.advance(999).isEmpty());
+        Assert.assertEquals(wheel.advance(5000), Collections.singletonList("far"));
+    }
+
+    /**
+     * Test case to verify that a cancelled key is not returned, that scheduling a
+     * key again replaces its deadline, and that a past deadline is due at the next
+     * tick.
+     */
+    @Test
+    public void testCancelAndReschedule() {
+        TimerWheel<Long> wheel = new TimerWheel<>(8, 100, 1000);
+        wheel.schedule(1L, 1200);
+        wheel.schedule(2L, 1200);
+        wheel.schedule(3L, 500); // Already passed
+
+        Assert.assertTrue(wheel.cancel(1L));
+        Assert.assertFalse(wheel.cancel(1L));
+        wheel.schedule(2L, 1500);
+
+        Assert.assertEquals(wheel.advance(1100), Collections.singletonList(3L));
+        Assert.assertTrue(wheel.advance(1400).isEmpty());
+        Assert.assertEquals(wheel.advance(1500), Collections.singletonList(2L));
+    }
+
+    /**
+     * Test case to verify that an invalid slot count or tick throws an
+     * IllegalArgumentException.
+     */
+    @Test
+    public void testInvalidArguments() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(0, 100, 0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(8, 0, 0));
+    }
+}
@@ -5,6 +5,7 @@ import "@testing-library/jest-dom";
 
 // Mock API call
 jest.mock("../api/warehouse");
+jest.mock("../api/stats");
 
 describe("App", () => {
   test("renders Sidebar component", () => {
@@ -16,6 +16,20 @@ export type InventoryDataType = {
   quantity: number;
 };
 
+export type InventoryPageType = {
+  items: InventoryDataType[];
+  nextCursor: number | null; // Pass as "after" to fetch the next page
+};
+
+export type InventoryQueryParams = {
+  after?: number;
+  limit?: number;
+  warehouse?: number;
+  product?: number;
+  category?: number;
+  size?: string;
+};
+
 export type InventoryFormValues = {
   id?: number;
   brand: string;
@@ -30,10 +44,12 @@ export type InventoryFormValues = {
 
 const API_ENDPOINT = "/inventory";
 
-// GET request to fetch all inventory items
-export const getInventory = async () => {
+// GET request to fetch a page of inventory items (optionally filtered)
+export const getInventory = async (
+  params: InventoryQueryParams = {}
+): Promise<InventoryPageType> => {
   try {
-    const response = await axiosInstance.get(API_ENDPOINT);
+    const response = await axiosInstance.get(API_ENDPOINT, { params });
     return response.data;
   } catch (e) {
     console.error("Error fetching data", e);
@@ -0,0 +1,40 @@
+import axiosInstance from "./api";
+
+export type WarehouseStatsDataType = {
+  id: number;
+  name: string;
+  currentCapacity: number;
+  maxCapacity: number;
+  utilization: number; // Current over max capacity, from 0 to 1
+  lowStockCount: number;
+};
+
+export type CategoryStatsDataType = {
+  id: number;
+  name: string;
+  units: number;
+  lowStockCount: number;
+};
+
+export type StatsDataType = {
+  currentCapacity: number;
+  maxCapacity: number;
+  utilization: number;
+  lowStockThreshold: number;
+  lowStockCount: number;
+  warehouses: WarehouseStatsDataType[];
+  categories: CategoryStatsDataType[];
+};
+
+const API_ENDPOINT = "/stats";
+
+// GET request to fetch the dashboard figures, aggregated by the server
+export const getStats = async (): Promise<StatsDataType> => {
+  try {
+    const response = await axiosInstance.get(API_ENDPOINT);
+    return response.data;
+  } catch (e) {
+    console.error("Error fetching data", e);
+    throw e;
+  }
+};
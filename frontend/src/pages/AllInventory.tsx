@@ -1,15 +1,17 @@
 import { useEffect, useState } from "react";
 import { DataTable, DataType } from "../components/dataTable/DataTable";
-import { ProductDataType, getProductsWithInventory } from "../api/product";
+import { ProductDataType, getProducts } from "../api/product";
 import { Breadcrumb } from "../components/breadcrumb/Breadcrumb";
 import inventoryIcon from "../assets/icons/inventory.svg";
 import { useLocation } from "react-router-dom";
 import { ButtonWithModal } from "../components/ButtonWithModal";
-import { Form } from "antd";
+import { Button, Form } from "antd";
 import { CategoryDataType, getCategories } from "../api/category";
 import { getWarehouses, WarehouseDataType } from "../api/warehouse";
 import {
   deleteInventoryById,
+  getInventory,
+  InventoryDataType,
   InventoryFormValues,
   postInventory,
   putInventory,
@@ -23,6 +25,8 @@ type props = {
   testId?: string;
 };
 
+const PAGE_SIZE = 100; // Inventory items fetched per page
+
 export const AllInventory = ({ testId }: props) => {
   const path = useLocation().pathname;
   const search = useLocation().search;
@@ -30,6 +34,11 @@ export const AllInventory = ({ testId }: props) => {
   const [form] = Form.useForm(); // Initialize form using Ant Design's Form hook
 
   const [inventory, setInventory] = useState<DataType[]>();
+  const [products, setProducts] = useState<Map<number, ProductDataType>>(
+    new Map()
+  );
+  const [nextCursor, setNextCursor] = useState<number | null>(null);
+  const [loadingMore, setLoadingMore] = useState<boolean>(false);
   const [categories, setCategories] = useState<CategoryDataType[] | null>(null);
   const [warehouses, setWarehouses] = useState<WarehouseDataType[] | null>(
     null
@@ -38,27 +47,44 @@ export const AllInventory = ({ testId }: props) => {
   const [error, setError] = useState<AxiosError | null>(null);
   const [showErrorOverlay, setShowErrorOverlay] = useState<boolean>(false);
 
-  // Fetch data for inventory, categories, and warehouses
+  // Build table rows from a page of inventory items and their products
+  const toRows = (
+    items: InventoryDataType[],
+    productsById: Map<number, ProductDataType>
+  ): DataType[] =>
+    items.flatMap((item) => {
+      const product = productsById.get(item.product);
+      if (!product) return []; // Product deleted since the list was fetched
+      return [
+        {
+          key: item.id,
+          brand: product.brand,
+          name: product.name,
+          description: product.description,
+          price: product.price,
+          warehouseName: item.warehouse,
+          categoryName: product.category,
+          size: item.size ?? "N/A",
+          quantity: item.quantity,
+        },
+      ];
+    });
+
+  // Fetch the first page of inventory, with products, categories, and warehouses
   const fetchData = async () => {
     try {
-      const productResult = await getProductsWithInventory();
-
-      if (productResult) {
-        const inventory = productResult.flatMap((product: ProductDataType) => {
-          return product.inventory.map((item) => ({
-            key: item.id,
-            brand: product.brand,
-            name: product.name,
-            description: product.description,
-            price: product.price,
-            warehouseName: item.warehouse,
-            categoryName: product.category,
-            size: item.size ?? "N/A",
-            quantity: item.quantity,
-          }));
-        });
-
-        setInventory(inventory);
+      const [inventoryPage, productResult] = await Promise.all([
+        getInventory({ limit: PAGE_SIZE }),
+        getProducts(),
+      ]);
+
+      if (inventoryPage && productResult) {
+        const productsById = new Map<number, ProductDataType>(
+          productResult.map((product: ProductDataType) => [product.id, product])
+        );
+        setProducts(productsById);
+        setInventory(toRows(inventoryPage.items, productsById));
+        setNextCursor(inventoryPage.nextCursor);
       }
 
       const categoriesResult = await getCategories();
@@ -77,6 +103,27 @@ export const AllInventory = ({ testId }: props) => {
     fetchData();
   }, []);
 
+  // Append the next page of inventory to the table
+  const fetchNextPage = async () => {
+    if (nextCursor === null) return;
+    setLoadingMore(true);
+    try {
+      const inventoryPage = await getInventory({
+        after: nextCursor,
+        limit: PAGE_SIZE,
+      });
+      setInventory((rows) => [
+        ...(rows ?? []),
+        ...toRows(inventoryPage.items, products),
+      ]);
+      setNextCursor(inventoryPage.nextCursor);
+    } catch (e) {
+      e instanceof AxiosError && setError(e);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Handle error display and error overlay
   useEffect(() => {
     if (error) {
@@ -168,6 +215,12 @@ export const AllInventory = ({ testId }: props) => {
             <InventoryForm categories={categories} warehouses={warehouses} />
           }
         />
+        {/* More items than the first page; fetched a page at a time */}
+        {nextCursor !== null && (
+          <Button loading={loadingMore} onClick={fetchNextPage}>
+            Load More
+          </Button>
+        )}
       </section>
       {/* Display error overlay if an error occurs and it's not a 404 error */}
       {showErrorOverlay && !error?.message.includes("404") && (
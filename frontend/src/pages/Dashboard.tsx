@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
 import { Card } from "antd";
-import { getWarehouses, WarehouseDataType } from "../api/warehouse";
+import { getStats, StatsDataType } from "../api/stats";
 import { ErrorPage } from "./ErrorPage";
 import { AxiosError } from "axios";
 import { ErrorOverlay } from "../components/ErrorOverlay";
@@ -9,30 +9,15 @@ type props = {
   testId?: string;
 };
 export const Dashboard = ({ testId }: props) => {
-  const [currentCapacity, setCurrentCapacity] = useState<number>(0);
-  const [totalCapacity, setTotalCapacity] = useState<number>(0);
+  const [stats, setStats] = useState<StatsDataType | null>(null);
   const [loading, setLoading] = useState<boolean>(true);
   const [error, setError] = useState<AxiosError | null>(null);
   const [showErrorOverlay, setShowErrorOverlay] = useState<boolean>(false);
 
-  // Fetch warehouse data and calculate total capacities
+  // Fetch the totals, aggregated by the server in one request
   const fetchData = async () => {
     try {
-      const warehouseResult = await getWarehouses();
-
-      const current = warehouseResult.reduce(
-        (sum: number, warehouse: WarehouseDataType) =>
-          sum + warehouse.currentCapacity,
-        0
-      );
-      setCurrentCapacity(current);
-
-      const capacity = warehouseResult.reduce(
-        (sum: number, warehouse: WarehouseDataType) =>
-          sum + warehouse.maxCapacity,
-        0
-      );
-      setTotalCapacity(capacity);
+      setStats(await getStats());
     } catch (e) {
       e instanceof AxiosError && setError(e);
     } finally {
@@ -69,15 +54,51 @@ export const Dashboard = ({ testId }: props) => {
         type="inner"
         title="Total Items in Inventory"
       >
-        <h1 style={{ padding: 20 }}>{currentCapacity}</h1>
+        <h1 style={{ padding: 20 }}>{stats?.currentCapacity ?? 0}</h1>
       </Card>
       <Card
         style={{ marginTop: 16 }}
         type="inner"
         title="Total Max Capacity"
       >
-        <h1 style={{ padding: 20 }}>{totalCapacity}</h1>
+        <h1 style={{ padding: 20 }}>{stats?.maxCapacity ?? 0}</h1>
       </Card>
+      <Card
+        style={{ marginTop: 16 }}
+        type="inner"
+        title={`Low Stock Items (${stats?.lowStockThreshold ?? 0} or fewer)`}
+      >
+        <h1 style={{ padding: 20 }}>{stats?.lowStockCount ?? 0}</h1>
+      </Card>
+      {/* Per-warehouse utilization and per-category units, when there are any */}
+      {!!stats?.warehouses.length && (
+        <Card
+          style={{ marginTop: 16 }}
+          type="inner"
+          title="Capacity Utilization by Warehouse"
+        >
+          {stats.warehouses.map((warehouse) => (
+            <p key={warehouse.id}>
+              {`${warehouse.name}: ${warehouse.currentCapacity} of ${
+                warehouse.maxCapacity
+              } (${Math.round(warehouse.utilization * 100)}%)`}
+            </p>
+          ))}
+        </Card>
+      )}
+      {!!stats?.categories.length && (
+        <Card
+          style={{ marginTop: 16 }}
+          type="inner"
+          title="Units by Category"
+        >
+          {stats.categories.map((category) => (
+            <p key={category.id}>
+              {`${category.name}: ${category.units} units, ${category.lowStockCount} low on stock`}
+            </p>
+          ))}
+        </Card>
+      )}
       {/* Display error overlay if an error occurs and it's not a 404 error */}
       {showErrorOverlay && !error?.message.includes("404") && (
         <div data-testid="error-overlay">
@@ -6,9 +6,9 @@ import { MemoryRouter, useLocation } from "react-router-dom";
 import { useScreenSize } from "../../context/ScreenSizeContext";
 import { getWarehouses } from "../../api/warehouse";
 import { getCategories } from "../../api/category";
-import { getProductsWithInventory } from "../../api/product";
+import { getProducts } from "../../api/product";
 import { generateMockAxiosError } from "../../test/__mocks__/axiosMock";
-import { deleteInventoryById } from "../../api/inventory";
+import { deleteInventoryById, getInventory } from "../../api/inventory";
 
 // Set up mocks
 jest.mock("../../context/ScreenSizeContext", () => ({
@@ -29,10 +29,11 @@ jest.mock("../../api/warehouse", () => ({
 }));
 
 jest.mock("../../api/product", () => ({
-  getProductsWithInventory: jest.fn(),
+  getProducts: jest.fn(),
 }));
 
 jest.mock("../../api/inventory", () => ({
+  getInventory: jest.fn(),
   putInventory: jest.fn(),
   deleteInventoryById: jest.fn(),
 }));
@@ -79,7 +80,7 @@ describe("All Inventory Page", () => {
         zipCode: "82042",
       },
     ]);
-    (getProductsWithInventory as jest.Mock).mockResolvedValue([
+    (getProducts as jest.Mock).mockResolvedValue([
       {
         id: 1,
         brand: "PeakPro",
@@ -88,7 +89,6 @@ describe("All Inventory Page", () => {
           "Durable and lightweight climbing rope, 60 meters long, perfect for lead climbing.",
         price: 199.99,
         category: "Ropes",
-        inventory: [{ id: 1, product: 1, warehouse: "CA1", quantity: 200 }],
       },
       {
         id: 2,
@@ -98,11 +98,15 @@ describe("All Inventory Page", () => {
           "High-performance climbing shoes with excellent grip and comfort.",
         price: 129.99,
         category: "Climbing Shoes",
-        inventory: [
-          { id: 2, product: 2, warehouse: "NY1", size: "42", quantity: 100 },
-        ],
       },
     ]);
+    (getInventory as jest.Mock).mockResolvedValue({
+      items: [
+        { id: 1, product: 1, warehouse: "CA1", quantity: 200 },
+        { id: 2, product: 2, warehouse: "NY1", size: "42", quantity: 100 },
+      ],
+      nextCursor: null,
+    });
   });
 
   test("should display loading state initially", () => {
@@ -135,7 +139,7 @@ describe("All Inventory Page", () => {
   });
 
   test("should display an error if fetching items fails", async () => {
-    (getProductsWithInventory as jest.Mock).mockRejectedValue(
+    (getInventory as jest.Mock).mockRejectedValue(
       generateMockAxiosError()
     );
 
@@ -169,7 +173,10 @@ describe("All Inventory Page", () => {
       const confirmDeleteButton = document.querySelector(
         "#confirm-delete-inventory-0"
       );
-      (getProductsWithInventory as jest.Mock).mockResolvedValue([]);
+      (getInventory as jest.Mock).mockResolvedValue({
+        items: [],
+        nextCursor: null,
+      });
       fireEvent.click(confirmDeleteButton!);
     });
 
@@ -180,6 +187,41 @@ describe("All Inventory Page", () => {
     });
   });
 
+  test("should load the next page of inventory", async () => {
+    (getInventory as jest.Mock)
+      .mockResolvedValueOnce({
+        items: [{ id: 1, product: 1, warehouse: "CA1", quantity: 200 }],
+        nextCursor: 1,
+      })
+      .mockResolvedValueOnce({
+        items: [
+          { id: 2, product: 2, warehouse: "NY1", size: "42", quantity: 100 },
+        ],
+        nextCursor: null,
+      });
+
+    render(
+      <MemoryRouter>
+        <AllInventory testId="all-inventory" />
+      </MemoryRouter>
+    );
+
+    // Click load more once the first page is displayed (an empty table
+    // also has 2 rows, the header and its "No data" row)
+    await waitFor(() => {
+      expect(screen.getByText("PeakPro")).toBeInTheDocument();
+      expect(screen.getAllByRole("row")).toHaveLength(2); // 1 result + 1 header row
+    });
+    fireEvent.click(screen.getByText("Load More"));
+
+    // Check that the next page was requested and appended
+    await waitFor(() => {
+      expect(getInventory).toHaveBeenLastCalledWith({ after: 1, limit: 100 });
+      expect(screen.getAllByRole("row")).toHaveLength(3);
+      expect(screen.queryByText("Load More")).toBeNull();
+    });
+  });
+
   test("should show an error if deleting inventory fails", async () => {
     (deleteInventoryById as jest.Mock).mockRejectedValue(
       generateMockAxiosError()
@@ -3,11 +3,21 @@ import "@guidepup/jest";
 import { render, screen, waitFor } from "@testing-library/react";
 import { Dashboard } from "../Dashboard";
 import { MemoryRouter } from "react-router-dom";
-import { getWarehouses } from "../../api/warehouse";
+import { getStats } from "../../api/stats";
 import { generateMockAxiosError } from "../../test/__mocks__/axiosMock";
 
 // Mock API call
-jest.mock("../../api/warehouse");
+jest.mock("../../api/stats");
+
+const stats = {
+  currentCapacity: 15,
+  maxCapacity: 300,
+  utilization: 0.05,
+  lowStockThreshold: 10,
+  lowStockCount: 3,
+  warehouses: [],
+  categories: [],
+};
 
 describe("Dashboard Page", () => {
   afterEach(() => {
@@ -25,10 +35,7 @@ describe("Dashboard Page", () => {
   });
 
   test("should display total inventory and total capacity", async () => {
-    (getWarehouses as jest.Mock).mockResolvedValue([
-      { id: 1, name: "Warehouse 1", maxCapacity: 100, currentCapacity: 10 },
-      { id: 2, name: "Warehouse 2", maxCapacity: 200, currentCapacity: 5 },
-    ]);
+    (getStats as jest.Mock).mockResolvedValue(stats);
 
     render(
       <MemoryRouter>
@@ -44,8 +51,38 @@ describe("Dashboard Page", () => {
     });
   });
 
+  test("should display utilization by warehouse and units by category", async () => {
+    (getStats as jest.Mock).mockResolvedValue({
+      ...stats,
+      warehouses: [
+        {
+          id: 1,
+          name: "Warehouse 1",
+          currentCapacity: 10,
+          maxCapacity: 100,
+          utilization: 0.1,
+          lowStockCount: 2,
+        },
+      ],
+      categories: [{ id: 1, name: "Ropes", units: 15, lowStockCount: 3 }],
+    });
+
+    render(
+      <MemoryRouter>
+        <Dashboard testId="dashboard" />
+      </MemoryRouter>
+    );
+
+    await waitFor(() => {
+      expect(screen.getByText("Warehouse 1: 10 of 100 (10%)")).toBeDefined();
+      expect(
+        screen.getByText("Ropes: 15 units, 3 low on stock")
+      ).toBeDefined();
+    });
+  });
+
   test("should display error if API calls fail", async () => {
-    (getWarehouses as jest.Mock).mockRejectedValue(generateMockAxiosError());
+    (getStats as jest.Mock).mockRejectedValue(generateMockAxiosError());
 
     render(
       <MemoryRouter>
@@ -59,10 +96,7 @@ describe("Dashboard Page", () => {
   });
 
   test("should match the inline snapshot of expected screen reader spoken phrases", async () => {
-    (getWarehouses as jest.Mock).mockResolvedValue([
-      { id: 1, name: "Warehouse 1", maxCapacity: 100, currentCapacity: 10 },
-      { id: 2, name: "Warehouse 2", maxCapacity: 200, currentCapacity: 5 },
-    ]);
+    (getStats as jest.Mock).mockResolvedValue(stats);
 
     render(
       <MemoryRouter>
@@ -79,6 +113,8 @@ describe("Dashboard Page", () => {
     "heading, 15, level 1",
     "Total Max Capacity",
     "heading, 300, level 1",
+    "Low Stock Items (10 or fewer)",
+    "heading, 3, level 1",
     "end of region",
     "end of document",
   ]